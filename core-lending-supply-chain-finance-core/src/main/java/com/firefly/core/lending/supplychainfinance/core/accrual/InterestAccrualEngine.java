@@ -0,0 +1,238 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.accrual;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.lifecycle.InvoiceStatusTransitions;
+import com.firefly.core.lending.supplychainfinance.core.pricing.AdvancePricingEngine;
+import com.firefly.core.lending.supplychainfinance.core.support.StreamingQuerySupport;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAccrualRun;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAccrualRepository;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAccrualRunRepository;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Accrues interest daily on every open advance, that is every advance whose invoice is still open and has no
+ * settlement, at its agreement's interest rate on an ACT/360 basis. Advances on cancelled, rejected or paid invoices,
+ * and on confirming invoices paid early, whose discount already covers the period, accrue nothing (see
+ * {@link #accruesInterest}).
+ *
+ * <p>Open advances are read with one streaming query in {@code (finance_type, advance_date, id)} order. They are
+ * cut into batches whose accruals are computed on the parallel scheduler, and the batches are written in order,
+ * each with a single multi-row {@code INSERT} in the same transaction as the run's checkpoint: the key of the last
+ * advance written. A run that is interrupted resumes by seeking past its checkpoint, and accruals already written
+ * for an advance and date are never written twice.
+ *
+ * <p>The accrued amount of a day is computed from the advance date rather than added to the previous day's, so a
+ * day missed or run late does not carry its rounding into later days.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InterestAccrualEngine {
+
+    private static final String OPEN_ADVANCES_SQL = """
+            SELECT a.id, a.finance_type::text AS finance_type, a.advance_date, a.currency::text AS currency,
+                   a.advance_amount, i.agreement_id, g.interest_rate
+            FROM supply_chain_finance_advance a
+            JOIN supply_chain_finance_invoice i ON i.id = a.invoice_id
+            JOIN supply_chain_finance_agreement g ON g.id = i.agreement_id
+            WHERE a.advance_date < :accrualDate
+              AND g.interest_rate > 0
+              AND (a.finance_type::text || ':' || i.status::text) <> ALL(:nonAccruingStatuses)
+              AND NOT EXISTS (SELECT 1 FROM supply_chain_finance_settlement s WHERE s.invoice_id = a.invoice_id)
+            """;
+
+    private static final String AFTER_CHECKPOINT_SQL = """
+              AND (a.finance_type, a.advance_date, a.id)
+                  > (CAST(:lastFinanceType AS finance_type), :lastAdvanceDate, :lastAdvanceId)
+            """;
+
+    private static final String ORDER_SQL = "ORDER BY a.finance_type, a.advance_date, a.id";
+
+    /**
+     * {@code FINANCE_TYPE:STATUS} for every pair in which an advance accrues no interest.
+     */
+    private static final String[] NON_ACCRUING_STATUSES = nonAccruingStatusKeys();
+
+    private final StreamingQuerySupport streamingQuery;
+    private final SupplyChainFinanceAccrualRepository accrualRepository;
+    private final SupplyChainFinanceAccrualRunRepository runRepository;
+    private final AdvancePricingEngine pricing;
+    private final TransactionalOperator transactionalOperator;
+    private final SupplyChainFinanceProperties properties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Starts or resumes the run of {@code accrualDate} in the background. A run already completed is not run again.
+     *
+     * @return a Mono emitting the run as it stands when started, or an IllegalStateException if a run is already
+     *         in progress on this instance
+     */
+    public Mono<SupplyChainFinanceAccrualRun> start(LocalDate accrualDate) {
+        if (!running.compareAndSet(false, true)) {
+            return Mono.error(new IllegalStateException("An accrual run is already in progress"));
+        }
+        return runRepository.startOrResume(accrualDate)
+                .doOnNext(run -> resume(run)
+                        .doFinally(signal -> running.set(false))
+                        .subscribe(null, e -> log.error("Accrual run for {} failed after {} accruals, it resumes from its checkpoint",
+                                accrualDate, run.getAccrualCount(), e)))
+                .doOnError(e -> running.set(false))
+                .doOnCancel(() -> running.set(false));
+    }
+
+    private Mono<Void> resume(SupplyChainFinanceAccrualRun run) {
+        if (run.getCompletedAt() != null) {
+            return Mono.empty();
+        }
+        if (run.getLastAdvanceId() != null) {
+            log.info("Resuming accrual run for {} after advance {}", run.getAccrualDate(), run.getLastAdvanceId());
+        }
+        long started = System.nanoTime();
+        return openAdvances(run)
+                .buffer(properties.getAccruals().getBatchSize())
+                .flatMapSequential(advances -> Mono.fromCallable(() -> accrue(advances, run.getAccrualDate()))
+                        .subscribeOn(Schedulers.parallel()), Schedulers.DEFAULT_POOL_SIZE)
+                .concatMap(batch -> write(run, batch))
+                .reduce(0L, Long::sum)
+                .flatMap(written -> runRepository.complete(run.getId())
+                        .doOnSuccess(rows -> log.info("Accrued interest as of {} on {} advances in {} ms",
+                                run.getAccrualDate(), written, (System.nanoTime() - started) / 1_000_000)))
+                .then();
+    }
+
+    private Flux<OpenAdvance> openAdvances(SupplyChainFinanceAccrualRun run) {
+        Map<String, Object> bindings = new HashMap<>();
+        bindings.put("accrualDate", run.getAccrualDate());
+        bindings.put("nonAccruingStatuses", NON_ACCRUING_STATUSES);
+        String sql = OPEN_ADVANCES_SQL;
+        if (run.getLastAdvanceId() != null) {
+            sql += AFTER_CHECKPOINT_SQL;
+            bindings.put("lastFinanceType", run.getLastFinanceType());
+            bindings.put("lastAdvanceDate", run.getLastAdvanceDate());
+            bindings.put("lastAdvanceId", run.getLastAdvanceId());
+        }
+        return streamingQuery.stream(sql + ORDER_SQL, bindings, InterestAccrualEngine::openAdvance);
+    }
+
+    /**
+     * @return whether an advance on an invoice of the given finance type accrues interest in the given status: the
+     *         invoice is open, and it is not a confirming invoice financed by paying the supplier early, whose
+     *         discount for the whole period was taken on that payment
+     */
+    static boolean accruesInterest(FinanceTypeEnum financeType, InvoiceStatusEnum status) {
+        return InvoiceStatusTransitions.isOpen(status)
+                && !(financeType == FinanceTypeEnum.CONFIRMING && status == InvoiceStatusEnum.FINANCED);
+    }
+
+    private static String[] nonAccruingStatusKeys() {
+        List<String> keys = new ArrayList<>();
+        for (FinanceTypeEnum financeType : FinanceTypeEnum.values()) {
+            for (InvoiceStatusEnum status : InvoiceStatusEnum.values()) {
+                if (!accruesInterest(financeType, status)) {
+                    keys.add(financeType.name() + ":" + status.name());
+                }
+            }
+        }
+        return keys.toArray(String[]::new);
+    }
+
+    private AccrualBatch accrue(List<OpenAdvance> advances, LocalDate accrualDate) {
+        int n = advances.size();
+        AccrualBatch batch = new AccrualBatch(new UUID[n], new UUID[n], new String[n], new String[n],
+                new BigDecimal[n], new BigDecimal[n], new BigDecimal[n], new BigDecimal[n], advances.get(n - 1));
+        for (int i = 0; i < n; i++) {
+            OpenAdvance advance = advances.get(i);
+            long days = AdvancePricingEngine.daysFinanced(advance.advanceDate(), accrualDate);
+            BigDecimal accrued = pricing.discountAmount(advance.amount(), advance.interestRate(), days);
+            BigDecimal accruedBefore = pricing.discountAmount(advance.amount(), advance.interestRate(), days - 1);
+            batch.advanceIds()[i] = advance.id();
+            batch.agreementIds()[i] = advance.agreementId();
+            batch.financeTypes()[i] = advance.financeType();
+            batch.currencies()[i] = advance.currency();
+            batch.principalAmounts()[i] = advance.amount();
+            batch.interestRates()[i] = advance.interestRate();
+            batch.dailyAmounts()[i] = accrued.subtract(accruedBefore);
+            batch.accruedAmounts()[i] = accrued;
+        }
+        return batch;
+    }
+
+    /**
+     * Writes the batch and moves the checkpoint past it in one transaction.
+     *
+     * @return a Mono emitting the number of accruals inserted
+     */
+    private Mono<Long> write(SupplyChainFinanceAccrualRun run, AccrualBatch batch) {
+        OpenAdvance last = batch.last();
+        return accrualRepository.insertBatch(run.getAccrualDate(), batch.advanceIds(), batch.agreementIds(),
+                        batch.financeTypes(), batch.currencies(), batch.principalAmounts(), batch.interestRates(),
+                        batch.dailyAmounts(), batch.accruedAmounts())
+                .flatMap(written -> runRepository.checkpoint(run.getId(), last.financeType(), last.advanceDate(), last.id(), written)
+                        .thenReturn(written.longValue()))
+                .as(transactionalOperator::transactional);
+    }
+
+    private static OpenAdvance openAdvance(Row row, RowMetadata metadata) {
+        return new OpenAdvance(
+                row.get("id", UUID.class),
+                row.get("finance_type", String.class),
+                row.get("advance_date", LocalDate.class),
+                row.get("currency", String.class),
+                row.get("advance_amount", BigDecimal.class),
+                row.get("agreement_id", UUID.class),
+                row.get("interest_rate", BigDecimal.class));
+    }
+
+    private record OpenAdvance(UUID id, String financeType, LocalDate advanceDate, String currency, BigDecimal amount,
+                               UUID agreementId, BigDecimal interestRate) {
+    }
+
+    /**
+     * Accruals of one batch as the column arrays of the insert statement.
+     */
+    private record AccrualBatch(UUID[] advanceIds, UUID[] agreementIds, String[] financeTypes, String[] currencies,
+                                BigDecimal[] principalAmounts, BigDecimal[] interestRates, BigDecimal[] dailyAmounts,
+                                BigDecimal[] accruedAmounts, OpenAdvance last) {
+    }
+}
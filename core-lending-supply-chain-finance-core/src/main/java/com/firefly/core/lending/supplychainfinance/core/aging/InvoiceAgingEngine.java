@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.aging;
+
+import com.firefly.core.lending.supplychainfinance.core.lifecycle.InvoiceStatusTransitions;
+import com.firefly.core.lending.supplychainfinance.core.support.StreamingQuerySupport;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.InvoiceAgingDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Computes invoice aging buckets per counterparty and currency with one aggregate query over the open invoices of
+ * an agreement, read through {@code idx_invoice_agreement}.
+ *
+ * <p>Nothing is kept in memory, so every instance answers from the database as it stands, including invoices
+ * written by other instances, bulk loads and reconciliation.
+ */
+@Component
+@RequiredArgsConstructor
+public class InvoiceAgingEngine {
+
+    private static final String[] CLOSED_STATUSES = Arrays.stream(InvoiceStatusEnum.values())
+            .filter(status -> !InvoiceStatusTransitions.isOpen(status))
+            .map(Enum::name)
+            .toArray(String[]::new);
+
+    /**
+     * Buckets by days past due as of {@code :asOf}: not yet due, 1-30, 31-60, 61-90 and over 90.
+     */
+    private static final String AGING_SQL = """
+            SELECT counterparty_id, currency::text AS currency,
+                   COALESCE(SUM(invoice_amount) FILTER (WHERE due_date >= :asOf), 0) AS current_amount,
+                   COALESCE(SUM(invoice_amount) FILTER (WHERE due_date < :asOf AND due_date >= :asOf - 30), 0) AS days_1_to_30,
+                   COALESCE(SUM(invoice_amount) FILTER (WHERE due_date < :asOf - 30 AND due_date >= :asOf - 60), 0) AS days_31_to_60,
+                   COALESCE(SUM(invoice_amount) FILTER (WHERE due_date < :asOf - 60 AND due_date >= :asOf - 90), 0) AS days_61_to_90,
+                   COALESCE(SUM(invoice_amount) FILTER (WHERE due_date < :asOf - 90), 0) AS over_90_days,
+                   SUM(invoice_amount) AS total,
+                   COUNT(*) AS invoice_count
+            FROM supply_chain_finance_invoice
+            WHERE agreement_id = :agreementId
+              AND status::text <> ALL(:closedStatuses)
+              AND due_date IS NOT NULL
+              AND invoice_amount IS NOT NULL
+            """;
+
+    private static final String COUNTERPARTY_SQL = """
+              AND counterparty_id = :counterpartyId
+            """;
+
+    private static final String GROUP_SQL = """
+            GROUP BY counterparty_id, currency
+            ORDER BY counterparty_id, currency::text""";
+
+    private final StreamingQuerySupport streamingQuery;
+
+    /**
+     * @param agreementId the agreement whose buckets are computed
+     * @param counterpartyId restricts the result to one counterparty, or null for all
+     * @param asOf the day days past due are counted to
+     * @return one entry per counterparty and currency with open invoices, ordered by counterparty and currency
+     */
+    public Flux<InvoiceAgingDTO> agingOf(UUID agreementId, UUID counterpartyId, LocalDate asOf) {
+        Map<String, Object> bindings = new HashMap<>();
+        bindings.put("agreementId", agreementId);
+        bindings.put("asOf", asOf);
+        bindings.put("closedStatuses", CLOSED_STATUSES);
+        String sql = AGING_SQL;
+        if (counterpartyId != null) {
+            sql += COUNTERPARTY_SQL;
+            bindings.put("counterpartyId", counterpartyId);
+        }
+        return streamingQuery.stream(sql + GROUP_SQL, bindings,
+                (row, metadata) -> aging(row, agreementId, asOf));
+    }
+
+    private static InvoiceAgingDTO aging(Row row, UUID agreementId, LocalDate asOf) {
+        return InvoiceAgingDTO.builder()
+                .agreementId(agreementId)
+                .counterpartyId(row.get("counterparty_id", UUID.class))
+                .currency(CurrencyCodeEnum.valueOf(row.get("currency", String.class)))
+                .asOf(asOf)
+                .current(row.get("current_amount", BigDecimal.class))
+                .days1To30(row.get("days_1_to_30", BigDecimal.class))
+                .days31To60(row.get("days_31_to_60", BigDecimal.class))
+                .days61To90(row.get("days_61_to_90", BigDecimal.class))
+                .over90Days(row.get("over_90_days", BigDecimal.class))
+                .total(row.get("total", BigDecimal.class))
+                .invoiceCount(row.get("invoice_count", Long.class).intValue())
+                .build();
+    }
+}
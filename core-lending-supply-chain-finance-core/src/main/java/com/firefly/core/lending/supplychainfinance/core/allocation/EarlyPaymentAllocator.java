@@ -0,0 +1,200 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.allocation;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Chooses which early-payment candidates to pay so that the yield earned is as high as possible without the
+ * cash paid exceeding a budget or any supplier's cap.
+ *
+ * <p>This is a 0/1 knapsack with a second capacity per supplier, too large to solve exactly at hundreds of
+ * thousands of candidates. Candidates are first taken greedily by yield per unit of cash, skipping those that
+ * no longer fit, which is close to optimal when each invoice is small next to the budget. Until the time limit,
+ * a selected candidate is then swapped for an unselected one that earns more and still fits, and the budget
+ * freed is filled again. Amounts are compared as longs at scale 4; the whole run is O(n log n) plus the time
+ * limit.
+ */
+@Component
+public class EarlyPaymentAllocator {
+
+    private static final int AMOUNT_SCALE = 4;
+    private static final int DEADLINE_CHECK_INTERVAL = 4096;
+
+    /**
+     * @param supplierCapOf the most cash a supplier may receive, or null for no cap
+     * @param timeLimit time spent improving on the greedy selection
+     * @return the selected candidates, highest yield per unit of cash first
+     */
+    public List<EarlyPaymentCandidate> allocate(List<EarlyPaymentCandidate> candidates, BigDecimal budget,
+                                                Function<UUID, BigDecimal> supplierCapOf, Duration timeLimit) {
+        long deadline = System.nanoTime() + timeLimit.toNanos();
+        return new Run(candidates, budget, supplierCapOf).allocate(deadline);
+    }
+
+    /**
+     * @return {@code amount} in units of {@code 10^-4}, rounded down, saturating at {@link Long#MAX_VALUE}
+     */
+    private static long units(BigDecimal amount) {
+        if (amount == null) {
+            return Long.MAX_VALUE;
+        }
+        BigInteger units = amount.setScale(AMOUNT_SCALE, RoundingMode.DOWN).unscaledValue();
+        return units.bitLength() < Long.SIZE ? units.longValue() : (units.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE);
+    }
+
+    /**
+     * State of one allocation; candidates are referred to by their index in the input list.
+     */
+    private static final class Run {
+
+        private final List<EarlyPaymentCandidate> candidates;
+        private final long[] cost;
+        private final long[] yield;
+        private final int[] supplier;
+        private final long[] remainingCap;
+        private final boolean[] selected;
+        private final int[] order;
+        private long remainingBudget;
+        private int checks;
+
+        Run(List<EarlyPaymentCandidate> candidates, BigDecimal budget, Function<UUID, BigDecimal> supplierCapOf) {
+            int n = candidates.size();
+            this.candidates = candidates;
+            this.cost = new long[n];
+            this.yield = new long[n];
+            this.supplier = new int[n];
+            this.selected = new boolean[n];
+            this.remainingBudget = units(budget);
+
+            Map<UUID, Integer> supplierIndex = new HashMap<>();
+            List<Long> caps = new ArrayList<>();
+            double[] density = new double[n];
+            for (int i = 0; i < n; i++) {
+                EarlyPaymentCandidate candidate = candidates.get(i);
+                cost[i] = units(candidate.cost());
+                yield[i] = units(candidate.yield());
+                supplier[i] = supplierIndex.computeIfAbsent(candidate.supplierId(), id -> {
+                    caps.add(units(supplierCapOf.apply(id)));
+                    return caps.size() - 1;
+                });
+                density[i] = cost[i] > 0 ? (double) yield[i] / cost[i] : Double.MAX_VALUE;
+            }
+            this.remainingCap = caps.stream().mapToLong(Long::longValue).toArray();
+            this.order = IntStream.range(0, n)
+                    .filter(i -> yield[i] > 0 && cost[i] >= 0)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble((Integer i) -> -density[i]).thenComparingInt(i -> i))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        List<EarlyPaymentCandidate> allocate(long deadline) {
+            fill();
+            if (swap(deadline)) {
+                fill();
+            }
+            List<EarlyPaymentCandidate> result = new ArrayList<>();
+            for (int i : order) {
+                if (selected[i]) {
+                    result.add(candidates.get(i));
+                }
+            }
+            return result;
+        }
+
+        private void fill() {
+            for (int i : order) {
+                if (!selected[i] && cost[i] <= remainingBudget && cost[i] <= remainingCap[supplier[i]]) {
+                    take(i);
+                }
+            }
+        }
+
+        /**
+         * Replaces selected candidates, lowest yield first, by unselected ones that earn more and fit in their place.
+         *
+         * @return whether any candidate was swapped
+         */
+        private boolean swap(long deadline) {
+            int[] byYield = Arrays.stream(order)
+                    .filter(i -> selected[i])
+                    .boxed()
+                    .sorted(Comparator.comparingLong((Integer i) -> yield[i]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            boolean swapped = false;
+            for (int in : order) {
+                if (selected[in]) {
+                    continue;
+                }
+                for (int out : byYield) {
+                    if (yield[out] >= yield[in]) {
+                        break;
+                    }
+                    if (++checks % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                        return swapped;
+                    }
+                    if (selected[out] && fitsInPlaceOf(in, out)) {
+                        release(out);
+                        take(in);
+                        swapped = true;
+                        break;
+                    }
+                }
+            }
+            return swapped;
+        }
+
+        private boolean fitsInPlaceOf(int in, int out) {
+            long extraCost = cost[in] - cost[out];
+            if (extraCost > remainingBudget) {
+                return false;
+            }
+            return supplier[in] == supplier[out]
+                    ? extraCost <= remainingCap[supplier[in]]
+                    : cost[in] <= remainingCap[supplier[in]];
+        }
+
+        private void take(int i) {
+            selected[i] = true;
+            remainingBudget -= cost[i];
+            remainingCap[supplier[i]] -= cost[i];
+        }
+
+        private void release(int i) {
+            selected[i] = false;
+            remainingBudget += cost[i];
+            remainingCap[supplier[i]] += cost[i];
+        }
+    }
+}
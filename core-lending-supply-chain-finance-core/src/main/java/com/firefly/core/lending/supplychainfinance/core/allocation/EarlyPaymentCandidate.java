@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.allocation;
+
+import com.firefly.core.lending.supplychainfinance.core.pricing.AdvancePrice;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * An invoice that may be paid early, priced as of the planned payment date.
+ */
+public record EarlyPaymentCandidate(UUID invoiceId, UUID supplierId, LocalDate dueDate, AdvancePrice price) {
+
+    /**
+     * @return the cash paid to the supplier if the invoice is paid early
+     */
+    public BigDecimal cost() {
+        return price.netAmount();
+    }
+
+    /**
+     * @return the discount and fees earned by paying the invoice early
+     */
+    public BigDecimal yield() {
+        return price.discountAmount().add(price.feeAmount());
+    }
+}
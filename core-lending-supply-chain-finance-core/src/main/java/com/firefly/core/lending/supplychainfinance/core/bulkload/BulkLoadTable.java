@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.bulkload;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * How rows of type {@code T} are bulk loaded into a table.
+ *
+ * @param table the table loaded
+ * @param columns the columns written, in the order of {@code values}
+ * @param values the column values of a row; nulls are loaded as NULL
+ * @param referenceColumn the column identifying a row to the caller, reported with rejected rows
+ * @param rejectionReason an SQL expression over the staged row {@code s} evaluating to the reason the row is
+ *                        rejected, or NULL if it can be loaded; window functions over the staging table may be used
+ *                        to find duplicates within the load
+ * @param followUp an SQL statement run after the insert, in the same transaction, which may read the loaded rows
+ *                 from the staging table {@value CopyBulkLoader#STAGING_TABLE}, or null
+ */
+public record BulkLoadTable<T>(String table, List<String> columns, Function<T, Object[]> values, String referenceColumn,
+                               String rejectionReason, String followUp) {
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.bulkload;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.events.BulkLoadedEvent;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BulkItemResultDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BulkLoadReportDTO;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.R2dbcException;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Wrapped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Loads a stream of rows into a table with the PostgreSQL COPY protocol.
+ *
+ * <p>Rows are checked by the caller's validation as they arrive; those it rejects are reported and the others are
+ * encoded in COPY text format and streamed into a temporary staging table on a dedicated connection, so the input
+ * is consumed at the pace of the database and never held in memory. Once the input is complete, the staged rows the
+ * table's {@link BulkLoadTable#rejectionReason() rejection reason} rejects, such as rows referencing missing rows or
+ * duplicating existing ones, are deleted from the staging table and reported, and the rest are inserted into the
+ * table with a single statement, followed by the table's {@link BulkLoadTable#followUp() follow-up} statement. The
+ * whole load is one transaction: either every accepted row is loaded, or none.
+ *
+ * <p>No change event is published per row. Once the load has committed a single {@link BulkLoadedEvent} is, so that
+ * the in-memory exposure and due-date views re-read the table instead of waiting for their next recompute.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CopyBulkLoader {
+
+    public static final String STAGING_TABLE = "scf_bulk_load";
+    private static final String ROW_INDEX = "row_index";
+
+    private final ConnectionFactory connectionFactory;
+    private final SupplyChainFinanceProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param validation returns the reason a row is rejected, or null if it may be loaded
+     * @return a Mono emitting the report of the load once it is committed, or an IllegalArgumentException if the
+     *         database rejects a row the checks let through, in which case nothing is loaded
+     */
+    public <T> Mono<BulkLoadReportDTO> load(BulkLoadTable<T> table, Flux<T> rows, Function<T, String> validation) {
+        Report report = new Report(table.table(), properties.getBulkLoad().getMaxReportedRejections());
+        Flux<ByteBuf> data = rows
+                .index()
+                .doOnNext(row -> report.received++)
+                .filter(row -> {
+                    String reason = validation.apply(row.getT2());
+                    if (reason != null) {
+                        report.reject(row.getT1(), referenceOf(table, row.getT2()), reason);
+                    }
+                    return reason == null;
+                })
+                .map(row -> encode(row.getT1(), table.values().apply(row.getT2())))
+                .buffer(properties.getBulkLoad().getChunkSize())
+                .map(lines -> Unpooled.wrappedBuffer(String.join("", lines).getBytes(StandardCharsets.UTF_8)));
+        long started = System.nanoTime();
+        return Mono.usingWhen(Mono.from(connectionFactory.create()),
+                        connection -> load(unwrap(connection), table, data, report),
+                        Connection::close,
+                        (connection, e) -> rollbackAndClose(connection),
+                        CopyBulkLoader::rollbackAndClose)
+                .onErrorMap(CopyBulkLoader::isRejectedData, e -> new IllegalArgumentException(
+                        "Bulk load rejected by the database, nothing was loaded: " + e.getMessage(), e))
+                .doOnNext(loaded -> log.info("Bulk loaded {} of {} rows into {} in {} ms, {} rejected", loaded.getLoadedCount(),
+                        loaded.getReceivedCount(), table.table(), (System.nanoTime() - started) / 1_000_000, loaded.getRejectedCount()))
+                .doOnNext(loaded -> {
+                    if (loaded.getLoadedCount() > 0) {
+                        eventPublisher.publishEvent(new BulkLoadedEvent(table.table(), loaded.getLoadedCount()));
+                    }
+                });
+    }
+
+    private <T> Mono<BulkLoadReportDTO> load(PostgresqlConnection connection, BulkLoadTable<T> table, Flux<ByteBuf> data,
+                                             Report report) {
+        String columns = String.join(", ", table.columns());
+        return Mono.from(connection.beginTransaction())
+                .then(execute(connection, "CREATE TEMPORARY TABLE " + STAGING_TABLE + " (" + ROW_INDEX
+                        + " BIGINT NOT NULL, LIKE " + table.table() + " INCLUDING DEFAULTS) ON COMMIT DROP"))
+                .then(connection.copyIn("COPY " + STAGING_TABLE + " (" + ROW_INDEX + ", " + columns + ") FROM STDIN", data))
+                // Temporary tables are not analyzed automatically; without statistics the checks below plan badly
+                .then(execute(connection, "ANALYZE " + STAGING_TABLE))
+                .thenMany(connection.createStatement(rejectionSql(table)).execute())
+                .flatMap(result -> result.map((row, metadata) -> {
+                    report.reject(row.get(0, Long.class), row.get(2, String.class), row.get(1, String.class));
+                    return Boolean.TRUE;
+                }))
+                .then(Mono.from(connection.createStatement("INSERT INTO " + table.table() + " (" + columns + ") SELECT "
+                                + columns + " FROM " + STAGING_TABLE + " ORDER BY " + ROW_INDEX).execute())
+                        .flatMap(result -> Mono.from(result.getRowsUpdated())))
+                .flatMap(loaded -> (table.followUp() != null ? execute(connection, table.followUp()) : Mono.just(0L))
+                        .then(Mono.from(connection.commitTransaction()))
+                        .then(Mono.fromSupplier(() -> report.toDTO(loaded))));
+    }
+
+    /**
+     * Deletes the rejected rows from the staging table, returning their index, reason and reference.
+     */
+    private static String rejectionSql(BulkLoadTable<?> table) {
+        return "DELETE FROM " + STAGING_TABLE + " d USING (SELECT s." + ROW_INDEX + ", " + table.rejectionReason()
+                + " AS reason FROM " + STAGING_TABLE + " s) r WHERE d." + ROW_INDEX + " = r." + ROW_INDEX
+                + " AND r.reason IS NOT NULL RETURNING d." + ROW_INDEX + ", r.reason, d." + table.referenceColumn();
+    }
+
+    /**
+     * @return whether the database rejected the data itself: a value it cannot read, such as a status missing from
+     *         its enum type (SQLSTATE class 22), or a violated constraint (class 23)
+     */
+    static boolean isRejectedData(Throwable e) {
+        if (!(e instanceof R2dbcException r2dbc) || r2dbc.getSqlState() == null) {
+            return false;
+        }
+        return r2dbc.getSqlState().startsWith("22") || r2dbc.getSqlState().startsWith("23");
+    }
+
+    private static Mono<Void> rollbackAndClose(Connection connection) {
+        return Mono.from(connection.rollbackTransaction())
+                .onErrorResume(e -> Mono.empty())
+                .then(Mono.from(connection.close()));
+    }
+
+    private static Mono<Long> execute(PostgresqlConnection connection, String sql) {
+        return connection.createStatement(sql).execute()
+                .flatMap(Result::getRowsUpdated)
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * @return the PostgreSQL connection behind the pooled connection
+     */
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped) {
+            current = wrapped.unwrap();
+        }
+        if (!(current instanceof PostgresqlConnection postgresql)) {
+            throw new IllegalStateException("Bulk loads require a PostgreSQL connection, got " + connection.getClass().getName());
+        }
+        return postgresql;
+    }
+
+    private static <T> String referenceOf(BulkLoadTable<T> table, T row) {
+        Object[] values = table.values().apply(row);
+        int position = table.columns().indexOf(table.referenceColumn());
+        return position >= 0 && values[position] != null ? values[position].toString() : null;
+    }
+
+    /**
+     * @return the row as a line of COPY text format: tab-separated values, NULL as {@code \N}
+     */
+    static String encode(long index, Object[] values) {
+        StringBuilder line = new StringBuilder(64 + values.length * 16).append(index);
+        for (Object value : values) {
+            line.append('\t');
+            if (value == null) {
+                line.append("\\N");
+            } else if (value instanceof BigDecimal amount) {
+                line.append(amount.toPlainString());
+            } else if (value instanceof Enum<?> constant) {
+                line.append(constant.name());
+            } else {
+                escape(value.toString(), line);
+            }
+        }
+        return line.append('\n').toString();
+    }
+
+    private static void escape(String value, StringBuilder line) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                default -> line.append(c);
+            }
+        }
+    }
+
+    /**
+     * Counts of one load. Rows pass through one at a time, so it is only ever updated by one thread at a time.
+     */
+    private static final class Report {
+
+        private final String table;
+        private final int maxReported;
+        private final List<BulkItemResultDTO> rejections = new ArrayList<>();
+        private long received;
+        private long rejected;
+
+        Report(String table, int maxReported) {
+            this.table = table;
+            this.maxReported = maxReported;
+        }
+
+        void reject(long index, String reference, String reason) {
+            rejected++;
+            if (rejections.size() < maxReported) {
+                rejections.add(BulkItemResultDTO.failure(index, reference, reason));
+            }
+        }
+
+        BulkLoadReportDTO toDTO(long loaded) {
+            rejections.sort((a, b) -> Long.compare(a.getIndex(), b.getIndex()));
+            return BulkLoadReportDTO.builder()
+                    .table(table)
+                    .receivedCount(received)
+                    .loadedCount(loaded)
+                    .rejectedCount(rejected)
+                    .rejections(rejections)
+                    .build();
+        }
+    }
+}
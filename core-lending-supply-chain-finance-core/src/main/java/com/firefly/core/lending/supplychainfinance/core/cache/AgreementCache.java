@@ -0,0 +1,96 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.cache;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.events.AgreementChangedEvent;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAgreement;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAgreementRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Read-through cache of agreements by id and by agreement number, bounded in size and age.
+ *
+ * <p>Concurrent misses for the same key share one database read. Entries are evicted on every
+ * {@link AgreementChangedEvent}, which is published once the changing transaction has committed; a read
+ * that was in flight when its entry was evicted is not cached.
+ *
+ * <p>Hits, misses and evictions are published as the {@code cache.*} meters of the {@code agreements}
+ * and {@code agreement-numbers} caches. Every read returns its own copy of the cached entity, so callers
+ * may modify what they get without affecting other readers.
+ */
+@Component
+public class AgreementCache {
+
+    private final SupplyChainFinanceAgreementRepository repository;
+    private final AsyncCache<UUID, SupplyChainFinanceAgreement> byId;
+    private final AsyncCache<String, UUID> idByNumber;
+
+    public AgreementCache(SupplyChainFinanceAgreementRepository repository, SupplyChainFinanceProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.repository = repository;
+        SupplyChainFinanceProperties.Cache config = properties.getCache();
+        this.byId = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(config.getAgreementMaximumSize())
+                .expireAfterWrite(config.getAgreementTtl())
+                .recordStats()
+                .<UUID, SupplyChainFinanceAgreement>buildAsync(), "agreements");
+        this.idByNumber = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(config.getAgreementMaximumSize())
+                .expireAfterWrite(config.getAgreementTtl())
+                .recordStats()
+                .<String, UUID>buildAsync(), "agreement-numbers");
+    }
+
+    /**
+     * @return a Mono emitting a copy of the agreement, or an empty Mono if it does not exist
+     */
+    public Mono<SupplyChainFinanceAgreement> findById(UUID id) {
+        return Mono.fromFuture(() -> byId.get(id, (key, executor) -> repository.findById(key).toFuture()), true)
+                .map(cached -> cached.toBuilder().build());
+    }
+
+    /**
+     * @return a Mono emitting a copy of the agreement, or an empty Mono if no agreement has this number
+     */
+    public Mono<SupplyChainFinanceAgreement> findByAgreementNumber(String agreementNumber) {
+        return Mono.fromFuture(() -> idByNumber.get(agreementNumber, (key, executor) -> repository.findByAgreementNumber(key)
+                        .map(SupplyChainFinanceAgreement::getId)
+                        .toFuture()), true)
+                .flatMap(id -> findById(id)
+                        // The number of an agreement can change; a stale mapping falls back to the repository
+                        .filter(agreement -> agreementNumber.equals(agreement.getAgreementNumber()))
+                        .switchIfEmpty(Mono.defer(() -> {
+                            idByNumber.synchronous().invalidate(agreementNumber);
+                            return repository.findByAgreementNumber(agreementNumber);
+                        })));
+    }
+
+    @EventListener
+    public void onAgreementChanged(AgreementChangedEvent event) {
+        byId.synchronous().invalidate(event.agreementId());
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.commands;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs commands that write an agreement row one at a time per agreement, so that writes to one agreement are
+ * ordered in memory instead of queueing on the agreement's row lock with a pooled connection held each.
+ *
+ * <p>Every agreement with pending commands has a lane of its own, created by its first command and dropped once
+ * its queue is empty. A lane runs its commands strictly in submission order, each in its own transaction started
+ * only when the command's turn comes, so a queued command holds no connection and a slow agreement never delays
+ * another one.
+ *
+ * <p>Lanes order the commands of one instance only. Commands are therefore still written to be correct against
+ * concurrent writers on other instances, with conditional statements or row locks; the lanes just keep an
+ * instance's own writers off the row lock. Writes that do not touch the agreement row, such as those of
+ * advances and settlements, do not go through the lanes.
+ *
+ * <p>A command must not submit to the lane it runs on and wait for the result, since that lane only starts
+ * the inner command once the outer one has finished.
+ */
+@Slf4j
+@Component
+public class AgreementCommandLanes {
+
+    private final TransactionalOperator transactionalOperator;
+    private final int queueCapacity;
+    private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+
+    public AgreementCommandLanes(TransactionalOperator transactionalOperator, SupplyChainFinanceProperties properties) {
+        this.transactionalOperator = transactionalOperator;
+        this.queueCapacity = properties.getCommands().getQueueCapacity();
+    }
+
+    /**
+     * Runs {@code command} in its own transaction once every command submitted before it for the same agreement
+     * has finished. A null {@code agreementId} runs the command at once, in its own transaction.
+     *
+     * @return a Mono emitting the command's result, or an IllegalStateException if the agreement's queue is full
+     */
+    public <T> Mono<T> submit(UUID agreementId, Supplier<Mono<T>> command) {
+        if (agreementId == null) {
+            return Mono.defer(command).as(transactionalOperator::transactional);
+        }
+        return Mono.create(sink -> enqueue(new Command<>(agreementId, command, sink)));
+    }
+
+    /**
+     * Same as {@link #submit(UUID, Supplier)} for a command whose agreement is looked up first. If the lookup is
+     * empty, typically because the row the command targets does not exist, the command runs at once.
+     */
+    public <T> Mono<T> submit(Mono<UUID> agreementId, Supplier<Mono<T>> command) {
+        return agreementId.map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(id -> submit(id.orElse(null), command));
+    }
+
+    private void enqueue(Command<?> command) {
+        boolean[] started = new boolean[1];
+        boolean[] rejected = new boolean[1];
+        // A lane exists while it has a command running; its queue is only touched inside the map's atomic operations
+        lanes.compute(command.agreementId(), (agreementId, lane) -> {
+            if (lane == null) {
+                started[0] = true;
+                return new Lane();
+            }
+            if (lane.queue.size() >= queueCapacity) {
+                rejected[0] = true;
+            } else {
+                lane.queue.add(command);
+            }
+            return lane;
+        });
+        if (rejected[0]) {
+            command.sink().error(new IllegalStateException(
+                    "Too many pending commands for agreement " + command.agreementId() + ", retry later"));
+        } else if (started[0]) {
+            run(command);
+        }
+    }
+
+    private void run(Command<?> command) {
+        command.run().subscribe(null, e -> {
+            log.error("Agreement command of {} failed outside its transaction", command.agreementId(), e);
+            runNext(command.agreementId());
+        }, () -> runNext(command.agreementId()));
+    }
+
+    /**
+     * Runs the next command of an agreement's lane, or drops the lane if its queue is empty.
+     */
+    private void runNext(UUID agreementId) {
+        Command<?>[] next = new Command<?>[1];
+        lanes.computeIfPresent(agreementId, (id, lane) -> {
+            next[0] = lane.queue.poll();
+            return next[0] != null ? lane : null;
+        });
+        if (next[0] != null) {
+            run(next[0]);
+        }
+    }
+
+    /**
+     * The commands of an agreement queued behind the one running.
+     */
+    private static final class Lane {
+
+        private final Queue<Command<?>> queue = new ArrayDeque<>();
+    }
+
+    private final class Command<T> {
+
+        private final UUID agreementId;
+        private final Supplier<Mono<T>> work;
+        private final MonoSink<T> sink;
+        private volatile boolean cancelled;
+
+        Command(UUID agreementId, Supplier<Mono<T>> work, MonoSink<T> sink) {
+            this.agreementId = agreementId;
+            this.work = work;
+            this.sink = sink;
+            sink.onCancel(() -> cancelled = true);
+        }
+
+        UUID agreementId() {
+            return agreementId;
+        }
+
+        MonoSink<T> sink() {
+            return sink;
+        }
+
+        Mono<Void> run() {
+            if (cancelled) {
+                return Mono.empty();
+            }
+            return Mono.defer(work)
+                    .as(transactionalOperator::transactional)
+                    .doOnSuccess(sink::success)
+                    .doOnError(sink::error)
+                    .onErrorResume(e -> Mono.empty())
+                    .then();
+        }
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.config;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Tunables for the supply chain finance service, bound from the {@code supply-chain-finance} prefix.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "supply-chain-finance")
+public class SupplyChainFinanceProperties {
+
+    private Bulk bulk = new Bulk();
+
+    private Pagination pagination = new Pagination();
+
+    private Export export = new Export();
+
+    private DueDates dueDates = new DueDates();
+
+    private Limits limits = new Limits();
+
+    private Exposure exposure = new Exposure();
+
+    private Cache cache = new Cache();
+
+    private AgreementExpiry agreementExpiry = new AgreementExpiry();
+
+    private Fx fx = new Fx();
+
+    private Commands commands = new Commands();
+
+    private Quotes quotes = new Quotes();
+
+    private EarlyPayments earlyPayments = new EarlyPayments();
+
+    private Accruals accruals = new Accruals();
+
+    private Disbursements disbursements = new Disbursements();
+
+    private Reconciliation reconciliation = new Reconciliation();
+
+    private Statements statements = new Statements();
+
+    private BulkLoad bulkLoad = new BulkLoad();
+
+    @Data
+    public static class Bulk {
+
+        /**
+         * Number of rows written per insert batch (and per transaction) during bulk ingestion.
+         */
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class Pagination {
+
+        /**
+         * Page size used by cursor listings when the request does not specify one.
+         */
+        private int defaultSize = 50;
+
+        /**
+         * Largest page size a cursor listing accepts.
+         */
+        private int maxSize = 1000;
+    }
+
+    @Data
+    public static class Export {
+
+        /**
+         * Rows fetched from the database per round-trip while streaming an export.
+         */
+        private int fetchSize = 500;
+    }
+
+    @Data
+    public static class DueDates {
+
+        /**
+         * Whether the in-process due-date scheduler runs.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Cron expression of the daily tick that loads new due dates and fires the events that became due.
+         */
+        private String cron = "0 5 0 * * *";
+
+        /**
+         * How many days of upcoming due dates are kept loaded in the timing wheel.
+         */
+        private int horizonDays = 60;
+
+        /**
+         * Rows read per keyset page while loading due dates.
+         */
+        private int loadPageSize = 1000;
+
+        /**
+         * Largest number of invoices carried by one due-date event.
+         */
+        private int eventBatchSize = 500;
+
+        /**
+         * Days after the due date on which an unpaid invoice is reported overdue.
+         */
+        private int overdueAfterDays = 1;
+
+        /**
+         * Days after the due date on which a late fee becomes applicable.
+         */
+        private int lateFeeAfterDays = 30;
+
+        /**
+         * Days after the due date on which an unpaid invoice is reported in default.
+         */
+        private int defaultAfterDays = 90;
+    }
+
+    @Data
+    public static class Limits {
+
+        /**
+         * Seconds after which an uncommitted reservation is released when the request does not specify a time to live.
+         */
+        private int defaultTtlSeconds = 300;
+
+        /**
+         * When a reservation cannot be served from headroom already held in memory, this many times its amount
+         * is taken from the agreement in addition, so that the following reservations need no database write.
+         */
+        private int leaseFactor = 8;
+
+        /**
+         * Seconds without reservations after which headroom held in memory is given back to the agreement.
+         */
+        private int leaseIdleSeconds = 30;
+
+        /**
+         * Seconds for which the limit leased by an instance stays recorded without being renewed. An instance that
+         * cannot renew its lease for half this time stops using it; once it expires, any instance returns its
+         * amount to the agreements.
+         */
+        private int leaseTtlSeconds = 60;
+
+        /**
+         * Interval between sweeps that release expired reservations, give back idle headroom, renew this instance's
+         * lease and reclaim expired ones.
+         */
+        private Duration sweepInterval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Exposure {
+
+        /**
+         * Interval between writes of the accumulated exposure changes to the counterparty table.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Cron expression of the full recompute that verifies the maintained exposure against the invoices and advances.
+         */
+        private String verifyCron = "0 30 2 * * *";
+
+        /**
+         * Number of counterparty partitions the full recompute queries in parallel; each holds one connection.
+         */
+        private int verifyPartitions = 8;
+    }
+
+    @Data
+    public static class Cache {
+
+        /**
+         * Largest number of agreements kept in the agreement cache.
+         */
+        private long agreementMaximumSize = 10_000;
+
+        /**
+         * Time after which a cached agreement is read again from the database, whether or not it changed.
+         */
+        private Duration agreementTtl = Duration.ofMinutes(5);
+
+        /**
+         * Largest number of agreements whose compiled fee schedule is kept.
+         */
+        private long feeScheduleMaximumSize = 10_000;
+
+        /**
+         * Time after which a compiled fee schedule is rebuilt, to pick up fee changes made by other instances.
+         */
+        private Duration feeScheduleTtl = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class AgreementExpiry {
+
+        /**
+         * Whether the agreement expiry sweeper runs.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Cron expression of the daily sweep that closes or suspends agreements past their end date.
+         */
+        private String cron = "0 15 0 * * *";
+
+        /**
+         * Agreements expired per statement; each batch is its own short transaction.
+         */
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class Fx {
+
+        /**
+         * Currency exposure rollups are converted to when the request does not name one.
+         */
+        private CurrencyCodeEnum reportingCurrency = CurrencyCodeEnum.EUR;
+
+        /**
+         * Interval between checks for FX rate versions published by other instances.
+         */
+        private Duration refreshInterval = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Commands {
+
+        /**
+         * Commands an agreement's lane holds behind the running one before rejecting new ones.
+         */
+        private int queueCapacity = 1024;
+    }
+
+    @Data
+    public static class Quotes {
+
+        /**
+         * Invoices a single quote request may name.
+         */
+        private int maxInvoices = 50_000;
+
+        /**
+         * Invoices priced per task on the parallel scheduler.
+         */
+        private int chunkSize = 1_000;
+    }
+
+    @Data
+    public static class EarlyPayments {
+
+        /**
+         * Time an allocation spends improving on its first, greedy selection.
+         */
+        private Duration allocationTimeLimit = Duration.ofMillis(500);
+    }
+
+    @Data
+    public static class Accruals {
+
+        /**
+         * Whether the daily interest accrual run is scheduled; runs can still be started through the API.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Cron expression of the daily run that accrues interest on open advances.
+         */
+        private String cron = "0 45 0 * * *";
+
+        /**
+         * Accruals written per insert statement; each batch commits together with the run's checkpoint.
+         */
+        private int batchSize = 2000;
+    }
+
+    @Data
+    public static class Disbursements {
+
+        /**
+         * Most payments a disbursement batch, and so one payment file, may hold.
+         */
+        private int maxPayments = 100_000;
+
+        /**
+         * Advances stamped with the batch reference per update statement; each claim commits on its own.
+         */
+        private int claimBatchSize = 5_000;
+
+        /**
+         * Name of the party initiating the payment files.
+         */
+        private String initiatingPartyName = "Firefly Supply Chain Finance";
+
+        /**
+         * Name, IBAN and BIC of the account the advances are paid out from; payment files cannot be written without
+         * the IBAN and BIC.
+         */
+        private String debtorName = "Firefly Supply Chain Finance";
+        private String debtorIban;
+        private String debtorBic;
+    }
+
+    @Data
+    public static class Reconciliation {
+
+        /**
+         * Most receipts one reconciliation accepts; all receipts are held in memory while they are matched.
+         */
+        private int maxReceipts = 1_000_000;
+
+        /**
+         * Receipts matched per task on the parallel scheduler.
+         */
+        private int matchChunkSize = 10_000;
+
+        /**
+         * Settlements written per insert statement; each batch commits on its own.
+         */
+        private int writeBatchSize = 2_000;
+
+        /**
+         * Largest shortfall of a receipt against the invoice whose number it quotes, as a fraction of the invoice
+         * amount, for it to still be matched; covers bank charges deducted by the payer.
+         */
+        private BigDecimal amountTolerance = new BigDecimal("0.01");
+    }
+
+    @Data
+    public static class Statements {
+
+        /**
+         * Statement receipts reconciled together; the statement is read one window ahead of the settlements written,
+         * so this bounds the receipts held in memory whatever the size of the statement.
+         */
+        private int windowSize = 100_000;
+
+        /**
+         * Request body buffers read ahead of the parser.
+         */
+        private int readAheadBuffers = 16;
+    }
+
+    @Data
+    public static class BulkLoad {
+
+        /**
+         * Rows encoded per COPY data message.
+         */
+        private int chunkSize = 1_000;
+
+        /**
+         * Rejected rows listed in the report of a load; all of them are counted.
+         */
+        private int maxReportedRejections = 10_000;
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.disbursement;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.DisbursementBatchDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.DisbursementTotalDTO;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the ISO 20022 customer credit transfer initiation (pain.001.001.03) of a disbursement batch one payment
+ * at a time, with one payment instruction per currency.
+ *
+ * <p>The group header and every payment instruction header carry the number and sum of the payments below them,
+ * so the writer is given the batch totals up front and the payments must then arrive ordered by currency, as
+ * ordered in the totals. Each call returns the bytes of the document written since the last chunk was handed out,
+ * or none while less than a chunk is buffered, so memory use stays at about one chunk whatever the batch size.
+ *
+ * <p>A writer holds the state of one document and is not thread-safe.
+ */
+public class Pain001Writer {
+
+    private static final String NAMESPACE = "urn:iso:std:iso:20022:tech:xsd:pain.001.001.03";
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+    private static final byte[] NOTHING = new byte[0];
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int PAYMENTS_PER_FLUSH = 64;
+
+    // Maximum lengths of the schema's Max35Text, Max70Text and Max140Text
+    private static final int MAX_ID = 35;
+    private static final int MAX_NAME = 70;
+    private static final int MAX_REMITTANCE = 140;
+
+    private final DisbursementBatchDTO batch;
+    private final DebtorAccount debtor;
+    private final LocalDate executionDate;
+    private final Map<String, DisbursementTotalDTO> totalsByCurrency = new HashMap<>();
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(CHUNK_SIZE * 2);
+    private final XMLStreamWriter xml;
+
+    private String currency;
+    private int unflushed;
+
+    /**
+     * The account the payments are made from and the party initiating them.
+     */
+    public record DebtorAccount(String initiatingPartyName, String name, String iban, String bic) {
+    }
+
+    public Pain001Writer(DisbursementBatchDTO batch, DebtorAccount debtor, LocalDate executionDate) {
+        this.batch = batch;
+        this.debtor = debtor;
+        this.executionDate = executionDate;
+        for (DisbursementTotalDTO total : batch.getTotals()) {
+            totalsByCurrency.put(total.getCurrency().name(), total);
+        }
+        try {
+            this.xml = OUTPUT_FACTORY.createXMLStreamWriter(buffer, StandardCharsets.UTF_8.name());
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to create payment file writer", e);
+        }
+    }
+
+    /**
+     * Writes the document header and the group header.
+     *
+     * @return the bytes written so far
+     */
+    public byte[] start() {
+        try {
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            xml.writeStartElement("Document");
+            xml.writeDefaultNamespace(NAMESPACE);
+            xml.writeStartElement("CstmrCdtTrfInitn");
+
+            xml.writeStartElement("GrpHdr");
+            element("MsgId", batch.getReference());
+            element("CreDtTm", LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            element("NbOfTxs", String.valueOf(batch.getPaymentCount()));
+            element("CtrlSum", amount(batch.getTotals().stream()
+                    .map(DisbursementTotalDTO::getAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add)));
+            xml.writeStartElement("InitgPty");
+            element("Nm", text(debtor.initiatingPartyName(), MAX_NAME));
+            xml.writeEndElement();
+            xml.writeEndElement();
+            return drain();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to write payment file header", e);
+        }
+    }
+
+    /**
+     * Writes the credit transfer of one payment, opening the payment instruction of its currency first if it is
+     * the currency's first payment.
+     *
+     * @return the bytes written since the last chunk if a chunk is full, or an empty array
+     */
+    public byte[] payment(DisbursementPayment payment) {
+        try {
+            if (!payment.currency().equals(currency)) {
+                if (currency != null) {
+                    xml.writeEndElement();
+                }
+                startPaymentInstruction(payment.currency());
+            }
+            xml.writeStartElement("CdtTrfTxInf");
+            xml.writeStartElement("PmtId");
+            element("EndToEndId", payment.advanceId().toString().replace("-", ""));
+            xml.writeEndElement();
+            xml.writeStartElement("Amt");
+            xml.writeStartElement("InstdAmt");
+            xml.writeAttribute("Ccy", payment.currency());
+            xml.writeCharacters(amount(payment.amount()));
+            xml.writeEndElement();
+            xml.writeEndElement();
+            xml.writeStartElement("Cdtr");
+            element("Nm", text(payment.creditorName(), MAX_NAME));
+            if (payment.creditorId() != null) {
+                xml.writeStartElement("Id");
+                xml.writeStartElement("OrgId");
+                xml.writeStartElement("Othr");
+                element("Id", text(payment.creditorId(), MAX_ID));
+                xml.writeEndElement();
+                xml.writeEndElement();
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.writeStartElement("RmtInf");
+            element("Ustrd", text(payment.invoiceNumber(), MAX_REMITTANCE));
+            xml.writeEndElement();
+            xml.writeEndElement();
+
+            if (++unflushed < PAYMENTS_PER_FLUSH) {
+                return NOTHING;
+            }
+            unflushed = 0;
+            xml.flush();
+            return buffer.size() >= CHUNK_SIZE ? drain() : NOTHING;
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to write payment of advance " + payment.advanceId(), e);
+        }
+    }
+
+    /**
+     * Closes the last payment instruction and the document.
+     *
+     * @return the remaining bytes of the document
+     */
+    public byte[] finish() {
+        try {
+            if (currency != null) {
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            byte[] rest = drain();
+            xml.close();
+            return rest;
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to write payment file trailer", e);
+        }
+    }
+
+    private void startPaymentInstruction(String paymentCurrency) throws XMLStreamException {
+        DisbursementTotalDTO total = totalsByCurrency.get(paymentCurrency);
+        if (total == null) {
+            throw new IllegalStateException("Payment in " + paymentCurrency + " is not part of the batch totals");
+        }
+        currency = paymentCurrency;
+        xml.writeStartElement("PmtInf");
+        element("PmtInfId", text(batch.getReference() + "-" + paymentCurrency, MAX_ID));
+        element("PmtMtd", "TRF");
+        element("NbOfTxs", String.valueOf(total.getPaymentCount()));
+        element("CtrlSum", amount(total.getAmount()));
+        element("ReqdExctnDt", executionDate.format(DateTimeFormatter.ISO_LOCAL_DATE));
+        xml.writeStartElement("Dbtr");
+        element("Nm", text(debtor.name(), MAX_NAME));
+        xml.writeEndElement();
+        xml.writeStartElement("DbtrAcct");
+        xml.writeStartElement("Id");
+        element("IBAN", debtor.iban());
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeStartElement("DbtrAgt");
+        xml.writeStartElement("FinInstnId");
+        element("BIC", debtor.bic());
+        xml.writeEndElement();
+        xml.writeEndElement();
+        element("ChrgBr", "SLEV");
+    }
+
+    private void element(String name, String value) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(value);
+        xml.writeEndElement();
+    }
+
+    private byte[] drain() throws XMLStreamException {
+        xml.flush();
+        byte[] chunk = buffer.toByteArray();
+        buffer.reset();
+        return chunk;
+    }
+
+    private static String amount(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static String text(String value, int maxLength) {
+        if (value == null || value.isBlank()) {
+            return "NOTPROVIDED";
+        }
+        String trimmed = value.strip();
+        return trimmed.length() <= maxLength ? trimmed : trimmed.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.events;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAdvanceDTO;
+
+import java.util.UUID;
+
+/**
+ * Published by the advance service after an advance has been created, changed or deleted.
+ * Listeners that track advances in memory keep their own previous state per advance id.
+ *
+ * @param advanceId the unique identifier of the advance
+ * @param advance the advance as written, or null if it was deleted
+ */
+public record AdvanceChangedEvent(UUID advanceId, SupplyChainFinanceAdvanceDTO advance) {
+
+    public static AdvanceChangedEvent saved(SupplyChainFinanceAdvanceDTO advance) {
+        return new AdvanceChangedEvent(advance.getId(), advance);
+    }
+
+    public static AdvanceChangedEvent deleted(UUID advanceId) {
+        return new AdvanceChangedEvent(advanceId, null);
+    }
+
+    public boolean isDeleted() {
+        return advance == null;
+    }
+}
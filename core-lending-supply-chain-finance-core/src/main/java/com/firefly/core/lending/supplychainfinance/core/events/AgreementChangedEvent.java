@@ -0,0 +1,29 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.events;
+
+import java.util.UUID;
+
+/**
+ * Published after an agreement row has been changed or deleted, by the agreement service or by the
+ * limit reservation engine writing its limits.
+ *
+ * @param agreementId the unique identifier of the agreement
+ */
+public record AgreementChangedEvent(UUID agreementId) {
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.events;
+
+/**
+ * Published once a bulk load has committed, in place of the change events of the rows it wrote. Listeners keeping
+ * a view of the table re-read what they need from the database.
+ *
+ * @param table the table loaded
+ * @param loadedCount the number of rows loaded
+ */
+public record BulkLoadedEvent(String table, long loadedCount) {
+}
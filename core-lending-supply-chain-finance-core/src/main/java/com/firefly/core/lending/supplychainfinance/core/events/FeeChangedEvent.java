@@ -0,0 +1,27 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.events;
+
+import java.util.UUID;
+
+/**
+ * Published once a fee of an agreement was created, updated or deleted and committed, so that its compiled fee
+ * schedule is rebuilt on next use. Publishing before commit would let a concurrent miss re-cache the old fees.
+ */
+public record FeeChangedEvent(UUID agreementId) {
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.events;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceInvoiceDTO;
+
+import java.util.UUID;
+
+/**
+ * Published by the invoice service after an invoice has been created, changed or deleted.
+ * Listeners that track invoices in memory keep their own previous state per invoice id.
+ *
+ * @param invoiceId the unique identifier of the invoice
+ * @param invoice the invoice as written, or null if it was deleted
+ */
+public record InvoiceChangedEvent(UUID invoiceId, SupplyChainFinanceInvoiceDTO invoice) {
+
+    public static InvoiceChangedEvent saved(SupplyChainFinanceInvoiceDTO invoice) {
+        return new InvoiceChangedEvent(invoice.getId(), invoice);
+    }
+
+    public static InvoiceChangedEvent deleted(UUID invoiceId) {
+        return new InvoiceChangedEvent(invoiceId, null);
+    }
+
+    public boolean isDeleted() {
+        return invoice == null;
+    }
+}
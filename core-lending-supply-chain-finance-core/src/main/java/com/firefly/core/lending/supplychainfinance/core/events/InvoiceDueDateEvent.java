@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.events;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceInvoiceDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published by the due-date scheduler for a batch of open invoices that reached the same
+ * due-date milestone on the same day.
+ *
+ * @param type the milestone that was reached
+ * @param date the day on which it was reached
+ * @param invoices the invoices, re-read from the database just before publishing
+ */
+public record InvoiceDueDateEvent(Type type, LocalDate date, List<SupplyChainFinanceInvoiceDTO> invoices) {
+
+    public enum Type {
+        /**
+         * The due date has passed without the invoice being paid.
+         */
+        OVERDUE,
+        /**
+         * The invoice is overdue by the configured late-fee grace period.
+         */
+        LATE_FEE,
+        /**
+         * The invoice is overdue by the configured default period.
+         */
+        DEFAULT
+    }
+}
@@ -0,0 +1,534 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.exposure;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.events.AdvanceChangedEvent;
+import com.firefly.core.lending.supplychainfinance.core.events.BulkLoadedEvent;
+import com.firefly.core.lending.supplychainfinance.core.events.InvoiceChangedEvent;
+import com.firefly.core.lending.supplychainfinance.core.lifecycle.InvoiceStatusTransitions;
+import com.firefly.core.lending.supplychainfinance.core.support.StreamingQuerySupport;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAdvanceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceInvoiceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+import com.firefly.core.lending.supplychainfinance.models.repositories.CounterpartyRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains the current exposure of every counterparty: the advanced amount of its open invoices.
+ * Exposure is also kept per currency, for counterparties and for agreements, to be converted by
+ * {@link ExposureRollupEngine}.
+ *
+ * <p>Open invoices and their advances are read once at startup. From then on every
+ * {@link InvoiceChangedEvent} and {@link AdvanceChangedEvent} is turned into an exposure delta for the
+ * counterparties involved, which is applied in memory immediately and accumulated for the database.
+ * The accumulated deltas are written to {@code counterparty.current_exposure} by one statement per flush,
+ * however many changes a counterparty received in between. Reading the exposure of a counterparty is a
+ * single map lookup.
+ *
+ * <p>The in-memory exposure only sees the changes published on this instance. Changes made through other
+ * instances, or written without events, reach it with the next recompute, which a {@link BulkLoadedEvent} starts
+ * at once. The values read here, and the limit checks built on them, are therefore approximate: exact for a single
+ * instance that makes every change, and otherwise as of the last recompute plus the changes seen locally since.
+ *
+ * <p>A periodic full recompute queries the exposure of all counterparties in parallel hash partitions, sets the
+ * stored value of every drifted counterparty to the recomputed one with an absolute {@code UPDATE}, and corrects
+ * the in-memory value. Each partition runs in a transaction holding an advisory lock, so one instance at a time
+ * recomputes it and others skip it. Counterparties with changes this instance has not flushed yet, or changed
+ * shortly before the recompute, are left out of both corrections. Amounts per currency are not part of the
+ * recompute.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CounterpartyExposureAggregator {
+
+    private static final String[] CLOSED_STATUSES = Arrays.stream(InvoiceStatusEnum.values())
+            .filter(status -> !InvoiceStatusTransitions.isOpen(status))
+            .map(Enum::name)
+            .toArray(String[]::new);
+
+    private static final String OPEN_INVOICES_SQL = """
+            SELECT id, agreement_id, counterparty_id FROM supply_chain_finance_invoice
+            WHERE status::text <> ALL(:closedStatuses)""";
+
+    private static final String OPEN_ADVANCES_SQL = """
+            SELECT a.id, a.invoice_id, a.advance_amount, a.currency::text AS currency FROM supply_chain_finance_advance a
+            JOIN supply_chain_finance_invoice i ON i.id = a.invoice_id
+            WHERE i.status::text <> ALL(:closedStatuses)""";
+
+    private static final String LOCK_PARTITION_SQL = """
+            SELECT pg_try_advisory_xact_lock(hashtext('counterparty_exposure_recompute'), :partition) AS locked""";
+
+    private static final String RECOMPUTE_PARTITION_SQL = """
+            WITH computed AS (
+                SELECT c.id, COALESCE(SUM(a.advance_amount), 0) AS computed_exposure
+                FROM counterparty c
+                LEFT JOIN supply_chain_finance_invoice i
+                    ON i.counterparty_id = c.id AND i.status::text <> ALL(:closedStatuses)
+                LEFT JOIN supply_chain_finance_advance a ON a.invoice_id = i.id
+                WHERE (hashtext(c.id::text) & 2147483647) % :partitions = :partition
+                GROUP BY c.id
+            ), corrected AS (
+                UPDATE counterparty c
+                SET current_exposure = r.computed_exposure
+                FROM computed r
+                WHERE c.id = r.id
+                  AND c.id <> ALL(:unsettled)
+                  AND c.current_exposure IS DISTINCT FROM r.computed_exposure
+                RETURNING c.id
+            )
+            SELECT r.id, r.computed_exposure, c.id IS NOT NULL AS corrected
+            FROM computed r
+            LEFT JOIN corrected c ON c.id = r.id""";
+
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    /**
+     * Counterparties changed this recently before a recompute started are not corrected by it, since the
+     * transaction behind the change may not have been visible to the recompute's queries.
+     */
+    private static final long SETTLE_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private final StreamingQuerySupport streamingQuery;
+    private final CounterpartyRepository counterpartyRepository;
+    private final SupplyChainFinanceProperties properties;
+    private final TransactionalOperator transactionalOperator;
+
+    private final Map<UUID, BigDecimal> exposures = new ConcurrentHashMap<>();
+    private final Map<UUID, CurrencyAmounts> counterpartyExposuresByCurrency = new ConcurrentHashMap<>();
+    private final Map<UUID, CurrencyAmounts> agreementExposuresByCurrency = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final AtomicBoolean verifying = new AtomicBoolean();
+    private final AtomicBoolean verifyRequested = new AtomicBoolean();
+    private volatile boolean ready;
+
+    // Guarded by this
+    private final Map<UUID, OpenInvoice> openInvoices = new HashMap<>();
+    private final Map<UUID, UUID> invoiceOfAdvance = new HashMap<>();
+    private final Map<UUID, Long> lastChangeNanos = new HashMap<>();
+    private Map<UUID, BigDecimal> pendingDeltas = new HashMap<>();
+    private Set<UUID> flushingCounterparties = Set.of();
+    private final Set<UUID> changedWhileLoading = new HashSet<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long started = System.nanoTime();
+        Map<String, Object> bindings = Map.of("closedStatuses", CLOSED_STATUSES);
+        streamingQuery.stream(OPEN_INVOICES_SQL, bindings,
+                        (row, metadata) -> new LoadedInvoice(row.get("id", UUID.class), row.get("agreement_id", UUID.class),
+                                row.get("counterparty_id", UUID.class)))
+                .buffer(LOAD_BATCH_SIZE)
+                .doOnNext(this::applyLoadedInvoices)
+                .thenMany(streamingQuery.stream(OPEN_ADVANCES_SQL, bindings,
+                        (row, metadata) -> new LoadedAdvance(row.get("id", UUID.class), row.get("invoice_id", UUID.class),
+                                row.get("advance_amount", BigDecimal.class), CurrencyCodeEnum.fromCode(row.get("currency", String.class)))))
+                .buffer(LOAD_BATCH_SIZE)
+                .doOnNext(this::applyLoadedAdvances)
+                .then(Mono.fromRunnable(() -> finishLoading(started)))
+                // The stored exposure was not maintained before this instance loaded; bring it in line now
+                .then(Mono.defer(this::verify))
+                .subscribe(null, e -> log.error("Counterparty exposure warm-up failed", e));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return the advanced amount of the counterparty's open invoices, zero if it has none
+     */
+    public BigDecimal exposureOf(UUID counterpartyId) {
+        return exposures.getOrDefault(counterpartyId, BigDecimal.ZERO);
+    }
+
+    /**
+     * @return the advanced amount of the counterparty's open invoices per advance currency
+     */
+    public CurrencyAmounts exposureByCurrencyOf(UUID counterpartyId) {
+        return counterpartyExposuresByCurrency.getOrDefault(counterpartyId, CurrencyAmounts.EMPTY);
+    }
+
+    /**
+     * @return the advanced amount of the agreement's open invoices per advance currency
+     */
+    public CurrencyAmounts agreementExposureByCurrencyOf(UUID agreementId) {
+        return agreementExposuresByCurrency.getOrDefault(agreementId, CurrencyAmounts.EMPTY);
+    }
+
+    @EventListener
+    public synchronized void onInvoiceChanged(InvoiceChangedEvent event) {
+        if (!ready) {
+            changedWhileLoading.add(event.invoiceId());
+        }
+        SupplyChainFinanceInvoiceDTO invoice = event.invoice();
+        if (event.isDeleted() || !InvoiceStatusTransitions.isOpen(invoice.getStatus())) {
+            closeInvoice(event.invoiceId());
+        } else {
+            openInvoice(event.invoiceId(), invoice.getAgreementId(), invoice.getCounterpartyId(), true);
+        }
+    }
+
+    @EventListener
+    public synchronized void onAdvanceChanged(AdvanceChangedEvent event) {
+        removeAdvance(event.advanceId());
+        SupplyChainFinanceAdvanceDTO advance = event.advance();
+        boolean tracked = !event.isDeleted()
+                && addAdvance(event.advanceId(), advance.getInvoiceId(), advance.getAdvanceAmount(), advance.getCurrency(), true);
+        // An advance of an invoice not loaded yet is left to the load, which reads it after this change
+        if (!ready && (event.isDeleted() || tracked)) {
+            changedWhileLoading.add(event.advanceId());
+        }
+    }
+
+    /**
+     * Recomputes the exposure once a bulk load has committed, since its rows were written without change events.
+     * If a recompute is already running, another one follows it.
+     */
+    @EventListener
+    public void onBulkLoaded(BulkLoadedEvent event) {
+        verifyRequested.set(true);
+        verifyIfRequested();
+    }
+
+    /**
+     * Writes the exposure changes accumulated since the previous flush. A call made while a previous one is
+     * still writing is skipped.
+     */
+    @Scheduled(fixedDelayString = "${supply-chain-finance.exposure.flush-interval:PT1S}")
+    public Mono<Void> flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        Map<UUID, BigDecimal> deltas = takePendingDeltas();
+        if (deltas.isEmpty()) {
+            flushing.set(false);
+            return Mono.empty();
+        }
+        UUID[] ids = deltas.keySet().toArray(UUID[]::new);
+        BigDecimal[] amounts = new BigDecimal[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            amounts[i] = deltas.get(ids[i]);
+        }
+        return counterpartyRepository.addExposureDeltas(ids, amounts)
+                .doOnSuccess(rows -> finishFlush(deltas, false))
+                .doOnError(e -> {
+                    log.warn("Could not write exposure of {} counterparties, retrying with the next flush: {}",
+                            ids.length, e.getMessage());
+                    finishFlush(deltas, true);
+                })
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> flushing.set(false))
+                .then();
+    }
+
+    /**
+     * Recomputes the exposure of every counterparty from the invoices and advances and corrects drift.
+     * A call made while a previous one is still running, or before the startup load finished, is skipped,
+     * as are the partitions another instance is recomputing.
+     *
+     * @return a Mono completing once every partition has been compared
+     */
+    @Scheduled(cron = "${supply-chain-finance.exposure.verify-cron:0 30 2 * * *}")
+    public Mono<Void> verify() {
+        if (!ready || !verifying.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        // Whatever was requested so far is committed and seen by this recompute
+        verifyRequested.set(false);
+        long started = System.nanoTime();
+        int partitions = properties.getExposure().getVerifyPartitions();
+        return Flux.range(0, partitions)
+                .flatMap(partition -> recompute(partition, partitions, started), partitions)
+                .reduce(Drift.NONE, Drift::plus)
+                .doOnNext(drift -> {
+                    long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+                    if (drift.inMemory() + drift.stored() > 0) {
+                        log.warn("Exposure recompute of {} counterparties in {} ms corrected {} in memory and {} stored",
+                                drift.counterparties(), elapsedMillis, drift.inMemory(), drift.stored());
+                    } else {
+                        log.info("Exposure recompute of {} counterparties in {} ms found no drift",
+                                drift.counterparties(), elapsedMillis);
+                    }
+                })
+                .then()
+                .doFinally(signal -> {
+                    verifying.set(false);
+                    verifyIfRequested();
+                });
+    }
+
+    private void verifyIfRequested() {
+        if (ready && verifyRequested.get()) {
+            verify().subscribe(null, e -> log.error("Counterparty exposure recompute after a bulk load failed", e));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush().block(Duration.ofSeconds(10));
+    }
+
+    private synchronized void applyLoadedInvoices(List<LoadedInvoice> invoices) {
+        for (LoadedInvoice invoice : invoices) {
+            // A change published after the row was read is newer than the row
+            if (!changedWhileLoading.contains(invoice.id())) {
+                openInvoice(invoice.id(), invoice.agreementId(), invoice.counterpartyId(), false);
+            }
+        }
+    }
+
+    private synchronized void applyLoadedAdvances(List<LoadedAdvance> advances) {
+        for (LoadedAdvance advance : advances) {
+            if (!changedWhileLoading.contains(advance.id())) {
+                removeAdvance(advance.id());
+                addAdvance(advance.id(), advance.invoiceId(), advance.amount(), advance.currency(), false);
+            }
+        }
+    }
+
+    private synchronized void finishLoading(long started) {
+        ready = true;
+        changedWhileLoading.clear();
+        log.info("Counterparty exposure loaded {} open invoices and {} advances in {} ms",
+                openInvoices.size(), invoiceOfAdvance.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void openInvoice(UUID invoiceId, UUID agreementId, UUID counterpartyId, boolean changed) {
+        OpenInvoice invoice = openInvoices.get(invoiceId);
+        if (invoice == null) {
+            openInvoices.put(invoiceId, new OpenInvoice(agreementId, counterpartyId));
+        } else if (!Objects.equals(invoice.agreementId, agreementId) || !Objects.equals(invoice.counterpartyId, counterpartyId)) {
+            invoice.advances.values().forEach(advance -> apply(invoice, advance, false, changed));
+            invoice.agreementId = agreementId;
+            invoice.counterpartyId = counterpartyId;
+            invoice.advances.values().forEach(advance -> apply(invoice, advance, true, changed));
+        }
+    }
+
+    private void closeInvoice(UUID invoiceId) {
+        OpenInvoice invoice = openInvoices.remove(invoiceId);
+        if (invoice != null) {
+            invoice.advances.keySet().forEach(invoiceOfAdvance::remove);
+            invoice.advances.values().forEach(advance -> apply(invoice, advance, false, true));
+        }
+    }
+
+    /**
+     * @return whether the advance counts towards exposure, that is whether its invoice is open
+     */
+    private boolean addAdvance(UUID advanceId, UUID invoiceId, BigDecimal amount, CurrencyCodeEnum currency, boolean changed) {
+        OpenInvoice invoice = invoiceId != null ? openInvoices.get(invoiceId) : null;
+        if (invoice == null) {
+            return false;
+        }
+        TrackedAdvance advance = new TrackedAdvance(amount != null ? amount : BigDecimal.ZERO, currency);
+        if (invoice.advances.isEmpty()) {
+            invoice.advances = new HashMap<>(4);
+        }
+        invoice.advances.put(advanceId, advance);
+        invoiceOfAdvance.put(advanceId, invoiceId);
+        apply(invoice, advance, true, changed);
+        return true;
+    }
+
+    private void removeAdvance(UUID advanceId) {
+        UUID invoiceId = invoiceOfAdvance.remove(advanceId);
+        if (invoiceId != null) {
+            OpenInvoice invoice = openInvoices.get(invoiceId);
+            apply(invoice, invoice.advances.remove(advanceId), false, true);
+        }
+    }
+
+    private void apply(OpenInvoice invoice, TrackedAdvance advance, boolean add, boolean changed) {
+        BigDecimal delta = add ? advance.amount() : advance.amount().negate();
+        addExposure(invoice.counterpartyId, delta, changed);
+        if (advance.currency() != null && delta.signum() != 0) {
+            addByCurrency(counterpartyExposuresByCurrency, invoice.counterpartyId, advance.currency(), delta);
+            addByCurrency(agreementExposuresByCurrency, invoice.agreementId, advance.currency(), delta);
+        }
+    }
+
+    private static void addByCurrency(Map<UUID, CurrencyAmounts> exposuresByCurrency, UUID id,
+                                      CurrencyCodeEnum currency, BigDecimal delta) {
+        if (id != null) {
+            exposuresByCurrency.compute(id, (key, amounts) -> {
+                CurrencyAmounts changed = (amounts != null ? amounts : CurrencyAmounts.EMPTY).plus(currency, delta);
+                return changed.isEmpty() ? null : changed;
+            });
+        }
+    }
+
+    /**
+     * @param changed whether the delta is a change to record for the database, rather than loaded state
+     */
+    private void addExposure(UUID counterpartyId, BigDecimal delta, boolean changed) {
+        if (counterpartyId == null || delta.signum() == 0) {
+            return;
+        }
+        exposures.merge(counterpartyId, delta, BigDecimal::add);
+        if (changed) {
+            pendingDeltas.merge(counterpartyId, delta, BigDecimal::add);
+            lastChangeNanos.put(counterpartyId, System.nanoTime());
+        }
+    }
+
+    private synchronized Map<UUID, BigDecimal> takePendingDeltas() {
+        Map<UUID, BigDecimal> deltas = pendingDeltas;
+        deltas.values().removeIf(delta -> delta.signum() == 0);
+        pendingDeltas = new HashMap<>();
+        flushingCounterparties = deltas.keySet();
+        return deltas;
+    }
+
+    private synchronized void finishFlush(Map<UUID, BigDecimal> deltas, boolean failed) {
+        long now = System.nanoTime();
+        deltas.forEach((counterpartyId, delta) -> {
+            if (failed) {
+                pendingDeltas.merge(counterpartyId, delta, BigDecimal::add);
+            }
+            lastChangeNanos.put(counterpartyId, now);
+        });
+        flushingCounterparties = Set.of();
+    }
+
+    /**
+     * Recomputes one partition in a transaction, once its advisory lock is held; the lock is released when the
+     * transaction ends. The stored exposure of drifted counterparties is overwritten by the same statement.
+     *
+     * @return a Mono emitting the drift found, none if another instance holds the partition
+     */
+    private Mono<Drift> recompute(int partition, int partitions, long started) {
+        Map<String, Object> bindings = Map.of("closedStatuses", CLOSED_STATUSES, "partitions", partitions,
+                "partition", partition, "unsettled", unsettledCounterparties(started));
+        return streamingQuery.stream(LOCK_PARTITION_SQL, Map.of("partition", partition),
+                        (row, metadata) -> row.get("locked", Boolean.class))
+                .next()
+                .filter(locked -> {
+                    if (!Boolean.TRUE.equals(locked)) {
+                        log.debug("Exposure partition {} is being recomputed by another instance, skipping it", partition);
+                    }
+                    return Boolean.TRUE.equals(locked);
+                })
+                .flatMapMany(locked -> streamingQuery.stream(RECOMPUTE_PARTITION_SQL, bindings,
+                        (row, metadata) -> new RecomputedExposure(row.get("id", UUID.class),
+                                row.get("computed_exposure", BigDecimal.class),
+                                Boolean.TRUE.equals(row.get("corrected", Boolean.class)))))
+                .buffer(LOAD_BATCH_SIZE)
+                .map(batch -> reconcile(batch, started))
+                .as(transactionalOperator::transactional)
+                .reduce(Drift.NONE, Drift::plus);
+    }
+
+    private synchronized UUID[] unsettledCounterparties(long started) {
+        Set<UUID> unsettled = new HashSet<>(pendingDeltas.keySet());
+        unsettled.addAll(flushingCounterparties);
+        lastChangeNanos.keySet().stream()
+                .filter(counterpartyId -> !isSettled(counterpartyId, started))
+                .forEach(unsettled::add);
+        return unsettled.toArray(UUID[]::new);
+    }
+
+    private synchronized Drift reconcile(List<RecomputedExposure> batch, long started) {
+        int inMemory = 0;
+        int stored = 0;
+        for (RecomputedExposure recomputed : batch) {
+            UUID counterpartyId = recomputed.counterpartyId();
+            if (recomputed.corrected()) {
+                stored++;
+            }
+            if (!isSettled(counterpartyId, started)) {
+                continue;
+            }
+            BigDecimal computed = recomputed.computed();
+            if (exposureOf(counterpartyId).compareTo(computed) != 0) {
+                log.debug("Exposure of counterparty {} drifted in memory: {} instead of {}",
+                        counterpartyId, exposureOf(counterpartyId), computed);
+                exposures.put(counterpartyId, computed);
+                inMemory++;
+            }
+        }
+        return new Drift(batch.size(), inMemory, stored);
+    }
+
+    private boolean isSettled(UUID counterpartyId, long started) {
+        Long lastChange = lastChangeNanos.get(counterpartyId);
+        return !pendingDeltas.containsKey(counterpartyId)
+                && !flushingCounterparties.contains(counterpartyId)
+                && (lastChange == null || started - lastChange > SETTLE_NANOS);
+    }
+
+    /**
+     * An open invoice, with the advances made against it.
+     */
+    private static final class OpenInvoice {
+
+        private UUID agreementId;
+        private UUID counterpartyId;
+        private Map<UUID, TrackedAdvance> advances = Map.of();
+
+        private OpenInvoice(UUID agreementId, UUID counterpartyId) {
+            this.agreementId = agreementId;
+            this.counterpartyId = counterpartyId;
+        }
+    }
+
+    private record TrackedAdvance(BigDecimal amount, CurrencyCodeEnum currency) {
+    }
+
+    private record LoadedInvoice(UUID id, UUID agreementId, UUID counterpartyId) {
+    }
+
+    private record LoadedAdvance(UUID id, UUID invoiceId, BigDecimal amount, CurrencyCodeEnum currency) {
+    }
+
+    private record RecomputedExposure(UUID counterpartyId, BigDecimal computed, boolean corrected) {
+    }
+
+    private record Drift(int counterparties, int inMemory, int stored) {
+
+        static final Drift NONE = new Drift(0, 0, 0);
+
+        Drift plus(Drift other) {
+            return new Drift(counterparties + other.counterparties, inMemory + other.inMemory, stored + other.stored);
+        }
+    }
+}
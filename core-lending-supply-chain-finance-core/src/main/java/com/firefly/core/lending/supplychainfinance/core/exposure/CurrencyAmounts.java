@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.exposure;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable amounts per currency, held in an array indexed by {@link CurrencyCodeEnum} ordinal.
+ * Every change returns a new instance, so instances can be shared with readers without locking.
+ */
+public final class CurrencyAmounts {
+
+    private static final CurrencyCodeEnum[] CURRENCIES = CurrencyCodeEnum.values();
+
+    public static final CurrencyAmounts EMPTY = new CurrencyAmounts(new BigDecimal[CURRENCIES.length]);
+
+    // Null where the amount is zero
+    private final BigDecimal[] amounts;
+
+    private CurrencyAmounts(BigDecimal[] amounts) {
+        this.amounts = amounts;
+    }
+
+    public BigDecimal amount(CurrencyCodeEnum currency) {
+        BigDecimal amount = amounts[currency.ordinal()];
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+
+    public CurrencyAmounts plus(CurrencyCodeEnum currency, BigDecimal delta) {
+        BigDecimal[] changed = amounts.clone();
+        BigDecimal sum = amount(currency).add(delta);
+        changed[currency.ordinal()] = sum.signum() != 0 ? sum : null;
+        return new CurrencyAmounts(changed);
+    }
+
+    public boolean isEmpty() {
+        for (BigDecimal amount : amounts) {
+            if (amount != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the non-zero amounts by currency
+     */
+    public Map<CurrencyCodeEnum, BigDecimal> toMap() {
+        Map<CurrencyCodeEnum, BigDecimal> map = new EnumMap<>(CurrencyCodeEnum.class);
+        for (CurrencyCodeEnum currency : CURRENCIES) {
+            if (amounts[currency.ordinal()] != null) {
+                map.put(currency, amounts[currency.ordinal()]);
+            }
+        }
+        return map;
+    }
+}
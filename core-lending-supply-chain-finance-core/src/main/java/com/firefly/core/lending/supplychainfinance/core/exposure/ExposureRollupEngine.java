@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.exposure;
+
+import com.firefly.core.lending.supplychainfinance.core.fx.FxRateSnapshot;
+import com.firefly.core.lending.supplychainfinance.core.fx.FxRateStore;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.ExposureRollupDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Converts the exposure maintained per currency by {@link CounterpartyExposureAggregator} into a reporting
+ * currency. Each rollup reads one FX rate snapshot and converts once per currency, whatever the number of
+ * invoices and advances behind the amounts.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExposureRollupEngine {
+
+    private final CounterpartyExposureAggregator aggregator;
+    private final FxRateStore fxRates;
+
+    public boolean isReady() {
+        return aggregator.isReady();
+    }
+
+    /**
+     * @return the agreement's exposure, or an IllegalStateException if a currency it holds is not quoted
+     */
+    public ExposureRollupDTO agreementExposure(UUID agreementId, CurrencyCodeEnum reportingCurrency) {
+        ExposureRollupDTO rollup = rollUp(aggregator.agreementExposureByCurrencyOf(agreementId), reportingCurrency);
+        rollup.setAgreementId(agreementId);
+        return rollup;
+    }
+
+    /**
+     * @return the counterparty's exposure, or an IllegalStateException if a currency it holds is not quoted
+     */
+    public ExposureRollupDTO counterpartyExposure(UUID counterpartyId, CurrencyCodeEnum reportingCurrency) {
+        ExposureRollupDTO rollup = rollUp(aggregator.exposureByCurrencyOf(counterpartyId), reportingCurrency);
+        rollup.setCounterpartyId(counterpartyId);
+        return rollup;
+    }
+
+    private ExposureRollupDTO rollUp(CurrencyAmounts amounts, CurrencyCodeEnum reportingCurrency) {
+        FxRateSnapshot rates = fxRates.current();
+        return ExposureRollupDTO.builder()
+                .reportingCurrency(reportingCurrency)
+                .exposureByCurrency(amounts.toMap())
+                .totalExposure(rates.total(amounts, reportingCurrency))
+                .rateVersion(rates.version())
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.fees;
+
+import com.firefly.core.lending.supplychainfinance.core.lifecycle.InvoiceStatusTransitions;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FeeTypeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a compiled {@link FeeSchedule} to invoices and advances, without database access.
+ *
+ * <p>Advances are charged the fees deducted when funds are paid out, on the advance amount. Invoices are
+ * charged the collection fee and, once past due while still open, the late payment fee, on the invoice amount.
+ */
+@Component
+public class FeeEngine {
+
+    public static final Set<FeeTypeEnum> ADVANCE_FEE_TYPES = EnumSet.of(
+            FeeTypeEnum.DISCOUNT_FEE, FeeTypeEnum.SERVICE_FEE, FeeTypeEnum.ADMINISTRATION_FEE,
+            FeeTypeEnum.VERIFICATION_FEE, FeeTypeEnum.EARLY_PAYMENT_FEE, FeeTypeEnum.OTHER);
+
+    private static final Set<FeeTypeEnum> INVOICE_FEE_TYPES = EnumSet.of(FeeTypeEnum.COLLECTION_FEE);
+    private static final Set<FeeTypeEnum> OVERDUE_INVOICE_FEE_TYPES = EnumSet.of(FeeTypeEnum.COLLECTION_FEE, FeeTypeEnum.LATE_PAYMENT_FEE);
+
+    /**
+     * @return the fee of each advance fee type the schedule defines
+     */
+    public Map<FeeTypeEnum, BigDecimal> advanceFees(FeeSchedule schedule, BigDecimal advanceAmount, CurrencyCodeEnum currency) {
+        return schedule.fees(ADVANCE_FEE_TYPES, advanceAmount, currency);
+    }
+
+    /**
+     * @return the sum of the advance fees, without building the per-type breakdown
+     */
+    public BigDecimal totalAdvanceFee(FeeSchedule schedule, BigDecimal advanceAmount, CurrencyCodeEnum currency) {
+        BigDecimal total = BigDecimal.ZERO.setScale(4);
+        for (FeeTypeEnum type : ADVANCE_FEE_TYPES) {
+            total = total.add(schedule.fee(type, advanceAmount, currency));
+        }
+        return total;
+    }
+
+    /**
+     * @return the fee of each invoice fee type the schedule defines, including the late payment fee only if
+     *         the invoice is open and past due on {@code asOf}
+     */
+    public Map<FeeTypeEnum, BigDecimal> invoiceFees(FeeSchedule schedule, BigDecimal invoiceAmount, CurrencyCodeEnum currency,
+                                                    InvoiceStatusEnum status, LocalDate dueDate, LocalDate asOf) {
+        boolean overdue = InvoiceStatusTransitions.isOpen(status) && dueDate != null && dueDate.isBefore(asOf);
+        return schedule.fees(overdue ? OVERDUE_INVOICE_FEE_TYPES : INVOICE_FEE_TYPES, invoiceAmount, currency);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.fees;
+
+import com.firefly.core.lending.supplychainfinance.core.pricing.AdvancePricingEngine;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FeeTypeEnum;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceFee;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable fees of one agreement, compiled from its fee rows into one array of rules per fee type.
+ *
+ * <p>A rule charges its fixed amount plus its percentage of the base amount, raised to its minimum and
+ * capped at its maximum, rounded half up at scale 4. Several rules of the same type add up. A rule only
+ * applies to base amounts in its own currency; rules without a currency apply to every currency.
+ */
+public final class FeeSchedule {
+
+    private static final Rule[] NO_RULES = new Rule[0];
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(4);
+
+    private final UUID agreementId;
+    private final Map<FeeTypeEnum, Rule[]> rulesByType;
+
+    private FeeSchedule(UUID agreementId, Map<FeeTypeEnum, Rule[]> rulesByType) {
+        this.agreementId = agreementId;
+        this.rulesByType = rulesByType;
+    }
+
+    static FeeSchedule compile(UUID agreementId, List<SupplyChainFinanceFee> fees) {
+        Map<FeeTypeEnum, List<Rule>> byType = new EnumMap<>(FeeTypeEnum.class);
+        for (SupplyChainFinanceFee fee : fees) {
+            if (fee.getFeeType() != null) {
+                byType.computeIfAbsent(fee.getFeeType(), type -> new ArrayList<>()).add(new Rule(fee.getCurrency(),
+                        fee.getFixedAmount(), fee.getPercentageRate(), fee.getMinimumAmount(), fee.getMaximumAmount()));
+            }
+        }
+        Map<FeeTypeEnum, Rule[]> rulesByType = new EnumMap<>(FeeTypeEnum.class);
+        byType.forEach((type, rules) -> rulesByType.put(type, rules.toArray(NO_RULES)));
+        return new FeeSchedule(agreementId, rulesByType);
+    }
+
+    public UUID agreementId() {
+        return agreementId;
+    }
+
+    public boolean defines(FeeTypeEnum type) {
+        return rulesByType.containsKey(type);
+    }
+
+    /**
+     * @return the fee of {@code type} on {@code baseAmount}, zero if the schedule has no rule for it
+     */
+    public BigDecimal fee(FeeTypeEnum type, BigDecimal baseAmount, CurrencyCodeEnum currency) {
+        BigDecimal total = ZERO;
+        for (Rule rule : rulesByType.getOrDefault(type, NO_RULES)) {
+            if (rule.appliesTo(currency)) {
+                total = total.add(rule.apply(baseAmount));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return the fee of each of {@code types} the schedule defines, on {@code baseAmount}
+     */
+    public Map<FeeTypeEnum, BigDecimal> fees(Set<FeeTypeEnum> types, BigDecimal baseAmount, CurrencyCodeEnum currency) {
+        Map<FeeTypeEnum, BigDecimal> fees = new EnumMap<>(FeeTypeEnum.class);
+        for (FeeTypeEnum type : types) {
+            if (defines(type)) {
+                fees.put(type, fee(type, baseAmount, currency));
+            }
+        }
+        return fees;
+    }
+
+    private record Rule(CurrencyCodeEnum currency, BigDecimal fixedAmount, BigDecimal percentageRate,
+                        BigDecimal minimumAmount, BigDecimal maximumAmount) {
+
+        boolean appliesTo(CurrencyCodeEnum baseCurrency) {
+            return currency == null || currency == baseCurrency;
+        }
+
+        BigDecimal apply(BigDecimal baseAmount) {
+            BigDecimal fee = fixedAmount != null ? fixedAmount : BigDecimal.ZERO;
+            if (percentageRate != null && baseAmount != null) {
+                fee = fee.add(AdvancePricingEngine.percentOf(baseAmount, percentageRate));
+            }
+            if (minimumAmount != null) {
+                fee = fee.max(minimumAmount);
+            }
+            if (maximumAmount != null) {
+                fee = fee.min(maximumAmount);
+            }
+            return fee.setScale(4, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.fees;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.events.FeeChangedEvent;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceFeeRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Read-through cache of compiled fee schedules by agreement.
+ *
+ * <p>A miss reads the agreement's fees once and compiles them; concurrent misses share the read. Entries
+ * are evicted on every {@link FeeChangedEvent} and expire after a while in case a fee was changed by
+ * another instance. Hits, misses and evictions are published as the {@code cache.*} meters of the
+ * {@code fee-schedules} cache.
+ */
+@Component
+public class FeeScheduleCache {
+
+    private final SupplyChainFinanceFeeRepository repository;
+    private final AsyncCache<UUID, FeeSchedule> byAgreement;
+
+    public FeeScheduleCache(SupplyChainFinanceFeeRepository repository, SupplyChainFinanceProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        SupplyChainFinanceProperties.Cache config = properties.getCache();
+        this.byAgreement = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(config.getFeeScheduleMaximumSize())
+                .expireAfterWrite(config.getFeeScheduleTtl())
+                .recordStats()
+                .<UUID, FeeSchedule>buildAsync(), "fee-schedules");
+    }
+
+    /**
+     * @return a Mono emitting the agreement's fee schedule, empty of rules if the agreement has no fees
+     */
+    public Mono<FeeSchedule> scheduleOf(UUID agreementId) {
+        return Mono.fromFuture(() -> byAgreement.get(agreementId, (key, executor) -> repository.findByAgreementId(key)
+                .collectList()
+                .map(fees -> FeeSchedule.compile(key, fees))
+                .toFuture()), true);
+    }
+
+    @EventListener
+    public void onFeeChanged(FeeChangedEvent event) {
+        if (event.agreementId() != null) {
+            byAgreement.synchronous().invalidate(event.agreementId());
+        }
+    }
+}
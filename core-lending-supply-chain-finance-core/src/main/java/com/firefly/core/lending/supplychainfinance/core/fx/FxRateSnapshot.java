@@ -0,0 +1,148 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.fx;
+
+import com.firefly.core.lending.supplychainfinance.core.exposure.CurrencyAmounts;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable set of FX rates of one published version.
+ *
+ * <p>Rates are quoted as the value of one unit of a currency in EUR. The cross rate of every currency pair is
+ * computed once when the snapshot is built, so a conversion is one array lookup and one multiplication, and
+ * converting amounts summed per currency costs one multiplication per currency rather than per row.
+ */
+public final class FxRateSnapshot {
+
+    public static final CurrencyCodeEnum PIVOT = CurrencyCodeEnum.EUR;
+
+    private static final CurrencyCodeEnum[] CURRENCIES = CurrencyCodeEnum.values();
+    private static final MathContext CROSS_RATE_PRECISION = MathContext.DECIMAL64;
+    private static final int AMOUNT_SCALE = 4;
+
+    private final long version;
+    private final LocalDateTime publishedAt;
+    // Indexed by currency ordinal; null where the currency is not quoted
+    private final BigDecimal[] ratesToPivot;
+    private final BigDecimal[][] crossRates;
+
+    FxRateSnapshot(long version, LocalDateTime publishedAt, Map<CurrencyCodeEnum, BigDecimal> ratesToPivot) {
+        this.version = version;
+        this.publishedAt = publishedAt;
+        this.ratesToPivot = new BigDecimal[CURRENCIES.length];
+        this.ratesToPivot[PIVOT.ordinal()] = BigDecimal.ONE;
+        ratesToPivot.forEach((currency, rate) -> {
+            if (rate == null || rate.signum() <= 0) {
+                throw new IllegalArgumentException("FX rate of " + currency + " must be positive");
+            }
+            if (currency == PIVOT && rate.compareTo(BigDecimal.ONE) != 0) {
+                throw new IllegalArgumentException("FX rate of " + PIVOT + " is fixed at 1");
+            }
+            this.ratesToPivot[currency.ordinal()] = rate;
+        });
+        this.crossRates = new BigDecimal[CURRENCIES.length][CURRENCIES.length];
+        for (CurrencyCodeEnum from : CURRENCIES) {
+            for (CurrencyCodeEnum to : CURRENCIES) {
+                BigDecimal fromRate = this.ratesToPivot[from.ordinal()];
+                BigDecimal toRate = this.ratesToPivot[to.ordinal()];
+                if (fromRate != null && toRate != null) {
+                    crossRates[from.ordinal()][to.ordinal()] = from == to
+                            ? BigDecimal.ONE
+                            : fromRate.divide(toRate, CROSS_RATE_PRECISION);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the snapshot in effect before any rate is published: only the pivot currency is quoted
+     */
+    static FxRateSnapshot initial() {
+        return new FxRateSnapshot(0, null, Map.of());
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public LocalDateTime publishedAt() {
+        return publishedAt;
+    }
+
+    /**
+     * @return the quoted rates, as the value of one unit of each currency in EUR
+     */
+    public Map<CurrencyCodeEnum, BigDecimal> ratesToPivot() {
+        Map<CurrencyCodeEnum, BigDecimal> rates = new EnumMap<>(CurrencyCodeEnum.class);
+        for (CurrencyCodeEnum currency : CURRENCIES) {
+            if (ratesToPivot[currency.ordinal()] != null) {
+                rates.put(currency, ratesToPivot[currency.ordinal()]);
+            }
+        }
+        return rates;
+    }
+
+    /**
+     * @return a snapshot of the given version with these rates replacing the ones of this snapshot
+     */
+    FxRateSnapshot with(long newVersion, LocalDateTime newPublishedAt, Map<CurrencyCodeEnum, BigDecimal> changedRates) {
+        Map<CurrencyCodeEnum, BigDecimal> rates = ratesToPivot();
+        rates.putAll(changedRates);
+        return new FxRateSnapshot(newVersion, newPublishedAt, rates);
+    }
+
+    /**
+     * @return the amount converted, or an IllegalStateException if either currency is not quoted
+     */
+    public BigDecimal convert(BigDecimal amount, CurrencyCodeEnum from, CurrencyCodeEnum to) {
+        if (from == to) {
+            return amount;
+        }
+        return amount.multiply(crossRate(from, to)).setScale(AMOUNT_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * @return the sum of the amounts converted to {@code to}, or an IllegalStateException if a currency
+     *         with a non-zero amount is not quoted
+     */
+    public BigDecimal total(CurrencyAmounts amounts, CurrencyCodeEnum to) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CurrencyCodeEnum currency : CURRENCIES) {
+            BigDecimal amount = amounts.amount(currency);
+            if (amount.signum() != 0) {
+                total = total.add(currency == to ? amount : amount.multiply(crossRate(currency, to)));
+            }
+        }
+        return total.setScale(AMOUNT_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    private BigDecimal crossRate(CurrencyCodeEnum from, CurrencyCodeEnum to) {
+        BigDecimal rate = crossRates[from.ordinal()][to.ordinal()];
+        if (rate == null) {
+            throw new IllegalStateException("No FX rate from " + from + " to " + to + " in rate version " + version);
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.fx;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.models.entities.FxRate;
+import com.firefly.core.lending.supplychainfinance.models.repositories.FxRateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current FX rate snapshot in memory and publishes new ones.
+ *
+ * <p>A published snapshot is written as a new version in one transaction and then installed with a single
+ * reference swap, so readers see either the previous or the new rates, never a mix. Other instances pick up
+ * new versions on their next refresh. A snapshot older than the installed one is never installed.
+ *
+ * <p>Publishers on every instance are serialized by a table lock taken in the publishing transaction, and each
+ * builds its snapshot from the latest version read under that lock, so no publication drops another's rates.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FxRateStore {
+
+    private final FxRateRepository repository;
+    private final TransactionalOperator transactionalOperator;
+
+    private final AtomicReference<FxRateSnapshot> current = new AtomicReference<>(FxRateSnapshot.initial());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh().subscribe(null, e -> log.error("Loading FX rates failed", e));
+    }
+
+    /**
+     * Installs the latest published version if it is newer than the installed one.
+     */
+    @Scheduled(fixedDelayString = "${supply-chain-finance.fx.refresh-interval:PT1M}")
+    public Mono<Void> refresh() {
+        return repository.findLatestVersion()
+                .filter(version -> version > current.get().version())
+                .flatMap(this::load)
+                .doOnNext(this::install)
+                .then();
+    }
+
+    public FxRateSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Publishes a new version made of the current rates with the given ones replacing them.
+     *
+     * @param rates the value of one unit of each changed currency in EUR
+     * @return a Mono emitting the published snapshot, or an IllegalArgumentException if a rate is not positive
+     */
+    public Mono<FxRateSnapshot> publish(Map<CurrencyCodeEnum, BigDecimal> rates) {
+        return repository.lockForPublish()
+                .then(repository.findLatestVersion().flatMap(this::load).defaultIfEmpty(FxRateSnapshot.initial()))
+                .zipWith(repository.nextVersion())
+                .flatMap(latestAndVersion -> {
+                    long version = latestAndVersion.getT2();
+                    FxRateSnapshot snapshot = latestAndVersion.getT1().with(version, LocalDateTime.now(), rates);
+                    List<FxRate> rows = snapshot.ratesToPivot().entrySet().stream()
+                            .map(rate -> FxRate.builder()
+                                    .version(version)
+                                    .currency(rate.getKey())
+                                    .rateToEur(rate.getValue())
+                                    .createdAt(snapshot.publishedAt())
+                                    .build())
+                            .toList();
+                    // One row per currency at most, so the whole version is written by a single statement
+                    return repository.insertAll(Flux.fromIterable(rows), CurrencyCodeEnum.values().length)
+                            .then(Mono.just(snapshot));
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(snapshot -> {
+                    install(snapshot);
+                    log.info("Published FX rate version {} for {}", snapshot.version(), rates.keySet());
+                });
+    }
+
+    private Mono<FxRateSnapshot> load(long version) {
+        return repository.findByVersion(version)
+                .collectList()
+                .map(rows -> toSnapshot(version, rows));
+    }
+
+    private void install(FxRateSnapshot snapshot) {
+        current.accumulateAndGet(snapshot, (installed, candidate) ->
+                candidate.version() > installed.version() ? candidate : installed);
+    }
+
+    private static FxRateSnapshot toSnapshot(long version, List<FxRate> rows) {
+        Map<CurrencyCodeEnum, BigDecimal> rates = new EnumMap<>(CurrencyCodeEnum.class);
+        rows.forEach(row -> rates.put(row.getCurrency(), row.getRateToEur()));
+        LocalDateTime publishedAt = rows.stream()
+                .map(FxRate::getCreatedAt)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        return new FxRateSnapshot(version, publishedAt, rates);
+    }
+}
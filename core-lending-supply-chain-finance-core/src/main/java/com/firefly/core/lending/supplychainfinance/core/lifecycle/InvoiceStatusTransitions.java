@@ -0,0 +1,119 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.lifecycle;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum.*;
+
+/**
+ * Legal invoice status transitions per finance type.
+ *
+ * <p>Factoring: REGISTERED → (PENDING_VERIFICATION → VERIFIED →) APPROVED → FINANCED → PAID → SETTLED.
+ * Confirming: REGISTERED → (PENDING_VERIFICATION → VERIFIED →) CONFIRMED → FINANCED (early payment) → PAID → SETTLED.
+ * Invoices can be rejected while under review and cancelled until they are financed.
+ *
+ * <p>Status names are written to and compared with the {@code invoice_status} column as they are, so every status
+ * must be a value of that SQL enum (see {@code V4_1__Align_Invoice_Status_Enum.sql}).
+ *
+ * <p>The table is compiled once into bit masks indexed by enum ordinal, so a lookup is two array reads.
+ */
+public final class InvoiceStatusTransitions {
+
+    private static final int[][] ALLOWED = new int[FinanceTypeEnum.values().length][InvoiceStatusEnum.values().length];
+
+    @SuppressWarnings("unchecked")
+    private static final List<FinanceTypeEnum>[][] FINANCE_TYPES_ALLOWING =
+            new List[InvoiceStatusEnum.values().length][InvoiceStatusEnum.values().length];
+
+    /**
+     * Statuses in which an invoice no longer has an amount outstanding from the debtor.
+     */
+    private static final Set<InvoiceStatusEnum> CLOSED = EnumSet.of(REJECTED, CANCELLED, PAID, SETTLED);
+
+    static {
+        allow(FinanceTypeEnum.FACTORING, REGISTERED, PENDING_VERIFICATION, VERIFIED, APPROVED, REJECTED, CANCELLED);
+        allow(FinanceTypeEnum.FACTORING, PENDING_VERIFICATION, VERIFIED, REJECTED, CANCELLED);
+        allow(FinanceTypeEnum.FACTORING, VERIFIED, APPROVED, REJECTED, CANCELLED);
+        allow(FinanceTypeEnum.FACTORING, APPROVED, FINANCED, CANCELLED);
+        allow(FinanceTypeEnum.FACTORING, FINANCED, PAID, SETTLED);
+        allow(FinanceTypeEnum.FACTORING, PAID, SETTLED);
+
+        allow(FinanceTypeEnum.CONFIRMING, REGISTERED, PENDING_VERIFICATION, CONFIRMED, REJECTED, CANCELLED);
+        allow(FinanceTypeEnum.CONFIRMING, PENDING_VERIFICATION, VERIFIED, REJECTED, CANCELLED);
+        allow(FinanceTypeEnum.CONFIRMING, VERIFIED, CONFIRMED, REJECTED, CANCELLED);
+        allow(FinanceTypeEnum.CONFIRMING, CONFIRMED, FINANCED, PAID, CANCELLED);
+        allow(FinanceTypeEnum.CONFIRMING, FINANCED, PAID, SETTLED);
+        allow(FinanceTypeEnum.CONFIRMING, PAID, SETTLED);
+
+        for (InvoiceStatusEnum from : InvoiceStatusEnum.values()) {
+            for (InvoiceStatusEnum to : InvoiceStatusEnum.values()) {
+                List<FinanceTypeEnum> financeTypes = new ArrayList<>();
+                for (FinanceTypeEnum financeType : FinanceTypeEnum.values()) {
+                    if (isAllowed(financeType, from, to)) {
+                        financeTypes.add(financeType);
+                    }
+                }
+                FINANCE_TYPES_ALLOWING[from.ordinal()][to.ordinal()] = List.copyOf(financeTypes);
+            }
+        }
+    }
+
+    private InvoiceStatusTransitions() {
+    }
+
+    /**
+     * @return whether an invoice of the given finance type may move from {@code from} to {@code to}
+     */
+    public static boolean isAllowed(FinanceTypeEnum financeType, InvoiceStatusEnum from, InvoiceStatusEnum to) {
+        return (ALLOWED[financeType.ordinal()][from.ordinal()] & (1 << to.ordinal())) != 0;
+    }
+
+    /**
+     * @return the finance types for which {@code from} → {@code to} is legal; empty if it is legal for none
+     */
+    public static List<FinanceTypeEnum> financeTypesAllowing(InvoiceStatusEnum from, InvoiceStatusEnum to) {
+        return FINANCE_TYPES_ALLOWING[from.ordinal()][to.ordinal()];
+    }
+
+    /**
+     * @return whether no further transition is possible from the given status
+     */
+    public static boolean isTerminal(FinanceTypeEnum financeType, InvoiceStatusEnum status) {
+        return ALLOWED[financeType.ordinal()][status.ordinal()] == 0;
+    }
+
+    /**
+     * @return whether an invoice in the given status still has an amount outstanding from the debtor
+     */
+    public static boolean isOpen(InvoiceStatusEnum status) {
+        return !CLOSED.contains(status);
+    }
+
+    private static void allow(FinanceTypeEnum financeType, InvoiceStatusEnum from, InvoiceStatusEnum... targets) {
+        for (InvoiceStatusEnum target : targets) {
+            ALLOWED[financeType.ordinal()][from.ordinal()] |= 1 << target.ordinal();
+        }
+    }
+}
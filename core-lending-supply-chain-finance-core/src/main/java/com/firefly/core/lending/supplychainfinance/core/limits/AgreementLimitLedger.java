@@ -0,0 +1,144 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.limits;
+
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceLimitLease;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * In-memory limit state of one agreement.
+ *
+ * <p>{@code headroom} is available limit that has already been taken from the agreement row, under the lease
+ * {@code leaseId}, and can be handed to reservations without touching the agreement row. Commits are grouped: while
+ * one {@code outstanding_amount} update is in flight, further commits accumulate and are written together
+ * by the next update, so the row sees one write per round-trip however many commits arrive.
+ *
+ * <p>Each ledger has its own lock, so agreements never contend with each other and the critical sections
+ * on one agreement contain no I/O.
+ */
+final class AgreementLimitLedger {
+
+    private final UUID agreementId;
+    private final UUID leaseId;
+
+    // Guarded by this
+    private BigDecimal headroom = BigDecimal.ZERO;
+    private long lastReservedNanos = System.nanoTime();
+    private List<PendingCommit> pendingCommits = new ArrayList<>();
+    private boolean flushing;
+
+    AgreementLimitLedger(UUID agreementId, UUID leaseId) {
+        this.agreementId = agreementId;
+        this.leaseId = leaseId;
+    }
+
+    UUID agreementId() {
+        return agreementId;
+    }
+
+    UUID leaseId() {
+        return leaseId;
+    }
+
+    /**
+     * Takes up to {@code amount} from the headroom.
+     *
+     * @return the part of {@code amount} the headroom could not cover
+     */
+    synchronized BigDecimal take(BigDecimal amount) {
+        lastReservedNanos = System.nanoTime();
+        BigDecimal taken = headroom.min(amount);
+        headroom = headroom.subtract(taken);
+        return amount.subtract(taken);
+    }
+
+    synchronized void giveBack(BigDecimal amount) {
+        headroom = headroom.add(amount);
+    }
+
+    /**
+     * Empties the headroom if no reservation was made for at least {@code idleNanos}.
+     *
+     * @return the headroom removed, zero if the ledger is not idle
+     */
+    synchronized BigDecimal drainIfIdle(long idleNanos) {
+        if (System.nanoTime() - lastReservedNanos < idleNanos) {
+            return BigDecimal.ZERO;
+        }
+        return drain();
+    }
+
+    synchronized BigDecimal drain() {
+        BigDecimal drained = headroom;
+        headroom = BigDecimal.ZERO;
+        return drained;
+    }
+
+    /**
+     * Commits the reservation {@code reservationId}, grouped with concurrent commits.
+     *
+     * @param write the database write of a group of reservations, emitting the reservations it committed by id
+     * @return a Mono emitting the reservation once a write including it has succeeded, or an empty Mono if that
+     *         write did not commit it
+     */
+    Mono<SupplyChainFinanceLimitLease> commit(UUID reservationId,
+                                              Function<List<UUID>, Mono<Map<UUID, SupplyChainFinanceLimitLease>>> write) {
+        return Mono.create(sink -> {
+            boolean start;
+            synchronized (this) {
+                pendingCommits.add(new PendingCommit(reservationId, sink));
+                start = !flushing;
+                flushing = true;
+            }
+            if (start) {
+                flush(write);
+            }
+        });
+    }
+
+    private void flush(Function<List<UUID>, Mono<Map<UUID, SupplyChainFinanceLimitLease>>> write) {
+        List<PendingCommit> commits;
+        synchronized (this) {
+            if (pendingCommits.isEmpty()) {
+                flushing = false;
+                return;
+            }
+            commits = pendingCommits;
+            pendingCommits = new ArrayList<>();
+        }
+        List<UUID> reservationIds = commits.stream().map(PendingCommit::reservationId).distinct().toList();
+        write.apply(reservationIds).subscribe(
+                committed -> commits.forEach(commit -> commit.sink().success(committed.get(commit.reservationId()))),
+                e -> {
+                    commits.forEach(commit -> commit.sink().error(e));
+                    flush(write);
+                },
+                () -> flush(write));
+    }
+
+    private record PendingCommit(UUID reservationId, MonoSink<SupplyChainFinanceLimitLease> sink) {
+    }
+}
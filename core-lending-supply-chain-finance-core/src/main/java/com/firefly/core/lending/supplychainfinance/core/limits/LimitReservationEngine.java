@@ -0,0 +1,328 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.limits;
+
+import com.firefly.core.lending.supplychainfinance.core.cache.AgreementCache;
+import com.firefly.core.lending.supplychainfinance.core.commands.AgreementCommandLanes;
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.events.AgreementChangedEvent;
+import com.firefly.core.lending.supplychainfinance.core.events.AgreementExpiredEvent;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.LimitReservationDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.AgreementStatusEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.LimitReservationStatusEnum;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceLimitLease;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAgreementRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reserves, commits and releases agreement credit limit without overdrawing it.
+ *
+ * <p>The agreement row stays the source of truth: available limit is only ever taken from it by a
+ * conditional {@code UPDATE ... WHERE available_limit >= :amount}, so it cannot go negative however many
+ * instances reserve concurrently. To keep hot agreements off the row lock, a reservation that needs the
+ * row takes a multiple of its amount and the surplus is held as headroom under this instance's lease,
+ * from which the following reservations of the agreement are served while it is active. Headroom unused
+ * for a while is given back to the row.
+ *
+ * <p>Every reservation is a lease row of its own, keyed by the reservation id and moved out of the instance
+ * lease in the statement that creates it, so any instance can look it up, commit or release it, also after the
+ * instance that took it has restarted. Commits delete the reservation rows and add their amounts to
+ * {@code outstanding_amount} with grouped writes; releases move the amount back to the headroom of the
+ * releasing instance; reservations that expire are returned to the agreement by the lease sweep.
+ *
+ * <p>The instance lease is renewed by each sweep and its headroom given back on shutdown. If the process dies
+ * instead, the lease expires and the next sweep of any instance returns the headroom to the agreements. An
+ * instance that could not renew its lease for half its time to live drops its in-memory headroom and starts a
+ * new lease, so it never uses limit that may have been returned.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LimitReservationEngine {
+
+    private final SupplyChainFinanceAgreementRepository repository;
+    private final SupplyChainFinanceProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AgreementCommandLanes commandLanes;
+    private final AgreementCache agreementCache;
+
+    private final Map<UUID, AgreementLimitLedger> ledgers = new ConcurrentHashMap<>();
+
+    private volatile UUID leaseId = UUID.randomUUID();
+    private volatile long leaseRenewedNanos = System.nanoTime();
+
+    /**
+     * @param ttlSeconds seconds until the reservation is released if not committed, or null for the configured default
+     * @return a Mono emitting the reservation, or an IllegalStateException if the agreement is not active
+     *         or has not enough available limit
+     */
+    public Mono<LimitReservationDTO> reserve(UUID agreementId, BigDecimal amount, Integer ttlSeconds) {
+        if (amount == null || amount.signum() <= 0) {
+            return Mono.error(new IllegalArgumentException("Reservation amount must be positive"));
+        }
+        int ttl = ttlSeconds != null ? ttlSeconds : properties.getLimits().getDefaultTtlSeconds();
+        // Headroom is served without touching the row, so the row's status check is repeated here
+        return agreementCache.findById(agreementId)
+                .filter(agreement -> agreement.getStatus() == AgreementStatusEnum.ACTIVE)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                        "Agreement " + agreementId + " does not exist or is not active")))
+                .flatMap(agreement -> reserveFromLedger(ledgerOf(agreementId), amount, ttl, true));
+    }
+
+    /**
+     * @return a Mono emitting the reservation if it is still held, or an empty Mono otherwise
+     */
+    public Mono<LimitReservationDTO> get(UUID agreementId, UUID reservationId) {
+        return repository.findReservation(agreementId, reservationId)
+                .map(reservation -> toDTO(reservation, LimitReservationStatusEnum.RESERVED));
+    }
+
+    /**
+     * Adds the reserved amount to the agreement's outstanding amount, grouped with the concurrent commits
+     * of the agreement.
+     *
+     * @return a Mono emitting the committed reservation, or an empty Mono if it is no longer held
+     */
+    public Mono<LimitReservationDTO> commit(UUID agreementId, UUID reservationId) {
+        return Mono.defer(() -> ledgerOf(agreementId).commit(reservationId, reservationIds -> commandLanes.submit(agreementId,
+                                () -> repository.commitReservations(agreementId, reservationIds.toArray(UUID[]::new))
+                                        .collectMap(SupplyChainFinanceLimitLease::getLeaseId))
+                        .doOnSuccess(committed -> {
+                            if (committed != null && !committed.isEmpty()) {
+                                publishChanged(agreementId);
+                            }
+                        })))
+                .map(reservation -> toDTO(reservation, LimitReservationStatusEnum.COMMITTED));
+    }
+
+    /**
+     * Adds the reserved amount to the agreement's outstanding amount in the caller's transaction, so that the
+     * commit takes effect together with the caller's own writes. The caller publishes the agreement change
+     * once its transaction has committed.
+     *
+     * @return a Mono emitting the committed reservation, or an empty Mono if it is no longer held
+     */
+    public Mono<LimitReservationDTO> commitInTransaction(UUID agreementId, UUID reservationId) {
+        return repository.commitReservations(agreementId, new UUID[]{reservationId})
+                .next()
+                .map(reservation -> toDTO(reservation, LimitReservationStatusEnum.COMMITTED));
+    }
+
+    /**
+     * Gives the reserved amount back to the agreement's headroom on this instance.
+     *
+     * @return a Mono emitting the released reservation, or an empty Mono if it is no longer held
+     */
+    public Mono<LimitReservationDTO> release(UUID agreementId, UUID reservationId) {
+        return Mono.defer(() -> {
+            AgreementLimitLedger ledger = ledgerOf(agreementId);
+            return repository.releaseReservation(agreementId, reservationId, ledger.leaseId(),
+                            properties.getLimits().getLeaseTtlSeconds())
+                    .doOnNext(reservation -> ledger.giveBack(reservation.getLeasedAmount()))
+                    .map(reservation -> toDTO(reservation, LimitReservationStatusEnum.RELEASED));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${supply-chain-finance.limits.sweep-interval:PT5S}")
+    public Mono<Void> sweep() {
+        long idleNanos = Duration.ofSeconds(properties.getLimits().getLeaseIdleSeconds()).toNanos();
+        return renewLease()
+                .thenMany(Flux.fromIterable(ledgers.values()))
+                .concatMap(ledger -> giveBackToAgreement(ledger, ledger.drainIfIdle(idleNanos)))
+                .then(reclaimExpiredLeases());
+    }
+
+    /**
+     * Gives the headroom of an expired agreement back at once rather than when it turns idle, since its row
+     * no longer accepts new reservations. Reservations already held can still be committed or released.
+     */
+    @EventListener
+    public void onAgreementExpired(AgreementExpiredEvent event) {
+        AgreementLimitLedger ledger = ledgers.get(event.agreement().getId());
+        if (ledger != null) {
+            giveBackToAgreement(ledger, ledger.drain()).subscribe();
+        }
+    }
+
+    /**
+     * Returns the headroom held under this instance's lease with one statement. Open reservations are leases of
+     * their own and stay committable from the other instances.
+     */
+    @PreDestroy
+    public void shutdown() {
+        UUID lease = leaseId;
+        ledgers.clear();
+        repository.reclaimLimitLease(lease)
+                .doOnNext(this::publishChanged)
+                .then()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private AgreementLimitLedger ledgerOf(UUID agreementId) {
+        checkLease();
+        UUID lease = leaseId;
+        return ledgers.compute(agreementId, (id, ledger) -> ledger != null && ledger.leaseId().equals(lease)
+                ? ledger
+                : new AgreementLimitLedger(id, lease));
+    }
+
+    /**
+     * Serves the reservation from the headroom, taking what it cannot cover from the agreement row, and then
+     * moves the amount from the instance lease into a reservation lease. If the instance lease no longer holds
+     * the amount, because it was reclaimed after all, the ledger is dropped and the reservation retried once
+     * from the row.
+     */
+    private Mono<LimitReservationDTO> reserveFromLedger(AgreementLimitLedger ledger, BigDecimal amount, int ttlSeconds,
+                                                        boolean retry) {
+        BigDecimal shortfall = ledger.take(amount);
+        BigDecimal fromHeadroom = amount.subtract(shortfall);
+        Mono<BigDecimal> surplusTaken = shortfall.signum() == 0
+                ? Mono.just(BigDecimal.ZERO)
+                : take(ledger, shortfall, amount.multiply(BigDecimal.valueOf(properties.getLimits().getLeaseFactor())))
+                        .switchIfEmpty(Mono.error(() -> new IllegalStateException("Insufficient available limit on agreement "
+                                + ledger.agreementId() + " or agreement not active")))
+                        .doOnError(e -> ledger.giveBack(fromHeadroom));
+        UUID reservationId = UUID.randomUUID();
+        return surplusTaken
+                .flatMap(surplus -> {
+                    ledger.giveBack(surplus);
+                    return repository.reserveFromLease(ledger.agreementId(), amount, ledger.leaseId(), reservationId, ttlSeconds)
+                            .doOnError(e -> ledger.giveBack(amount));
+                })
+                .flatMap(rows -> {
+                    if (rows > 0) {
+                        return Mono.just(LimitReservationDTO.builder()
+                                .reservationId(reservationId)
+                                .agreementId(ledger.agreementId())
+                                .amount(amount)
+                                .status(LimitReservationStatusEnum.RESERVED)
+                                .expiresAt(LocalDateTime.now().plusSeconds(ttlSeconds))
+                                .build());
+                    }
+                    ledgers.remove(ledger.agreementId(), ledger);
+                    if (!retry) {
+                        return Mono.error(new IllegalStateException(
+                                "The limit lease of agreement " + ledger.agreementId() + " was reclaimed, retry the reservation"));
+                    }
+                    log.warn("Limit lease {} no longer holds the headroom of agreement {}, dropping it",
+                            ledger.leaseId(), ledger.agreementId());
+                    return reserveFromLedger(ledgerOf(ledger.agreementId()), amount, ttlSeconds, false);
+                });
+    }
+
+    /**
+     * Takes {@code needed} plus {@code surplus} from the agreement row, or only {@code needed} if that is all
+     * that is available.
+     *
+     * @return a Mono emitting the surplus actually taken, or an empty Mono if not even {@code needed} is available
+     */
+    private Mono<BigDecimal> take(AgreementLimitLedger ledger, BigDecimal needed, BigDecimal surplus) {
+        UUID agreementId = ledger.agreementId();
+        int leaseTtl = properties.getLimits().getLeaseTtlSeconds();
+        return commandLanes.submit(agreementId, () -> repository.takeAvailableLimit(agreementId, needed.add(surplus), ledger.leaseId(), leaseTtl)
+                        .flatMap(rows -> rows > 0
+                                ? Mono.just(surplus)
+                                : repository.takeAvailableLimit(agreementId, needed, ledger.leaseId(), leaseTtl)
+                                        .filter(fallbackRows -> fallbackRows > 0)
+                                        .map(fallbackRows -> BigDecimal.ZERO)))
+                .doOnNext(taken -> publishChanged(agreementId));
+    }
+
+    private Mono<Void> giveBackToAgreement(AgreementLimitLedger ledger, BigDecimal amount) {
+        if (amount.signum() == 0) {
+            return Mono.empty();
+        }
+        return commandLanes.submit(ledger.agreementId(), () -> repository.returnAvailableLimit(ledger.agreementId(), amount, ledger.leaseId()))
+                .doOnSuccess(rows -> publishChanged(ledger.agreementId()))
+                .doOnError(e -> {
+                    log.warn("Could not give back headroom of agreement {}: {}", ledger.agreementId(), e.getMessage());
+                    ledger.giveBack(amount);
+                })
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private Mono<Void> renewLease() {
+        UUID lease = leaseId;
+        long started = System.nanoTime();
+        return repository.renewLimitLease(lease, properties.getLimits().getLeaseTtlSeconds())
+                .doOnSuccess(rows -> {
+                    if (lease.equals(leaseId)) {
+                        leaseRenewedNanos = started;
+                    }
+                })
+                .doOnError(e -> log.warn("Could not renew limit lease {}: {}", lease, e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then(Mono.fromRunnable(this::checkLease));
+    }
+
+    private Mono<Void> reclaimExpiredLeases() {
+        return repository.reclaimExpiredLimitLeases()
+                .doOnNext(agreementId -> {
+                    log.info("Returned the limit of an expired lease to agreement {}", agreementId);
+                    publishChanged(agreementId);
+                })
+                .doOnError(e -> log.warn("Could not reclaim expired limit leases: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    /**
+     * Starts a new lease, dropping the headroom held under the current one, if the current one was not renewed
+     * for half its time to live and may therefore be reclaimed soon.
+     */
+    private synchronized void checkLease() {
+        long now = System.nanoTime();
+        if (now - leaseRenewedNanos <= Duration.ofSeconds(properties.getLimits().getLeaseTtlSeconds()).toNanos() / 2) {
+            return;
+        }
+        log.warn("Limit lease {} was not renewed in time, dropping the headroom of {} agreements", leaseId, ledgers.size());
+        ledgers.clear();
+        leaseId = UUID.randomUUID();
+        leaseRenewedNanos = now;
+    }
+
+    private void publishChanged(UUID agreementId) {
+        eventPublisher.publishEvent(new AgreementChangedEvent(agreementId));
+    }
+
+    private static LimitReservationDTO toDTO(SupplyChainFinanceLimitLease reservation, LimitReservationStatusEnum status) {
+        return LimitReservationDTO.builder()
+                .reservationId(reservation.getLeaseId())
+                .agreementId(reservation.getAgreementId())
+                .amount(reservation.getLeasedAmount())
+                .status(status)
+                .expiresAt(reservation.getExpiresAt())
+                .build();
+    }
+}
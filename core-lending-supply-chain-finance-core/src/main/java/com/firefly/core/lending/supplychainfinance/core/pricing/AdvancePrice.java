@@ -0,0 +1,26 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.pricing;
+
+import java.math.BigDecimal;
+
+/**
+ * Priced amounts of one advance, each at the scale of the {@code DECIMAL(19,4)} columns they are stored in.
+ */
+public record AdvancePrice(BigDecimal advanceAmount, BigDecimal discountAmount, BigDecimal feeAmount, BigDecimal netAmount) {
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.pricing;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Prices advances: the advance amount from the invoice amount and advance rate, the discount as simple
+ * interest on the advance until the due date on an ACT/360 basis, and the net amount paid out.
+ *
+ * <p>Amounts are {@code DECIMAL(19,4)} and rates {@code DECIMAL(5,2)} percentages, so both fit a long once
+ * scaled to their column scale. Each amount is computed exactly in scaled longs and rounded once, half up,
+ * at scale 4, which is how PostgreSQL rounds a value stored into a {@code DECIMAL(19,4)} column. If an
+ * input has more decimals than its column or an intermediate product overflows, the same formula is
+ * evaluated with BigDecimal, which yields the same result.
+ */
+@Component
+public class AdvancePricingEngine {
+
+    static final int AMOUNT_SCALE = 4;
+    static final int RATE_SCALE = 2;
+    static final int DAYS_PER_YEAR = 360;
+
+    /**
+     * A rate of 1% in units of the rate scale.
+     */
+    private static final long PERCENT_UNITS = 100L * 100L;
+    private static final long DISCOUNT_DIVISOR = PERCENT_UNITS * DAYS_PER_YEAR;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final BigDecimal HUNDRED_TIMES_YEAR = BigDecimal.valueOf(100L * DAYS_PER_YEAR);
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(AMOUNT_SCALE);
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L};
+
+    /**
+     * Marks a value outside the fast path. No amount or rate unscales to it, and any product reaching it has
+     * overflowed.
+     */
+    private static final long OVERFLOW = Long.MIN_VALUE;
+
+    /**
+     * Prices an advance of {@code advanceRate} percent of the invoice amount.
+     *
+     * @param advanceRate percentage of the invoice advanced, or null to advance the full amount
+     * @param interestRate yearly discount rate in percent, or null for no discount
+     * @param feeAmount fees deducted from the advance, or null for none
+     */
+    public AdvancePrice price(BigDecimal invoiceAmount, BigDecimal advanceRate, BigDecimal interestRate,
+                              LocalDate advanceDate, LocalDate dueDate, BigDecimal feeAmount) {
+        BigDecimal advanceAmount = advanceRate != null ? advanceAmount(invoiceAmount, advanceRate) : scaled(invoiceAmount);
+        return priceAdvance(advanceAmount, interestRate, advanceDate, dueDate, feeAmount);
+    }
+
+    /**
+     * Prices an advance whose amount is already known.
+     *
+     * @param interestRate yearly discount rate in percent, or null for no discount
+     * @param feeAmount fees deducted from the advance, or null for none
+     */
+    public AdvancePrice priceAdvance(BigDecimal advanceAmount, BigDecimal interestRate,
+                                     LocalDate advanceDate, LocalDate dueDate, BigDecimal feeAmount) {
+        BigDecimal advance = scaled(advanceAmount);
+        BigDecimal discount = interestRate != null ? discountAmount(advance, interestRate, daysFinanced(advanceDate, dueDate)) : ZERO;
+        BigDecimal fee = feeAmount != null ? scaled(feeAmount) : ZERO;
+        return new AdvancePrice(advance, discount, fee, advance.subtract(discount).subtract(fee));
+    }
+
+    /**
+     * @return {@code invoiceAmount * advanceRate / 100}, rounded half up at scale 4
+     */
+    public BigDecimal advanceAmount(BigDecimal invoiceAmount, BigDecimal advanceRate) {
+        return percentOf(invoiceAmount, advanceRate);
+    }
+
+    /**
+     * @param advanceRate percentage of the invoice advanced, or null to advance the full amount
+     * @param financedAmount part of the invoice already advanced, or null for none
+     * @return what is left to advance on the invoice, zero or negative if it is fully financed
+     */
+    public BigDecimal availableAdvanceAmount(BigDecimal invoiceAmount, BigDecimal advanceRate, BigDecimal financedAmount) {
+        BigDecimal advanceAmount = advanceRate != null ? advanceAmount(invoiceAmount, advanceRate) : scaled(invoiceAmount);
+        return financedAmount != null ? advanceAmount.subtract(financedAmount) : advanceAmount;
+    }
+
+    /**
+     * @return {@code amount * percent / 100}, rounded half up at scale 4
+     */
+    public static BigDecimal percentOf(BigDecimal amount, BigDecimal percent) {
+        long units = unscaled(amount, AMOUNT_SCALE);
+        long rate = unscaled(percent, RATE_SCALE);
+        if (units != OVERFLOW && rate != OVERFLOW) {
+            long product = multiply(units, rate);
+            if (product != OVERFLOW) {
+                return BigDecimal.valueOf(divideHalfUp(product, PERCENT_UNITS), AMOUNT_SCALE);
+            }
+        }
+        return amount.multiply(percent).divide(HUNDRED, AMOUNT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @return {@code advanceAmount * interestRate / 100 * days / 360}, rounded half up at scale 4
+     */
+    public BigDecimal discountAmount(BigDecimal advanceAmount, BigDecimal interestRate, long days) {
+        long amount = unscaled(advanceAmount, AMOUNT_SCALE);
+        long rate = unscaled(interestRate, RATE_SCALE);
+        if (amount != OVERFLOW && rate != OVERFLOW) {
+            long product = multiply(multiply(amount, rate), days);
+            if (product != OVERFLOW) {
+                return BigDecimal.valueOf(divideHalfUp(product, DISCOUNT_DIVISOR), AMOUNT_SCALE);
+            }
+        }
+        return advanceAmount.multiply(interestRate).multiply(BigDecimal.valueOf(days))
+                .divide(HUNDRED_TIMES_YEAR, AMOUNT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @return the days from the advance to the due date, zero if the invoice is already due
+     */
+    public static long daysFinanced(LocalDate advanceDate, LocalDate dueDate) {
+        if (advanceDate == null || dueDate == null) {
+            return 0;
+        }
+        return Math.max(0, ChronoUnit.DAYS.between(advanceDate, dueDate));
+    }
+
+    /**
+     * @return {@code value} in units of {@code 10^-scale}, or OVERFLOW if it has more decimals or does not fit
+     */
+    private static long unscaled(BigDecimal value, int scale) {
+        int valueScale = value.scale();
+        if (valueScale < 0 || valueScale > scale || value.precision() > 18) {
+            return OVERFLOW;
+        }
+        return multiply(value.unscaledValue().longValue(), POWERS_OF_TEN[scale - valueScale]);
+    }
+
+    private static long multiply(long a, long b) {
+        if (a == OVERFLOW || b == OVERFLOW) {
+            return OVERFLOW;
+        }
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        // The product fits a long iff the high half is only the sign extension of the low half
+        return high == (low >> 63) ? low : OVERFLOW;
+    }
+
+    /**
+     * Divides rounding half away from zero, as PostgreSQL rounds numerics.
+     */
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    private static BigDecimal scaled(BigDecimal amount) {
+        return amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.reconciliation;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Open invoices held in memory for reconciliation, in flat arrays indexed by position, with three hash indexes
+ * over them: by normalised invoice number, by amount and currency, and by counterparty, amount and currency.
+ *
+ * <p>Each hash index is a chained table of two int arrays, bucket heads and the next position in the chain, so an
+ * index costs about 8 bytes per invoice and holds no boxed keys. A lookup walks the chain of the key's bucket and
+ * checks every position against the key itself. Amounts are held as long units of 1/10,000.
+ *
+ * <p>The index is filled by a single thread and then {@link #build() built}; from then on it is only read and can be
+ * shared by any number of matching tasks.
+ */
+final class OpenInvoiceIndex {
+
+    static final int AMOUNT_SCALE = 4;
+
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int[] NONE = new int[0];
+
+    private long[] idMsb = new long[INITIAL_CAPACITY];
+    private long[] idLsb = new long[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private byte[] currencies = new byte[INITIAL_CAPACITY];
+    private byte[] financeTypes = new byte[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private int[] counterparties = new int[INITIAL_CAPACITY];
+    private String[] numbers = new String[INITIAL_CAPACITY];
+    private int size;
+
+    private final Map<UUID, Integer> counterpartyPositions = new HashMap<>();
+    private final Map<String, int[]> counterpartiesByPayer = new HashMap<>();
+
+    private Chain byNumber;
+    private Chain byAmount;
+    private Chain byCounterpartyAmount;
+
+    /**
+     * Registers a counterparty under its tax ID, registration number and name, the keys a receipt may name its
+     * payer by. Counterparties are registered before their invoices.
+     */
+    void addCounterparty(UUID id, String taxId, String registrationNumber, String name) {
+        int position = counterpartyPositions.computeIfAbsent(id, key -> counterpartyPositions.size());
+        for (String key : new String[]{taxId, registrationNumber, name}) {
+            String normalized = normalize(key);
+            if (!normalized.isEmpty()) {
+                counterpartiesByPayer.merge(normalized, new int[]{position}, OpenInvoiceIndex::union);
+            }
+        }
+    }
+
+    void add(UUID id, UUID counterpartyId, String invoiceNumber, BigDecimal amount, CurrencyCodeEnum currency,
+             FinanceTypeEnum financeType, InvoiceStatusEnum status) {
+        if (size == numbers.length) {
+            grow();
+        }
+        idMsb[size] = id.getMostSignificantBits();
+        idLsb[size] = id.getLeastSignificantBits();
+        amounts[size] = units(amount);
+        currencies[size] = (byte) currency.ordinal();
+        financeTypes[size] = (byte) financeType.ordinal();
+        statuses[size] = (byte) status.ordinal();
+        counterparties[size] = counterpartyPositions.computeIfAbsent(counterpartyId, key -> counterpartyPositions.size());
+        numbers[size] = invoiceNumber;
+        size++;
+    }
+
+    /**
+     * Builds the hash indexes over the invoices added so far.
+     */
+    OpenInvoiceIndex build() {
+        byNumber = new Chain(size);
+        byAmount = new Chain(size);
+        byCounterpartyAmount = new Chain(size);
+        for (int i = 0; i < size; i++) {
+            byNumber.add(numberHash(numbers[i]), i);
+            byAmount.add(amountKey(amounts[i], currencies[i]), i);
+            byCounterpartyAmount.add(counterpartyAmountKey(counterparties[i], amounts[i], currencies[i]), i);
+        }
+        return this;
+    }
+
+    int size() {
+        return size;
+    }
+
+    UUID id(int position) {
+        return new UUID(idMsb[position], idLsb[position]);
+    }
+
+    String invoiceNumber(int position) {
+        return numbers[position];
+    }
+
+    long amount(int position) {
+        return amounts[position];
+    }
+
+    FinanceTypeEnum financeType(int position) {
+        return FinanceTypeEnum.values()[financeTypes[position]];
+    }
+
+    InvoiceStatusEnum status(int position) {
+        return InvoiceStatusEnum.values()[statuses[position]];
+    }
+
+    int counterparty(int position) {
+        return counterparties[position];
+    }
+
+    /**
+     * @return the position of the counterparty, or -1 if it has no open invoice nor was registered
+     */
+    int counterpartyOf(UUID counterpartyId) {
+        Integer position = counterpartyPositions.get(counterpartyId);
+        return position != null ? position : -1;
+    }
+
+    /**
+     * @return the positions of the counterparties registered under the normalised payer key
+     */
+    int[] counterpartiesOfPayer(String normalizedKey) {
+        return counterpartiesByPayer.getOrDefault(normalizedKey, NONE);
+    }
+
+    /**
+     * @return the positions of the invoices in the currency whose normalised number is {@code normalizedNumber}
+     */
+    int[] byNumber(String normalizedNumber, CurrencyCodeEnum currency) {
+        int[] found = NONE;
+        for (int i = byNumber.first(numberHash(normalizedNumber)); i >= 0; i = byNumber.next(i)) {
+            if (currencies[i] == currency.ordinal() && sameNumber(numbers[i], normalizedNumber)) {
+                found = append(found, i);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the positions of the invoices of exactly the amount, in units, and currency
+     */
+    int[] byAmount(long amount, CurrencyCodeEnum currency) {
+        int[] found = NONE;
+        for (int i = byAmount.first(amountKey(amount, (byte) currency.ordinal())); i >= 0; i = byAmount.next(i)) {
+            if (amounts[i] == amount && currencies[i] == currency.ordinal()) {
+                found = append(found, i);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the positions of the counterparty's invoices of exactly the amount, in units, and currency
+     */
+    int[] byCounterpartyAmount(int counterparty, long amount, CurrencyCodeEnum currency) {
+        int[] found = NONE;
+        long key = counterpartyAmountKey(counterparty, amount, (byte) currency.ordinal());
+        for (int i = byCounterpartyAmount.first(key); i >= 0; i = byCounterpartyAmount.next(i)) {
+            if (counterparties[i] == counterparty && amounts[i] == amount && currencies[i] == currency.ordinal()) {
+                found = append(found, i);
+            }
+        }
+        return found;
+    }
+
+    static long units(BigDecimal amount) {
+        return amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @return the value upper-cased with everything but letters and digits removed, so that "inv-2025/001" and
+     *         "INV 2025 001" compare equal; empty for null
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toUpperCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * FNV-1a over the normalised characters of the value, computed without normalising it first.
+     */
+    private static long numberHash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                hash = (hash ^ Character.toUpperCase(c)) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * @return whether the invoice number normalises to {@code normalizedNumber}
+     */
+    private static boolean sameNumber(String number, String normalizedNumber) {
+        int j = 0;
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (j == normalizedNumber.length() || Character.toUpperCase(c) != normalizedNumber.charAt(j)) {
+                    return false;
+                }
+                j++;
+            }
+        }
+        return j == normalizedNumber.length();
+    }
+
+    private static long amountKey(long amount, byte currency) {
+        return amount * 31 + currency;
+    }
+
+    private static long counterpartyAmountKey(int counterparty, long amount, byte currency) {
+        return amountKey(amount, currency) * 1_000_003L + counterparty;
+    }
+
+    private static int[] append(int[] positions, int position) {
+        int[] appended = Arrays.copyOf(positions, positions.length + 1);
+        appended[positions.length] = position;
+        return appended;
+    }
+
+    private static int[] union(int[] left, int[] right) {
+        List<Integer> merged = new ArrayList<>(left.length + right.length);
+        for (int position : left) {
+            merged.add(position);
+        }
+        for (int position : right) {
+            if (!merged.contains(position)) {
+                merged.add(position);
+            }
+        }
+        return merged.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void grow() {
+        int capacity = numbers.length + (numbers.length >> 1);
+        idMsb = Arrays.copyOf(idMsb, capacity);
+        idLsb = Arrays.copyOf(idLsb, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        currencies = Arrays.copyOf(currencies, capacity);
+        financeTypes = Arrays.copyOf(financeTypes, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        counterparties = Arrays.copyOf(counterparties, capacity);
+        numbers = Arrays.copyOf(numbers, capacity);
+    }
+
+    /**
+     * Chained hash table from 64-bit keys to invoice positions; collisions are resolved by the caller.
+     */
+    private static final class Chain {
+
+        private final int[] heads;
+        private final int[] next;
+        private final int mask;
+
+        Chain(int size) {
+            int buckets = Integer.highestOneBit(Math.max(16, size - 1) << 1);
+            heads = new int[buckets];
+            Arrays.fill(heads, -1);
+            next = new int[Math.max(1, size)];
+            mask = buckets - 1;
+        }
+
+        void add(long key, int position) {
+            int bucket = bucket(key);
+            next[position] = heads[bucket];
+            heads[bucket] = position;
+        }
+
+        int first(long key) {
+            return heads[bucket(key)];
+        }
+
+        int next(int position) {
+            return next[position];
+        }
+
+        private int bucket(long key) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.reconciliation;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BankReceiptDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Matches bank receipts to the invoices of an {@link OpenInvoiceIndex}. Holds no mutable state, so one matcher
+ * serves every matching task of a reconciliation.
+ *
+ * <p>The exact pass matches a receipt to the one invoice whose number appears in its remittance information and
+ * whose amount and currency it pays in full. The fuzzy pass, for receipts the exact pass left unmatched, tries in
+ * turn: an invoice number in the remittance with a shortfall within tolerance; an invoice of the identified payer
+ * of exactly the amount; and an invoice of exactly the amount whose number is one edit away from a remittance token.
+ * A receipt is only matched when a step finds a single invoice; several make it ambiguous.
+ *
+ * <p>When the receipt identifies its payer, only that payer's invoices are considered.
+ */
+final class ReceiptMatcher {
+
+    static final int NO_MATCH = -1;
+    static final int AMBIGUOUS = -2;
+
+    private static final Pattern TOKEN_SEPARATORS = Pattern.compile("[\\s,;:]+");
+    private static final int MAX_TOKENS = 32;
+    private static final int MIN_FUZZY_TOKEN_LENGTH = 4;
+
+    private final OpenInvoiceIndex index;
+    private final BigDecimal tolerance;
+
+    ReceiptMatcher(OpenInvoiceIndex index, BigDecimal tolerance) {
+        this.index = index;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * A receipt reduced to what matching looks at.
+     *
+     * @param counterparties the positions of the counterparties the receipt identifies as its payer
+     * @param payerIdentified whether only the invoices of {@code counterparties} may match
+     */
+    record PreparedReceipt(long amount, CurrencyCodeEnum currency, String[] tokens, int[] counterparties,
+                           boolean payerIdentified) {
+    }
+
+    PreparedReceipt prepare(BankReceiptDTO receipt) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (receipt.getRemittanceInformation() != null) {
+            String[] words = TOKEN_SEPARATORS.split(receipt.getRemittanceInformation().strip());
+            for (int i = 0; i < words.length && tokens.size() < MAX_TOKENS; i++) {
+                addToken(tokens, words[i]);
+                // Payers often split a number with spaces, as in "INV 2025-001"
+                if (i + 1 < words.length) {
+                    addToken(tokens, words[i] + words[i + 1]);
+                }
+            }
+        }
+        int[] counterparties = new int[0];
+        if (receipt.getCounterpartyId() != null) {
+            int counterparty = index.counterpartyOf(receipt.getCounterpartyId());
+            counterparties = counterparty >= 0 ? new int[]{counterparty} : counterparties;
+        } else {
+            counterparties = union(index.counterpartiesOfPayer(OpenInvoiceIndex.normalize(receipt.getPayerId())),
+                    index.counterpartiesOfPayer(OpenInvoiceIndex.normalize(receipt.getPayerName())));
+        }
+        // A payer named but not found may be reported under another key; it only restricts when it resolved
+        boolean payerIdentified = receipt.getCounterpartyId() != null || counterparties.length > 0;
+        return new PreparedReceipt(OpenInvoiceIndex.units(receipt.getAmount()), receipt.getCurrency(),
+                tokens.toArray(String[]::new), counterparties, payerIdentified);
+    }
+
+    private static void addToken(Set<String> tokens, String word) {
+        String normalized = OpenInvoiceIndex.normalize(word);
+        if (!normalized.isEmpty()) {
+            tokens.add(normalized);
+        }
+    }
+
+    /**
+     * @return the position of the matched invoice, {@link #NO_MATCH} or {@link #AMBIGUOUS}
+     */
+    int exact(PreparedReceipt receipt) {
+        int[] found = new int[0];
+        for (String token : receipt.tokens()) {
+            for (int position : index.byNumber(token, receipt.currency())) {
+                if (index.amount(position) == receipt.amount() && payerMatches(receipt, position)) {
+                    found = add(found, position);
+                }
+            }
+        }
+        return outcome(found);
+    }
+
+    /**
+     * @param claimed the invoices already matched to another receipt, which are not considered
+     * @return the position of the matched invoice, {@link #NO_MATCH} or {@link #AMBIGUOUS}
+     */
+    int fuzzy(PreparedReceipt receipt, boolean[] claimed) {
+        int[] found = new int[0];
+        for (String token : receipt.tokens()) {
+            for (int position : index.byNumber(token, receipt.currency())) {
+                if (!claimed[position] && payerMatches(receipt, position) && withinTolerance(receipt.amount(), index.amount(position))) {
+                    found = add(found, position);
+                }
+            }
+        }
+        if (found.length > 0) {
+            return outcome(found);
+        }
+
+        for (int counterparty : receipt.counterparties()) {
+            for (int position : index.byCounterpartyAmount(counterparty, receipt.amount(), receipt.currency())) {
+                if (!claimed[position]) {
+                    found = add(found, position);
+                }
+            }
+        }
+        if (found.length > 0) {
+            return outcome(found);
+        }
+
+        for (int position : index.byAmount(receipt.amount(), receipt.currency())) {
+            if (!claimed[position] && payerMatches(receipt, position) && nearNumber(receipt.tokens(), index.invoiceNumber(position))) {
+                found = add(found, position);
+            }
+        }
+        return outcome(found);
+    }
+
+    private boolean payerMatches(PreparedReceipt receipt, int position) {
+        if (!receipt.payerIdentified()) {
+            return true;
+        }
+        int counterparty = index.counterparty(position);
+        for (int candidate : receipt.counterparties()) {
+            if (candidate == counterparty) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the receipt pays the invoice short by no more than the tolerated fraction of its amount
+     */
+    private boolean withinTolerance(long received, long invoiced) {
+        long shortfall = invoiced - received;
+        return shortfall > 0
+                && BigDecimal.valueOf(shortfall).compareTo(BigDecimal.valueOf(invoiced).multiply(tolerance)) <= 0;
+    }
+
+    private static boolean nearNumber(String[] tokens, String invoiceNumber) {
+        String normalized = OpenInvoiceIndex.normalize(invoiceNumber);
+        for (String token : tokens) {
+            if (token.length() >= MIN_FUZZY_TOKEN_LENGTH && withinOneEdit(token, normalized)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether one insertion, deletion or substitution at most turns {@code a} into {@code b}
+     */
+    static boolean withinOneEdit(String a, String b) {
+        if (Math.abs(a.length() - b.length()) > 1) {
+            return false;
+        }
+        String shorter = a.length() <= b.length() ? a : b;
+        String longer = shorter == a ? b : a;
+        int i = 0;
+        int j = 0;
+        boolean edited = false;
+        while (i < shorter.length() && j < longer.length()) {
+            if (shorter.charAt(i) == longer.charAt(j)) {
+                i++;
+                j++;
+            } else if (edited) {
+                return false;
+            } else {
+                edited = true;
+                if (shorter.length() == longer.length()) {
+                    i++;
+                }
+                j++;
+            }
+        }
+        return !edited || j == longer.length();
+    }
+
+    private static int outcome(int[] found) {
+        return switch (found.length) {
+            case 0 -> NO_MATCH;
+            case 1 -> found[0];
+            default -> AMBIGUOUS;
+        };
+    }
+
+    private static int[] add(int[] positions, int position) {
+        for (int existing : positions) {
+            if (existing == position) {
+                return positions;
+            }
+        }
+        int[] added = Arrays.copyOf(positions, positions.length + 1);
+        added[positions.length] = position;
+        return added;
+    }
+
+    private static int[] union(int[] left, int[] right) {
+        int[] merged = left;
+        for (int position : right) {
+            merged = add(merged, position);
+        }
+        return merged;
+    }
+}
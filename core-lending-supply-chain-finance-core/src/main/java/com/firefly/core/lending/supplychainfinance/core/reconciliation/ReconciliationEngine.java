@@ -0,0 +1,372 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.reconciliation;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.events.InvoiceChangedEvent;
+import com.firefly.core.lending.supplychainfinance.core.lifecycle.InvoiceStatusTransitions;
+import com.firefly.core.lending.supplychainfinance.core.mappers.SupplyChainFinanceInvoiceMapper;
+import com.firefly.core.lending.supplychainfinance.core.settlement.SettlementBatchWriter;
+import com.firefly.core.lending.supplychainfinance.core.settlement.SettlementWaterfallEngine;
+import com.firefly.core.lending.supplychainfinance.core.support.StreamingQuerySupport;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BankReceiptDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.ReceiptMatchDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.ReceiptMatchTypeEnum;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceInvoice;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceSettlement;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceInvoiceRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Reconciles a day's bank receipts against the open invoices, those not closed and without a settlement, and
+ * writes a settlement for every receipt confirmed to pay one.
+ *
+ * <p>The receipts are collected while the open invoices and their counterparties are streamed into an
+ * {@link OpenInvoiceIndex}. The exact pass then runs over all receipts in chunks on the parallel scheduler, and its
+ * matches are confirmed in receipt order, the first receipt claiming an invoice winning it. The fuzzy pass runs the
+ * same way over the receipts left, skipping claimed invoices. Confirmed matches are written as settlements, their
+ * waterfall derived by the {@link SettlementWaterfallEngine}, {@code write-batch-size} rows per insert statement.
+ *
+ * <p>Every batch moves its invoices to PAID with the conditional status transition and inserts the settlements of
+ * those it moved, in one transaction, so an invoice is paid and settled together or not at all. An invoice whose
+ * status changed since it was loaded is left alone, and its receipt reported unmatched, as is a receipt whose reference
+ * is already recorded against its invoice. An
+ * {@link InvoiceChangedEvent} is published for every paid invoice once the batch has committed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReconciliationEngine {
+
+    private static final String[] CLOSED_STATUSES = Arrays.stream(InvoiceStatusEnum.values())
+            .filter(status -> !InvoiceStatusTransitions.isOpen(status))
+            .map(Enum::name)
+            .toArray(String[]::new);
+
+    private static final String COUNTERPARTIES_SQL = """
+            SELECT id, tax_id, registration_number, counterparty_name FROM counterparty
+            """;
+
+    private static final String OPEN_INVOICES_SQL = """
+            SELECT i.id, i.counterparty_id, i.invoice_number, i.invoice_amount,
+                   i.currency::text AS currency, i.finance_type::text AS finance_type, i.status::text AS status
+            FROM supply_chain_finance_invoice i
+            WHERE i.status::text <> ALL(:closedStatuses)
+              AND NOT EXISTS (SELECT 1 FROM supply_chain_finance_settlement s WHERE s.invoice_id = i.id)
+            """;
+
+    private final StreamingQuerySupport streamingQuery;
+    private final SettlementWaterfallEngine waterfall;
+    private final SettlementBatchWriter settlementWriter;
+    private final Validator validator;
+    private final SupplyChainFinanceProperties properties;
+    private final SupplyChainFinanceInvoiceRepository invoiceRepository;
+    private final SupplyChainFinanceInvoiceMapper invoiceMapper;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param agreementId the agreement whose invoices the receipts may pay, or null for all agreements
+     * @return a Flux emitting one result per receipt: unmatched receipts first, then the matched ones as their
+     *         settlements are written; or an IllegalArgumentException if there are more receipts than allowed
+     */
+    public Flux<ReceiptMatchDTO> reconcile(Flux<BankReceiptDTO> receipts, UUID agreementId) {
+        int maxReceipts = properties.getReconciliation().getMaxReceipts();
+        Mono<List<BankReceiptDTO>> collected = receipts.take(maxReceipts + 1L).collectList()
+                .flatMap(list -> list.size() > maxReceipts
+                        ? Mono.error(new IllegalArgumentException("At most " + maxReceipts + " receipts can be reconciled at once"))
+                        : Mono.just(list));
+        return Mono.zip(collected, loadIndex(agreementId))
+                .flatMapMany(loaded -> reconcile(loaded.getT1(), 0, loaded.getT2(), new boolean[loaded.getT2().size()]));
+    }
+
+    /**
+     * Reconciles receipts too many to hold at once, {@code windowSize} at a time, against open invoices loaded once.
+     * The next window is only requested once the previous one is written, so memory use does not depend on the
+     * number of receipts. An invoice matched in one window is no longer open to the later ones.
+     *
+     * @param agreementId the agreement whose invoices the receipts may pay, or null for all agreements
+     * @return a Flux emitting one result per receipt, window after window
+     */
+    public Flux<ReceiptMatchDTO> reconcileInWindows(Flux<BankReceiptDTO> receipts, UUID agreementId, int windowSize) {
+        return loadIndex(agreementId)
+                .flatMapMany(index -> {
+                    boolean[] claimed = new boolean[index.size()];
+                    return receipts.buffer(windowSize)
+                            .index()
+                            .concatMap(window -> reconcile(window.getT2(), window.getT1() * windowSize, index, claimed));
+                });
+    }
+
+    /**
+     * @param offset the position of the first receipt in the whole stream, added to the index of each result
+     * @param claimed the invoices already matched, updated with those matched now
+     */
+    private Flux<ReceiptMatchDTO> reconcile(List<BankReceiptDTO> receipts, long offset, OpenInvoiceIndex index, boolean[] claimed) {
+        long started = System.nanoTime();
+        return match(receipts, offset, index, claimed)
+                .flatMapMany(reconciliation -> Flux.fromIterable(reconciliation.unmatched())
+                        .concatWith(write(receipts, offset, index, reconciliation.matches()))
+                        .doOnComplete(() -> log.info("Reconciled {} receipts against {} open invoices: {} matched in {} ms",
+                                receipts.size(), index.size(), reconciliation.matches().size(),
+                                (System.nanoTime() - started) / 1_000_000)));
+    }
+
+    private Mono<OpenInvoiceIndex> loadIndex(UUID agreementId) {
+        Map<String, Object> bindings = new HashMap<>();
+        bindings.put("closedStatuses", CLOSED_STATUSES);
+        String counterpartiesSql = COUNTERPARTIES_SQL;
+        String invoicesSql = OPEN_INVOICES_SQL;
+        if (agreementId != null) {
+            bindings.put("agreementId", agreementId);
+            counterpartiesSql += "WHERE agreement_id = :agreementId";
+            invoicesSql += "  AND i.agreement_id = :agreementId";
+        }
+        OpenInvoiceIndex index = new OpenInvoiceIndex();
+        // Rows are added as they are read, one at a time, so the index is filled by a single thread
+        return streamingQuery.stream(counterpartiesSql, agreementId != null ? Map.of("agreementId", agreementId) : Map.of(),
+                        (row, metadata) -> {
+                            index.addCounterparty(row.get("id", UUID.class), row.get("tax_id", String.class),
+                                    row.get("registration_number", String.class), row.get("counterparty_name", String.class));
+                            return Boolean.TRUE;
+                        })
+                .thenMany(streamingQuery.stream(invoicesSql, bindings, (row, metadata) -> {
+                    index.add(row.get("id", UUID.class), row.get("counterparty_id", UUID.class),
+                            row.get("invoice_number", String.class), row.get("invoice_amount", BigDecimal.class),
+                            CurrencyCodeEnum.valueOf(row.get("currency", String.class)),
+                            FinanceTypeEnum.valueOf(row.get("finance_type", String.class)),
+                            InvoiceStatusEnum.valueOf(row.get("status", String.class)));
+                    return Boolean.TRUE;
+                }))
+                .then(Mono.fromCallable(index::build).subscribeOn(Schedulers.parallel()));
+    }
+
+    /**
+     * Validates the receipts and runs both matching passes.
+     */
+    private Mono<Reconciliation> match(List<BankReceiptDTO> receipts, long offset, OpenInvoiceIndex index, boolean[] claimed) {
+        ReceiptMatcher matcher = new ReceiptMatcher(index, properties.getReconciliation().getAmountTolerance());
+        int n = receipts.size();
+        String[] invalid = new String[n];
+        ReceiptMatcher.PreparedReceipt[] prepared = new ReceiptMatcher.PreparedReceipt[n];
+        int[] exact = new int[n];
+        int[] fuzzy = new int[n];
+
+        return inParallel(n, i -> {
+                    invalid[i] = describeViolations(receipts.get(i));
+                    if (invalid[i] != null) {
+                        return ReceiptMatcher.NO_MATCH;
+                    }
+                    prepared[i] = matcher.prepare(receipts.get(i));
+                    return matcher.exact(prepared[i]);
+                }, exact)
+                .then(Mono.fromRunnable(() -> {
+                    for (int i = 0; i < n; i++) {
+                        if (exact[i] >= 0 && !claimed[exact[i]]) {
+                            claimed[exact[i]] = true;
+                        } else if (exact[i] >= 0) {
+                            exact[i] = ReceiptMatcher.NO_MATCH;
+                        }
+                    }
+                }))
+                .then(Mono.defer(() -> inParallel(n,
+                        i -> invalid[i] == null && exact[i] == ReceiptMatcher.NO_MATCH ? matcher.fuzzy(prepared[i], claimed) : exact[i],
+                        fuzzy)))
+                .then(Mono.fromCallable(() -> {
+                    List<Match> matches = new ArrayList<>();
+                    List<ReceiptMatchDTO> unmatched = new ArrayList<>();
+                    for (int i = 0; i < n; i++) {
+                        BankReceiptDTO receipt = receipts.get(i);
+                        if (invalid[i] != null) {
+                            unmatched.add(ReceiptMatchDTO.unmatched(offset + i, receipt.getReference(), invalid[i]));
+                        } else if (exact[i] >= 0) {
+                            matches.add(new Match(i, exact[i], ReceiptMatchTypeEnum.EXACT));
+                        } else if (fuzzy[i] >= 0 && !claimed[fuzzy[i]]) {
+                            claimed[fuzzy[i]] = true;
+                            matches.add(new Match(i, fuzzy[i], ReceiptMatchTypeEnum.FUZZY));
+                        } else {
+                            unmatched.add(ReceiptMatchDTO.unmatched(offset + i, receipt.getReference(), fuzzy[i] == ReceiptMatcher.AMBIGUOUS
+                                    ? "Receipt matches several open invoices"
+                                    : fuzzy[i] >= 0 ? "Invoice already matched by an earlier receipt" : "No open invoice matches the receipt"));
+                        }
+                    }
+                    return new Reconciliation(matches, unmatched);
+                }));
+    }
+
+    /**
+     * Computes {@code task} for every receipt position, in chunks of {@code match-chunk-size} on the parallel
+     * scheduler, into {@code results}.
+     */
+    private Mono<Void> inParallel(int n, IntUnaryOperator task, int[] results) {
+        int chunkSize = properties.getReconciliation().getMatchChunkSize();
+        return Flux.range(0, (n + chunkSize - 1) / chunkSize)
+                .flatMap(chunk -> Mono.fromRunnable(() -> {
+                    for (int i = chunk * chunkSize, end = Math.min(n, i + chunkSize); i < end; i++) {
+                        results[i] = task.applyAsInt(i);
+                    }
+                }).subscribeOn(Schedulers.parallel()), Schedulers.DEFAULT_POOL_SIZE)
+                .then();
+    }
+
+    /**
+     * Writes the matches as settlements in batches, deriving the waterfall of each from its invoice's advances,
+     * accrued interest and fees, and reports each receipt once its batch is committed.
+     */
+    private Flux<ReceiptMatchDTO> write(List<BankReceiptDTO> receipts, long offset, OpenInvoiceIndex index, List<Match> matches) {
+        return Flux.fromIterable(matches)
+                .buffer(properties.getReconciliation().getWriteBatchSize())
+                .concatMap(batch -> {
+                    List<SupplyChainFinanceSettlement> drafts = new ArrayList<>(batch.size());
+                    for (Match match : batch) {
+                        BankReceiptDTO receipt = receipts.get(match.receipt());
+                        drafts.add(SupplyChainFinanceSettlement.builder()
+                                .invoiceId(index.id(match.invoice()))
+                                .settlementDate(receipt.getValueDate())
+                                .currency(receipt.getCurrency())
+                                .settlementAmount(receipt.getAmount())
+                                .paymentReference(receipt.getReference())
+                                .notes("Reconciled from bank receipt (" + match.type() + " match)")
+                                .build());
+                    }
+                    return waterfall.derive(drafts)
+                            .flatMapMany(derived -> settle(index, batch, derived)
+                                    .doOnNext(settled -> settled.paid().forEach(invoice ->
+                                            eventPublisher.publishEvent(InvoiceChangedEvent.saved(invoiceMapper.toDTO(invoice)))))
+                                    .flatMapIterable(settled -> results(receipts, offset, index, batch, derived, settled)));
+                });
+    }
+
+    /**
+     * Moves the invoices of the derived settlements of a batch to PAID and inserts the settlements of those moved,
+     * in one transaction.
+     *
+     * @return a Mono emitting the invoices paid and the settlements inserted by invoice, once committed
+     */
+    private Mono<Settled> settle(OpenInvoiceIndex index, List<Match> batch,
+                                 List<SettlementWaterfallEngine.DerivedSettlement> derived) {
+        List<Integer> payable = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (derived.get(i).isDerived() && canBePaid(index, batch.get(i).invoice())) {
+                payable.add(i);
+            }
+        }
+        return Flux.fromIterable(payable)
+                .concatMap(i -> {
+                    int invoice = batch.get(i).invoice();
+                    InvoiceStatusEnum status = index.status(invoice);
+                    return invoiceRepository.transitionStatus(index.id(invoice), status.name(), InvoiceStatusEnum.PAID.name(),
+                            InvoiceStatusTransitions.financeTypesAllowing(status, InvoiceStatusEnum.PAID).stream()
+                                    .map(Enum::name).toArray(String[]::new), null);
+                })
+                .collectList()
+                .flatMap(paid -> {
+                    Set<UUID> paidIds = paid.stream().map(SupplyChainFinanceInvoice::getId).collect(Collectors.toSet());
+                    return settlementWriter.insert(payable.stream()
+                                    .map(i -> derived.get(i).settlement())
+                                    .filter(settlement -> paidIds.contains(settlement.getInvoiceId()))
+                                    .toList())
+                            .collectMap(SupplyChainFinanceSettlement::getInvoiceId)
+                            .map(inserted -> new Settled(paid, inserted));
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    private static boolean canBePaid(OpenInvoiceIndex index, int invoice) {
+        return InvoiceStatusTransitions.isAllowed(index.financeType(invoice), index.status(invoice), InvoiceStatusEnum.PAID);
+    }
+
+    private static List<ReceiptMatchDTO> results(List<BankReceiptDTO> receipts, long offset, OpenInvoiceIndex index, List<Match> batch,
+                                                 List<SettlementWaterfallEngine.DerivedSettlement> derived,
+                                                 Settled settled) {
+        Set<UUID> paid = settled.paid().stream().map(SupplyChainFinanceInvoice::getId).collect(Collectors.toSet());
+        List<ReceiptMatchDTO> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Match match = batch.get(i);
+            String reference = receipts.get(match.receipt()).getReference();
+            SupplyChainFinanceSettlement settlement = settled.inserted().get(index.id(match.invoice()));
+            if (!derived.get(i).isDerived()) {
+                results.add(ReceiptMatchDTO.unmatched(offset + match.receipt(), reference, derived.get(i).error()));
+            } else if (!canBePaid(index, match.invoice())) {
+                results.add(ReceiptMatchDTO.unmatched(offset + match.receipt(), reference,
+                        "Invoice in status " + index.status(match.invoice()) + " cannot be paid"));
+            } else if (!paid.contains(index.id(match.invoice()))) {
+                results.add(ReceiptMatchDTO.unmatched(offset + match.receipt(), reference, "Invoice status changed concurrently"));
+            } else if (settlement == null) {
+                results.add(ReceiptMatchDTO.unmatched(offset + match.receipt(), reference, "Receipt already recorded against the invoice"));
+            } else {
+                results.add(ReceiptMatchDTO.builder()
+                        .index(offset + match.receipt())
+                        .reference(reference)
+                        .invoiceId(settlement.getInvoiceId())
+                        .invoiceNumber(index.invoiceNumber(match.invoice()))
+                        .settlementId(settlement.getId())
+                        .matchType(match.type())
+                        .balanceDue(settlement.getBalanceDue())
+                        .build());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return the constraint violations of the receipt, or null if it is valid
+     */
+    private String describeViolations(BankReceiptDTO receipt) {
+        Set<ConstraintViolation<BankReceiptDTO>> violations = validator.validate(receipt);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private record Match(int receipt, int invoice, ReceiptMatchTypeEnum type) {
+    }
+
+    private record Reconciliation(List<Match> matches, List<ReceiptMatchDTO> unmatched) {
+    }
+
+    private record Settled(List<SupplyChainFinanceInvoice> paid, Map<UUID, SupplyChainFinanceSettlement> inserted) {
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.scheduling;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.events.AgreementChangedEvent;
+import com.firefly.core.lending.supplychainfinance.core.events.AgreementExpiredEvent;
+import com.firefly.core.lending.supplychainfinance.core.mappers.SupplyChainFinanceAgreementMapper;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAgreement;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAgreementRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Closes or suspends agreements whose end date has passed.
+ *
+ * <p>Each batch is a single {@code UPDATE} over at most {@code batch-size} agreements claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, committed on its own, so row locks are held for one statement and
+ * agreements being edited are picked up by a later batch or sweep instead of being waited for. Several
+ * instances can sweep at the same time without claiming the same agreement. Batches are repeated until
+ * one comes back short.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "supply-chain-finance.agreement-expiry", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AgreementExpirySweeper {
+
+    private final SupplyChainFinanceAgreementRepository repository;
+    private final SupplyChainFinanceAgreementMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SupplyChainFinanceProperties properties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Catch up on agreements that expired while the service was down
+        sweep().subscribe(null, e -> log.error("Initial agreement expiry sweep failed", e));
+    }
+
+    @Scheduled(cron = "${supply-chain-finance.agreement-expiry.cron:0 15 0 * * *}")
+    public Mono<Void> sweep() {
+        return sweep(LocalDate.now());
+    }
+
+    /**
+     * Expires every agreement whose end date is before {@code today}. A call made while a previous one is
+     * still running is skipped.
+     *
+     * @return a Mono completing once no agreement that ended before {@code today} is left to expire
+     */
+    public Mono<Void> sweep(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Agreement expiry sweep already running, skipping");
+            return Mono.empty();
+        }
+        int batchSize = properties.getAgreementExpiry().getBatchSize();
+        long started = System.nanoTime();
+        return expireBatch(today, batchSize)
+                .expand(batch -> batch.size() < batchSize ? Mono.empty() : expireBatch(today, batchSize))
+                .map(List::size)
+                .reduce(0, Integer::sum)
+                .doOnNext(expired -> {
+                    if (expired > 0) {
+                        log.info("Expired {} agreements ended before {} in {} ms", expired, today,
+                                (System.nanoTime() - started) / 1_000_000);
+                    }
+                })
+                .then()
+                .doFinally(signal -> running.set(false));
+    }
+
+    private Mono<List<SupplyChainFinanceAgreement>> expireBatch(LocalDate today, int batchSize) {
+        return repository.expireEndedBefore(today, batchSize)
+                .collectList()
+                .doOnNext(this::publish);
+    }
+
+    private void publish(List<SupplyChainFinanceAgreement> expired) {
+        for (SupplyChainFinanceAgreement agreement : expired) {
+            eventPublisher.publishEvent(new AgreementChangedEvent(agreement.getId()));
+            eventPublisher.publishEvent(new AgreementExpiredEvent(mapper.toDTO(agreement)));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.scheduling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel over integer ticks.
+ *
+ * <p>Three levels of 64 slots cover 64, 4&nbsp;096 and 262&nbsp;144 ticks ahead of the current tick.
+ * A timer is placed in the lowest level whose span reaches its deadline and moves down one level
+ * each time the slot it sits in comes round, so scheduling, cancelling and expiring a timer are
+ * all O(1) regardless of how many timers are pending.
+ *
+ * <p>Timers are identified by key; scheduling a key that is already pending replaces its timer.
+ * Not thread-safe.
+ *
+ * @param <K> the timer key type
+ */
+public final class HierarchicalTimingWheel<K> {
+
+    private static final int LEVELS = 3;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final List<Set<Timer<K>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+    private long currentTick;
+
+    public HierarchicalTimingWheel(long currentTick) {
+        this.currentTick = currentTick;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new HashSet<>());
+        }
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    /**
+     * @return the largest deadline that can be scheduled from the current tick
+     */
+    public long maxDeadline() {
+        return currentTick + (1L << (SLOT_BITS * LEVELS)) - 1;
+    }
+
+    /**
+     * Schedules a timer, replacing any pending timer with the same key.
+     *
+     * @param key the timer key
+     * @param deadline the tick on which the timer expires; must be after the current tick
+     */
+    public void schedule(K key, long deadline) {
+        if (deadline <= currentTick || deadline > maxDeadline()) {
+            throw new IllegalArgumentException("Deadline " + deadline + " outside (" + currentTick + ", " + maxDeadline() + "]");
+        }
+        cancel(key);
+        Timer<K> timer = new Timer<>(key, deadline);
+        timers.put(key, timer);
+        place(timer);
+    }
+
+    /**
+     * @return whether a timer was pending for the key
+     */
+    public boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        slots.get(timer.slot).remove(timer);
+        return true;
+    }
+
+    /**
+     * Advances the wheel tick by tick up to the given tick, handing every expired key to the consumer
+     * in deadline order.
+     */
+    public void advanceTo(long tick, Consumer<K> expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            Set<Timer<K>> due = slots.get(slotIndex(0, currentTick));
+            if (due.isEmpty()) {
+                continue;
+            }
+            List<Timer<K>> drained = new ArrayList<>(due);
+            due.clear();
+            for (Timer<K> timer : drained) {
+                timers.remove(timer.key);
+                expired.accept(timer.key);
+            }
+        }
+    }
+
+    private void cascade(int level) {
+        Set<Timer<K>> slot = slots.get(slotIndex(level, currentTick));
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Timer<K>> moved = new ArrayList<>(slot);
+        slot.clear();
+        moved.forEach(this::place);
+    }
+
+    private void place(Timer<K> timer) {
+        long delta = timer.deadline - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        timer.slot = slotIndex(level, timer.deadline);
+        slots.get(timer.slot).add(timer);
+    }
+
+    private static int slotIndex(int level, long tick) {
+        return level * SLOTS + (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    private static final class Timer<K> {
+
+        private final K key;
+        private final long deadline;
+        private int slot;
+
+        private Timer(K key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+}
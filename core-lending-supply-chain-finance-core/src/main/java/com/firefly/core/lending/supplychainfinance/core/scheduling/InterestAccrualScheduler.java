@@ -0,0 +1,58 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.scheduling;
+
+import com.firefly.core.lending.supplychainfinance.core.accrual.InterestAccrualEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Starts the daily interest accrual run, and on startup resumes the current day's run if it was interrupted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "supply-chain-finance.accruals", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class InterestAccrualScheduler {
+
+    private final InterestAccrualEngine engine;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // A run that completed today is not run again; an interrupted one resumes from its checkpoint
+        accrue().subscribe(null, e -> log.error("Initial accrual run failed to start", e));
+    }
+
+    @Scheduled(cron = "${supply-chain-finance.accruals.cron:0 45 0 * * *}")
+    public Mono<Void> accrue() {
+        return engine.start(LocalDate.now())
+                .onErrorResume(IllegalStateException.class, e -> {
+                    log.debug("Accrual run already in progress, skipping");
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
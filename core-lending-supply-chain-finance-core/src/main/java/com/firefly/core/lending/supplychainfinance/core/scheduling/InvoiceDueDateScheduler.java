@@ -0,0 +1,328 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.scheduling;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.events.BulkLoadedEvent;
+import com.firefly.core.lending.supplychainfinance.core.events.InvoiceChangedEvent;
+import com.firefly.core.lending.supplychainfinance.core.events.InvoiceDueDateEvent;
+import com.firefly.core.lending.supplychainfinance.core.lifecycle.InvoiceStatusTransitions;
+import com.firefly.core.lending.supplychainfinance.core.mappers.SupplyChainFinanceInvoiceMapper;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceInvoiceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceInvoice;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceInvoiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fires overdue, late-fee and default events for open invoices without scanning the invoice table.
+ *
+ * <p>Upcoming due dates are loaded incrementally, a few days at a time, through a {@code (due_date, id)}
+ * keyset scan and kept as one-day-tick timers in a {@link HierarchicalTimingWheel}. Invoice changes made
+ * through the invoice service reschedule the affected timers as they happen. Once a day the wheel is
+ * advanced; the invoices whose timers expired are re-read in batches, and those still open with an
+ * unchanged due date are published as {@link InvoiceDueDateEvent}s. Invoices bulk loaded without change events
+ * are picked up by re-reading the due dates already loaded, once the {@link BulkLoadedEvent} of the load arrives.
+ *
+ * <p>After each advance the day reached is recorded as a checkpoint in the database. On startup the wheel resumes
+ * from that checkpoint, so milestones that fell due while no instance was running are fired by the first advance,
+ * with the dates on which they fell due. Without a checkpoint, as on the first start, the first advance fires the
+ * current day's milestones only. An advance interrupted before recording its checkpoint is fired again, so
+ * consumers must tolerate a repeated event for the same invoice and milestone.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "supply-chain-finance.due-dates", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class InvoiceDueDateScheduler {
+
+    private static final String[] CLOSED_STATUSES = Arrays.stream(InvoiceStatusEnum.values())
+            .filter(status -> !InvoiceStatusTransitions.isOpen(status))
+            .map(Enum::name)
+            .toArray(String[]::new);
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private static final String INVOICE_TABLE = "supply_chain_finance_invoice";
+
+    private final SupplyChainFinanceInvoiceRepository repository;
+    private final SupplyChainFinanceInvoiceMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SupplyChainFinanceProperties properties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Guarded by this
+    private HierarchicalTimingWheel<DueDateTimer> wheel;
+    private LocalDate loadedThrough;
+    private LocalDate loadingThrough;
+    private boolean reloadRequested;
+    private final Set<UUID> changedWhileLoading = new HashSet<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        tick().subscribe(null, e -> log.error("Initial due-date load failed", e));
+    }
+
+    @Scheduled(cron = "${supply-chain-finance.due-dates.cron:0 5 0 * * *}")
+    public Mono<Void> tick() {
+        return advance(LocalDate.now());
+    }
+
+    /**
+     * Loads due dates up to the horizon ahead of {@code today} and fires every milestone reached by {@code today}.
+     * A call made while a previous one is still running is skipped.
+     *
+     * @return a Mono completing once all due events have been published
+     */
+    public Mono<Void> advance(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Due-date tick already running, skipping");
+            return Mono.empty();
+        }
+        return initialize(today)
+                .then(Mono.defer(this::reloadIfRequested))
+                .then(Mono.defer(() -> load(today.plusDays(properties.getDueDates().getHorizonDays()))))
+                .then(Mono.fromCallable(() -> expire(today)))
+                .flatMapMany(this::publish)
+                .then(Mono.defer(() -> repository.recordDueDatesFiredThrough(today)))
+                .then()
+                .doFinally(signal -> running.set(false));
+    }
+
+    @EventListener
+    public synchronized void onInvoiceChanged(InvoiceChangedEvent event) {
+        if (wheel == null) {
+            return;
+        }
+        if (loadingThrough != null) {
+            changedWhileLoading.add(event.invoiceId());
+        }
+        SupplyChainFinanceInvoiceDTO invoice = event.invoice();
+        LocalDate trackedThrough = loadingThrough != null ? loadingThrough : loadedThrough;
+        if (event.isDeleted() || invoice.getDueDate() == null || invoice.getDueDate().isAfter(trackedThrough)) {
+            untrack(event.invoiceId());
+        } else {
+            track(event.invoiceId(), invoice.getStatus(), invoice.getDueDate());
+        }
+    }
+
+    /**
+     * Re-reads the due dates already loaded once invoices were bulk loaded, with the next advance, which starts at
+     * once unless one is running already.
+     */
+    @EventListener
+    public void onBulkLoaded(BulkLoadedEvent event) {
+        if (!INVOICE_TABLE.equals(event.table())) {
+            return;
+        }
+        synchronized (this) {
+            reloadRequested = true;
+        }
+        tick().subscribe(null, e -> log.error("Due-date reload after a bulk load failed", e));
+    }
+
+    private Mono<Void> initialize(LocalDate today) {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (wheel != null) {
+                    return Mono.empty();
+                }
+            }
+            // Without a checkpoint start one day back, so that milestones falling on today are fired by the first advance
+            return repository.findDueDatesFiredThrough()
+                    .defaultIfEmpty(today.minusDays(1))
+                    .doOnNext(firedThrough -> startWheel(firedThrough.isAfter(today) ? today : firedThrough, today))
+                    .then();
+        });
+    }
+
+    private synchronized void startWheel(LocalDate firedThrough, LocalDate today) {
+        if (wheel != null) {
+            return;
+        }
+        if (firedThrough.isBefore(today.minusDays(1))) {
+            log.info("Catching up due-date milestones after {}", firedThrough);
+        }
+        wheel = new HierarchicalTimingWheel<>(firedThrough.toEpochDay());
+        loadedThrough = firedThrough.minusDays(latestMilestoneOffset());
+    }
+
+    /**
+     * Moves the loaded window back to the earliest due date still tracked, so that the following load re-reads
+     * everything loaded so far; invoices already tracked are rescheduled as they are.
+     */
+    private synchronized Mono<Void> reloadIfRequested() {
+        if (!reloadRequested) {
+            return Mono.empty();
+        }
+        reloadRequested = false;
+        LocalDate through = loadedThrough;
+        loadedThrough = LocalDate.ofEpochDay(wheel.currentTick()).minusDays(latestMilestoneOffset());
+        return load(through);
+    }
+
+    private Mono<Void> load(LocalDate through) {
+        LocalDate from;
+        synchronized (this) {
+            if (!through.isAfter(loadedThrough)) {
+                return Mono.empty();
+            }
+            from = loadedThrough;
+            loadingThrough = through;
+        }
+        int pageSize = properties.getDueDates().getLoadPageSize();
+        return loadPage(from, through, from, MIN_ID, pageSize)
+                .expand(page -> {
+                    if (page.size() < pageSize) {
+                        return Mono.empty();
+                    }
+                    SupplyChainFinanceInvoice last = page.get(page.size() - 1);
+                    return loadPage(from, through, last.getDueDate(), last.getId(), pageSize);
+                })
+                .doOnNext(this::trackLoaded)
+                .then(Mono.fromRunnable(() -> finishLoading(through)))
+                .doOnError(e -> abortLoading())
+                .then();
+    }
+
+    private Mono<List<SupplyChainFinanceInvoice>> loadPage(LocalDate from, LocalDate through, LocalDate afterDueDate,
+                                                           UUID afterId, int pageSize) {
+        return repository.findDueBetween(from, through, afterDueDate, afterId, CLOSED_STATUSES, pageSize).collectList();
+    }
+
+    private synchronized void trackLoaded(List<SupplyChainFinanceInvoice> page) {
+        for (SupplyChainFinanceInvoice invoice : page) {
+            // A change published after the page was read is newer than the row in the page
+            if (!changedWhileLoading.contains(invoice.getId())) {
+                track(invoice.getId(), invoice.getStatus(), invoice.getDueDate());
+            }
+        }
+    }
+
+    private synchronized void finishLoading(LocalDate through) {
+        log.debug("Loaded due dates from {} through {}, {} timers pending", loadedThrough, through, wheel.size());
+        loadedThrough = through;
+        loadingThrough = null;
+        changedWhileLoading.clear();
+    }
+
+    private synchronized void abortLoading() {
+        loadingThrough = null;
+        changedWhileLoading.clear();
+    }
+
+    private synchronized List<Expired> expire(LocalDate today) {
+        List<Expired> expired = new ArrayList<>();
+        wheel.advanceTo(today.toEpochDay(), timer -> expired.add(new Expired(timer, LocalDate.ofEpochDay(wheel.currentTick()))));
+        return expired;
+    }
+
+    private Flux<InvoiceDueDateEvent> publish(List<Expired> expired) {
+        Map<Milestone, List<UUID>> byMilestone = new LinkedHashMap<>();
+        for (Expired e : expired) {
+            byMilestone.computeIfAbsent(new Milestone(e.timer().type(), e.date()), k -> new ArrayList<>()).add(e.timer().invoiceId());
+        }
+        int batchSize = properties.getDueDates().getEventBatchSize();
+        return Flux.fromIterable(byMilestone.entrySet())
+                .concatMap(entry -> Flux.fromIterable(entry.getValue())
+                        .buffer(batchSize)
+                        .concatMap(ids -> publishBatch(entry.getKey(), ids)));
+    }
+
+    private Mono<InvoiceDueDateEvent> publishBatch(Milestone milestone, List<UUID> ids) {
+        long offset = offset(milestone.type());
+        return repository.findByIdIn(ids)
+                .filter(invoice -> InvoiceStatusTransitions.isOpen(invoice.getStatus())
+                        && invoice.getDueDate() != null
+                        && invoice.getDueDate().plusDays(offset).equals(milestone.date()))
+                .map(mapper::toDTO)
+                .collectList()
+                .filter(invoices -> !invoices.isEmpty())
+                .map(invoices -> new InvoiceDueDateEvent(milestone.type(), milestone.date(), invoices))
+                .doOnNext(event -> {
+                    log.info("{} reached on {} for {} invoices", event.type(), event.date(), event.invoices().size());
+                    eventPublisher.publishEvent(event);
+                });
+    }
+
+    private void track(UUID invoiceId, InvoiceStatusEnum status, LocalDate dueDate) {
+        untrack(invoiceId);
+        if (!InvoiceStatusTransitions.isOpen(status)) {
+            return;
+        }
+        for (InvoiceDueDateEvent.Type type : InvoiceDueDateEvent.Type.values()) {
+            long day = dueDate.plusDays(offset(type)).toEpochDay();
+            if (day > wheel.currentTick() && day <= wheel.maxDeadline()) {
+                wheel.schedule(new DueDateTimer(invoiceId, type), day);
+            }
+        }
+    }
+
+    private void untrack(UUID invoiceId) {
+        for (InvoiceDueDateEvent.Type type : InvoiceDueDateEvent.Type.values()) {
+            wheel.cancel(new DueDateTimer(invoiceId, type));
+        }
+    }
+
+    private long offset(InvoiceDueDateEvent.Type type) {
+        SupplyChainFinanceProperties.DueDates dueDates = properties.getDueDates();
+        return switch (type) {
+            case OVERDUE -> dueDates.getOverdueAfterDays();
+            case LATE_FEE -> dueDates.getLateFeeAfterDays();
+            case DEFAULT -> dueDates.getDefaultAfterDays();
+        };
+    }
+
+    private long latestMilestoneOffset() {
+        long latest = 0;
+        for (InvoiceDueDateEvent.Type type : InvoiceDueDateEvent.Type.values()) {
+            latest = Math.max(latest, offset(type));
+        }
+        return latest;
+    }
+
+    private record DueDateTimer(UUID invoiceId, InvoiceDueDateEvent.Type type) {
+    }
+
+    private record Expired(DueDateTimer timer, LocalDate date) {
+    }
+
+    private record Milestone(InvoiceDueDateEvent.Type type, LocalDate date) {
+    }
+}
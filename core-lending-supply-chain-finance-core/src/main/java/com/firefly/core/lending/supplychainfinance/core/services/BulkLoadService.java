@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services;
+
+import com.firefly.core.lending.supplychainfinance.core.events.BulkLoadedEvent;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BulkLoadReportDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAdvanceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceInvoiceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceSettlementDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Loads historical data in bulk with the PostgreSQL COPY protocol, for client onboarding and backfills.
+ * Each load is a single transaction. Rows failing validation, or referencing missing rows, are rejected and reported
+ * without aborting the load; the rows are stored as given, without the derivations and per-row change events of the
+ * regular create operations. A single {@link BulkLoadedEvent} is published once a load has committed.
+ */
+public interface BulkLoadService {
+
+    /**
+     * Loads invoices. Besides validation, an invoice is rejected if its status is not one of its finance type, its
+     * agreement or counterparty does not exist or its invoice number is already taken, by an existing invoice or an
+     * earlier row of the load.
+     *
+     * @param invoices the stream of invoices to load
+     * @return a Mono emitting the report of the load once it is committed
+     */
+    Mono<BulkLoadReportDTO> loadInvoices(Flux<SupplyChainFinanceInvoiceDTO> invoices);
+
+    /**
+     * Loads advances. Besides validation, an advance is rejected if its invoice does not exist.
+     *
+     * @param advances the stream of advances to load
+     * @return a Mono emitting the report of the load once it is committed
+     */
+    Mono<BulkLoadReportDTO> loadAdvances(Flux<SupplyChainFinanceAdvanceDTO> advances);
+
+    /**
+     * Loads settlements with the waterfall amounts given. Besides validation, a settlement is rejected if its invoice
+     * does not exist or its payment reference is already recorded against the invoice, by an existing settlement or
+     * an earlier row of the load. Invoices whose settlements then cover their amount are moved to PAID, if their
+     * status allows it.
+     *
+     * @param settlements the stream of settlements to load
+     * @return a Mono emitting the report of the load once it is committed, or an IllegalArgumentException if a
+     *         payment was recorded concurrently, in which case nothing is loaded
+     */
+    Mono<BulkLoadReportDTO> loadSettlements(Flux<SupplyChainFinanceSettlementDTO> settlements);
+}
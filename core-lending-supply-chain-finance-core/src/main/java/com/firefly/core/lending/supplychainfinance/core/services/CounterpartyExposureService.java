@@ -0,0 +1,40 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CounterpartyExposureDTO;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface CounterpartyExposureService {
+
+    /**
+     * Retrieves the current exposure of a counterparty and checks it against the approved limit.
+     * Exposure is maintained in memory as invoices and advances change, so no invoice or advance is read. It only
+     * reflects the changes made through this instance since the last recompute, so the check is approximate when
+     * several instances run.
+     *
+     * @param counterpartyId the unique identifier of the counterparty
+     * @param requestedAmount an additional amount to check against the available limit, or null
+     * @return a Mono emitting the exposure, an empty Mono if the counterparty does not exist,
+     *         or an IllegalStateException while exposure is still being loaded after startup
+     */
+    Mono<CounterpartyExposureDTO> getExposure(UUID counterpartyId, BigDecimal requestedAmount);
+}
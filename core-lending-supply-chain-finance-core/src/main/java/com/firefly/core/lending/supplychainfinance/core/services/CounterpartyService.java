@@ -20,6 +20,8 @@ package com.firefly.core.lending.supplychainfinance.core.services;
 import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.queries.PaginationResponse;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CounterpartyDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -34,6 +36,15 @@ public interface CounterpartyService {
      */
     Mono<PaginationResponse<CounterpartyDTO>> findAll(FilterRequest<CounterpartyDTO> filterRequest);
 
+    /**
+     * Retrieves a page of counterparties using keyset pagination ordered by creation time and id.
+     * Unlike {@link #findAll(FilterRequest)} no total count is computed, and the cost of a page does not depend on its depth.
+     *
+     * @param request the equality filters, the continuation token returned by the previous page and the page size
+     * @return a Mono emitting a CursorPageResponseDTO containing the matching CounterpartyDTO objects and the next continuation token
+     */
+    Mono<CursorPageResponseDTO<CounterpartyDTO>> findAllByCursor(CursorPageRequestDTO<CounterpartyDTO> request);
+
     /**
      * Creates a new counterparty.
      *
@@ -59,6 +70,16 @@ public interface CounterpartyService {
      */
     Mono<CounterpartyDTO> update(UUID id, CounterpartyDTO dto);
 
+    /**
+     * Partially updates an existing counterparty with a single statement, without reading it first.
+     * Only the non-null fields of the DTO are written; id, finance type and creation time never change.
+     *
+     * @param id the unique identifier of the counterparty to be updated
+     * @param dto the data transfer object carrying only the fields to change
+     * @return a Mono emitting true if the counterparty was updated, or false if it does not exist
+     */
+    Mono<Boolean> patch(UUID id, CounterpartyDTO dto);
+
     /**
      * Deletes a counterparty by its unique identifier.
      *
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.DisbursementBatchDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.DisbursementBatchRequestDTO;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface DisbursementService {
+
+    /**
+     * Claims the selected unpaid advances for a new disbursement batch by stamping the batch reference onto them
+     * as their payment reference, in claims of the configured batch size, up to the batch's maximum payments.
+     *
+     * @param request the selection of advances to pay out
+     * @return a Mono emitting the new batch, or an empty Mono if no advance was left to pay out
+     */
+    Mono<DisbursementBatchDTO> createBatch(DisbursementBatchRequestDTO request);
+
+    /**
+     * @param reference the reference of the batch
+     * @return a Mono emitting the batch's payment count and totals per currency, or an empty Mono if no advance
+     *         carries the reference
+     */
+    Mono<DisbursementBatchDTO> getBatch(String reference);
+
+    /**
+     * Streams the pain.001 payment file of a batch, reading its advances with a single cursor and writing the
+     * document in chunks as they are read.
+     *
+     * @param reference the reference of the batch
+     * @param executionDate the date the bank is requested to execute the payments
+     * @return a Mono emitting the chunks of the file, empty if no advance carries the reference, or an
+     *         IllegalStateException if the debtor account is not configured
+     */
+    Mono<Flux<DataBuffer>> paymentFile(String reference, LocalDate executionDate);
+}
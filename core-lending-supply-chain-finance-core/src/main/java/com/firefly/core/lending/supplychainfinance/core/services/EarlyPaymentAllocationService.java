@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.EarlyPaymentAllocationDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.EarlyPaymentAllocationRequestDTO;
+import reactor.core.publisher.Mono;
+
+public interface EarlyPaymentAllocationService {
+
+    /**
+     * Chooses the CONFIRMED invoices of a confirming agreement to pay early so that the discount and fees earned are
+     * as high as possible within the budget and supplier caps. Only invoices due at least the agreement's early
+     * payment discount days after the payment date are candidates. Nothing is persisted; the advances returned can
+     * be created as they are.
+     *
+     * @param request the agreement, budget, payment date and supplier caps
+     * @return a Mono emitting the selected advances, an empty Mono if the agreement does not exist, an
+     *         IllegalArgumentException if it is not a confirming agreement, or an IllegalStateException if it is not
+     *         active or does not offer suppliers early payment
+     */
+    Mono<EarlyPaymentAllocationDTO> allocate(EarlyPaymentAllocationRequestDTO request);
+}
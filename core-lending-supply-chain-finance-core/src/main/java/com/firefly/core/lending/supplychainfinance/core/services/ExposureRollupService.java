@@ -0,0 +1,47 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.ExposureRollupDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ExposureRollupService {
+
+    /**
+     * Retrieves the exposure of an agreement per advance currency and converted to a reporting currency.
+     *
+     * @param agreementId the unique identifier of the agreement
+     * @param reportingCurrency the currency to convert to, or null for the configured reporting currency
+     * @return a Mono emitting the exposure, an empty Mono if the agreement does not exist, or an
+     *         IllegalStateException while exposure is still loading or if a currency held is not quoted
+     */
+    Mono<ExposureRollupDTO> getAgreementExposure(UUID agreementId, CurrencyCodeEnum reportingCurrency);
+
+    /**
+     * Retrieves the exposure of a counterparty per advance currency and converted to a reporting currency.
+     *
+     * @param counterpartyId the unique identifier of the counterparty
+     * @param reportingCurrency the currency to convert to, or null for the configured reporting currency
+     * @return a Mono emitting the exposure, an empty Mono if the counterparty does not exist, or an
+     *         IllegalStateException while exposure is still loading or if a currency held is not quoted
+     */
+    Mono<ExposureRollupDTO> getCounterpartyExposure(UUID counterpartyId, CurrencyCodeEnum reportingCurrency);
+}
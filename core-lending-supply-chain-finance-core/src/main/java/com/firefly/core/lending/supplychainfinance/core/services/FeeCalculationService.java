@@ -0,0 +1,42 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.FeeCalculationDTO;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface FeeCalculationService {
+
+    /**
+     * Calculates the fees the invoice's agreement charges on the invoice as of today.
+     *
+     * @param invoiceId the unique identifier of the invoice
+     * @return a Mono emitting the fees, or an empty Mono if the invoice does not exist
+     */
+    Mono<FeeCalculationDTO> calculateForInvoice(UUID invoiceId);
+
+    /**
+     * Calculates the fees the agreement of the advance's invoice charges on the advance.
+     *
+     * @param advanceId the unique identifier of the advance
+     * @return a Mono emitting the fees, or an empty Mono if the advance or its invoice does not exist
+     */
+    Mono<FeeCalculationDTO> calculateForAdvance(UUID advanceId);
+}
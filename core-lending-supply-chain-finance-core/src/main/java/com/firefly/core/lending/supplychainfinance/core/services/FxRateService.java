@@ -0,0 +1,40 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.FxRateSnapshotDTO;
+import reactor.core.publisher.Mono;
+
+public interface FxRateService {
+
+    /**
+     * Retrieves the FX rates currently in use by this instance.
+     *
+     * @return a Mono emitting the current FxRateSnapshotDTO
+     */
+    Mono<FxRateSnapshotDTO> getCurrent();
+
+    /**
+     * Publishes a new version of the FX rates. Currencies absent from the request keep their current rate.
+     * The new version replaces the current one atomically for all readers.
+     *
+     * @param dto the changed rates, as the value of one unit of each currency in EUR
+     * @return a Mono emitting the published FxRateSnapshotDTO, or an IllegalArgumentException if a rate is invalid
+     */
+    Mono<FxRateSnapshotDTO> publish(FxRateSnapshotDTO dto);
+}
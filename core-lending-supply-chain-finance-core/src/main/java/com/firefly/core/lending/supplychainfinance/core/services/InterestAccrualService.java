@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAccrualDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAccrualRunDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface InterestAccrualService {
+
+    /**
+     * Starts the accrual run of a date in the background, or resumes it from its checkpoint if it was interrupted.
+     * A completed run is not run again.
+     *
+     * @param accrualDate the date interest is accrued as of
+     * @return a Mono emitting the run as it stands when started, or an IllegalStateException if a run is already
+     *         in progress
+     */
+    Mono<SupplyChainFinanceAccrualRunDTO> startRun(LocalDate accrualDate);
+
+    /**
+     * @param accrualDate the date interest is accrued as of
+     * @return a Mono emitting the progress of the date's run, or an empty Mono if it never started
+     */
+    Mono<SupplyChainFinanceAccrualRunDTO> getRun(LocalDate accrualDate);
+
+    /**
+     * @param advanceId the unique identifier of the advance
+     * @return a Flux emitting the accruals of the advance by accrual date
+     */
+    Flux<SupplyChainFinanceAccrualDTO> findByAdvanceId(UUID advanceId);
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.InvoiceAgingDTO;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+public interface InvoiceAgingService {
+
+    /**
+     * Retrieves the aging buckets of the open invoices of an agreement, per counterparty and currency.
+     * Buckets are computed from the database on every request, with days past due counted to the current day.
+     *
+     * @param agreementId the unique identifier of the agreement
+     * @param counterpartyId the unique identifier of a counterparty to restrict the result to, or null for all
+     * @return a Flux emitting one InvoiceAgingDTO per counterparty and currency with open invoices
+     */
+    Flux<InvoiceAgingDTO> getAging(UUID agreementId, UUID counterpartyId);
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.LimitReservationDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.LimitReservationRequestDTO;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface LimitReservationService {
+
+    /**
+     * Reserves part of an agreement's available credit limit. The reservation is released automatically
+     * if it is neither committed nor released before it expires.
+     *
+     * @param agreementId the unique identifier of the agreement
+     * @param request the amount to reserve and an optional time to live
+     * @return a Mono emitting the reservation, or an IllegalStateException if the agreement is not active
+     *         or has not enough available limit
+     */
+    Mono<LimitReservationDTO> reserve(UUID agreementId, LimitReservationRequestDTO request);
+
+    /**
+     * Retrieves a reservation that is still held.
+     *
+     * @param agreementId the unique identifier of the agreement
+     * @param reservationId the unique identifier of the reservation
+     * @return a Mono emitting the LimitReservationDTO, or an empty Mono if it is not held on this agreement
+     */
+    Mono<LimitReservationDTO> getById(UUID agreementId, UUID reservationId);
+
+    /**
+     * Commits a reservation, adding its amount to the agreement's outstanding amount.
+     *
+     * @param agreementId the unique identifier of the agreement
+     * @param reservationId the unique identifier of the reservation
+     * @return a Mono emitting the committed LimitReservationDTO, or an empty Mono if it is not held on this agreement
+     */
+    Mono<LimitReservationDTO> commit(UUID agreementId, UUID reservationId);
+
+    /**
+     * Releases a reservation, making its amount available again.
+     *
+     * @param agreementId the unique identifier of the agreement
+     * @param reservationId the unique identifier of the reservation
+     * @return a Mono emitting the released LimitReservationDTO, or an empty Mono if it is not held on this agreement
+     */
+    Mono<LimitReservationDTO> release(UUID agreementId, UUID reservationId);
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BankReceiptDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.ReceiptMatchDTO;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+public interface ReconciliationService {
+
+    /**
+     * Matches a day's bank receipts to open invoices and writes a settlement for every confirmed match, with the
+     * receipt's value date, amount and reference.
+     *
+     * @param receipts the receipts to reconcile
+     * @param agreementId the agreement whose invoices the receipts may pay, or null for all agreements
+     * @return a Flux emitting one ReceiptMatchDTO per receipt, carrying either the invoice settled or the reason
+     *         the receipt was not matched
+     */
+    Flux<ReceiptMatchDTO> reconcile(Flux<BankReceiptDTO> receipts, UUID agreementId);
+}
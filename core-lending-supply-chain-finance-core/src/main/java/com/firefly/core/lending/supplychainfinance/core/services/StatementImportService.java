@@ -0,0 +1,39 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.ReceiptMatchDTO;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+public interface StatementImportService {
+
+    /**
+     * Reads the booked credit entries of a camt.053 bank statement as bank receipts and reconciles them against the
+     * open invoices, writing a settlement for every confirmed match. The statement is parsed as it is received, so
+     * it may be of any size.
+     *
+     * @param statement the camt.053 document
+     * @param agreementId the agreement whose invoices the receipts may pay, or null for all agreements
+     * @return a Flux emitting one ReceiptMatchDTO per credit entry, carrying either the invoice settled or the
+     *         reason the entry was not matched
+     */
+    Flux<ReceiptMatchDTO> importStatement(Flux<DataBuffer> statement, UUID agreementId);
+}
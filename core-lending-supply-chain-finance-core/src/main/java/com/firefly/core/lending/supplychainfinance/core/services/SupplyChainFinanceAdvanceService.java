@@ -19,7 +19,12 @@ package com.firefly.core.lending.supplychainfinance.core.services;
 
 import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.queries.PaginationResponse;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.AdvanceQuoteDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.AdvanceQuoteRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAdvanceDTO;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -35,10 +40,49 @@ public interface SupplyChainFinanceAdvanceService {
     Mono<PaginationResponse<SupplyChainFinanceAdvanceDTO>> findAll(FilterRequest<SupplyChainFinanceAdvanceDTO> filterRequest);
 
     /**
-     * Creates a new supply chain finance advance.
+     * Retrieves a page of supply chain finance advances using keyset pagination ordered by creation time and id.
+     * Unlike {@link #findAll(FilterRequest)} no total count is computed, and the cost of a page does not depend on its depth.
+     *
+     * @param request the equality filters, the continuation token returned by the previous page and the page size
+     * @return a Mono emitting a CursorPageResponseDTO containing the matching SupplyChainFinanceAdvanceDTO objects and the next continuation token
+     */
+    Mono<CursorPageResponseDTO<SupplyChainFinanceAdvanceDTO>> findAllByCursor(CursorPageRequestDTO<SupplyChainFinanceAdvanceDTO> request);
+
+    /**
+     * Streams all advances belonging to an agreement, ordered by creation time.
+     * Rows are read from the database in chunks as the subscriber requests them, so memory use does not depend on the number of advances.
+     *
+     * @param agreementId the unique identifier of the agreement whose advances are exported
+     * @return a Flux emitting every SupplyChainFinanceAdvanceDTO of the agreement
+     */
+    Flux<SupplyChainFinanceAdvanceDTO> exportByAgreement(UUID agreementId);
+
+    /**
+     * Streams all advances belonging to an agreement as CSV lines, preceded by a header line.
+     *
+     * @param agreementId the unique identifier of the agreement whose advances are exported
+     * @return a Flux emitting the CSV header followed by one CRLF-terminated line per advance
+     */
+    Flux<String> exportByAgreementAsCsv(UUID agreementId);
+
+    /**
+     * Prices an advance on each of the given invoices as it would be created on the advance date, without persisting
+     * anything. All invoices are read with one query, and their agreements and fee schedules through their caches,
+     * before pricing starts; quotes are then computed in parallel and no database connection is held meanwhile.
+     *
+     * @param request the invoices to quote and the advance date
+     * @return a Flux emitting one AdvanceQuoteDTO per distinct invoice, in request order, carrying either the price
+     *         or the reason the invoice cannot be advanced, or an IllegalArgumentException if too many invoices are named
+     */
+    Flux<AdvanceQuoteDTO> quote(AdvanceQuoteRequestDTO request);
+
+    /**
+     * Creates a new supply chain finance advance. An advance on an agreement's invoice reserves its amount on the
+     * agreement's credit limit and adds it to the agreement's outstanding amount together with the insert.
      *
      * @param dto the data transfer object containing the details of the advance to be created
-     * @return a Mono emitting the created SupplyChainFinanceAdvanceDTO object upon successful creation
+     * @return a Mono emitting the created SupplyChainFinanceAdvanceDTO object upon successful creation, or an
+     *         IllegalStateException if the agreement is not active or has not enough available limit
      */
     Mono<SupplyChainFinanceAdvanceDTO> create(SupplyChainFinanceAdvanceDTO dto);
 
@@ -59,6 +103,16 @@ public interface SupplyChainFinanceAdvanceService {
      */
     Mono<SupplyChainFinanceAdvanceDTO> update(UUID id, SupplyChainFinanceAdvanceDTO dto);
 
+    /**
+     * Partially updates an existing supply chain finance advance with a single statement, without reading it first.
+     * Only the non-null fields of the DTO are written; id, finance type and creation time never change.
+     *
+     * @param id the unique identifier of the advance to be updated
+     * @param dto the data transfer object carrying only the fields to change
+     * @return a Mono emitting true if the advance was updated, or false if it does not exist
+     */
+    Mono<Boolean> patch(UUID id, SupplyChainFinanceAdvanceDTO dto);
+
     /**
      * Deletes a supply chain finance advance by its unique identifier.
      *
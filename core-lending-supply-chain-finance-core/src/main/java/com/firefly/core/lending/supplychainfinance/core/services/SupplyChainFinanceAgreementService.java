@@ -19,6 +19,8 @@ package com.firefly.core.lending.supplychainfinance.core.services;
 
 import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.queries.PaginationResponse;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAgreementDTO;
 import reactor.core.publisher.Mono;
 
@@ -34,6 +36,15 @@ public interface SupplyChainFinanceAgreementService {
      */
     Mono<PaginationResponse<SupplyChainFinanceAgreementDTO>> findAll(FilterRequest<SupplyChainFinanceAgreementDTO> filterRequest);
 
+    /**
+     * Retrieves a page of supply chain finance agreements using keyset pagination ordered by creation time and id.
+     * Unlike {@link #findAll(FilterRequest)} no total count is computed, and the cost of a page does not depend on its depth.
+     *
+     * @param request the equality filters, the continuation token returned by the previous page and the page size
+     * @return a Mono emitting a CursorPageResponseDTO containing the matching SupplyChainFinanceAgreementDTO objects and the next continuation token
+     */
+    Mono<CursorPageResponseDTO<SupplyChainFinanceAgreementDTO>> findAllByCursor(CursorPageRequestDTO<SupplyChainFinanceAgreementDTO> request);
+
     /**
      * Creates a new supply chain finance agreement.
      *
@@ -51,14 +62,38 @@ public interface SupplyChainFinanceAgreementService {
     Mono<SupplyChainFinanceAgreementDTO> getById(UUID id);
 
     /**
-     * Updates an existing supply chain finance agreement.
+     * Retrieves a specific supply chain finance agreement by its agreement number.
+     *
+     * @param agreementNumber the agreement number of the agreement to retrieve
+     * @return a Mono emitting the SupplyChainFinanceAgreementDTO if found, or an empty Mono if not
+     */
+    Mono<SupplyChainFinanceAgreementDTO> getByAgreementNumber(String agreementNumber);
+
+    /**
+     * Updates an existing supply chain finance agreement. The available limit and outstanding amount are maintained
+     * by limit reservations and kept as they are; a change of credit limit moves the available limit by the same
+     * amount.
      *
      * @param id the unique identifier of the agreement to be updated
      * @param dto the data transfer object containing the updated details of the agreement
-     * @return a Mono emitting the updated SupplyChainFinanceAgreementDTO object upon successful update
+     * @return a Mono emitting the updated SupplyChainFinanceAgreementDTO object upon successful update,
+     *         or an IllegalArgumentException if it is invalid or lowers the credit limit below the limit in use
      */
     Mono<SupplyChainFinanceAgreementDTO> update(UUID id, SupplyChainFinanceAgreementDTO dto);
 
+    /**
+     * Partially updates an existing supply chain finance agreement with a single statement. Only the non-null fields
+     * of the DTO are written; id, finance type and creation time never change, and the credit limit, available limit
+     * and outstanding amount are not patchable. The agreement as patched is checked by the same validation rules as
+     * an update before anything is written.
+     *
+     * @param id the unique identifier of the agreement to be updated
+     * @param dto the data transfer object carrying only the fields to change
+     * @return a Mono emitting true if the agreement was updated, or false if it does not exist,
+     *         or an IllegalArgumentException if the agreement as patched is invalid
+     */
+    Mono<Boolean> patch(UUID id, SupplyChainFinanceAgreementDTO dto);
+
     /**
      * Deletes a supply chain finance agreement by its unique identifier.
      *
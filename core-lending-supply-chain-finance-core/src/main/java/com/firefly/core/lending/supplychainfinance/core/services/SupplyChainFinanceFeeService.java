@@ -19,6 +19,8 @@ package com.firefly.core.lending.supplychainfinance.core.services;
 
 import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.queries.PaginationResponse;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceFeeDTO;
 import reactor.core.publisher.Mono;
 
@@ -34,6 +36,15 @@ public interface SupplyChainFinanceFeeService {
      */
     Mono<PaginationResponse<SupplyChainFinanceFeeDTO>> findAll(FilterRequest<SupplyChainFinanceFeeDTO> filterRequest);
 
+    /**
+     * Retrieves a page of supply chain finance fees using keyset pagination ordered by creation time and id.
+     * Unlike {@link #findAll(FilterRequest)} no total count is computed, and the cost of a page does not depend on its depth.
+     *
+     * @param request the equality filters, the continuation token returned by the previous page and the page size
+     * @return a Mono emitting a CursorPageResponseDTO containing the matching SupplyChainFinanceFeeDTO objects and the next continuation token
+     */
+    Mono<CursorPageResponseDTO<SupplyChainFinanceFeeDTO>> findAllByCursor(CursorPageRequestDTO<SupplyChainFinanceFeeDTO> request);
+
     /**
      * Creates a new supply chain finance fee.
      *
@@ -59,6 +70,16 @@ public interface SupplyChainFinanceFeeService {
      */
     Mono<SupplyChainFinanceFeeDTO> update(UUID id, SupplyChainFinanceFeeDTO dto);
 
+    /**
+     * Partially updates an existing supply chain finance fee with a single statement, without reading it first.
+     * Only the non-null fields of the DTO are written; id, finance type and creation time never change.
+     *
+     * @param id the unique identifier of the fee to be updated
+     * @param dto the data transfer object carrying only the fields to change
+     * @return a Mono emitting true if the fee was updated, or false if it does not exist
+     */
+    Mono<Boolean> patch(UUID id, SupplyChainFinanceFeeDTO dto);
+
     /**
      * Deletes a supply chain finance fee by its unique identifier.
      *
@@ -19,7 +19,12 @@ package com.firefly.core.lending.supplychainfinance.core.services;
 
 import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.queries.PaginationResponse;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BulkItemResultDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.InvoiceStatusTransitionDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceInvoiceDTO;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -34,6 +39,32 @@ public interface SupplyChainFinanceInvoiceService {
      */
     Mono<PaginationResponse<SupplyChainFinanceInvoiceDTO>> findAll(FilterRequest<SupplyChainFinanceInvoiceDTO> filterRequest);
 
+    /**
+     * Retrieves a page of supply chain finance invoices using keyset pagination ordered by creation time and id.
+     * Unlike {@link #findAll(FilterRequest)} no total count is computed, and the cost of a page does not depend on its depth.
+     *
+     * @param request the equality filters, the continuation token returned by the previous page and the page size
+     * @return a Mono emitting a CursorPageResponseDTO containing the matching SupplyChainFinanceInvoiceDTO objects and the next continuation token
+     */
+    Mono<CursorPageResponseDTO<SupplyChainFinanceInvoiceDTO>> findAllByCursor(CursorPageRequestDTO<SupplyChainFinanceInvoiceDTO> request);
+
+    /**
+     * Streams all invoices belonging to an agreement, ordered by creation time.
+     * Rows are read from the database in chunks as the subscriber requests them, so memory use does not depend on the number of invoices.
+     *
+     * @param agreementId the unique identifier of the agreement whose invoices are exported
+     * @return a Flux emitting every SupplyChainFinanceInvoiceDTO of the agreement
+     */
+    Flux<SupplyChainFinanceInvoiceDTO> exportByAgreement(UUID agreementId);
+
+    /**
+     * Streams all invoices belonging to an agreement as CSV lines, preceded by a header line.
+     *
+     * @param agreementId the unique identifier of the agreement whose invoices are exported
+     * @return a Flux emitting the CSV header followed by one CRLF-terminated line per invoice
+     */
+    Flux<String> exportByAgreementAsCsv(UUID agreementId);
+
     /**
      * Creates a new supply chain finance invoice.
      *
@@ -42,6 +73,16 @@ public interface SupplyChainFinanceInvoiceService {
      */
     Mono<SupplyChainFinanceInvoiceDTO> create(SupplyChainFinanceInvoiceDTO dto);
 
+    /**
+     * Creates supply chain finance invoices from a stream, inserting them in batches.
+     * Each row is validated individually; a row that fails validation or cannot be inserted
+     * is reported as an error without aborting the rest of the stream.
+     *
+     * @param invoices the stream of invoices to be created
+     * @return a Flux emitting one BulkItemResultDTO per submitted row, carrying either the generated id or the error
+     */
+    Flux<BulkItemResultDTO> bulkCreate(Flux<SupplyChainFinanceInvoiceDTO> invoices);
+
     /**
      * Retrieves a specific supply chain finance invoice by its unique identifier.
      *
@@ -59,6 +100,28 @@ public interface SupplyChainFinanceInvoiceService {
      */
     Mono<SupplyChainFinanceInvoiceDTO> update(UUID id, SupplyChainFinanceInvoiceDTO dto);
 
+    /**
+     * Partially updates an existing supply chain finance invoice with a single statement, without reading it first.
+     * Only the non-null fields of the DTO are written; id, finance type and creation time never change.
+     * The status cannot be patched; use {@link #transitionStatus(UUID, InvoiceStatusTransitionDTO)} instead.
+     *
+     * @param id the unique identifier of the invoice to be updated
+     * @param dto the data transfer object carrying only the fields to change
+     * @return a Mono emitting true if the invoice was updated, or false if it does not exist
+     */
+    Mono<Boolean> patch(UUID id, SupplyChainFinanceInvoiceDTO dto);
+
+    /**
+     * Moves an invoice to a new status if the transition is legal for its finance type and the invoice
+     * is still in the status the caller expects. The check and the write are a single conditional update.
+     *
+     * @param id the unique identifier of the invoice
+     * @param transition the expected current status, the target status and an optional rejection reason
+     * @return a Mono emitting the updated SupplyChainFinanceInvoiceDTO, an empty Mono if the invoice does not exist,
+     *         or an IllegalStateException if the transition is illegal or the invoice is no longer in the expected status
+     */
+    Mono<SupplyChainFinanceInvoiceDTO> transitionStatus(UUID id, InvoiceStatusTransitionDTO transition);
+
     /**
      * Deletes a supply chain finance invoice by its unique identifier.
      *
@@ -19,7 +19,11 @@ package com.firefly.core.lending.supplychainfinance.core.services;
 
 import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.queries.PaginationResponse;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BulkItemResultDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceSettlementDTO;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -35,13 +39,62 @@ public interface SupplyChainFinanceSettlementService {
     Mono<PaginationResponse<SupplyChainFinanceSettlementDTO>> findAll(FilterRequest<SupplyChainFinanceSettlementDTO> filterRequest);
 
     /**
-     * Creates a new supply chain finance settlement.
+     * Retrieves a page of supply chain finance settlements using keyset pagination ordered by creation time and id.
+     * Unlike {@link #findAll(FilterRequest)} no total count is computed, and the cost of a page does not depend on its depth.
+     *
+     * @param request the equality filters, the continuation token returned by the previous page and the page size
+     * @return a Mono emitting a CursorPageResponseDTO containing the matching SupplyChainFinanceSettlementDTO objects and the next continuation token
+     */
+    Mono<CursorPageResponseDTO<SupplyChainFinanceSettlementDTO>> findAllByCursor(CursorPageRequestDTO<SupplyChainFinanceSettlementDTO> request);
+
+    /**
+     * Streams all settlements belonging to an agreement, ordered by creation time.
+     * Rows are read from the database in chunks as the subscriber requests them, so memory use does not depend on the number of settlements.
+     *
+     * @param agreementId the unique identifier of the agreement whose settlements are exported
+     * @return a Flux emitting every SupplyChainFinanceSettlementDTO of the agreement
+     */
+    Flux<SupplyChainFinanceSettlementDTO> exportByAgreement(UUID agreementId);
+
+    /**
+     * Streams all settlements belonging to an agreement as CSV lines, preceded by a header line.
+     *
+     * @param agreementId the unique identifier of the agreement whose settlements are exported
+     * @return a Flux emitting the CSV header followed by one CRLF-terminated line per settlement
+     */
+    Flux<String> exportByAgreementAsCsv(UUID agreementId);
+
+    /**
+     * Creates a new supply chain finance settlement. If any of the advanced, interest and fee amounts or the
+     * balance due is left out, the missing ones are derived as {@link #calculate} does.
      *
      * @param dto the data transfer object containing the details of the settlement to be created
-     * @return a Mono emitting the created SupplyChainFinanceSettlementDTO object upon successful creation
+     * @return a Mono emitting the created SupplyChainFinanceSettlementDTO object upon successful creation, or an
+     *         IllegalStateException if its payment reference is already recorded against the invoice
      */
     Mono<SupplyChainFinanceSettlementDTO> create(SupplyChainFinanceSettlementDTO dto);
 
+    /**
+     * Computes the waterfall of a settlement without persisting it. The advanced amount is the sum of the invoice's
+     * advances, the interest what accrued on them through the settlement date beyond their upfront discount, and the
+     * fee the invoice fees due on the settlement date under the agreement's fee schedule. Amounts submitted are kept.
+     *
+     * @param dto the settlement to compute the waterfall of
+     * @return a Mono emitting the settlement with its advanced, interest and fee amounts and balance due filled in
+     */
+    Mono<SupplyChainFinanceSettlementDTO> calculate(SupplyChainFinanceSettlementDTO dto);
+
+    /**
+     * Creates supply chain finance settlements from a stream, deriving the waterfall of each as {@link #calculate}
+     * does and inserting them in batches. A row that fails validation, whose invoice is unknown, whose payment
+     * reference is already recorded against the invoice or that cannot be inserted is reported as an error without
+     * aborting the rest of the stream.
+     *
+     * @param settlements the stream of settlements to be created
+     * @return a Flux emitting one BulkItemResultDTO per submitted row, carrying either the generated id or the error
+     */
+    Flux<BulkItemResultDTO> bulkCreate(Flux<SupplyChainFinanceSettlementDTO> settlements);
+
     /**
      * Retrieves a specific supply chain finance settlement by its unique identifier.
      *
@@ -59,6 +112,16 @@ public interface SupplyChainFinanceSettlementService {
      */
     Mono<SupplyChainFinanceSettlementDTO> update(UUID id, SupplyChainFinanceSettlementDTO dto);
 
+    /**
+     * Partially updates an existing supply chain finance settlement with a single statement, without reading it first.
+     * Only the non-null fields of the DTO are written; id, finance type and creation time never change.
+     *
+     * @param id the unique identifier of the settlement to be updated
+     * @param dto the data transfer object carrying only the fields to change
+     * @return a Mono emitting true if the settlement was updated, or false if it does not exist
+     */
+    Mono<Boolean> patch(UUID id, SupplyChainFinanceSettlementDTO dto);
+
     /**
      * Deletes a supply chain finance settlement by its unique identifier.
      *
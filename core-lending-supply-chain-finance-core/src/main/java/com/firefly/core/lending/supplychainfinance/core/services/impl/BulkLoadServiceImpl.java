@@ -0,0 +1,204 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services.impl;
+
+import com.firefly.core.lending.supplychainfinance.core.bulkload.BulkLoadTable;
+import com.firefly.core.lending.supplychainfinance.core.bulkload.CopyBulkLoader;
+import com.firefly.core.lending.supplychainfinance.core.lifecycle.InvoiceStatusTransitions;
+import com.firefly.core.lending.supplychainfinance.core.services.BulkLoadService;
+import com.firefly.core.lending.supplychainfinance.core.validation.ValidationPipeline;
+import com.firefly.core.lending.supplychainfinance.core.validation.ValidationViolation;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BulkLoadReportDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAdvanceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceInvoiceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceSettlementDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class BulkLoadServiceImpl implements BulkLoadService {
+
+    private static final BulkLoadTable<SupplyChainFinanceInvoiceDTO> INVOICES = new BulkLoadTable<>(
+            "supply_chain_finance_invoice",
+            List.of("finance_type", "agreement_id", "counterparty_id", "invoice_number", "invoice_date", "due_date",
+                    "currency", "invoice_amount", "status", "financed_amount", "financed_date", "paid_date",
+                    "verification_notes", "rejection_reason", "purchase_order_number", "delivery_note_number", "notes"),
+            invoice -> new Object[]{invoice.getFinanceType(), invoice.getAgreementId(), invoice.getCounterpartyId(),
+                    invoice.getInvoiceNumber(), invoice.getInvoiceDate(), invoice.getDueDate(), invoice.getCurrency(),
+                    invoice.getInvoiceAmount(), invoice.getStatus(), invoice.getFinancedAmount(), invoice.getFinancedDate(),
+                    invoice.getPaidDate(), invoice.getVerificationNotes(), invoice.getRejectionReason(),
+                    invoice.getPurchaseOrderNumber(), invoice.getDeliveryNoteNumber(), invoice.getNotes()},
+            "invoice_number",
+            """
+                    CASE
+                        WHEN NOT EXISTS (SELECT 1 FROM supply_chain_finance_agreement a WHERE a.id = s.agreement_id)
+                            THEN 'Agreement not found'
+                        WHEN NOT EXISTS (SELECT 1 FROM counterparty c WHERE c.id = s.counterparty_id)
+                            THEN 'Counterparty not found'
+                        WHEN EXISTS (SELECT 1 FROM supply_chain_finance_invoice i
+                                     WHERE i.finance_type = s.finance_type AND i.invoice_number = s.invoice_number)
+                            THEN 'Invoice number already exists'
+                        WHEN row_number() OVER (PARTITION BY s.finance_type, s.invoice_number ORDER BY s.row_index) > 1
+                            THEN 'Invoice number is repeated in the load'
+                    END""",
+            null);
+
+    private static final BulkLoadTable<SupplyChainFinanceAdvanceDTO> ADVANCES = new BulkLoadTable<>(
+            "supply_chain_finance_advance",
+            List.of("finance_type", "invoice_id", "advance_date", "currency", "advance_amount", "discount_amount",
+                    "fee_amount", "net_amount", "payment_reference", "notes"),
+            advance -> new Object[]{advance.getFinanceType(), advance.getInvoiceId(), advance.getAdvanceDate(),
+                    advance.getCurrency(), advance.getAdvanceAmount(), advance.getDiscountAmount(), advance.getFeeAmount(),
+                    advance.getNetAmount(), advance.getPaymentReference(), advance.getNotes()},
+            "payment_reference",
+            """
+                    CASE
+                        WHEN NOT EXISTS (SELECT 1 FROM supply_chain_finance_invoice i WHERE i.id = s.invoice_id)
+                            THEN 'Invoice not found'
+                    END""",
+            null);
+
+    /**
+     * The {@code (finance_type, status)} pairs from which an invoice may move to PAID, as an SQL row list.
+     */
+    static final String PAYABLE = Arrays.stream(InvoiceStatusEnum.values())
+            .flatMap(from -> InvoiceStatusTransitions.financeTypesAllowing(from, InvoiceStatusEnum.PAID).stream()
+                    .map(financeType -> "('" + financeType.name() + "', '" + from.name() + "')"))
+            .collect(Collectors.joining(", "));
+
+    private static final BulkLoadTable<SupplyChainFinanceSettlementDTO> SETTLEMENTS = new BulkLoadTable<>(
+            "supply_chain_finance_settlement",
+            List.of("finance_type", "invoice_id", "settlement_date", "currency", "settlement_amount", "advanced_amount",
+                    "interest_amount", "fee_amount", "balance_due", "payment_reference", "notes"),
+            settlement -> new Object[]{settlement.getFinanceType(), settlement.getInvoiceId(), settlement.getSettlementDate(),
+                    settlement.getCurrency(), settlement.getSettlementAmount(), settlement.getAdvancedAmount(),
+                    settlement.getInterestAmount(), settlement.getFeeAmount(), settlement.getBalanceDue(),
+                    settlement.getPaymentReference(), settlement.getNotes()},
+            "payment_reference",
+            """
+                    CASE
+                        WHEN NOT EXISTS (SELECT 1 FROM supply_chain_finance_invoice i WHERE i.id = s.invoice_id)
+                            THEN 'Invoice not found'
+                        -- Payments recorded after this check are caught by the unique (invoice_id, payment_reference)
+                        -- index, which fails the whole load
+                        WHEN EXISTS (SELECT 1 FROM supply_chain_finance_settlement x
+                                     WHERE x.invoice_id = s.invoice_id AND x.payment_reference = s.payment_reference)
+                            THEN 'Payment already recorded against the invoice'
+                        WHEN s.payment_reference IS NOT NULL
+                             AND row_number() OVER (PARTITION BY s.invoice_id, s.payment_reference ORDER BY s.row_index) > 1
+                            THEN 'Payment is repeated in the load'
+                    END""",
+            // Invoices whose settlements now cover their amount are paid, if their status allows it
+            """
+                    UPDATE supply_chain_finance_invoice i
+                    SET status = 'PAID', updated_at = CURRENT_TIMESTAMP
+                    WHERE i.id IN (SELECT invoice_id FROM %s)
+                      AND (i.finance_type::text, i.status::text) IN (%s)
+                      AND i.invoice_amount <= (SELECT SUM(x.settlement_amount) FROM supply_chain_finance_settlement x
+                                               WHERE x.invoice_id = i.id)""".formatted(CopyBulkLoader.STAGING_TABLE, PAYABLE));
+
+    private final CopyBulkLoader loader;
+    private final Validator validator;
+    private final ValidationPipeline validation;
+
+    @Override
+    public Mono<BulkLoadReportDTO> loadInvoices(Flux<SupplyChainFinanceInvoiceDTO> invoices) {
+        return loader.load(INVOICES, invoices,
+                checks(SupplyChainFinanceInvoiceDTO.class, SupplyChainFinanceInvoiceDTO::getFinanceType,
+                        BulkLoadServiceImpl::statusViolation));
+    }
+
+    @Override
+    public Mono<BulkLoadReportDTO> loadAdvances(Flux<SupplyChainFinanceAdvanceDTO> advances) {
+        return loader.load(ADVANCES, advances,
+                checks(SupplyChainFinanceAdvanceDTO.class, SupplyChainFinanceAdvanceDTO::getFinanceType, row -> null));
+    }
+
+    @Override
+    public Mono<BulkLoadReportDTO> loadSettlements(Flux<SupplyChainFinanceSettlementDTO> settlements) {
+        return loader.load(SETTLEMENTS, settlements,
+                checks(SupplyChainFinanceSettlementDTO.class, SupplyChainFinanceSettlementDTO::getFinanceType, row -> null));
+    }
+
+    /**
+     * @param rowCheck a check specific to the table, returning a violation or null
+     * @return the bean constraints and validation rules of {@code type} and the row check as one check, returning
+     *         the violations of a row joined, or null if there are none
+     */
+    private <T> Function<T, String> checks(Class<T> type, Function<T, FinanceTypeEnum> financeType,
+                                           Function<T, String> rowCheck) {
+        ValidationPipeline.RuleSet<T> rules = validation.rulesFor(type);
+        return row -> {
+            Set<ConstraintViolation<T>> violations = validator.validate(row);
+            List<ValidationViolation> ruleViolations = rules.validate(financeType.apply(row), row);
+            String rowViolation = rowCheck.apply(row);
+            if (violations.isEmpty() && ruleViolations.isEmpty() && rowViolation == null) {
+                return null;
+            }
+            return Stream.of(
+                            violations.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage()),
+                            ruleViolations.stream().map(ValidationViolation::toString),
+                            Stream.ofNullable(rowViolation))
+                    .flatMap(Function.identity())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        };
+    }
+
+    /**
+     * Rejects statuses an invoice of its finance type can never be in, such as CONFIRMED for factoring, rather
+     * than loading rows the status transitions could never move on.
+     */
+    private static String statusViolation(SupplyChainFinanceInvoiceDTO invoice) {
+        if (invoice.getStatus() == null || invoice.getFinanceType() == null
+                || isUsedBy(invoice.getFinanceType(), invoice.getStatus())) {
+            return null;
+        }
+        return "status: " + invoice.getStatus() + " is not a status of " + invoice.getFinanceType() + " invoices";
+    }
+
+    /**
+     * @return whether an invoice of the given finance type can be in the status: it is registered in it, or some
+     *         transition leads to it
+     */
+    static boolean isUsedBy(FinanceTypeEnum financeType, InvoiceStatusEnum status) {
+        if (status == InvoiceStatusEnum.REGISTERED) {
+            return true;
+        }
+        for (InvoiceStatusEnum from : InvoiceStatusEnum.values()) {
+            if (InvoiceStatusTransitions.isAllowed(financeType, from, status)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
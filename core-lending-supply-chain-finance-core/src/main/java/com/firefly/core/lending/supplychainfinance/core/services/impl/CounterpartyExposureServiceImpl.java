@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services.impl;
+
+import com.firefly.core.lending.supplychainfinance.core.cache.AgreementCache;
+import com.firefly.core.lending.supplychainfinance.core.exposure.ExposureRollupEngine;
+import com.firefly.core.lending.supplychainfinance.core.services.CounterpartyExposureService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CounterpartyExposureDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.ExposureRollupDTO;
+import com.firefly.core.lending.supplychainfinance.models.entities.Counterparty;
+import com.firefly.core.lending.supplychainfinance.models.repositories.CounterpartyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class CounterpartyExposureServiceImpl implements CounterpartyExposureService {
+
+    private final CounterpartyRepository repository;
+    private final AgreementCache agreementCache;
+    private final ExposureRollupEngine rollupEngine;
+
+    @Override
+    public Mono<CounterpartyExposureDTO> getExposure(UUID counterpartyId, BigDecimal requestedAmount) {
+        if (!rollupEngine.isReady()) {
+            return Mono.error(new IllegalStateException("Counterparty exposure is still loading"));
+        }
+        return repository.findById(counterpartyId)
+                .flatMap(counterparty -> agreementCache.findById(counterparty.getAgreementId())
+                        .filter(agreement -> agreement.getCurrency() != null)
+                        // The approved limit is in the agreement currency, so advances in other currencies are converted first
+                        .map(agreement -> rollupEngine.counterpartyExposure(counterpartyId, agreement.getCurrency()))
+                        .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                                "Agreement of counterparty " + counterpartyId + " has no currency")))
+                        .map(rollup -> toDTO(counterparty, rollup, requestedAmount)));
+    }
+
+    private static CounterpartyExposureDTO toDTO(Counterparty counterparty, ExposureRollupDTO rollup, BigDecimal requestedAmount) {
+        BigDecimal exposure = rollup.getTotalExposure();
+        BigDecimal available = counterparty.getApprovedLimit() != null
+                ? counterparty.getApprovedLimit().subtract(exposure)
+                : null;
+        Boolean withinLimit = requestedAmount == null
+                ? null
+                : available == null || requestedAmount.compareTo(available) <= 0;
+        return CounterpartyExposureDTO.builder()
+                .counterpartyId(counterparty.getId())
+                .approvedLimit(counterparty.getApprovedLimit())
+                .currency(rollup.getReportingCurrency())
+                .currentExposure(exposure)
+                .availableLimit(available)
+                .requestedAmount(requestedAmount)
+                .withinLimit(withinLimit)
+                .rateVersion(rollup.getRateVersion())
+                .build();
+    }
+}
@@ -22,7 +22,11 @@ import org.fireflyframework.core.filters.FilterUtils;
 import org.fireflyframework.core.queries.PaginationResponse;
 import com.firefly.core.lending.supplychainfinance.core.mappers.CounterpartyMapper;
 import com.firefly.core.lending.supplychainfinance.core.services.CounterpartyService;
+import com.firefly.core.lending.supplychainfinance.core.support.KeysetPaginationSupport;
+import com.firefly.core.lending.supplychainfinance.core.support.PartialUpdateSupport;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CounterpartyDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import com.firefly.core.lending.supplychainfinance.models.entities.Counterparty;
 import com.firefly.core.lending.supplychainfinance.models.repositories.CounterpartyRepository;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +34,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 @Service
@@ -39,6 +44,8 @@ public class CounterpartyServiceImpl implements CounterpartyService {
 
     private final CounterpartyRepository repository;
     private final CounterpartyMapper mapper;
+    private final KeysetPaginationSupport keysetPagination;
+    private final PartialUpdateSupport partialUpdate;
 
     @Override
     public Mono<PaginationResponse<CounterpartyDTO>> findAll(FilterRequest<CounterpartyDTO> filterRequest) {
@@ -48,10 +55,17 @@ public class CounterpartyServiceImpl implements CounterpartyService {
         ).filter(filterRequest);
     }
 
+    @Override
+    public Mono<CursorPageResponseDTO<CounterpartyDTO>> findAllByCursor(CursorPageRequestDTO<CounterpartyDTO> request) {
+        return Mono.defer(() -> keysetPagination.page(Counterparty.class, mapper.toEntity(request.getFilters()),
+                request.getCursor(), request.getSize(), mapper::toDTO));
+    }
+
     @Override
     public Mono<CounterpartyDTO> create(CounterpartyDTO dto) {
         return Mono.just(dto)
                 .map(mapper::toEntity)
+                .doOnNext(counterparty -> counterparty.setCurrentExposure(BigDecimal.ZERO))
                 .flatMap(repository::save)
                 .map(mapper::toDTO);
     }
@@ -68,11 +82,22 @@ public class CounterpartyServiceImpl implements CounterpartyService {
                 .flatMap(existing -> {
                     Counterparty updatedEntity = mapper.toEntity(dto);
                     updatedEntity.setId(existing.getId());
+                    // Exposure is maintained from invoices and advances, not written by clients
+                    updatedEntity.setCurrentExposure(existing.getCurrentExposure());
                     return repository.save(updatedEntity);
                 })
                 .map(mapper::toDTO);
     }
 
+    @Override
+    public Mono<Boolean> patch(UUID id, CounterpartyDTO dto) {
+        return partialUpdate.patch(Counterparty.class, id, dto, changes -> {
+            Counterparty counterparty = mapper.toEntity(changes);
+            counterparty.setCurrentExposure(null);
+            return counterparty;
+        });
+    }
+
     @Override
     public Mono<Void> delete(UUID id) {
         return repository.findById(id)
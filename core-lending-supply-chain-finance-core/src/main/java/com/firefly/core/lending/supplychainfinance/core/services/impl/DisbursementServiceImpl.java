@@ -0,0 +1,143 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services.impl;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.disbursement.DisbursementPayment;
+import com.firefly.core.lending.supplychainfinance.core.disbursement.Pain001Writer;
+import com.firefly.core.lending.supplychainfinance.core.services.DisbursementService;
+import com.firefly.core.lending.supplychainfinance.core.support.StreamingQuerySupport;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.DisbursementBatchDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.DisbursementBatchRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.DisbursementTotalDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAdvanceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class DisbursementServiceImpl implements DisbursementService {
+
+    private static final String TOTALS_SQL = """
+            SELECT currency::text AS currency, count(*) AS payment_count,
+                   sum(round(COALESCE(net_amount, advance_amount), 2)) AS amount
+            FROM supply_chain_finance_advance
+            WHERE payment_reference = :reference
+            GROUP BY currency::text
+            ORDER BY currency::text""";
+
+    private static final String PAYMENTS_SQL = """
+            SELECT a.id, a.currency::text AS currency, round(COALESCE(a.net_amount, a.advance_amount), 2) AS amount,
+                   c.counterparty_name, COALESCE(c.registration_number, c.tax_id) AS creditor_id, i.invoice_number
+            FROM supply_chain_finance_advance a
+            JOIN supply_chain_finance_invoice i ON i.id = a.invoice_id
+            JOIN counterparty c ON c.id = i.counterparty_id
+            WHERE a.payment_reference = :reference
+            ORDER BY a.currency::text, a.id""";
+
+    private static final DateTimeFormatter REFERENCE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final SupplyChainFinanceAdvanceRepository advanceRepository;
+    private final StreamingQuerySupport streamingQuery;
+    private final SupplyChainFinanceProperties properties;
+
+    @Override
+    public Mono<DisbursementBatchDTO> createBatch(DisbursementBatchRequestDTO request) {
+        SupplyChainFinanceProperties.Disbursements settings = properties.getDisbursements();
+        int maxPayments = request.getMaxPayments() != null
+                ? Math.min(request.getMaxPayments(), settings.getMaxPayments())
+                : settings.getMaxPayments();
+        LocalDate advancedBy = request.getAdvancedBy() != null ? request.getAdvancedBy() : LocalDate.now();
+        String financeType = request.getFinanceType() != null ? request.getFinanceType().name() : null;
+        String reference = "SCF-" + LocalDate.now().format(REFERENCE_DATE) + "-"
+                + UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+
+        return claim(reference, advancedBy, request.getAgreementId(), financeType, maxPayments, settings.getClaimBatchSize())
+                .filter(claimed -> claimed > 0)
+                .flatMap(claimed -> getBatch(reference));
+    }
+
+    /**
+     * Claims advances one batch-sized statement at a time, each committing on its own so no transaction holds
+     * row locks on the whole batch, until a claim comes back short or the batch is full.
+     */
+    private Mono<Long> claim(String reference, LocalDate advancedBy, UUID agreementId, String financeType,
+                             int remaining, int claimBatchSize) {
+        int limit = Math.min(remaining, claimBatchSize);
+        return advanceRepository.claimUnpaid(reference, advancedBy, agreementId, financeType, limit)
+                .flatMap(claimed -> claimed < limit || claimed == remaining
+                        ? Mono.just((long) claimed)
+                        : claim(reference, advancedBy, agreementId, financeType, remaining - claimed, claimBatchSize)
+                                .map(more -> more + claimed));
+    }
+
+    @Override
+    public Mono<DisbursementBatchDTO> getBatch(String reference) {
+        return streamingQuery.stream(TOTALS_SQL, Map.of("reference", reference), (row, metadata) -> DisbursementTotalDTO.builder()
+                        .currency(CurrencyCodeEnum.valueOf(row.get("currency", String.class)))
+                        .paymentCount(row.get("payment_count", Long.class))
+                        .amount(row.get("amount", BigDecimal.class))
+                        .build())
+                .collectList()
+                .filter(totals -> !totals.isEmpty())
+                .map(totals -> DisbursementBatchDTO.builder()
+                        .reference(reference)
+                        .paymentCount(totals.stream().mapToLong(DisbursementTotalDTO::getPaymentCount).sum())
+                        .totals(totals)
+                        .build());
+    }
+
+    @Override
+    public Mono<Flux<DataBuffer>> paymentFile(String reference, LocalDate executionDate) {
+        SupplyChainFinanceProperties.Disbursements settings = properties.getDisbursements();
+        if (settings.getDebtorIban() == null || settings.getDebtorIban().isBlank()
+                || settings.getDebtorBic() == null || settings.getDebtorBic().isBlank()) {
+            return Mono.error(new IllegalStateException("Disbursement debtor account is not configured"));
+        }
+        Pain001Writer.DebtorAccount debtor = new Pain001Writer.DebtorAccount(settings.getInitiatingPartyName(),
+                settings.getDebtorName(), settings.getDebtorIban(), settings.getDebtorBic());
+
+        return getBatch(reference).map(batch -> Flux.defer(() -> {
+            Pain001Writer writer = new Pain001Writer(batch, debtor, executionDate);
+            return Flux.concat(
+                            Mono.fromCallable(writer::start),
+                            streamingQuery.stream(PAYMENTS_SQL, Map.of("reference", reference), (row, metadata) -> new DisbursementPayment(
+                                            row.get("id", UUID.class),
+                                            row.get("currency", String.class),
+                                            row.get("amount", BigDecimal.class),
+                                            row.get("counterparty_name", String.class),
+                                            row.get("creditor_id", String.class),
+                                            row.get("invoice_number", String.class)))
+                                    .map(writer::payment),
+                            Mono.fromCallable(writer::finish))
+                    .filter(chunk -> chunk.length > 0)
+                    .<DataBuffer>map(DefaultDataBufferFactory.sharedInstance::wrap);
+        }));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services.impl;
+
+import com.firefly.core.lending.supplychainfinance.core.allocation.EarlyPaymentAllocator;
+import com.firefly.core.lending.supplychainfinance.core.allocation.EarlyPaymentCandidate;
+import com.firefly.core.lending.supplychainfinance.core.cache.AgreementCache;
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.fees.FeeEngine;
+import com.firefly.core.lending.supplychainfinance.core.fees.FeeSchedule;
+import com.firefly.core.lending.supplychainfinance.core.fees.FeeScheduleCache;
+import com.firefly.core.lending.supplychainfinance.core.pricing.AdvancePrice;
+import com.firefly.core.lending.supplychainfinance.core.pricing.AdvancePricingEngine;
+import com.firefly.core.lending.supplychainfinance.core.services.EarlyPaymentAllocationService;
+import com.firefly.core.lending.supplychainfinance.core.support.StreamingQuerySupport;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.EarlyPaymentAllocationDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.EarlyPaymentAllocationRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAdvanceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.AgreementStatusEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAgreement;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceInvoice;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class EarlyPaymentAllocationServiceImpl implements EarlyPaymentAllocationService {
+
+    private static final String CANDIDATES_SQL = """
+            SELECT * FROM supply_chain_finance_invoice
+            WHERE agreement_id = :agreementId
+              AND status::text = 'CONFIRMED'
+              AND currency::text = :currency
+              AND due_date >= :earliestDueDate
+              AND invoice_amount > COALESCE(financed_amount, 0)""";
+
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(4);
+
+    private final AgreementCache agreementCache;
+    private final FeeScheduleCache feeSchedules;
+    private final StreamingQuerySupport streamingQuery;
+    private final AdvancePricingEngine pricing;
+    private final FeeEngine feeEngine;
+    private final EarlyPaymentAllocator allocator;
+    private final SupplyChainFinanceProperties properties;
+
+    @Override
+    public Mono<EarlyPaymentAllocationDTO> allocate(EarlyPaymentAllocationRequestDTO request) {
+        LocalDate paymentDate = request.getPaymentDate() != null ? request.getPaymentDate() : LocalDate.now();
+        return agreementCache.findById(request.getAgreementId())
+                .flatMap(agreement -> checkAllocatable(agreement)
+                        .then(feeSchedules.scheduleOf(agreement.getId()))
+                        .flatMap(schedule -> candidatesOf(agreement, schedule, paymentDate))
+                        // The candidate scan has released its connection; the allocation itself is CPU only
+                        .publishOn(Schedulers.parallel())
+                        .map(candidates -> toDTO(agreement, request, paymentDate, candidates.size(),
+                                allocator.allocate(candidates, request.getBudget(), supplier -> capOf(request, supplier),
+                                        properties.getEarlyPayments().getAllocationTimeLimit()))));
+    }
+
+    private static Mono<Void> checkAllocatable(SupplyChainFinanceAgreement agreement) {
+        if (agreement.getFinanceType() != FinanceTypeEnum.CONFIRMING) {
+            return Mono.error(new IllegalArgumentException("Early payments are only allocated on confirming agreements"));
+        }
+        if (agreement.getStatus() != AgreementStatusEnum.ACTIVE) {
+            return Mono.error(new IllegalStateException("Agreement in status " + agreement.getStatus() + " cannot be advanced on"));
+        }
+        if (!Boolean.TRUE.equals(agreement.getSupplierEarlyPaymentOption())) {
+            return Mono.error(new IllegalStateException("Agreement does not offer suppliers early payment"));
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * Streams the agreement's candidate invoices and prices each one as it is read, keeping only what the
+     * allocation needs.
+     */
+    private Mono<List<EarlyPaymentCandidate>> candidatesOf(SupplyChainFinanceAgreement agreement, FeeSchedule schedule,
+                                                           LocalDate paymentDate) {
+        int discountDays = agreement.getEarlyPaymentDiscountDays() != null ? agreement.getEarlyPaymentDiscountDays() : 0;
+        // Paying on or after the due date is not early, whatever the discount days
+        LocalDate earliestDueDate = paymentDate.plusDays(Math.max(1, discountDays));
+        return streamingQuery.stream(SupplyChainFinanceInvoice.class, CANDIDATES_SQL, Map.of(
+                        "agreementId", agreement.getId(),
+                        "currency", agreement.getCurrency().name(),
+                        "earliestDueDate", earliestDueDate))
+                .mapNotNull(invoice -> candidateOf(invoice, agreement, schedule, paymentDate))
+                .collectList();
+    }
+
+    private EarlyPaymentCandidate candidateOf(SupplyChainFinanceInvoice invoice, SupplyChainFinanceAgreement agreement,
+                                              FeeSchedule schedule, LocalDate paymentDate) {
+        BigDecimal advanceAmount = pricing.availableAdvanceAmount(invoice.getInvoiceAmount(), agreement.getAdvanceRate(),
+                invoice.getFinancedAmount());
+        if (advanceAmount.signum() <= 0) {
+            return null;
+        }
+        BigDecimal fee = feeEngine.totalAdvanceFee(schedule, advanceAmount, invoice.getCurrency());
+        AdvancePrice price = pricing.priceAdvance(advanceAmount, agreement.getInterestRate(), paymentDate, invoice.getDueDate(), fee);
+        return new EarlyPaymentCandidate(invoice.getId(), invoice.getCounterpartyId(), invoice.getDueDate(), price);
+    }
+
+    private static BigDecimal capOf(EarlyPaymentAllocationRequestDTO request, UUID supplierId) {
+        if (request.getSupplierCaps() != null && request.getSupplierCaps().containsKey(supplierId)) {
+            return request.getSupplierCaps().get(supplierId);
+        }
+        return request.getSupplierCap();
+    }
+
+    private static EarlyPaymentAllocationDTO toDTO(SupplyChainFinanceAgreement agreement, EarlyPaymentAllocationRequestDTO request,
+                                                   LocalDate paymentDate, int candidateCount, List<EarlyPaymentCandidate> selected) {
+        BigDecimal allocated = ZERO;
+        BigDecimal discount = ZERO;
+        BigDecimal fee = ZERO;
+        List<SupplyChainFinanceAdvanceDTO> advances = new ArrayList<>(selected.size());
+        for (EarlyPaymentCandidate candidate : selected) {
+            AdvancePrice price = candidate.price();
+            allocated = allocated.add(price.netAmount());
+            discount = discount.add(price.discountAmount());
+            fee = fee.add(price.feeAmount());
+            advances.add(SupplyChainFinanceAdvanceDTO.builder()
+                    .financeType(FinanceTypeEnum.CONFIRMING)
+                    .invoiceId(candidate.invoiceId())
+                    .advanceDate(paymentDate)
+                    .currency(agreement.getCurrency())
+                    .advanceAmount(price.advanceAmount())
+                    .discountAmount(price.discountAmount())
+                    .feeAmount(price.feeAmount())
+                    .netAmount(price.netAmount())
+                    .build());
+        }
+        return EarlyPaymentAllocationDTO.builder()
+                .agreementId(agreement.getId())
+                .currency(agreement.getCurrency())
+                .paymentDate(paymentDate)
+                .budget(request.getBudget())
+                .candidateCount(candidateCount)
+                .allocatedAmount(allocated)
+                .totalDiscount(discount)
+                .totalFee(fee)
+                .advances(advances)
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services.impl;
+
+import com.firefly.core.lending.supplychainfinance.core.cache.AgreementCache;
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.exposure.ExposureRollupEngine;
+import com.firefly.core.lending.supplychainfinance.core.services.ExposureRollupService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.ExposureRollupDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.models.repositories.CounterpartyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class ExposureRollupServiceImpl implements ExposureRollupService {
+
+    private final ExposureRollupEngine engine;
+    private final AgreementCache agreementCache;
+    private final CounterpartyRepository counterpartyRepository;
+    private final SupplyChainFinanceProperties properties;
+
+    @Override
+    public Mono<ExposureRollupDTO> getAgreementExposure(UUID agreementId, CurrencyCodeEnum reportingCurrency) {
+        return whenReady(agreementCache.findById(agreementId)
+                .map(agreement -> engine.agreementExposure(agreementId, reportingCurrencyOrDefault(reportingCurrency))));
+    }
+
+    @Override
+    public Mono<ExposureRollupDTO> getCounterpartyExposure(UUID counterpartyId, CurrencyCodeEnum reportingCurrency) {
+        return whenReady(counterpartyRepository.findById(counterpartyId)
+                .map(counterparty -> engine.counterpartyExposure(counterpartyId, reportingCurrencyOrDefault(reportingCurrency))));
+    }
+
+    private Mono<ExposureRollupDTO> whenReady(Mono<ExposureRollupDTO> rollup) {
+        return engine.isReady() ? rollup : Mono.error(new IllegalStateException("Exposure is still loading"));
+    }
+
+    private CurrencyCodeEnum reportingCurrencyOrDefault(CurrencyCodeEnum reportingCurrency) {
+        return reportingCurrency != null ? reportingCurrency : properties.getFx().getReportingCurrency();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services.impl;
+
+import com.firefly.core.lending.supplychainfinance.core.fees.FeeEngine;
+import com.firefly.core.lending.supplychainfinance.core.fees.FeeScheduleCache;
+import com.firefly.core.lending.supplychainfinance.core.services.FeeCalculationService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.FeeCalculationDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FeeTypeEnum;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAdvanceRepository;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceInvoiceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class FeeCalculationServiceImpl implements FeeCalculationService {
+
+    private final SupplyChainFinanceInvoiceRepository invoiceRepository;
+    private final SupplyChainFinanceAdvanceRepository advanceRepository;
+    private final FeeScheduleCache feeSchedules;
+    private final FeeEngine feeEngine;
+
+    @Override
+    public Mono<FeeCalculationDTO> calculateForInvoice(UUID invoiceId) {
+        return invoiceRepository.findById(invoiceId)
+                .flatMap(invoice -> feeSchedules.scheduleOf(invoice.getAgreementId())
+                        .map(schedule -> {
+                            Map<FeeTypeEnum, BigDecimal> fees = feeEngine.invoiceFees(schedule, invoice.getInvoiceAmount(),
+                                    invoice.getCurrency(), invoice.getStatus(), invoice.getDueDate(), LocalDate.now());
+                            return FeeCalculationDTO.builder()
+                                    .agreementId(invoice.getAgreementId())
+                                    .invoiceId(invoiceId)
+                                    .currency(invoice.getCurrency())
+                                    .baseAmount(invoice.getInvoiceAmount())
+                                    .fees(fees)
+                                    .totalFee(total(fees))
+                                    .build();
+                        }));
+    }
+
+    @Override
+    public Mono<FeeCalculationDTO> calculateForAdvance(UUID advanceId) {
+        return advanceRepository.findById(advanceId)
+                .flatMap(advance -> invoiceRepository.findAgreementIdById(advance.getInvoiceId())
+                        .flatMap(agreementId -> feeSchedules.scheduleOf(agreementId)
+                                .map(schedule -> {
+                                    Map<FeeTypeEnum, BigDecimal> fees = feeEngine.advanceFees(schedule,
+                                            advance.getAdvanceAmount(), advance.getCurrency());
+                                    return FeeCalculationDTO.builder()
+                                            .agreementId(agreementId)
+                                            .invoiceId(advance.getInvoiceId())
+                                            .advanceId(advanceId)
+                                            .currency(advance.getCurrency())
+                                            .baseAmount(advance.getAdvanceAmount())
+                                            .fees(fees)
+                                            .totalFee(total(fees))
+                                            .build();
+                                })));
+    }
+
+    private static BigDecimal total(Map<FeeTypeEnum, BigDecimal> fees) {
+        return fees.values().stream().reduce(BigDecimal.ZERO.setScale(4), BigDecimal::add);
+    }
+}
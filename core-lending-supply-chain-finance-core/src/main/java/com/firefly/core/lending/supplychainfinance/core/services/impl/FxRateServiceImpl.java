@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services.impl;
+
+import com.firefly.core.lending.supplychainfinance.core.fx.FxRateSnapshot;
+import com.firefly.core.lending.supplychainfinance.core.fx.FxRateStore;
+import com.firefly.core.lending.supplychainfinance.core.services.FxRateService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.FxRateSnapshotDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class FxRateServiceImpl implements FxRateService {
+
+    private final FxRateStore store;
+
+    @Override
+    public Mono<FxRateSnapshotDTO> getCurrent() {
+        return Mono.fromSupplier(() -> toDTO(store.current()));
+    }
+
+    @Override
+    public Mono<FxRateSnapshotDTO> publish(FxRateSnapshotDTO dto) {
+        return store.publish(dto.getRatesToEur()).map(FxRateServiceImpl::toDTO);
+    }
+
+    private static FxRateSnapshotDTO toDTO(FxRateSnapshot snapshot) {
+        return FxRateSnapshotDTO.builder()
+                .version(snapshot.version())
+                .publishedAt(snapshot.publishedAt())
+                .ratesToEur(snapshot.ratesToPivot())
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services.impl;
+
+import com.firefly.core.lending.supplychainfinance.core.accrual.InterestAccrualEngine;
+import com.firefly.core.lending.supplychainfinance.core.mappers.SupplyChainFinanceAccrualMapper;
+import com.firefly.core.lending.supplychainfinance.core.mappers.SupplyChainFinanceAccrualRunMapper;
+import com.firefly.core.lending.supplychainfinance.core.services.InterestAccrualService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAccrualDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAccrualRunDTO;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAccrualRepository;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAccrualRunRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class InterestAccrualServiceImpl implements InterestAccrualService {
+
+    private final InterestAccrualEngine engine;
+    private final SupplyChainFinanceAccrualRepository accrualRepository;
+    private final SupplyChainFinanceAccrualRunRepository runRepository;
+    private final SupplyChainFinanceAccrualMapper accrualMapper;
+    private final SupplyChainFinanceAccrualRunMapper runMapper;
+
+    @Override
+    public Mono<SupplyChainFinanceAccrualRunDTO> startRun(LocalDate accrualDate) {
+        return engine.start(accrualDate).map(runMapper::toDTO);
+    }
+
+    @Override
+    public Mono<SupplyChainFinanceAccrualRunDTO> getRun(LocalDate accrualDate) {
+        return runRepository.findByAccrualDate(accrualDate).map(runMapper::toDTO);
+    }
+
+    @Override
+    public Flux<SupplyChainFinanceAccrualDTO> findByAdvanceId(UUID advanceId) {
+        return accrualRepository.findByAdvanceIdOrderByAccrualDate(advanceId).map(accrualMapper::toDTO);
+    }
+}
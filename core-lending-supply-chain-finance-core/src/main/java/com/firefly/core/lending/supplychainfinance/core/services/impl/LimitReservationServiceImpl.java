@@ -0,0 +1,59 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services.impl;
+
+import com.firefly.core.lending.supplychainfinance.core.limits.LimitReservationEngine;
+import com.firefly.core.lending.supplychainfinance.core.services.LimitReservationService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.LimitReservationDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.LimitReservationRequestDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Not transactional: every limit change is a single statement, and grouped commits are written
+ * outside the caller's subscription. Reservations are rows, so any instance serves any of them.
+ */
+@Service
+@RequiredArgsConstructor
+public class LimitReservationServiceImpl implements LimitReservationService {
+
+    private final LimitReservationEngine engine;
+
+    @Override
+    public Mono<LimitReservationDTO> reserve(UUID agreementId, LimitReservationRequestDTO request) {
+        return engine.reserve(agreementId, request.getAmount(), request.getTtlSeconds());
+    }
+
+    @Override
+    public Mono<LimitReservationDTO> getById(UUID agreementId, UUID reservationId) {
+        return engine.get(agreementId, reservationId);
+    }
+
+    @Override
+    public Mono<LimitReservationDTO> commit(UUID agreementId, UUID reservationId) {
+        return engine.commit(agreementId, reservationId);
+    }
+
+    @Override
+    public Mono<LimitReservationDTO> release(UUID agreementId, UUID reservationId) {
+        return engine.release(agreementId, reservationId);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services.impl;
+
+import com.firefly.core.lending.supplychainfinance.core.reconciliation.ReconciliationEngine;
+import com.firefly.core.lending.supplychainfinance.core.services.ReconciliationService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BankReceiptDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.ReceiptMatchDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class ReconciliationServiceImpl implements ReconciliationService {
+
+    private final ReconciliationEngine engine;
+
+    @Override
+    public Flux<ReceiptMatchDTO> reconcile(Flux<BankReceiptDTO> receipts, UUID agreementId) {
+        return engine.reconcile(receipts, agreementId);
+    }
+}
@@ -7,23 +7,89 @@ package com.firefly.core.lending.supplychainfinance.core.services.impl;
 
 import org.fireflyframework.core.filters.*;
 import org.fireflyframework.core.queries.PaginationResponse;
+import com.firefly.core.lending.supplychainfinance.core.cache.AgreementCache;
+import com.firefly.core.lending.supplychainfinance.core.commands.AgreementCommandLanes;
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.events.AdvanceChangedEvent;
+import com.firefly.core.lending.supplychainfinance.core.events.AgreementChangedEvent;
+import com.firefly.core.lending.supplychainfinance.core.fees.FeeEngine;
+import com.firefly.core.lending.supplychainfinance.core.fees.FeeSchedule;
+import com.firefly.core.lending.supplychainfinance.core.fees.FeeScheduleCache;
+import com.firefly.core.lending.supplychainfinance.core.lifecycle.InvoiceStatusTransitions;
+import com.firefly.core.lending.supplychainfinance.core.limits.LimitReservationEngine;
 import com.firefly.core.lending.supplychainfinance.core.mappers.SupplyChainFinanceAdvanceMapper;
+import com.firefly.core.lending.supplychainfinance.core.pricing.AdvancePrice;
+import com.firefly.core.lending.supplychainfinance.core.pricing.AdvancePricingEngine;
 import com.firefly.core.lending.supplychainfinance.core.services.SupplyChainFinanceAdvanceService;
+import com.firefly.core.lending.supplychainfinance.core.support.CsvRowFormatter;
+import com.firefly.core.lending.supplychainfinance.core.support.KeysetPaginationSupport;
+import com.firefly.core.lending.supplychainfinance.core.support.PartialUpdateSupport;
+import com.firefly.core.lending.supplychainfinance.core.support.StreamingQuerySupport;
+import com.firefly.core.lending.supplychainfinance.core.validation.ValidationPipeline;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.AdvanceQuoteDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.AdvanceQuoteRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAdvanceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.AgreementStatusEnum;
 import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAdvance;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAgreement;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceInvoice;
 import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAdvanceRepository;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceInvoiceRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class SupplyChainFinanceAdvanceServiceImpl implements SupplyChainFinanceAdvanceService {
+
+    private static final String EXPORT_BY_AGREEMENT_SQL = """
+            SELECT a.* FROM supply_chain_finance_advance a
+            JOIN supply_chain_finance_invoice i ON i.id = a.invoice_id
+            WHERE i.agreement_id = :agreementId
+            ORDER BY a.created_at, a.id""";
+
+    /**
+     * Agreements whose terms a quote request loads at once; only cache misses reach the database.
+     */
+    private static final int QUOTE_TERMS_CONCURRENCY = 8;
+
+    private static final CsvRowFormatter<SupplyChainFinanceAdvanceDTO> CSV = CsvRowFormatter.of(SupplyChainFinanceAdvanceDTO.class);
+
     private final SupplyChainFinanceAdvanceRepository repository;
     private final SupplyChainFinanceAdvanceMapper mapper;
+    private final KeysetPaginationSupport keysetPagination;
+    private final PartialUpdateSupport partialUpdate;
+    private final StreamingQuerySupport streamingQuery;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SupplyChainFinanceInvoiceRepository invoiceRepository;
+    private final AgreementCommandLanes commandLanes;
+    private final ValidationPipeline validation;
+    private final AgreementCache agreementCache;
+    private final AdvancePricingEngine pricing;
+    private final FeeScheduleCache feeSchedules;
+    private final FeeEngine feeEngine;
+    private final SupplyChainFinanceProperties properties;
+    private final TransactionalOperator transactionalOperator;
+    private final LimitReservationEngine limits;
 
     @Override
     public Mono<PaginationResponse<SupplyChainFinanceAdvanceDTO>> findAll(FilterRequest<SupplyChainFinanceAdvanceDTO> filterRequest) {
@@ -31,8 +97,56 @@ public class SupplyChainFinanceAdvanceServiceImpl implements SupplyChainFinanceA
     }
 
     @Override
+    public Mono<CursorPageResponseDTO<SupplyChainFinanceAdvanceDTO>> findAllByCursor(CursorPageRequestDTO<SupplyChainFinanceAdvanceDTO> request) {
+        return Mono.defer(() -> keysetPagination.page(SupplyChainFinanceAdvance.class, mapper.toEntity(request.getFilters()),
+                request.getCursor(), request.getSize(), mapper::toDTO));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<SupplyChainFinanceAdvanceDTO> exportByAgreement(UUID agreementId) {
+        return streamingQuery.stream(SupplyChainFinanceAdvance.class, EXPORT_BY_AGREEMENT_SQL, Map.of("agreementId", agreementId))
+                .map(mapper::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<String> exportByAgreementAsCsv(UUID agreementId) {
+        return Flux.just(CSV.header())
+                .concatWith(exportByAgreement(agreementId).map(CSV::format));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<AdvanceQuoteDTO> quote(AdvanceQuoteRequestDTO request) {
+        List<UUID> invoiceIds = request.getInvoiceIds().stream().filter(Objects::nonNull).distinct().toList();
+        int maxInvoices = properties.getQuotes().getMaxInvoices();
+        if (invoiceIds.size() > maxInvoices) {
+            return Flux.error(new IllegalArgumentException("At most " + maxInvoices + " invoices can be quoted at once"));
+        }
+        LocalDate advanceDate = request.getAdvanceDate() != null ? request.getAdvanceDate() : LocalDate.now();
+        // Every read completes before the first quote is computed, so pricing never holds a connection
+        return invoiceRepository.findByIdAny(invoiceIds.toArray(UUID[]::new))
+                .collectMap(SupplyChainFinanceInvoice::getId)
+                .flatMap(invoices -> quoteTermsOf(invoices.values()).map(terms -> new QuoteInputs(invoices, terms)))
+                .flatMapMany(inputs -> Flux.fromIterable(invoiceIds)
+                        .buffer(properties.getQuotes().getChunkSize())
+                        .flatMapSequential(chunk -> Mono.fromCallable(() -> chunk.stream()
+                                        .map(invoiceId -> quote(invoiceId, inputs, advanceDate))
+                                        .toList())
+                                .subscribeOn(Schedulers.parallel()))
+                        .flatMapIterable(Function.identity()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<SupplyChainFinanceAdvanceDTO> create(SupplyChainFinanceAdvanceDTO dto) {
-        return Mono.just(dto).map(mapper::toEntity).flatMap(repository::save).map(mapper::toDTO);
+        return priceIfMissing(dto)
+                .flatMap(priced -> validation.check(SupplyChainFinanceAdvanceDTO.class, priced.getFinanceType(), priced)
+                        .then(saveReservingLimit(priced)))
+                // Published once the command's transaction has committed
+                .map(mapper::toDTO)
+                .doOnNext(this::publishSaved);
     }
 
     @Override
@@ -41,16 +155,152 @@ public class SupplyChainFinanceAdvanceServiceImpl implements SupplyChainFinanceA
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<SupplyChainFinanceAdvanceDTO> update(UUID id, SupplyChainFinanceAdvanceDTO dto) {
-        return repository.findById(id).flatMap(existing -> {
-            SupplyChainFinanceAdvance updated = mapper.toEntity(dto);
-            updated.setId(existing.getId());
-            return repository.save(updated);
-        }).map(mapper::toDTO);
+        return validation.check(SupplyChainFinanceAdvanceDTO.class, dto.getFinanceType(), dto)
+                .then(repository.findById(id).flatMap(existing -> {
+                    SupplyChainFinanceAdvance updated = mapper.toEntity(dto);
+                    updated.setId(existing.getId());
+                    return repository.save(updated);
+                }).as(transactionalOperator::transactional))
+                .map(mapper::toDTO)
+                .doOnNext(this::publishSaved);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Mono<Boolean> patch(UUID id, SupplyChainFinanceAdvanceDTO dto) {
+        if (dto.getInvoiceId() == null && dto.getAdvanceAmount() == null) {
+            return partialUpdate.patch(SupplyChainFinanceAdvance.class, id, dto, mapper::toEntity)
+                    .as(transactionalOperator::transactional);
+        }
+        // Listeners track the invoice and amount of advances; only re-read the row when one of those changed
+        return partialUpdate.patch(SupplyChainFinanceAdvance.class, id, dto, mapper::toEntity)
+                .flatMap(updated -> updated ? repository.findById(id) : Mono.empty())
+                .as(transactionalOperator::transactional)
+                .map(mapper::toDTO)
+                .doOnNext(this::publishSaved)
+                .map(advance -> true)
+                .defaultIfEmpty(false);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<Void> delete(UUID id) {
-        return repository.findById(id).flatMap(repository::delete);
+        return repository.findById(id)
+                .flatMap(existing -> repository.delete(existing).thenReturn(id))
+                .as(transactionalOperator::transactional)
+                .doOnNext(deleted -> eventPublisher.publishEvent(AdvanceChangedEvent.deleted(deleted)))
+                .then();
+    }
+
+    /**
+     * Saves an advance on an agreement's invoice against a reservation of its amount on the agreement's limit.
+     * The reservation is committed in the transaction that saves the advance, and released if that fails, so
+     * the limit is only consumed by advances that exist. Only this write goes through the agreement's command
+     * lane, since committing the reservation writes the agreement row.
+     */
+    private Mono<SupplyChainFinanceAdvance> saveReservingLimit(SupplyChainFinanceAdvanceDTO advance) {
+        return agreementOfInvoice(advance.getInvoiceId())
+                .filter(agreementId -> advance.getAdvanceAmount() != null)
+                .flatMap(agreementId -> limits.reserve(agreementId, advance.getAdvanceAmount(), null)
+                        .flatMap(reservation -> commandLanes.submit(agreementId, () -> repository.save(mapper.toEntity(advance))
+                                        .flatMap(saved -> limits.commitInTransaction(agreementId, reservation.getReservationId())
+                                                .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                                                        "The limit reservation of the advance expired before it was saved")))
+                                                .thenReturn(saved)))
+                                .onErrorResume(e -> limits.release(agreementId, reservation.getReservationId())
+                                        .then(Mono.error(e))))
+                        .doOnNext(saved -> eventPublisher.publishEvent(new AgreementChangedEvent(agreementId))))
+                .switchIfEmpty(Mono.defer(() -> repository.save(mapper.toEntity(advance)))
+                        .as(transactionalOperator::transactional));
+    }
+
+    /**
+     * Fills in the discount, fee and net amounts of an advance submitted without them, from its invoice's due
+     * date, its agreement's interest rate and, unless a fee amount was submitted, its agreement's fee schedule.
+     * Advances carrying a discount or net amount are stored as submitted.
+     */
+    private Mono<SupplyChainFinanceAdvanceDTO> priceIfMissing(SupplyChainFinanceAdvanceDTO dto) {
+        if (dto.getDiscountAmount() != null || dto.getNetAmount() != null
+                || dto.getInvoiceId() == null || dto.getAdvanceAmount() == null) {
+            return Mono.just(dto);
+        }
+        return invoiceRepository.findById(dto.getInvoiceId())
+                .flatMap(invoice -> Mono.zip(agreementCache.findById(invoice.getAgreementId()),
+                                feeSchedules.scheduleOf(invoice.getAgreementId()))
+                        .map(agreementAndFees -> {
+                            BigDecimal fee = dto.getFeeAmount() != null
+                                    ? dto.getFeeAmount()
+                                    : feeEngine.totalAdvanceFee(agreementAndFees.getT2(), dto.getAdvanceAmount(), dto.getCurrency());
+                            AdvancePrice price = pricing.priceAdvance(dto.getAdvanceAmount(),
+                                    agreementAndFees.getT1().getInterestRate(), dto.getAdvanceDate(), invoice.getDueDate(), fee);
+                            dto.setDiscountAmount(price.discountAmount());
+                            dto.setFeeAmount(price.feeAmount());
+                            dto.setNetAmount(price.netAmount());
+                            return dto;
+                        }))
+                .defaultIfEmpty(dto);
+    }
+
+    private Mono<Map<UUID, QuoteTerms>> quoteTermsOf(Collection<SupplyChainFinanceInvoice> invoices) {
+        return Flux.fromStream(invoices.stream().map(SupplyChainFinanceInvoice::getAgreementId).filter(Objects::nonNull).distinct())
+                .flatMap(agreementId -> Mono.zip(agreementCache.findById(agreementId), feeSchedules.scheduleOf(agreementId),
+                        QuoteTerms::new), QUOTE_TERMS_CONCURRENCY)
+                .collectMap(terms -> terms.agreement().getId());
+    }
+
+    private AdvanceQuoteDTO quote(UUID invoiceId, QuoteInputs inputs, LocalDate advanceDate) {
+        SupplyChainFinanceInvoice invoice = inputs.invoices().get(invoiceId);
+        if (invoice == null) {
+            return AdvanceQuoteDTO.failure(invoiceId, "Invoice not found");
+        }
+        if (!InvoiceStatusTransitions.isOpen(invoice.getStatus()) || invoice.getInvoiceAmount() == null) {
+            return AdvanceQuoteDTO.failure(invoiceId, "Invoice in status " + invoice.getStatus() + " cannot be advanced");
+        }
+        QuoteTerms terms = inputs.terms().get(invoice.getAgreementId());
+        if (terms == null) {
+            return AdvanceQuoteDTO.failure(invoiceId, "Agreement not found");
+        }
+        SupplyChainFinanceAgreement agreement = terms.agreement();
+        if (agreement.getStatus() != AgreementStatusEnum.ACTIVE) {
+            return AdvanceQuoteDTO.failure(invoiceId, "Agreement in status " + agreement.getStatus() + " cannot be advanced on");
+        }
+        BigDecimal advanceAmount = pricing.availableAdvanceAmount(invoice.getInvoiceAmount(), agreement.getAdvanceRate(),
+                invoice.getFinancedAmount());
+        if (advanceAmount.signum() <= 0) {
+            return AdvanceQuoteDTO.failure(invoiceId, "Invoice is already fully financed");
+        }
+        BigDecimal fee = feeEngine.totalAdvanceFee(terms.fees(), advanceAmount, invoice.getCurrency());
+        AdvancePrice price = pricing.priceAdvance(advanceAmount, agreement.getInterestRate(), advanceDate, invoice.getDueDate(), fee);
+        return AdvanceQuoteDTO.builder()
+                .invoiceId(invoiceId)
+                .agreementId(agreement.getId())
+                .invoiceNumber(invoice.getInvoiceNumber())
+                .currency(invoice.getCurrency())
+                .invoiceAmount(invoice.getInvoiceAmount())
+                .advanceDate(advanceDate)
+                .dueDate(invoice.getDueDate())
+                .daysFinanced(AdvancePricingEngine.daysFinanced(advanceDate, invoice.getDueDate()))
+                .advanceAmount(price.advanceAmount())
+                .discountAmount(price.discountAmount())
+                .feeAmount(price.feeAmount())
+                .netAmount(price.netAmount())
+                .success(Boolean.TRUE)
+                .build();
+    }
+
+    private Mono<UUID> agreementOfInvoice(UUID invoiceId) {
+        return invoiceId != null ? invoiceRepository.findAgreementIdById(invoiceId) : Mono.empty();
+    }
+
+    private void publishSaved(SupplyChainFinanceAdvanceDTO advance) {
+        eventPublisher.publishEvent(AdvanceChangedEvent.saved(advance));
+    }
+
+    private record QuoteTerms(SupplyChainFinanceAgreement agreement, FeeSchedule fees) {
+    }
+
+    private record QuoteInputs(Map<UUID, SupplyChainFinanceInvoice> invoices, Map<UUID, QuoteTerms> terms) {
     }
 }
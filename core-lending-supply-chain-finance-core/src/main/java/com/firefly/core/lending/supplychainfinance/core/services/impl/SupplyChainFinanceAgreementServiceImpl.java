@@ -20,18 +20,29 @@ package com.firefly.core.lending.supplychainfinance.core.services.impl;
 import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.filters.FilterUtils;
 import org.fireflyframework.core.queries.PaginationResponse;
+import com.firefly.core.lending.supplychainfinance.core.cache.AgreementCache;
+import com.firefly.core.lending.supplychainfinance.core.commands.AgreementCommandLanes;
+import com.firefly.core.lending.supplychainfinance.core.events.AgreementChangedEvent;
 import com.firefly.core.lending.supplychainfinance.core.mappers.SupplyChainFinanceAgreementMapper;
 import com.firefly.core.lending.supplychainfinance.core.services.SupplyChainFinanceAgreementService;
+import com.firefly.core.lending.supplychainfinance.core.support.KeysetPaginationSupport;
+import com.firefly.core.lending.supplychainfinance.core.support.PartialUpdateSupport;
+import com.firefly.core.lending.supplychainfinance.core.validation.ValidationPipeline;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAgreementDTO;
-import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
 import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAgreement;
 import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAgreementRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 @Slf4j
@@ -42,6 +53,13 @@ public class SupplyChainFinanceAgreementServiceImpl implements SupplyChainFinanc
 
     private final SupplyChainFinanceAgreementRepository repository;
     private final SupplyChainFinanceAgreementMapper mapper;
+    private final KeysetPaginationSupport keysetPagination;
+    private final PartialUpdateSupport partialUpdate;
+    private final AgreementCache agreementCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AgreementCommandLanes commandLanes;
+    private final ValidationPipeline validation;
+    private final TransactionalOperator transactionalOperator;
 
     @Override
     public Mono<PaginationResponse<SupplyChainFinanceAgreementDTO>> findAll(FilterRequest<SupplyChainFinanceAgreementDTO> filterRequest) {
@@ -51,9 +69,15 @@ public class SupplyChainFinanceAgreementServiceImpl implements SupplyChainFinanc
         ).filter(filterRequest);
     }
 
+    @Override
+    public Mono<CursorPageResponseDTO<SupplyChainFinanceAgreementDTO>> findAllByCursor(CursorPageRequestDTO<SupplyChainFinanceAgreementDTO> request) {
+        return Mono.defer(() -> keysetPagination.page(SupplyChainFinanceAgreement.class, mapper.toEntity(request.getFilters()),
+                request.getCursor(), request.getSize(), mapper::toDTO));
+    }
+
     @Override
     public Mono<SupplyChainFinanceAgreementDTO> create(SupplyChainFinanceAgreementDTO dto) {
-        return validateFinanceTypeSpecificFields(dto)
+        return validation.check(SupplyChainFinanceAgreementDTO.class, dto.getFinanceType(), dto)
                 .then(Mono.just(dto))
                 .map(mapper::toEntity)
                 .flatMap(repository::save)
@@ -64,72 +88,84 @@ public class SupplyChainFinanceAgreementServiceImpl implements SupplyChainFinanc
 
     @Override
     public Mono<SupplyChainFinanceAgreementDTO> getById(UUID id) {
-        return repository.findById(id)
+        return agreementCache.findById(id)
                 .map(mapper::toDTO);
     }
 
     @Override
+    public Mono<SupplyChainFinanceAgreementDTO> getByAgreementNumber(String agreementNumber) {
+        return agreementCache.findByAgreementNumber(agreementNumber)
+                .map(mapper::toDTO);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<SupplyChainFinanceAgreementDTO> update(UUID id, SupplyChainFinanceAgreementDTO dto) {
-        return validateFinanceTypeSpecificFields(dto)
-                .then(repository.findById(id))
+        return validation.check(SupplyChainFinanceAgreementDTO.class, dto.getFinanceType(), dto)
+                // The row stays locked until the save commits, so limit changes from any instance wait for it
+                .then(commandLanes.submit(id, () -> repository.findByIdForUpdate(id)
                 .flatMap(existingAgreement -> {
                     SupplyChainFinanceAgreement updatedEntity = mapper.toEntity(dto);
                     updatedEntity.setId(existingAgreement.getId());
+                    keepLimitsInUse(existingAgreement, updatedEntity);
                     return repository.save(updatedEntity);
-                })
+                })))
                 .map(mapper::toDTO)
+                .doOnNext(updated -> publishChanged(id))
                 .doOnSuccess(updated -> log.info("Updated {} agreement with ID: {}",
                         updated.getFinanceType(), updated.getId()));
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Mono<Boolean> patch(UUID id, SupplyChainFinanceAgreementDTO dto) {
+        // The patched row is validated as a whole after the UPDATE, and a violation rolls the UPDATE back
+        return commandLanes.submit(id, () -> partialUpdate.patchAndGet(SupplyChainFinanceAgreement.class, id, dto, changes -> {
+                            SupplyChainFinanceAgreement agreement = mapper.toEntity(changes);
+                            // Limits are maintained by limit reservations, not written by clients
+                            agreement.setCreditLimit(null);
+                            agreement.setAvailableLimit(null);
+                            agreement.setOutstandingAmount(null);
+                            return agreement;
+                        })
+                        .flatMap(patched -> validation.check(SupplyChainFinanceAgreementDTO.class,
+                                        patched.getFinanceType(), mapper.toDTO(patched))
+                                .thenReturn(true))
+                        .defaultIfEmpty(false)
+                        .as(transactionalOperator::transactional))
+                .doOnNext(updated -> {
+                    if (updated) {
+                        publishChanged(id);
+                    }
+                });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<Void> delete(UUID id) {
-        return repository.findById(id)
-                .flatMap(repository::delete)
+        return commandLanes.submit(id, () -> repository.findById(id).flatMap(repository::delete))
+                .then(Mono.<Void>fromRunnable(() -> publishChanged(id)))
                 .doOnSuccess(v -> log.info("Deleted agreement with ID: {}", id));
     }
 
     /**
-     * Validates type-specific fields based on financeType discriminator.
-     * This is the key pattern: validation depends on financeType value.
+     * Keeps the available limit and outstanding amount of {@code existing}, which limit reservations maintain, and
+     * moves the available limit by the change of credit limit.
      */
-    private Mono<Void> validateFinanceTypeSpecificFields(SupplyChainFinanceAgreementDTO dto) {
-        if (dto.getFinanceType() == null) {
-            return Mono.error(new IllegalArgumentException("Finance type is required"));
+    private static void keepLimitsInUse(SupplyChainFinanceAgreement existing, SupplyChainFinanceAgreement updated) {
+        updated.setOutstandingAmount(existing.getOutstandingAmount());
+        BigDecimal availableLimit = existing.getAvailableLimit();
+        if (availableLimit != null && updated.getCreditLimit() != null && existing.getCreditLimit() != null) {
+            availableLimit = availableLimit.add(updated.getCreditLimit().subtract(existing.getCreditLimit()));
+            if (availableLimit.signum() < 0) {
+                throw new IllegalArgumentException("Credit limit cannot be lowered below the limit in use: "
+                        + existing.getCreditLimit().subtract(existing.getAvailableLimit()));
+            }
         }
-
-        if (dto.getFinanceType() == FinanceTypeEnum.FACTORING) {
-            return validateFactoringFields(dto);
-        } else if (dto.getFinanceType() == FinanceTypeEnum.CONFIRMING) {
-            return validateConfirmingFields(dto);
-        }
-
-        return Mono.empty();
-    }
-
-    private Mono<Void> validateFactoringFields(SupplyChainFinanceAgreementDTO dto) {
-        // Factoring-specific validation
-        if (dto.getRecourse() == null) {
-            return Mono.error(new IllegalArgumentException("Recourse field is required for factoring agreements"));
-        }
-        if (dto.getAdvanceRate() == null) {
-            return Mono.error(new IllegalArgumentException("Advance rate is required for factoring agreements"));
-        }
-
-        log.debug("Validated factoring-specific fields for agreement");
-        return Mono.empty();
+        updated.setAvailableLimit(availableLimit);
     }
 
-    private Mono<Void> validateConfirmingFields(SupplyChainFinanceAgreementDTO dto) {
-        // Confirming-specific validation
-        if (dto.getSupplierEarlyPaymentOption() == null) {
-            return Mono.error(new IllegalArgumentException("Supplier early payment option is required for confirming agreements"));
-        }
-        if (dto.getStandardPaymentTermDays() == null) {
-            return Mono.error(new IllegalArgumentException("Standard payment term days is required for confirming agreements"));
-        }
-
-        log.debug("Validated confirming-specific fields for agreement");
-        return Mono.empty();
+    private void publishChanged(UUID id) {
+        eventPublisher.publishEvent(new AgreementChangedEvent(id));
     }
 }
@@ -7,14 +7,22 @@ package com.firefly.core.lending.supplychainfinance.core.services.impl;
 
 import org.fireflyframework.core.filters.*;
 import org.fireflyframework.core.queries.PaginationResponse;
+import com.firefly.core.lending.supplychainfinance.core.events.FeeChangedEvent;
 import com.firefly.core.lending.supplychainfinance.core.mappers.SupplyChainFinanceFeeMapper;
 import com.firefly.core.lending.supplychainfinance.core.services.SupplyChainFinanceFeeService;
+import com.firefly.core.lending.supplychainfinance.core.support.KeysetPaginationSupport;
+import com.firefly.core.lending.supplychainfinance.core.support.PartialUpdateSupport;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceFeeDTO;
 import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceFee;
 import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceFeeRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
 import java.util.UUID;
 
@@ -24,6 +32,10 @@ import java.util.UUID;
 public class SupplyChainFinanceFeeServiceImpl implements SupplyChainFinanceFeeService {
     private final SupplyChainFinanceFeeRepository repository;
     private final SupplyChainFinanceFeeMapper mapper;
+    private final KeysetPaginationSupport keysetPagination;
+    private final PartialUpdateSupport partialUpdate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionalOperator transactionalOperator;
 
     @Override
     public Mono<PaginationResponse<SupplyChainFinanceFeeDTO>> findAll(FilterRequest<SupplyChainFinanceFeeDTO> filterRequest) {
@@ -31,8 +43,18 @@ public class SupplyChainFinanceFeeServiceImpl implements SupplyChainFinanceFeeSe
     }
 
     @Override
+    public Mono<CursorPageResponseDTO<SupplyChainFinanceFeeDTO>> findAllByCursor(CursorPageRequestDTO<SupplyChainFinanceFeeDTO> request) {
+        return Mono.defer(() -> keysetPagination.page(SupplyChainFinanceFee.class, mapper.toEntity(request.getFilters()),
+                request.getCursor(), request.getSize(), mapper::toDTO));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<SupplyChainFinanceFeeDTO> create(SupplyChainFinanceFeeDTO dto) {
-        return Mono.just(dto).map(mapper::toEntity).flatMap(repository::save).map(mapper::toDTO);
+        return Mono.just(dto).map(mapper::toEntity).flatMap(repository::save)
+                .as(transactionalOperator::transactional)
+                .map(mapper::toDTO)
+                .doOnNext(created -> publishChanged(created.getAgreementId()));
     }
 
     @Override
@@ -41,16 +63,54 @@ public class SupplyChainFinanceFeeServiceImpl implements SupplyChainFinanceFeeSe
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<SupplyChainFinanceFeeDTO> update(UUID id, SupplyChainFinanceFeeDTO dto) {
+        // Schedules are evicted only after commit, so a concurrent miss cannot re-cache the old fees
         return repository.findById(id).flatMap(existing -> {
-            SupplyChainFinanceFee updated = mapper.toEntity(dto);
-            updated.setId(existing.getId());
-            return repository.save(updated);
-        }).map(mapper::toDTO);
+                    SupplyChainFinanceFee updated = mapper.toEntity(dto);
+                    updated.setId(existing.getId());
+                    return repository.save(updated).map(saved -> new Saved(saved, existing.getAgreementId()));
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(saved -> {
+                    publishChanged(saved.previousAgreementId());
+                    publishChanged(saved.fee().getAgreementId());
+                })
+                .map(saved -> mapper.toDTO(saved.fee()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Mono<Boolean> patch(UUID id, SupplyChainFinanceFeeDTO dto) {
+        // The fee may move to another agreement, whose schedule changes as well
+        return repository.findById(id)
+                .flatMap(existing -> partialUpdate.patch(SupplyChainFinanceFee.class, id, dto, mapper::toEntity)
+                        .flatMap(updated -> updated ? Mono.just(existing) : Mono.<SupplyChainFinanceFee>empty()))
+                .as(transactionalOperator::transactional)
+                .doOnNext(existing -> {
+                    publishChanged(existing.getAgreementId());
+                    publishChanged(dto.getAgreementId());
+                })
+                .map(existing -> true)
+                .defaultIfEmpty(false);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<Void> delete(UUID id) {
-        return repository.findById(id).flatMap(repository::delete);
+        return repository.findById(id)
+                .flatMap(existing -> repository.delete(existing).thenReturn(existing))
+                .as(transactionalOperator::transactional)
+                .doOnNext(deleted -> publishChanged(deleted.getAgreementId()))
+                .then();
+    }
+
+    private record Saved(SupplyChainFinanceFee fee, UUID previousAgreementId) {
+    }
+
+    private void publishChanged(UUID agreementId) {
+        if (agreementId != null) {
+            eventPublisher.publishEvent(new FeeChangedEvent(agreementId));
+        }
     }
 }
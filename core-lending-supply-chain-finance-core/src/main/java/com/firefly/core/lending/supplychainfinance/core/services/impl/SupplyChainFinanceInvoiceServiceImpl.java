@@ -19,25 +19,70 @@ package com.firefly.core.lending.supplychainfinance.core.services.impl;
 import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.filters.FilterUtils;
 import org.fireflyframework.core.queries.PaginationResponse;
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.events.InvoiceChangedEvent;
+import com.firefly.core.lending.supplychainfinance.core.lifecycle.InvoiceStatusTransitions;
 import com.firefly.core.lending.supplychainfinance.core.mappers.SupplyChainFinanceInvoiceMapper;
 import com.firefly.core.lending.supplychainfinance.core.services.SupplyChainFinanceInvoiceService;
+import com.firefly.core.lending.supplychainfinance.core.support.CsvRowFormatter;
+import com.firefly.core.lending.supplychainfinance.core.support.KeysetPaginationSupport;
+import com.firefly.core.lending.supplychainfinance.core.support.PartialUpdateSupport;
+import com.firefly.core.lending.supplychainfinance.core.support.StreamingQuerySupport;
+import com.firefly.core.lending.supplychainfinance.core.validation.ValidationPipeline;
+import com.firefly.core.lending.supplychainfinance.core.validation.ValidationViolation;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BulkItemResultDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.InvoiceStatusTransitionDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceInvoiceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
 import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceInvoice;
 import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceInvoiceRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class SupplyChainFinanceInvoiceServiceImpl implements SupplyChainFinanceInvoiceService {
 
+    private static final String EXPORT_BY_AGREEMENT_SQL = """
+            SELECT * FROM supply_chain_finance_invoice
+            WHERE agreement_id = :agreementId
+            ORDER BY created_at, id""";
+
+    private static final CsvRowFormatter<SupplyChainFinanceInvoiceDTO> CSV = CsvRowFormatter.of(SupplyChainFinanceInvoiceDTO.class);
+
     private final SupplyChainFinanceInvoiceRepository repository;
     private final SupplyChainFinanceInvoiceMapper mapper;
+    private final KeysetPaginationSupport keysetPagination;
+    private final PartialUpdateSupport partialUpdate;
+    private final StreamingQuerySupport streamingQuery;
+    private final Validator validator;
+    private final TransactionalOperator transactionalOperator;
+    private final SupplyChainFinanceProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ValidationPipeline validation;
 
     @Override
     public Mono<PaginationResponse<SupplyChainFinanceInvoiceDTO>> findAll(FilterRequest<SupplyChainFinanceInvoiceDTO> filterRequest) {
@@ -45,8 +90,50 @@ public class SupplyChainFinanceInvoiceServiceImpl implements SupplyChainFinanceI
     }
 
     @Override
+    public Mono<CursorPageResponseDTO<SupplyChainFinanceInvoiceDTO>> findAllByCursor(CursorPageRequestDTO<SupplyChainFinanceInvoiceDTO> request) {
+        return Mono.defer(() -> keysetPagination.page(SupplyChainFinanceInvoice.class, mapper.toEntity(request.getFilters()),
+                request.getCursor(), request.getSize(), mapper::toDTO));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<SupplyChainFinanceInvoiceDTO> exportByAgreement(UUID agreementId) {
+        return streamingQuery.stream(SupplyChainFinanceInvoice.class, EXPORT_BY_AGREEMENT_SQL, Map.of("agreementId", agreementId))
+                .map(mapper::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<String> exportByAgreementAsCsv(UUID agreementId) {
+        return Flux.just(CSV.header())
+                .concatWith(exportByAgreement(agreementId).map(CSV::format));
+    }
+
+    /**
+     * Writes run in their own transaction, outside the class-level one, and the change is published once it has
+     * committed: listeners never see a change that is rolled back.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<SupplyChainFinanceInvoiceDTO> create(SupplyChainFinanceInvoiceDTO dto) {
-        return Mono.just(dto).map(mapper::toEntity).flatMap(repository::save).map(mapper::toDTO);
+        return validation.check(SupplyChainFinanceInvoiceDTO.class, dto.getFinanceType(), dto)
+                .then(Mono.just(dto)).map(mapper::toEntity).flatMap(repository::save)
+                .as(transactionalOperator::transactional)
+                .map(mapper::toDTO)
+                .doOnNext(this::publishSaved);
+    }
+
+    /**
+     * Runs outside the class-level transaction: every batch commits on its own so that a
+     * month-end upload of several hundred thousand rows never sits in a single transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<BulkItemResultDTO> bulkCreate(Flux<SupplyChainFinanceInvoiceDTO> invoices) {
+        return invoices
+                .index()
+                .buffer(properties.getBulk().getBatchSize())
+                .concatMap(this::processBatch);
     }
 
     @Override
@@ -55,18 +142,165 @@ public class SupplyChainFinanceInvoiceServiceImpl implements SupplyChainFinanceI
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<SupplyChainFinanceInvoiceDTO> update(UUID id, SupplyChainFinanceInvoiceDTO dto) {
-        return repository.findById(id)
+        return validation.check(SupplyChainFinanceInvoiceDTO.class, dto.getFinanceType(), dto)
+                .then(repository.findById(id))
                 .flatMap(existing -> {
                     SupplyChainFinanceInvoice updated = mapper.toEntity(dto);
                     updated.setId(existing.getId());
+                    if (updated.getStatus() != existing.getStatus()
+                            && !InvoiceStatusTransitions.isAllowed(existing.getFinanceType(), existing.getStatus(), updated.getStatus())) {
+                        return Mono.error(new IllegalStateException("Illegal status transition for " + existing.getFinanceType()
+                                + " invoice " + id + ": " + existing.getStatus() + " -> " + updated.getStatus()));
+                    }
                     return repository.save(updated);
                 })
-                .map(mapper::toDTO);
+                .as(transactionalOperator::transactional)
+                .map(mapper::toDTO)
+                .doOnNext(this::publishSaved);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Mono<SupplyChainFinanceInvoiceDTO> transitionStatus(UUID id, InvoiceStatusTransitionDTO transition) {
+        List<FinanceTypeEnum> financeTypes = InvoiceStatusTransitions.financeTypesAllowing(
+                transition.getExpectedStatus(), transition.getTargetStatus());
+        if (financeTypes.isEmpty()) {
+            return Mono.error(new IllegalStateException("Illegal status transition: "
+                    + transition.getExpectedStatus() + " -> " + transition.getTargetStatus()));
+        }
+        return repository.transitionStatus(id, transition.getExpectedStatus().name(), transition.getTargetStatus().name(),
+                        financeTypes.stream().map(Enum::name).toArray(String[]::new), transition.getRejectionReason())
+                .as(transactionalOperator::transactional)
+                .map(mapper::toDTO)
+                .doOnNext(this::publishSaved)
+                // Nothing matched: read the row only now, to tell a missing invoice from a rejected transition
+                .switchIfEmpty(Mono.defer(() -> repository.findById(id)
+                        .flatMap(current -> Mono.error(transitionConflict(current, transition)))));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Mono<Boolean> patch(UUID id, SupplyChainFinanceInvoiceDTO dto) {
+        if (dto.getStatus() != null) {
+            return Mono.error(new IllegalArgumentException(
+                    "Invoice status cannot be patched; use the status transition endpoint"));
+        }
+        Mono<Boolean> patched = partialUpdate.patch(SupplyChainFinanceInvoice.class, id, dto, mapper::toEntity);
+        if (!changesTrackedFields(dto)) {
+            return patched.as(transactionalOperator::transactional);
+        }
+        // Listeners track due dates and amounts; only re-read the row when one of those changed
+        return patched.flatMap(updated -> updated ? repository.findById(id) : Mono.empty())
+                .as(transactionalOperator::transactional)
+                .map(mapper::toDTO)
+                .doOnNext(this::publishSaved)
+                .map(invoice -> true)
+                .defaultIfEmpty(false);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<Void> delete(UUID id) {
-        return repository.findById(id).flatMap(repository::delete);
+        return repository.findById(id)
+                .flatMap(existing -> repository.delete(existing).thenReturn(id))
+                .as(transactionalOperator::transactional)
+                .doOnNext(deleted -> eventPublisher.publishEvent(InvoiceChangedEvent.deleted(deleted)))
+                .then();
+    }
+
+    private Flux<BulkItemResultDTO> processBatch(List<Tuple2<Long, SupplyChainFinanceInvoiceDTO>> rows) {
+        ValidationPipeline.RuleSet<SupplyChainFinanceInvoiceDTO> rules = validation.rulesFor(SupplyChainFinanceInvoiceDTO.class);
+        List<BulkItemResultDTO> rejected = new ArrayList<>();
+        List<Tuple2<Long, SupplyChainFinanceInvoiceDTO>> accepted = new ArrayList<>(rows.size());
+        for (Tuple2<Long, SupplyChainFinanceInvoiceDTO> row : rows) {
+            SupplyChainFinanceInvoiceDTO invoice = row.getT2();
+            Set<ConstraintViolation<SupplyChainFinanceInvoiceDTO>> violations = validator.validate(invoice);
+            List<ValidationViolation> ruleViolations = rules.validate(invoice.getFinanceType(), invoice);
+            if (violations.isEmpty() && ruleViolations.isEmpty()) {
+                accepted.add(row);
+            } else {
+                rejected.add(BulkItemResultDTO.failure(row.getT1(), invoice.getInvoiceNumber(), describe(violations, ruleViolations)));
+            }
+        }
+        return Flux.fromIterable(rejected).concatWith(insertBatch(accepted));
+    }
+
+    /**
+     * Inserts the batch in one transaction, with a single multi-row insert statement. If any row fails the whole
+     * batch is rolled back and retried row by row, so that the failing rows can be reported individually. Inserted
+     * rows are matched back to their input rows by finance type and invoice number, which are unique, since
+     * {@code RETURNING} does not guarantee the order of the values list.
+     */
+    private Flux<BulkItemResultDTO> insertBatch(List<Tuple2<Long, SupplyChainFinanceInvoiceDTO>> rows) {
+        if (rows.isEmpty()) {
+            return Flux.empty();
+        }
+        List<SupplyChainFinanceInvoice> entities = rows.stream()
+                .map(row -> mapper.toEntity(row.getT2()))
+                .toList();
+        return repository.insertAll(Flux.fromIterable(entities), properties.getBulk().getBatchSize())
+                .collectList()
+                .as(transactionalOperator::transactional)
+                .doOnNext(saved -> saved.forEach(invoice -> publishSaved(mapper.toDTO(invoice))))
+                .flatMapMany(saved -> {
+                    Map<InvoiceKey, SupplyChainFinanceInvoice> inserted = saved.stream()
+                            .collect(Collectors.toMap(InvoiceKey::of, Function.identity()));
+                    return Flux.range(0, rows.size()).map(i -> {
+                        SupplyChainFinanceInvoice invoice = inserted.get(InvoiceKey.of(entities.get(i)));
+                        return BulkItemResultDTO.success(rows.get(i).getT1(), invoice.getId(), invoice.getInvoiceNumber());
+                    });
+                })
+                .onErrorResume(e -> {
+                    log.warn("Bulk invoice batch of {} rows failed, retrying row by row: {}", rows.size(), e.getMessage());
+                    return Flux.fromIterable(rows).concatMap(this::insertSingle);
+                });
+    }
+
+    private Mono<BulkItemResultDTO> insertSingle(Tuple2<Long, SupplyChainFinanceInvoiceDTO> row) {
+        // Map again: entities from the rolled back batch may already carry a generated id
+        return repository.save(mapper.toEntity(row.getT2()))
+                .as(transactionalOperator::transactional)
+                .doOnNext(saved -> publishSaved(mapper.toDTO(saved)))
+                .map(saved -> BulkItemResultDTO.success(row.getT1(), saved.getId(), saved.getInvoiceNumber()))
+                .onErrorResume(e -> Mono.just(
+                        BulkItemResultDTO.failure(row.getT1(), row.getT2().getInvoiceNumber(), e.getMessage())));
+    }
+
+    /**
+     * The natural key of an invoice, unique across the invoice table.
+     */
+    private record InvoiceKey(FinanceTypeEnum financeType, String invoiceNumber) {
+
+        static InvoiceKey of(SupplyChainFinanceInvoice invoice) {
+            return new InvoiceKey(invoice.getFinanceType(), invoice.getInvoiceNumber());
+        }
+    }
+
+    private void publishSaved(SupplyChainFinanceInvoiceDTO invoice) {
+        eventPublisher.publishEvent(InvoiceChangedEvent.saved(invoice));
+    }
+
+    private static boolean changesTrackedFields(SupplyChainFinanceInvoiceDTO dto) {
+        return dto.getDueDate() != null || dto.getInvoiceAmount() != null || dto.getFinancedAmount() != null
+                || dto.getCurrency() != null || dto.getAgreementId() != null || dto.getCounterpartyId() != null;
+    }
+
+    private static IllegalStateException transitionConflict(SupplyChainFinanceInvoice current, InvoiceStatusTransitionDTO transition) {
+        if (current.getStatus() != transition.getExpectedStatus()) {
+            return new IllegalStateException("Invoice " + current.getId() + " is in status " + current.getStatus()
+                    + ", expected " + transition.getExpectedStatus());
+        }
+        return new IllegalStateException("Illegal status transition for " + current.getFinanceType() + " invoice "
+                + current.getId() + ": " + current.getStatus() + " -> " + transition.getTargetStatus());
+    }
+
+    private static String describe(Set<? extends ConstraintViolation<?>> violations, List<ValidationViolation> ruleViolations) {
+        return Stream.concat(
+                        violations.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage()),
+                        ruleViolations.stream().map(ValidationViolation::toString))
+                .sorted()
+                .collect(Collectors.joining("; "));
     }
 }
@@ -7,32 +7,117 @@ package com.firefly.core.lending.supplychainfinance.core.services.impl;
 
 import org.fireflyframework.core.filters.*;
 import org.fireflyframework.core.queries.PaginationResponse;
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
 import com.firefly.core.lending.supplychainfinance.core.mappers.SupplyChainFinanceSettlementMapper;
 import com.firefly.core.lending.supplychainfinance.core.services.SupplyChainFinanceSettlementService;
+import com.firefly.core.lending.supplychainfinance.core.settlement.SettlementBatchWriter;
+import com.firefly.core.lending.supplychainfinance.core.settlement.SettlementWaterfallEngine;
+import com.firefly.core.lending.supplychainfinance.core.settlement.SettlementWaterfallEngine.DerivedSettlement;
+import com.firefly.core.lending.supplychainfinance.core.support.CsvRowFormatter;
+import com.firefly.core.lending.supplychainfinance.core.support.KeysetPaginationSupport;
+import com.firefly.core.lending.supplychainfinance.core.support.PartialUpdateSupport;
+import com.firefly.core.lending.supplychainfinance.core.support.StreamingQuerySupport;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BulkItemResultDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceSettlementDTO;
 import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceSettlement;
 import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceSettlementRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class SupplyChainFinanceSettlementServiceImpl implements SupplyChainFinanceSettlementService {
+
+    private static final String EXPORT_BY_AGREEMENT_SQL = """
+            SELECT s.* FROM supply_chain_finance_settlement s
+            JOIN supply_chain_finance_invoice i ON i.id = s.invoice_id
+            WHERE i.agreement_id = :agreementId
+            ORDER BY s.created_at, s.id""";
+
+    private static final CsvRowFormatter<SupplyChainFinanceSettlementDTO> CSV = CsvRowFormatter.of(SupplyChainFinanceSettlementDTO.class);
+
     private final SupplyChainFinanceSettlementRepository repository;
     private final SupplyChainFinanceSettlementMapper mapper;
+    private final KeysetPaginationSupport keysetPagination;
+    private final PartialUpdateSupport partialUpdate;
+    private final StreamingQuerySupport streamingQuery;
+    private final SettlementWaterfallEngine waterfall;
+    private final SettlementBatchWriter settlementWriter;
+    private final SupplyChainFinanceProperties properties;
+    private final Validator validator;
 
     @Override
     public Mono<PaginationResponse<SupplyChainFinanceSettlementDTO>> findAll(FilterRequest<SupplyChainFinanceSettlementDTO> filterRequest) {
         return FilterUtils.createFilter(SupplyChainFinanceSettlement.class, mapper::toDTO).filter(filterRequest);
     }
 
+    @Override
+    public Mono<CursorPageResponseDTO<SupplyChainFinanceSettlementDTO>> findAllByCursor(CursorPageRequestDTO<SupplyChainFinanceSettlementDTO> request) {
+        return Mono.defer(() -> keysetPagination.page(SupplyChainFinanceSettlement.class, mapper.toEntity(request.getFilters()),
+                request.getCursor(), request.getSize(), mapper::toDTO));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<SupplyChainFinanceSettlementDTO> exportByAgreement(UUID agreementId) {
+        return streamingQuery.stream(SupplyChainFinanceSettlement.class, EXPORT_BY_AGREEMENT_SQL, Map.of("agreementId", agreementId))
+                .map(mapper::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<String> exportByAgreementAsCsv(UUID agreementId) {
+        return Flux.just(CSV.header())
+                .concatWith(exportByAgreement(agreementId).map(CSV::format));
+    }
+
     @Override
     public Mono<SupplyChainFinanceSettlementDTO> create(SupplyChainFinanceSettlementDTO dto) {
-        return Mono.just(dto).map(mapper::toEntity).flatMap(repository::save).map(mapper::toDTO);
+        return Mono.just(dto).map(mapper::toEntity)
+                .flatMap(this::deriveIfMissing).flatMap(repository::save).map(mapper::toDTO)
+                .onErrorMap(DuplicateKeyException.class, SupplyChainFinanceSettlementServiceImpl::alreadyRecorded);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<SupplyChainFinanceSettlementDTO> calculate(SupplyChainFinanceSettlementDTO dto) {
+        return Mono.just(dto).map(mapper::toEntity).flatMap(this::derive).map(mapper::toDTO);
+    }
+
+    /**
+     * Runs outside the class-level transaction: every batch is inserted by a single statement in its own
+     * transaction, so that settling a whole remittance file never sits in one transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<BulkItemResultDTO> bulkCreate(Flux<SupplyChainFinanceSettlementDTO> settlements) {
+        return settlements
+                .index()
+                .buffer(properties.getBulk().getBatchSize())
+                .concatMap(this::processBatch);
     }
 
     @Override
@@ -43,14 +128,130 @@ public class SupplyChainFinanceSettlementServiceImpl implements SupplyChainFinan
     @Override
     public Mono<SupplyChainFinanceSettlementDTO> update(UUID id, SupplyChainFinanceSettlementDTO dto) {
         return repository.findById(id).flatMap(existing -> {
-            SupplyChainFinanceSettlement updated = mapper.toEntity(dto);
-            updated.setId(existing.getId());
-            return repository.save(updated);
-        }).map(mapper::toDTO);
+                    SupplyChainFinanceSettlement updated = mapper.toEntity(dto);
+                    updated.setId(existing.getId());
+                    return repository.save(updated);
+                })
+                .map(mapper::toDTO)
+                .onErrorMap(DuplicateKeyException.class, SupplyChainFinanceSettlementServiceImpl::alreadyRecorded);
+    }
+
+    @Override
+    public Mono<Boolean> patch(UUID id, SupplyChainFinanceSettlementDTO dto) {
+        return partialUpdate.patch(SupplyChainFinanceSettlement.class, id, dto, mapper::toEntity)
+                .onErrorMap(DuplicateKeyException.class, SupplyChainFinanceSettlementServiceImpl::alreadyRecorded);
     }
 
     @Override
     public Mono<Void> delete(UUID id) {
         return repository.findById(id).flatMap(repository::delete);
     }
+
+    /**
+     * The unique index rejected the settlement: its payment reference is already recorded against the invoice,
+     * possibly by a concurrent insert.
+     */
+    private static IllegalStateException alreadyRecorded(DuplicateKeyException e) {
+        return new IllegalStateException("Payment already recorded against the invoice", e);
+    }
+
+    private Mono<SupplyChainFinanceSettlement> deriveIfMissing(SupplyChainFinanceSettlement settlement) {
+        if (settlement.getAdvancedAmount() != null && settlement.getInterestAmount() != null
+                && settlement.getFeeAmount() != null && settlement.getBalanceDue() != null) {
+            return Mono.just(settlement);
+        }
+        return derive(settlement);
+    }
+
+    private Mono<SupplyChainFinanceSettlement> derive(SupplyChainFinanceSettlement settlement) {
+        return waterfall.derive(List.of(settlement))
+                .map(List::getFirst)
+                .flatMap(derived -> derived.isDerived()
+                        ? Mono.just(derived.settlement())
+                        : Mono.error(new IllegalArgumentException(derived.error())));
+    }
+
+    private Flux<BulkItemResultDTO> processBatch(List<Tuple2<Long, SupplyChainFinanceSettlementDTO>> rows) {
+        List<BulkItemResultDTO> rejected = new ArrayList<>();
+        List<Tuple2<Long, SupplyChainFinanceSettlementDTO>> accepted = new ArrayList<>(rows.size());
+        for (Tuple2<Long, SupplyChainFinanceSettlementDTO> row : rows) {
+            Set<ConstraintViolation<SupplyChainFinanceSettlementDTO>> violations = validator.validate(row.getT2());
+            if (violations.isEmpty()) {
+                accepted.add(row);
+            } else {
+                rejected.add(BulkItemResultDTO.failure(row.getT1(), row.getT2().getPaymentReference(), describe(violations)));
+            }
+        }
+        if (accepted.isEmpty()) {
+            return Flux.fromIterable(rejected);
+        }
+        List<SupplyChainFinanceSettlement> entities = accepted.stream()
+                .map(row -> mapper.toEntity(row.getT2()))
+                .toList();
+        return Flux.fromIterable(rejected).concatWith(waterfall.derive(entities)
+                .flatMapMany(derived -> insertBatch(accepted, derived)));
+    }
+
+    /**
+     * Inserts the derived settlements of the batch with one statement. If it fails the batch is retried row by row,
+     * so that the failing rows can be reported individually.
+     */
+    private Flux<BulkItemResultDTO> insertBatch(List<Tuple2<Long, SupplyChainFinanceSettlementDTO>> rows,
+                                                List<DerivedSettlement> derived) {
+        List<BulkItemResultDTO> results = new ArrayList<>();
+        List<Tuple2<Long, SupplyChainFinanceSettlement>> insertable = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Tuple2<Long, SupplyChainFinanceSettlementDTO> row = rows.get(i);
+            DerivedSettlement settlement = derived.get(i);
+            if (settlement.isDerived()) {
+                insertable.add(Tuples.of(row.getT1(), settlement.settlement()));
+            } else {
+                results.add(BulkItemResultDTO.failure(row.getT1(), row.getT2().getPaymentReference(), settlement.error()));
+            }
+        }
+        return Flux.fromIterable(results).concatWith(insert(insertable)
+                .onErrorResume(e -> {
+                    log.warn("Bulk settlement batch of {} rows failed, retrying row by row: {}", insertable.size(), e.getMessage());
+                    return Flux.fromIterable(insertable).concatMap(row -> insert(List.of(row))
+                            .onErrorResume(rowError -> Mono.just(BulkItemResultDTO.failure(row.getT1(),
+                                    row.getT2().getPaymentReference(), rowError.getMessage()))));
+                }));
+    }
+
+    private Flux<BulkItemResultDTO> insert(List<Tuple2<Long, SupplyChainFinanceSettlement>> rows) {
+        // Only the first row of a payment is inserted; later rows with the same invoice and reference find it taken.
+        // Rows without a reference are all inserted, and take the inserted rows of their invoice in turn
+        return settlementWriter.insert(rows.stream().map(Tuple2::getT2).toList())
+                .collectMultimap(PaymentKey::of)
+                .map(inserted -> {
+                    Map<PaymentKey, Deque<SupplyChainFinanceSettlement>> remaining = new HashMap<>();
+                    inserted.forEach((key, settlements) -> remaining.put(key, new ArrayDeque<>(settlements)));
+                    return remaining;
+                })
+                .flatMapMany(inserted -> Flux.fromIterable(rows).map(row -> {
+                    Deque<SupplyChainFinanceSettlement> candidates = inserted.get(PaymentKey.of(row.getT2()));
+                    SupplyChainFinanceSettlement saved = candidates != null ? candidates.poll() : null;
+                    return saved != null
+                            ? BulkItemResultDTO.success(row.getT1(), saved.getId(), saved.getPaymentReference())
+                            : BulkItemResultDTO.failure(row.getT1(), row.getT2().getPaymentReference(),
+                                    "Payment already recorded against the invoice");
+                }));
+    }
+
+    /**
+     * The idempotency key of a settlement: the same payment reference is recorded once per invoice.
+     */
+    private record PaymentKey(UUID invoiceId, String paymentReference) {
+
+        static PaymentKey of(SupplyChainFinanceSettlement settlement) {
+            return new PaymentKey(settlement.getInvoiceId(), settlement.getPaymentReference());
+        }
+    }
+
+    private static String describe(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
 }
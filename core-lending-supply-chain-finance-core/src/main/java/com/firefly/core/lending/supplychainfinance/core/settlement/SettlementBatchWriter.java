@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.settlement;
+
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceSettlement;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceSettlementRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inserts a batch of settlements with a single multi-row {@code INSERT} in its own transaction, or in the caller's
+ * if there is one. Payments already recorded against their invoice are skipped on the unique
+ * {@code (invoice_id, payment_reference)} index, so retrying a batch never records a payment twice however batches
+ * race.
+ */
+@Component
+@RequiredArgsConstructor
+public class SettlementBatchWriter {
+
+    private final SupplyChainFinanceSettlementRepository repository;
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * @return a Flux emitting the settlements inserted, with their generated IDs; those of payments already
+     *         recorded are missing from it
+     */
+    public Flux<SupplyChainFinanceSettlement> insert(List<SupplyChainFinanceSettlement> settlements) {
+        if (settlements.isEmpty()) {
+            return Flux.empty();
+        }
+        int size = settlements.size();
+        String[] financeTypes = new String[size];
+        UUID[] invoiceIds = new UUID[size];
+        String[] settlementDates = new String[size];
+        String[] currencies = new String[size];
+        BigDecimal[] settlementAmounts = new BigDecimal[size];
+        BigDecimal[] advancedAmounts = new BigDecimal[size];
+        BigDecimal[] interestAmounts = new BigDecimal[size];
+        BigDecimal[] feeAmounts = new BigDecimal[size];
+        BigDecimal[] balancesDue = new BigDecimal[size];
+        String[] paymentReferences = new String[size];
+        String[] notes = new String[size];
+        for (int i = 0; i < size; i++) {
+            SupplyChainFinanceSettlement settlement = settlements.get(i);
+            financeTypes[i] = settlement.getFinanceType().name();
+            invoiceIds[i] = settlement.getInvoiceId();
+            settlementDates[i] = settlement.getSettlementDate().toString();
+            currencies[i] = settlement.getCurrency().name();
+            settlementAmounts[i] = settlement.getSettlementAmount();
+            advancedAmounts[i] = settlement.getAdvancedAmount();
+            interestAmounts[i] = settlement.getInterestAmount();
+            feeAmounts[i] = settlement.getFeeAmount();
+            balancesDue[i] = settlement.getBalanceDue();
+            paymentReferences[i] = settlement.getPaymentReference();
+            notes[i] = settlement.getNotes();
+        }
+        return repository.insertBatch(financeTypes, invoiceIds, settlementDates, currencies, settlementAmounts,
+                        advancedAmounts, interestAmounts, feeAmounts, balancesDue, paymentReferences, notes)
+                .as(transactionalOperator::transactional);
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.settlement;
+
+import com.firefly.core.lending.supplychainfinance.core.cache.AgreementCache;
+import com.firefly.core.lending.supplychainfinance.core.fees.FeeEngine;
+import com.firefly.core.lending.supplychainfinance.core.fees.FeeSchedule;
+import com.firefly.core.lending.supplychainfinance.core.fees.FeeScheduleCache;
+import com.firefly.core.lending.supplychainfinance.core.pricing.AdvancePricingEngine;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAccrual;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAdvance;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAgreement;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceInvoice;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceSettlement;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAccrualRepository;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAdvanceRepository;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceInvoiceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Derives the waterfall of settlements: how the amount received for an invoice is split between recovering its
+ * advances, the interest and fees owed on them, and the balance due to the seller.
+ *
+ * <p>The advanced amount is the sum of the invoice's advances. The interest is what accrued on each advance through
+ * the settlement date beyond the discount already deducted when it was paid out: the latest accrual on or before the
+ * settlement date, extended at the agreement's interest rate for the days since. The fees are the invoice fees of the
+ * agreement's schedule as of the settlement date, the collection fee and, if the invoice is settled past due, the
+ * late payment fee; advance fees were deducted at payout. The balance due is the settlement amount less the three,
+ * negative when the amount received falls short.
+ *
+ * <p>Settlements are derived in batches, reading the invoices, advances and latest accruals of a whole batch with one
+ * query each.
+ */
+@Component
+@RequiredArgsConstructor
+public class SettlementWaterfallEngine {
+
+    private static final int TERMS_CONCURRENCY = 8;
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(4);
+
+    private final SupplyChainFinanceInvoiceRepository invoiceRepository;
+    private final SupplyChainFinanceAdvanceRepository advanceRepository;
+    private final SupplyChainFinanceAccrualRepository accrualRepository;
+    private final AgreementCache agreementCache;
+    private final FeeScheduleCache feeSchedules;
+    private final AdvancePricingEngine pricing;
+    private final FeeEngine feeEngine;
+
+    /**
+     * A settlement with its waterfall filled in, or the reason it cannot be settled.
+     */
+    public record DerivedSettlement(SupplyChainFinanceSettlement settlement, String error) {
+
+        public boolean isDerived() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Fills in the finance type, currency, settlement date and amount, advanced, interest and fee amounts and
+     * balance due of each settlement left without them. The settlement date defaults to today and the settlement
+     * amount to the invoice amount; amounts submitted are kept and the balance due is computed from them.
+     *
+     * @return a Mono emitting one result per settlement, in order
+     */
+    public Mono<List<DerivedSettlement>> derive(List<SupplyChainFinanceSettlement> settlements) {
+        for (SupplyChainFinanceSettlement settlement : settlements) {
+            if (settlement.getSettlementDate() == null) {
+                settlement.setSettlementDate(LocalDate.now());
+            }
+        }
+        UUID[] invoiceIds = settlements.stream()
+                .map(SupplyChainFinanceSettlement::getInvoiceId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toArray(UUID[]::new);
+        if (invoiceIds.length == 0) {
+            return Mono.fromSupplier(() -> derive(settlements, Map.of(), Map.of(), Map.of(), Map.of()));
+        }
+        return invoiceRepository.findByIdAny(invoiceIds)
+                .collectMap(SupplyChainFinanceInvoice::getId)
+                .flatMap(invoices -> Mono.zip(
+                                advanceRepository.findByInvoiceIdAny(invoiceIds).collectMultimap(SupplyChainFinanceAdvance::getInvoiceId),
+                                termsOf(invoices.values()))
+                        .flatMap(advancesAndTerms -> latestAccrualsOf(advancesAndTerms.getT1(), settlements)
+                                .map(accruals -> derive(settlements, invoices, advancesAndTerms.getT1(), accruals,
+                                        advancesAndTerms.getT2()))));
+    }
+
+    private List<DerivedSettlement> derive(List<SupplyChainFinanceSettlement> settlements,
+                                           Map<UUID, SupplyChainFinanceInvoice> invoices,
+                                           Map<UUID, Collection<SupplyChainFinanceAdvance>> advances,
+                                           Map<UUID, SupplyChainFinanceAccrual> accruals, Map<UUID, Terms> terms) {
+        Set<UUID> settled = new HashSet<>();
+        List<DerivedSettlement> derived = new ArrayList<>(settlements.size());
+        for (SupplyChainFinanceSettlement settlement : settlements) {
+            String error = derive(settlement, invoices, advances, accruals, terms, settled);
+            derived.add(new DerivedSettlement(settlement, error));
+        }
+        return derived;
+    }
+
+    /**
+     * @return the reason the settlement cannot be derived, or null once it is
+     */
+    private String derive(SupplyChainFinanceSettlement settlement, Map<UUID, SupplyChainFinanceInvoice> invoices,
+                          Map<UUID, Collection<SupplyChainFinanceAdvance>> advances,
+                          Map<UUID, SupplyChainFinanceAccrual> accruals, Map<UUID, Terms> terms, Set<UUID> settled) {
+        if (settlement.getInvoiceId() == null) {
+            return "Invoice ID is required";
+        }
+        SupplyChainFinanceInvoice invoice = invoices.get(settlement.getInvoiceId());
+        if (invoice == null) {
+            return "Invoice not found";
+        }
+        if (!settled.add(invoice.getId())) {
+            return "Invoice is settled more than once in the batch";
+        }
+        if (settlement.getFinanceType() != null && settlement.getFinanceType() != invoice.getFinanceType()) {
+            return "Finance type " + settlement.getFinanceType() + " does not match the invoice's " + invoice.getFinanceType();
+        }
+        if (settlement.getCurrency() != null && settlement.getCurrency() != invoice.getCurrency()) {
+            return "Currency " + settlement.getCurrency() + " does not match the invoice's " + invoice.getCurrency();
+        }
+        Terms agreementTerms = terms.get(invoice.getAgreementId());
+        if (agreementTerms == null) {
+            return "Agreement not found";
+        }
+
+        LocalDate settlementDate = settlement.getSettlementDate();
+        BigDecimal interestRate = agreementTerms.agreement().getInterestRate();
+        BigDecimal advanced = ZERO;
+        BigDecimal interest = ZERO;
+        for (SupplyChainFinanceAdvance advance : advances.getOrDefault(invoice.getId(), List.of())) {
+            advanced = advanced.add(advance.getAdvanceAmount());
+            interest = interest.add(interestBeyondDiscount(advance, accruals.get(advance.getId()), interestRate, settlementDate));
+        }
+        BigDecimal fee = feeEngine.invoiceFees(agreementTerms.fees(), invoice.getInvoiceAmount(), invoice.getCurrency(),
+                        invoice.getStatus(), invoice.getDueDate(), settlementDate).values().stream()
+                .reduce(ZERO, BigDecimal::add);
+
+        settlement.setFinanceType(invoice.getFinanceType());
+        settlement.setCurrency(invoice.getCurrency());
+        if (settlement.getSettlementAmount() == null) {
+            settlement.setSettlementAmount(invoice.getInvoiceAmount());
+        }
+        if (settlement.getAdvancedAmount() == null) {
+            settlement.setAdvancedAmount(advanced);
+        }
+        if (settlement.getInterestAmount() == null) {
+            settlement.setInterestAmount(interest);
+        }
+        if (settlement.getFeeAmount() == null) {
+            settlement.setFeeAmount(fee);
+        }
+        if (settlement.getBalanceDue() == null) {
+            settlement.setBalanceDue(settlement.getSettlementAmount()
+                    .subtract(settlement.getAdvancedAmount())
+                    .subtract(settlement.getInterestAmount())
+                    .subtract(settlement.getFeeAmount()));
+        }
+        return null;
+    }
+
+    /**
+     * @param latest the latest accrual of the advance on or before the settlement date, or null if none
+     * @return the interest accrued on the advance through the settlement date less its discount, zero if the
+     *         discount covers it
+     */
+    private BigDecimal interestBeyondDiscount(SupplyChainFinanceAdvance advance, SupplyChainFinanceAccrual latest,
+                                              BigDecimal interestRate, LocalDate settlementDate) {
+        BigDecimal accrued = latest != null ? latest.getAccruedAmount() : ZERO;
+        if (interestRate != null) {
+            long accruedDays = latest != null ? AdvancePricingEngine.daysFinanced(advance.getAdvanceDate(), latest.getAccrualDate()) : 0;
+            long days = AdvancePricingEngine.daysFinanced(advance.getAdvanceDate(), settlementDate);
+            if (days > accruedDays) {
+                accrued = accrued.add(pricing.discountAmount(advance.getAdvanceAmount(), interestRate, days))
+                        .subtract(pricing.discountAmount(advance.getAdvanceAmount(), interestRate, accruedDays));
+            }
+        }
+        BigDecimal discount = advance.getDiscountAmount() != null ? advance.getDiscountAmount() : ZERO;
+        return accrued.subtract(discount).max(ZERO);
+    }
+
+    private Mono<Map<UUID, SupplyChainFinanceAccrual>> latestAccrualsOf(Map<UUID, Collection<SupplyChainFinanceAdvance>> advances,
+                                                                        List<SupplyChainFinanceSettlement> settlements) {
+        Map<UUID, LocalDate> settlementDates = new HashMap<>();
+        for (SupplyChainFinanceSettlement settlement : settlements) {
+            if (settlement.getInvoiceId() != null) {
+                settlementDates.putIfAbsent(settlement.getInvoiceId(), settlement.getSettlementDate());
+            }
+        }
+        List<UUID> advanceIds = new ArrayList<>();
+        List<String> asOfDates = new ArrayList<>();
+        advances.forEach((invoiceId, invoiceAdvances) -> {
+            for (SupplyChainFinanceAdvance advance : invoiceAdvances) {
+                advanceIds.add(advance.getId());
+                asOfDates.add(settlementDates.get(invoiceId).toString());
+            }
+        });
+        if (advanceIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return accrualRepository.findLatestByAdvanceIds(advanceIds.toArray(UUID[]::new), asOfDates.toArray(String[]::new))
+                .collectMap(SupplyChainFinanceAccrual::getAdvanceId);
+    }
+
+    private Mono<Map<UUID, Terms>> termsOf(Collection<SupplyChainFinanceInvoice> invoices) {
+        return Flux.fromStream(invoices.stream().map(SupplyChainFinanceInvoice::getAgreementId).filter(Objects::nonNull).distinct())
+                .flatMap(agreementId -> Mono.zip(agreementCache.findById(agreementId), feeSchedules.scheduleOf(agreementId),
+                        Terms::new), TERMS_CONCURRENCY)
+                .collectMap(terms -> terms.agreement().getId());
+    }
+
+    private record Terms(SupplyChainFinanceAgreement agreement, FeeSchedule fees) {
+    }
+}
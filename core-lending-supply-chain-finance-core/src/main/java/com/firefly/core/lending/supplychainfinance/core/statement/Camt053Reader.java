@@ -0,0 +1,319 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.statement;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BankReceiptDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Reads the credit entries of an ISO 20022 bank to customer statement (camt.053) as bank receipts, one entry at a
+ * time with a StAX pull parser, so memory use depends on the size of an entry and not of the statement.
+ *
+ * <p>Elements are matched by local name, so every camt.053.001 version is read. Only booked, non-reversed credit
+ * entries are receipts. An entry booking several transactions, each with its own amount, yields one receipt per
+ * transaction; otherwise the entry yields a single receipt carrying the details of its first transaction. The
+ * remittance information gathers the unstructured lines, creditor references and referred document numbers.
+ *
+ * <p>A reader holds the state of one statement and is not thread-safe.
+ */
+public class Camt053Reader implements AutoCloseable {
+
+    private static final XMLInputFactory INPUT_FACTORY = inputFactory();
+
+    private static final String ENTRY = "Ntry";
+    private static final String TRANSACTION = "NtryDtls/TxDtls";
+    private static final String CREDIT = "CRDT";
+    private static final String BOOKED = "BOOK";
+    private static final String NOT_PROVIDED = "NOTPROVIDED";
+
+    private final InputStream input;
+    private final XMLStreamReader xml;
+    private final Queue<BankReceiptDTO> pending = new ArrayDeque<>();
+
+    // Path of the current element below the entry, with the length of the path at each level
+    private final StringBuilder path = new StringBuilder();
+    private final int[] pathLengths = new int[64];
+    private final StringBuilder text = new StringBuilder();
+
+    private int depth = -1;
+    private Entry entry;
+    private Transaction transaction;
+
+    public Camt053Reader(InputStream input) throws XMLStreamException {
+        this.input = input;
+        this.xml = INPUT_FACTORY.createXMLStreamReader(input);
+    }
+
+    /**
+     * @return the next receipt of the statement, or null once all have been read
+     * @throws XMLStreamException if the statement is not well-formed XML
+     */
+    public BankReceiptDTO next() throws XMLStreamException {
+        while (pending.isEmpty() && xml.hasNext()) {
+            switch (xml.next()) {
+                case XMLStreamConstants.START_ELEMENT -> startElement();
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                    if (entry != null) {
+                        text.append(xml.getText());
+                    }
+                }
+                case XMLStreamConstants.END_ELEMENT -> endElement();
+                default -> {
+                }
+            }
+        }
+        return pending.poll();
+    }
+
+    @Override
+    public void close() throws XMLStreamException, IOException {
+        try {
+            xml.close();
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Closes the reader, ignoring failures; for use once the statement has been read or abandoned.
+     */
+    public void closeQuietly() {
+        try {
+            close();
+        } catch (XMLStreamException | IOException e) {
+            // Nothing more is read from the statement
+        }
+    }
+
+    private void startElement() throws XMLStreamException {
+        String name = xml.getLocalName();
+        if (entry == null) {
+            if (ENTRY.equals(name)) {
+                entry = new Entry();
+                depth = 0;
+                path.setLength(0);
+            }
+            return;
+        }
+        if (depth + 1 >= pathLengths.length) {
+            throw new XMLStreamException("Statement entry nested too deeply", xml.getLocation());
+        }
+        pathLengths[++depth] = path.length();
+        if (!path.isEmpty()) {
+            path.append('/');
+        }
+        path.append(name);
+        text.setLength(0);
+
+        String current = path.toString();
+        if (current.equals(TRANSACTION)) {
+            transaction = new Transaction();
+        } else if (current.equals("Amt")) {
+            entry.currency = xml.getAttributeValue(null, "Ccy");
+        } else if (current.equals(TRANSACTION + "/Amt") || current.equals(TRANSACTION + "/AmtDtls/TxAmt/Amt")) {
+            transaction.currency = xml.getAttributeValue(null, "Ccy");
+        }
+    }
+
+    private void endElement() {
+        if (entry == null) {
+            return;
+        }
+        if (depth == 0) {
+            entry.toReceipts(pending);
+            entry = null;
+            return;
+        }
+        String current = path.toString();
+        // Only leaf elements carry a value; the text of a parent is whitespace, or empty once a child was read
+        String value = text.toString().strip();
+        if (transaction != null && current.equals(TRANSACTION)) {
+            entry.transactions.add(transaction);
+            transaction = null;
+        } else if (!value.isEmpty() && transaction != null) {
+            transaction.read(current.substring(TRANSACTION.length() + 1), value);
+        } else if (!value.isEmpty()) {
+            entry.read(current, value);
+        }
+        text.setLength(0);
+        path.setLength(pathLengths[depth--]);
+    }
+
+    private static XMLInputFactory inputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Statements come from outside: never resolve DTDs or external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        try {
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        } catch (IllegalArgumentException e) {
+            // Property not supported by this StAX implementation; DTD support is already off
+        }
+        return factory;
+    }
+
+    private static BigDecimal amount(String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static LocalDate date(String value) {
+        try {
+            // ISODateTime values carry the date in their first ten characters
+            return LocalDate.parse(value.length() > 10 ? value.substring(0, 10) : value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static CurrencyCodeEnum currency(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return CurrencyCodeEnum.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String firstProvided(String... values) {
+        for (String value : values) {
+            if (value != null && !value.isEmpty() && !NOT_PROVIDED.equals(value)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static void appendTo(StringBuilder remittance, String value) {
+        if (!remittance.isEmpty()) {
+            remittance.append(' ');
+        }
+        remittance.append(value);
+    }
+
+    private static final class Entry {
+
+        private final List<Transaction> transactions = new ArrayList<>();
+        private String amount;
+        private String currency;
+        private String creditDebit;
+        private boolean reversal;
+        private String status;
+        private String valueDate;
+        private String bookingDate;
+        private String servicerReference;
+        private String entryReference;
+
+        void read(String path, String value) {
+            switch (path) {
+                case "Amt" -> amount = value;
+                case "CdtDbtInd" -> creditDebit = value;
+                case "RvslInd" -> reversal = Boolean.parseBoolean(value);
+                case "Sts", "Sts/Cd" -> status = value;
+                case "ValDt/Dt", "ValDt/DtTm" -> valueDate = value;
+                case "BookgDt/Dt", "BookgDt/DtTm" -> bookingDate = value;
+                case "AcctSvcrRef" -> servicerReference = value;
+                case "NtryRef" -> entryReference = value;
+                default -> {
+                }
+            }
+        }
+
+        void toReceipts(Queue<BankReceiptDTO> receipts) {
+            if (!CREDIT.equals(creditDebit) || reversal || (status != null && !BOOKED.equals(status))) {
+                return;
+            }
+            String reference = firstProvided(servicerReference, entryReference);
+            LocalDate date = date(valueDate != null ? valueDate : bookingDate != null ? bookingDate : "");
+            boolean split = transactions.size() > 1 && transactions.stream().allMatch(transaction -> transaction.amount != null);
+            if (!split) {
+                Transaction details = transactions.isEmpty() ? new Transaction() : transactions.getFirst();
+                receipts.add(details.toReceipt(firstProvided(details.servicerReference, reference, details.endToEndId),
+                        date, amount, currency));
+                return;
+            }
+            for (int i = 0; i < transactions.size(); i++) {
+                Transaction details = transactions.get(i);
+                String fallback = reference != null ? reference + "-" + (i + 1) : null;
+                receipts.add(details.toReceipt(firstProvided(details.servicerReference, details.endToEndId, fallback),
+                        date, details.amount, details.currency));
+            }
+        }
+    }
+
+    private static final class Transaction {
+
+        private final StringBuilder remittance = new StringBuilder();
+        private String amount;
+        private String currency;
+        private String servicerReference;
+        private String endToEndId;
+        private String payerName;
+        private String payerId;
+
+        void read(String path, String value) {
+            switch (path) {
+                case "Amt", "AmtDtls/TxAmt/Amt" -> amount = value;
+                case "Refs/AcctSvcrRef" -> servicerReference = value;
+                case "Refs/EndToEndId" -> endToEndId = value;
+                case "RltdPties/Dbtr/Nm", "RltdPties/Dbtr/Pty/Nm" -> payerName = value;
+                case "RltdPties/Dbtr/Id/OrgId/Othr/Id", "RltdPties/Dbtr/Pty/Id/OrgId/Othr/Id" -> {
+                    if (payerId == null) {
+                        payerId = value;
+                    }
+                }
+                case "RmtInf/Ustrd", "RmtInf/Strd/CdtrRefInf/Ref", "RmtInf/Strd/RfrdDocInf/Nb" -> appendTo(remittance, value);
+                default -> {
+                }
+            }
+        }
+
+        BankReceiptDTO toReceipt(String reference, LocalDate valueDate, String amount, String currency) {
+            return BankReceiptDTO.builder()
+                    .reference(reference)
+                    .valueDate(valueDate)
+                    .amount(amount != null ? amount(amount) : null)
+                    .currency(currency(currency))
+                    .payerId(payerId)
+                    .payerName(payerName)
+                    .remittanceInformation(remittance.isEmpty() ? null : remittance.toString())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.statement;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.reconciliation.ReconciliationEngine;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BankReceiptDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.ReceiptMatchDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import javax.xml.stream.XMLStreamException;
+import java.util.UUID;
+
+/**
+ * Imports camt.053 bank statements: the credit entries read by a {@link Camt053Reader} are reconciled against the
+ * open invoices by the {@link ReconciliationEngine}, which settles every confirmed match.
+ *
+ * <p>The parser pulls the request body through a bounded input stream and only reads as far as the reconciliation
+ * requests receipts, one {@code window-size} window at a time. Memory use is therefore bounded by the window and the
+ * open invoices, whatever the size of the statement.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatementImportEngine {
+
+    private final ReconciliationEngine reconciliation;
+    private final SupplyChainFinanceProperties properties;
+
+    /**
+     * @param agreementId the agreement whose invoices the receipts may pay, or null for all agreements
+     * @return a Flux emitting one result per credit entry of the statement, or an IllegalArgumentException once
+     *         the statement turns out not to be well-formed XML
+     */
+    public Flux<ReceiptMatchDTO> importStatement(Flux<DataBuffer> statement, UUID agreementId) {
+        SupplyChainFinanceProperties.Statements settings = properties.getStatements();
+        return reconciliation.reconcileInWindows(receipts(statement, settings.getReadAheadBuffers()), agreementId,
+                settings.getWindowSize());
+    }
+
+    private static Flux<BankReceiptDTO> receipts(Flux<DataBuffer> statement, int readAheadBuffers) {
+        // The parser blocks while it waits for the body, so it reads on a worker thread
+        return Flux.using(
+                        () -> new Camt053Reader(DataBufferUtils.subscriberInputStream(statement, readAheadBuffers)),
+                        reader -> Flux.<BankReceiptDTO>generate(sink -> {
+                            try {
+                                BankReceiptDTO receipt = reader.next();
+                                if (receipt != null) {
+                                    sink.next(receipt);
+                                } else {
+                                    sink.complete();
+                                }
+                            } catch (XMLStreamException e) {
+                                sink.error(new IllegalArgumentException("Malformed camt.053 statement: " + e.getMessage(), e));
+                            }
+                        }),
+                        Camt053Reader::closeQuietly)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
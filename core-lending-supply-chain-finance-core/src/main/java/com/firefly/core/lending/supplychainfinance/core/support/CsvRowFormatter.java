@@ -0,0 +1,140 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.support;
+
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formats beans as RFC 4180 CSV lines.
+ * Columns are the bean's instance fields in declaration order; getters are resolved once at construction.
+ * Non-numeric values that a spreadsheet would read as a formula (leading {@code =}, {@code +}, {@code -},
+ * {@code @}, tab or CR) are prefixed with {@code '} so that opening the export never evaluates them.
+ *
+ * @param <T> the bean type
+ */
+public final class CsvRowFormatter<T> {
+
+    private static final String LINE_END = "\r\n";
+
+    private final String[] columns;
+    private final Method[] getters;
+
+    private CsvRowFormatter(Class<T> type) {
+        List<String> names = new ArrayList<>();
+        List<Method> readers = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, field.getName());
+            if (descriptor != null && descriptor.getReadMethod() != null) {
+                names.add(field.getName());
+                readers.add(descriptor.getReadMethod());
+            }
+        }
+        this.columns = names.toArray(String[]::new);
+        this.getters = readers.toArray(Method[]::new);
+    }
+
+    public static <T> CsvRowFormatter<T> of(Class<T> type) {
+        return new CsvRowFormatter<>(type);
+    }
+
+    /**
+     * @return the header line, terminated by CRLF
+     */
+    public String header() {
+        StringBuilder line = new StringBuilder(columns.length * 16);
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(columns[i]);
+        }
+        return line.append(LINE_END).toString();
+    }
+
+    /**
+     * @param bean the bean to format
+     * @return the bean's values as one CSV line, terminated by CRLF
+     */
+    public String format(T bean) {
+        StringBuilder line = new StringBuilder(getters.length * 16);
+        for (int i = 0; i < getters.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendValue(line, read(getters[i], bean));
+        }
+        return line.append(LINE_END).toString();
+    }
+
+    private static Object read(Method getter, Object bean) {
+        try {
+            return getter.invoke(bean);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot read property " + getter.getName(), e);
+        }
+    }
+
+    private static void appendValue(StringBuilder line, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text;
+        if (value instanceof BigDecimal decimal) {
+            text = decimal.toPlainString();
+        } else if (value instanceof Number) {
+            text = value.toString();
+        } else {
+            text = neutralizeFormula(value.toString());
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            line.append(text);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private static String neutralizeFormula(String text) {
+        if (text.isEmpty()) {
+            return text;
+        }
+        return switch (text.charAt(0)) {
+            case '=', '+', '-', '@', '\t', '\r' -> "'" + text;
+            default -> text;
+        };
+    }
+}
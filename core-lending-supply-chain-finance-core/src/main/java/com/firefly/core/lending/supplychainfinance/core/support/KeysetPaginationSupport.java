@@ -0,0 +1,152 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.support;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keyset (cursor) pagination over any entity with {@code createdAt} and {@code id} properties.
+ * Pages are read with {@code ORDER BY created_at, id} and a {@code (created_at, id) > (:lastCreatedAt, :lastId)}
+ * predicate, so the cost of a page does not grow with its depth and no count query is issued.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetPaginationSupport {
+
+    private static final String CREATED_AT = "createdAt";
+    private static final String ID = "id";
+    private static final char SEPARATOR = '|';
+
+    private final R2dbcEntityTemplate template;
+    private final SupplyChainFinanceProperties properties;
+
+    /**
+     * Reads one page of entities after the given cursor.
+     *
+     * @param entityClass the entity type to query
+     * @param probe an entity whose non-null properties are matched by equality, or null for no filtering
+     * @param cursor the continuation token of the previous page, or null for the first page
+     * @param size the requested page size, or null for the configured default
+     * @param toDto the mapper applied to every row
+     * @return a Mono emitting the page and the continuation token of the next page, if any
+     */
+    public <E, D> Mono<CursorPageResponseDTO<D>> page(Class<E> entityClass, E probe, String cursor, Integer size,
+                                                      Function<E, D> toDto) {
+        int pageSize = resolvePageSize(size);
+        Criteria criteria = filterCriteria(entityClass, probe);
+        if (cursor != null && !cursor.isBlank()) {
+            criteria = criteria.and(after(decode(cursor)));
+        }
+
+        Query query = Query.query(criteria)
+                .sort(Sort.by(Sort.Order.asc(CREATED_AT), Sort.Order.asc(ID)))
+                .limit(pageSize + 1);
+
+        return template.select(entityClass)
+                .matching(query)
+                .all()
+                .collectList()
+                .map(rows -> {
+                    boolean hasNext = rows.size() > pageSize;
+                    List<E> page = hasNext ? rows.subList(0, pageSize) : rows;
+                    return CursorPageResponseDTO.<D>builder()
+                            .content(page.stream().map(toDto).toList())
+                            .nextCursor(hasNext ? encode(entityClass, page.get(page.size() - 1)) : null)
+                            .hasNext(hasNext)
+                            .size(page.size())
+                            .build();
+                });
+    }
+
+    private int resolvePageSize(Integer size) {
+        SupplyChainFinanceProperties.Pagination pagination = properties.getPagination();
+        if (size == null) {
+            return pagination.getDefaultSize();
+        }
+        if (size < 1 || size > pagination.getMaxSize()) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + pagination.getMaxSize());
+        }
+        return size;
+    }
+
+    private <E> Criteria filterCriteria(Class<E> entityClass, E probe) {
+        Criteria criteria = Criteria.empty();
+        if (probe == null) {
+            return criteria;
+        }
+        RelationalPersistentEntity<?> entity = persistentEntity(entityClass);
+        PersistentPropertyAccessor<E> accessor = entity.getPropertyAccessor(probe);
+        for (RelationalPersistentProperty property : entity) {
+            Object value = accessor.getProperty(property);
+            if (value != null) {
+                criteria = criteria.and(property.getName()).is(value);
+            }
+        }
+        return criteria;
+    }
+
+    private static Criteria after(Cursor cursor) {
+        return Criteria.where(CREATED_AT).greaterThan(cursor.createdAt())
+                .or(Criteria.where(CREATED_AT).is(cursor.createdAt()).and(ID).greaterThan(cursor.id()));
+    }
+
+    private <E> String encode(Class<E> entityClass, E last) {
+        RelationalPersistentEntity<?> entity = persistentEntity(entityClass);
+        PersistentPropertyAccessor<E> accessor = entity.getPropertyAccessor(last);
+        Object createdAt = accessor.getProperty(entity.getRequiredPersistentProperty(CREATED_AT));
+        Object id = accessor.getProperty(entity.getRequiredPersistentProperty(ID));
+        String raw = createdAt + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor", e);
+        }
+    }
+
+    private RelationalPersistentEntity<?> persistentEntity(Class<?> entityClass) {
+        return template.getConverter().getMappingContext().getRequiredPersistentEntity(entityClass);
+    }
+
+    private record Cursor(LocalDateTime createdAt, UUID id) {
+    }
+}
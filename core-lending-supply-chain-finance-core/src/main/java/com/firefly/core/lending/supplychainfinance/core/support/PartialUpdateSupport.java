@@ -0,0 +1,125 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.support;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies partial updates as a single {@code UPDATE ... SET <changed columns> WHERE id = :id}.
+ * Only the non-null properties of the submitted DTO are written, and the row is never read first.
+ * A null property always means "leave unchanged", so a column cannot be cleared to null with a patch.
+ *
+ * <p>{@code id}, {@code financeType}, {@code createdAt} and {@code updatedAt} are never patched:
+ * the first three are fixed once the row exists and {@code updatedAt} is always set to the current time.
+ */
+@Component
+@RequiredArgsConstructor
+public class PartialUpdateSupport {
+
+    private static final String ID = "id";
+    private static final String UPDATED_AT = "updatedAt";
+    private static final Set<String> NOT_PATCHABLE = Set.of(ID, "financeType", "createdAt", UPDATED_AT);
+
+    private final R2dbcEntityTemplate template;
+    private final Validator validator;
+
+    /**
+     * Validates the submitted fields and writes them to the row with the given id.
+     * Constraint violations on absent (null) fields are ignored, since they mean "leave unchanged".
+     *
+     * @param entityClass the entity type to update
+     * @param id the unique identifier of the row
+     * @param changes the DTO carrying the fields to change
+     * @param toEntity the mapper from the DTO to the entity
+     * @return a Mono emitting true if the row exists and was updated, false otherwise,
+     *         or an IllegalArgumentException if a submitted field is invalid
+     */
+    public <E, D> Mono<Boolean> patch(Class<E> entityClass, UUID id, D changes, Function<D, E> toEntity) {
+        return Mono.defer(() -> {
+            validate(changes);
+            Update update = changedColumns(entityClass, toEntity.apply(changes));
+            Query byId = Query.query(Criteria.where(ID).is(id));
+            return template.update(entityClass)
+                    .matching(byId)
+                    .apply(update)
+                    .map(updatedRows -> updatedRows > 0);
+        });
+    }
+
+    /**
+     * Like {@link #patch}, then reads the updated row back, so that rules over the whole row can be checked on it.
+     * Run it in a transaction and fail it if the row is invalid: the update's row lock keeps the row as written
+     * until then, and the rollback discards the change.
+     *
+     * @return a Mono emitting the updated row, empty if no row has the id,
+     *         or an IllegalArgumentException if a submitted field is invalid
+     */
+    public <E, D> Mono<E> patchAndGet(Class<E> entityClass, UUID id, D changes, Function<D, E> toEntity) {
+        return patch(entityClass, id, changes, toEntity)
+                .filter(updated -> updated)
+                .flatMap(updated -> template.selectOne(Query.query(Criteria.where(ID).is(id)), entityClass));
+    }
+
+    private <D> void validate(D changes) {
+        String violations = validator.validate(changes).stream()
+                .filter(violation -> violation.getInvalidValue() != null)
+                .map(PartialUpdateSupport::describe)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations);
+        }
+    }
+
+    private <E> Update changedColumns(Class<E> entityClass, E changes) {
+        RelationalPersistentEntity<?> entity = template.getConverter().getMappingContext().getRequiredPersistentEntity(entityClass);
+        PersistentPropertyAccessor<E> accessor = entity.getPropertyAccessor(changes);
+        Update update = Update.update(UPDATED_AT, LocalDateTime.now());
+        for (RelationalPersistentProperty property : entity) {
+            if (NOT_PATCHABLE.contains(property.getName())) {
+                continue;
+            }
+            Object value = accessor.getProperty(property);
+            if (value != null) {
+                update = update.set(property.getName(), value);
+            }
+        }
+        return update;
+    }
+
+    private static String describe(ConstraintViolation<?> violation) {
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.support;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Runs row-streaming queries with a driver fetch size, so the database returns the result through a
+ * cursor in fixed-size chunks and the rows reach the subscriber at the pace it requests them.
+ * Memory use stays proportional to the fetch size rather than to the size of the result.
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamingQuerySupport {
+
+    private final R2dbcEntityTemplate template;
+    private final SupplyChainFinanceProperties properties;
+
+    /**
+     * Streams the rows of the given query mapped to an entity type.
+     *
+     * @param entityClass the entity type every row is read into
+     * @param sql the query, using named parameters
+     * @param bindings the values of the named parameters
+     * @return a Flux emitting one entity per row
+     */
+    public <E> Flux<E> stream(Class<E> entityClass, String sql, Map<String, Object> bindings) {
+        return stream(sql, bindings, (row, metadata) -> template.getConverter().read(entityClass, row, metadata));
+    }
+
+    /**
+     * Streams the rows of the given query mapped by a row mapper, for queries that do not select whole entities.
+     *
+     * @param sql the query, using named parameters
+     * @param bindings the values of the named parameters
+     * @param rowMapper maps every row to a result
+     * @return a Flux emitting one result per row
+     */
+    public <T> Flux<T> stream(String sql, Map<String, Object> bindings, BiFunction<Row, RowMetadata, T> rowMapper) {
+        int fetchSize = properties.getExport().getFetchSize();
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient().sql(sql)
+                .filter(statement -> statement.fetchSize(fetchSize));
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec.map(rowMapper)
+                .all()
+                .limitRate(fetchSize);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.validation;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAdvanceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Advance rules: deductions and the net amount fit within the advance amount.
+ */
+@Component
+public class AdvanceValidationRules implements ValidationRuleProvider<SupplyChainFinanceAdvanceDTO> {
+
+    private static final List<ValidationRule<SupplyChainFinanceAdvanceDTO>> RULES = List.of(
+            ValidationRule.of("netAmount", "Net amount cannot exceed advance amount",
+                    a -> a.getNetAmount() == null || a.getAdvanceAmount() == null
+                            || a.getNetAmount().compareTo(a.getAdvanceAmount()) <= 0),
+            ValidationRule.of("discountAmount", "Discount and fee amounts cannot exceed advance amount",
+                    a -> a.getAdvanceAmount() == null
+                            || orZero(a.getDiscountAmount()).add(orZero(a.getFeeAmount())).compareTo(a.getAdvanceAmount()) <= 0));
+
+    @Override
+    public Class<SupplyChainFinanceAdvanceDTO> targetType() {
+        return SupplyChainFinanceAdvanceDTO.class;
+    }
+
+    @Override
+    public List<ValidationRule<SupplyChainFinanceAdvanceDTO>> rules(FinanceTypeEnum financeType) {
+        return RULES;
+    }
+
+    private static BigDecimal orZero(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+}
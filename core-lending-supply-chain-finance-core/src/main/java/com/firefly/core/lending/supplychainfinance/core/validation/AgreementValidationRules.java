@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.validation;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAgreementDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Agreement rules: the fields each finance type requires, and the consistency of dates and limits.
+ */
+@Component
+public class AgreementValidationRules implements ValidationRuleProvider<SupplyChainFinanceAgreementDTO> {
+
+    private static final List<ValidationRule<SupplyChainFinanceAgreementDTO>> COMMON = List.of(
+            ValidationRule.of("financeType", "Finance type is required",
+                    a -> a.getFinanceType() != null),
+            ValidationRule.of("endDate", "End date cannot be before start date",
+                    a -> a.getStartDate() == null || a.getEndDate() == null || !a.getEndDate().isBefore(a.getStartDate())),
+            ValidationRule.of("availableLimit", "Available limit cannot exceed credit limit",
+                    a -> a.getCreditLimit() == null || a.getAvailableLimit() == null
+                            || a.getAvailableLimit().compareTo(a.getCreditLimit()) <= 0));
+
+    private static final List<ValidationRule<SupplyChainFinanceAgreementDTO>> FACTORING = List.of(
+            ValidationRule.of("recourse", "Recourse field is required for factoring agreements",
+                    a -> a.getRecourse() != null),
+            ValidationRule.of("advanceRate", "Advance rate is required for factoring agreements",
+                    a -> a.getAdvanceRate() != null));
+
+    private static final List<ValidationRule<SupplyChainFinanceAgreementDTO>> CONFIRMING = List.of(
+            ValidationRule.of("supplierEarlyPaymentOption", "Supplier early payment option is required for confirming agreements",
+                    a -> a.getSupplierEarlyPaymentOption() != null),
+            ValidationRule.of("standardPaymentTermDays", "Standard payment term days is required for confirming agreements",
+                    a -> a.getStandardPaymentTermDays() != null),
+            ValidationRule.of("earlyPaymentDiscountDays", "Early payment discount days must be fewer than standard payment term days",
+                    a -> a.getEarlyPaymentDiscountDays() == null || a.getStandardPaymentTermDays() == null
+                            || a.getEarlyPaymentDiscountDays() < a.getStandardPaymentTermDays()));
+
+    @Override
+    public Class<SupplyChainFinanceAgreementDTO> targetType() {
+        return SupplyChainFinanceAgreementDTO.class;
+    }
+
+    @Override
+    public List<ValidationRule<SupplyChainFinanceAgreementDTO>> rules(FinanceTypeEnum financeType) {
+        List<ValidationRule<SupplyChainFinanceAgreementDTO>> rules = new ArrayList<>(COMMON);
+        if (financeType == FinanceTypeEnum.FACTORING) {
+            rules.addAll(FACTORING);
+        } else if (financeType == FinanceTypeEnum.CONFIRMING) {
+            rules.addAll(CONFIRMING);
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.validation;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceInvoiceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Invoice rules: no date before the invoice date, and no more financed than invoiced.
+ */
+@Component
+public class InvoiceValidationRules implements ValidationRuleProvider<SupplyChainFinanceInvoiceDTO> {
+
+    private static final List<ValidationRule<SupplyChainFinanceInvoiceDTO>> RULES = List.of(
+            ValidationRule.of("dueDate", "Due date cannot be before invoice date",
+                    i -> notBefore(i.getDueDate(), i.getInvoiceDate())),
+            ValidationRule.of("financedDate", "Financed date cannot be before invoice date",
+                    i -> notBefore(i.getFinancedDate(), i.getInvoiceDate())),
+            ValidationRule.of("paidDate", "Paid date cannot be before invoice date",
+                    i -> notBefore(i.getPaidDate(), i.getInvoiceDate())),
+            ValidationRule.of("financedAmount", "Financed amount cannot exceed invoice amount",
+                    i -> i.getFinancedAmount() == null || i.getInvoiceAmount() == null
+                            || i.getFinancedAmount().compareTo(i.getInvoiceAmount()) <= 0));
+
+    @Override
+    public Class<SupplyChainFinanceInvoiceDTO> targetType() {
+        return SupplyChainFinanceInvoiceDTO.class;
+    }
+
+    @Override
+    public List<ValidationRule<SupplyChainFinanceInvoiceDTO>> rules(FinanceTypeEnum financeType) {
+        return RULES;
+    }
+
+    private static boolean notBefore(LocalDate date, LocalDate invoiceDate) {
+        return date == null || invoiceDate == null || !date.isBefore(invoiceDate);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.validation;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reports every violation of a target at once. Extends IllegalArgumentException so that controllers already
+ * answering 400 to invalid arguments need no change.
+ */
+public class ValidationException extends IllegalArgumentException {
+
+    private final transient List<ValidationViolation> violations;
+
+    public ValidationException(List<ValidationViolation> violations) {
+        super(violations.stream().map(ValidationViolation::toString).collect(Collectors.joining("; ")));
+        this.violations = List.copyOf(violations);
+    }
+
+    public List<ValidationViolation> getViolations() {
+        return violations;
+    }
+}
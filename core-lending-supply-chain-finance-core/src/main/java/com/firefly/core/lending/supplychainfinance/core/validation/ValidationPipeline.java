@@ -0,0 +1,128 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.validation;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import reactor.core.publisher.Mono;
+
+/**
+ * Checks business rules that span several fields or depend on the finance type.
+ *
+ * <p>The rules of every {@link ValidationRuleProvider} are compiled at startup into one array per target type
+ * and finance type. Checking a target walks that array synchronously and allocates nothing unless a rule
+ * fails, so it can run on every row of a bulk upload. All rules are evaluated, and every violation is reported
+ * together.
+ */
+@Component
+public class ValidationPipeline {
+
+    private final Map<Class<?>, RuleSet<?>> ruleSets = new HashMap<>();
+
+    public ValidationPipeline(List<ValidationRuleProvider<?>> providers) {
+        Map<Class<?>, List<ValidationRuleProvider<?>>> byType = new HashMap<>();
+        for (ValidationRuleProvider<?> provider : providers) {
+            byType.computeIfAbsent(provider.targetType(), type -> new ArrayList<>()).add(provider);
+        }
+        byType.forEach((type, typeProviders) -> ruleSets.put(type, compile(typeProviders)));
+    }
+
+    /**
+     * @return the violations of {@code target}, empty if it satisfies every rule
+     */
+    public <T> List<ValidationViolation> validate(Class<T> type, FinanceTypeEnum financeType, T target) {
+        return rulesFor(type).validate(financeType, target);
+    }
+
+    /**
+     * @return an empty Mono if {@code target} satisfies every rule, or a ValidationException with all its violations
+     */
+    public <T> Mono<Void> check(Class<T> type, FinanceTypeEnum financeType, T target) {
+        List<ValidationViolation> violations = validate(type, financeType, target);
+        return violations.isEmpty() ? Mono.empty() : Mono.error(new ValidationException(violations));
+    }
+
+    /**
+     * @return the compiled rules of {@code type}, for callers checking many targets of the same type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> RuleSet<T> rulesFor(Class<T> type) {
+        RuleSet<T> ruleSet = (RuleSet<T>) ruleSets.get(type);
+        return ruleSet != null ? ruleSet : (RuleSet<T>) RuleSet.EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> RuleSet<T> compile(List<ValidationRuleProvider<?>> providers) {
+        Map<FinanceTypeEnum, ValidationRule<T>[]> byFinanceType = new EnumMap<>(FinanceTypeEnum.class);
+        for (FinanceTypeEnum financeType : FinanceTypeEnum.values()) {
+            byFinanceType.put(financeType, collect(providers, financeType));
+        }
+        return new RuleSet<>(byFinanceType, collect(providers, null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ValidationRule<T>[] collect(List<ValidationRuleProvider<?>> providers, FinanceTypeEnum financeType) {
+        List<ValidationRule<T>> rules = new ArrayList<>();
+        for (ValidationRuleProvider<?> provider : providers) {
+            rules.addAll(((ValidationRuleProvider<T>) provider).rules(financeType));
+        }
+        return rules.toArray(ValidationRule[]::new);
+    }
+
+    /**
+     * The compiled rules of one target type.
+     */
+    public static final class RuleSet<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final RuleSet EMPTY = new RuleSet<>(new EnumMap<>(FinanceTypeEnum.class), new ValidationRule[0]);
+
+        private final Map<FinanceTypeEnum, ValidationRule<T>[]> byFinanceType;
+        private final ValidationRule<T>[] withoutFinanceType;
+
+        private RuleSet(Map<FinanceTypeEnum, ValidationRule<T>[]> byFinanceType, ValidationRule<T>[] withoutFinanceType) {
+            this.byFinanceType = byFinanceType;
+            this.withoutFinanceType = withoutFinanceType;
+        }
+
+        /**
+         * @return the violations of {@code target}, empty if it satisfies every rule
+         */
+        public List<ValidationViolation> validate(FinanceTypeEnum financeType, T target) {
+            ValidationRule<T>[] rules = financeType != null
+                    ? byFinanceType.getOrDefault(financeType, withoutFinanceType)
+                    : withoutFinanceType;
+            List<ValidationViolation> violations = null;
+            for (ValidationRule<T> rule : rules) {
+                if (!rule.valid().test(target)) {
+                    if (violations == null) {
+                        violations = new ArrayList<>();
+                    }
+                    violations.add(new ValidationViolation(rule.field(), rule.message()));
+                }
+            }
+            return violations != null ? violations : List.of();
+        }
+    }
+}
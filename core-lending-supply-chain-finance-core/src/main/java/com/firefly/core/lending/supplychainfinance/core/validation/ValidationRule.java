@@ -0,0 +1,36 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.validation;
+
+import java.util.function.Predicate;
+
+/**
+ * A business rule on one field of a target, usually spanning several fields. Rules must tolerate absent fields
+ * and only fail when the values present contradict each other; required fields are bean validation's job,
+ * except where the requirement depends on the finance type.
+ *
+ * @param field the field reported on violation
+ * @param message the message reported on violation
+ * @param valid holds for a target satisfying the rule; must not capture per-call state
+ */
+public record ValidationRule<T>(String field, String message, Predicate<? super T> valid) {
+
+    public static <T> ValidationRule<T> of(String field, String message, Predicate<? super T> valid) {
+        return new ValidationRule<>(field, message, valid);
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.validation;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+
+import java.util.List;
+
+/**
+ * Contributes business rules for one target type. Every provider bean is picked up by {@link ValidationPipeline}
+ * at startup; several providers may contribute to the same target type.
+ */
+public interface ValidationRuleProvider<T> {
+
+    Class<T> targetType();
+
+    /**
+     * Called once per finance type at startup, and once with null for targets whose finance type is missing.
+     *
+     * @return the rules applying to targets of {@code financeType}, including those applying to every finance type
+     */
+    List<ValidationRule<T>> rules(FinanceTypeEnum financeType);
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.accrual;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.pricing.AdvancePricingEngine;
+import com.firefly.core.lending.supplychainfinance.core.support.MigratedEnumTypes;
+import com.firefly.core.lending.supplychainfinance.core.support.StreamingQuerySupport;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAccrualRun;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAccrualRepository;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAccrualRunRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InterestAccrualEngineTest {
+
+    private static final LocalDate ACCRUAL_DATE = LocalDate.of(2026, 10, 1);
+
+    private StreamingQuerySupport streamingQuery;
+    private SupplyChainFinanceAccrualRunRepository runRepository;
+    private InterestAccrualEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        streamingQuery = mock(StreamingQuerySupport.class);
+        runRepository = mock(SupplyChainFinanceAccrualRunRepository.class);
+        when(streamingQuery.stream(anyString(), anyMap(), any())).thenReturn(Flux.empty());
+        when(runRepository.startOrResume(ACCRUAL_DATE)).thenReturn(Mono.just(SupplyChainFinanceAccrualRun.builder()
+                .id(UUID.randomUUID())
+                .accrualDate(ACCRUAL_DATE)
+                .accrualCount(0L)
+                .build()));
+        when(runRepository.complete(any())).thenReturn(Mono.just(1));
+        engine = new InterestAccrualEngine(streamingQuery, mock(SupplyChainFinanceAccrualRepository.class),
+                runRepository, new AdvancePricingEngine(), mock(TransactionalOperator.class),
+                new SupplyChainFinanceProperties());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void excludesAdvancesOnCancelledAndPrepaidInvoices() {
+        engine.start(ACCRUAL_DATE).block();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Map<String, Object>> bindings = ArgumentCaptor.forClass(Map.class);
+        verify(streamingQuery, timeout(1000)).stream(sql.capture(), bindings.capture(), any());
+        assertThat(sql.getValue()).contains("<> ALL(:nonAccruingStatuses)");
+        assertThat((String[]) bindings.getValue().get("nonAccruingStatuses"))
+                .contains("FACTORING:CANCELLED", "CONFIRMING:CANCELLED", "FACTORING:PAID", "CONFIRMING:FINANCED")
+                .doesNotContain("FACTORING:FINANCED", "FACTORING:APPROVED", "CONFIRMING:CONFIRMED");
+    }
+
+    @Test
+    void advancesAccrueOnlyWhileTheInvoiceIsOpenAndNotPrepaid() {
+        assertThat(InterestAccrualEngine.accruesInterest(FinanceTypeEnum.FACTORING, InvoiceStatusEnum.FINANCED)).isTrue();
+        assertThat(InterestAccrualEngine.accruesInterest(FinanceTypeEnum.FACTORING, InvoiceStatusEnum.CANCELLED)).isFalse();
+        assertThat(InterestAccrualEngine.accruesInterest(FinanceTypeEnum.CONFIRMING, InvoiceStatusEnum.CANCELLED)).isFalse();
+        assertThat(InterestAccrualEngine.accruesInterest(FinanceTypeEnum.CONFIRMING, InvoiceStatusEnum.FINANCED)).isFalse();
+        assertThat(InterestAccrualEngine.accruesInterest(FinanceTypeEnum.CONFIRMING, InvoiceStatusEnum.CONFIRMED)).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void nonAccruingStatusKeysAreValuesOfTheSqlEnums() {
+        engine.start(ACCRUAL_DATE).block();
+
+        ArgumentCaptor<Map<String, Object>> bindings = ArgumentCaptor.forClass(Map.class);
+        verify(streamingQuery, timeout(1000)).stream(anyString(), bindings.capture(), any());
+        Set<String> financeTypes = MigratedEnumTypes.valuesOf("finance_type");
+        Set<String> statuses = MigratedEnumTypes.valuesOf("invoice_status");
+        for (String key : (String[]) bindings.getValue().get("nonAccruingStatuses")) {
+            String[] parts = key.split(":");
+            assertThat(financeTypes).as(key).contains(parts[0]);
+            assertThat(statuses).as(key).contains(parts[1]);
+        }
+    }
+}
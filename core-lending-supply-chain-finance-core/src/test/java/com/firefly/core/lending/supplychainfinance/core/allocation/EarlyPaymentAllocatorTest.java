@@ -0,0 +1,188 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.allocation;
+
+import com.firefly.core.lending.supplychainfinance.core.pricing.AdvancePrice;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EarlyPaymentAllocatorTest {
+
+    private static final UUID SUPPLIER_A = UUID.randomUUID();
+    private static final UUID SUPPLIER_B = UUID.randomUUID();
+    private static final Duration TIME_LIMIT = Duration.ofSeconds(1);
+
+    private final EarlyPaymentAllocator allocator = new EarlyPaymentAllocator();
+
+    @Test
+    void takesCandidatesByYieldPerUnitOfCashWithinTheBudget() {
+        EarlyPaymentCandidate best = candidate(SUPPLIER_A, "100", "5");
+        EarlyPaymentCandidate second = candidate(SUPPLIER_A, "100", "4");
+        EarlyPaymentCandidate third = candidate(SUPPLIER_B, "100", "3");
+
+        List<EarlyPaymentCandidate> selected = allocator.allocate(List.of(third, best, second),
+                new BigDecimal("200"), supplier -> null, TIME_LIMIT);
+
+        assertThat(selected).containsExactly(best, second);
+    }
+
+    @Test
+    void skipsCandidatesThatNoLongerFitAndFillsWithSmallerOnes() {
+        EarlyPaymentCandidate large = candidate(SUPPLIER_A, "80", "8");
+        EarlyPaymentCandidate tooLarge = candidate(SUPPLIER_A, "50", "4.5");
+        EarlyPaymentCandidate small = candidate(SUPPLIER_B, "20", "1");
+
+        List<EarlyPaymentCandidate> selected = allocator.allocate(List.of(large, tooLarge, small),
+                new BigDecimal("100"), supplier -> null, TIME_LIMIT);
+
+        assertThat(selected).containsExactly(large, small);
+    }
+
+    @Test
+    void keepsEachSupplierWithinItsCap() {
+        EarlyPaymentCandidate a1 = candidate(SUPPLIER_A, "60", "6");
+        EarlyPaymentCandidate a2 = candidate(SUPPLIER_A, "60", "6");
+        EarlyPaymentCandidate b1 = candidate(SUPPLIER_B, "60", "3");
+
+        List<EarlyPaymentCandidate> selected = allocator.allocate(List.of(a1, a2, b1), new BigDecimal("1000"),
+                supplier -> supplier.equals(SUPPLIER_A) ? new BigDecimal("100") : null, TIME_LIMIT);
+
+        assertThat(selected).containsExactly(a1, b1);
+    }
+
+    @Test
+    void swapsAGreedyPickForACandidateThatEarnsMore() {
+        // Greedy takes the dense small invoice first, after which the large one no longer fits
+        EarlyPaymentCandidate dense = candidate(SUPPLIER_A, "10", "2");
+        EarlyPaymentCandidate large = candidate(SUPPLIER_B, "100", "15");
+
+        List<EarlyPaymentCandidate> selected = allocator.allocate(List.of(dense, large), new BigDecimal("100"),
+                supplier -> null, TIME_LIMIT);
+
+        assertThat(selected).containsExactly(large);
+    }
+
+    @Test
+    void swapsWithinTheSameSupplierAgainstItsCap() {
+        EarlyPaymentCandidate dense = candidate(SUPPLIER_A, "10", "2");
+        EarlyPaymentCandidate large = candidate(SUPPLIER_A, "50", "8");
+
+        List<EarlyPaymentCandidate> selected = allocator.allocate(List.of(dense, large), new BigDecimal("1000"),
+                supplier -> new BigDecimal("50"), TIME_LIMIT);
+
+        assertThat(selected).containsExactly(large);
+    }
+
+    @Test
+    void ignoresCandidatesThatEarnNothing() {
+        EarlyPaymentCandidate free = candidate(SUPPLIER_A, "0", "1");
+        EarlyPaymentCandidate noYield = candidate(SUPPLIER_A, "10", "0");
+        EarlyPaymentCandidate paying = candidate(SUPPLIER_B, "10", "1");
+
+        List<EarlyPaymentCandidate> selected = allocator.allocate(List.of(noYield, paying, free),
+                new BigDecimal("100"), supplier -> null, TIME_LIMIT);
+
+        assertThat(selected).containsExactly(free, paying);
+    }
+
+    @Test
+    void returnsNothingForAnEmptyBudgetOrNoCandidates() {
+        assertThat(allocator.allocate(List.of(candidate(SUPPLIER_A, "10", "1")), BigDecimal.ZERO,
+                supplier -> null, TIME_LIMIT)).isEmpty();
+        assertThat(allocator.allocate(List.of(), new BigDecimal("100"), supplier -> null, TIME_LIMIT)).isEmpty();
+    }
+
+    @Test
+    void staysWithinBudgetAndCapsAndEarnsAtLeastTheGreedySelectionOnRandomInputs() {
+        Random random = new Random(7);
+        List<UUID> suppliers = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        Map<UUID, BigDecimal> caps = Map.of(suppliers.get(0), new BigDecimal("25000"),
+                suppliers.get(1), new BigDecimal("40000"));
+        for (int round = 0; round < 50; round++) {
+            List<EarlyPaymentCandidate> candidates = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                BigDecimal cost = BigDecimal.valueOf(random.nextInt(1, 5_000_000), 2);
+                BigDecimal yield = BigDecimal.valueOf(random.nextInt(0, 100_000), 2);
+                candidates.add(candidate(suppliers.get(random.nextInt(suppliers.size())), cost, yield));
+            }
+            BigDecimal budget = new BigDecimal("100000");
+
+            List<EarlyPaymentCandidate> selected = allocator.allocate(candidates, budget, caps::get, TIME_LIMIT);
+
+            assertThat(selected).doesNotHaveDuplicates();
+            assertThat(total(selected, EarlyPaymentCandidate::cost)).isLessThanOrEqualTo(budget);
+            Map<UUID, BigDecimal> paid = new HashMap<>();
+            selected.forEach(c -> paid.merge(c.supplierId(), c.cost(), BigDecimal::add));
+            caps.forEach((supplier, cap) -> assertThat(paid.getOrDefault(supplier, BigDecimal.ZERO))
+                    .isLessThanOrEqualTo(cap));
+            assertThat(total(selected, EarlyPaymentCandidate::yield))
+                    .isGreaterThanOrEqualTo(total(greedy(candidates, budget, caps), EarlyPaymentCandidate::yield));
+        }
+    }
+
+    /**
+     * Reference greedy selection by yield per unit of cash, without the swap phase.
+     */
+    private static List<EarlyPaymentCandidate> greedy(List<EarlyPaymentCandidate> candidates, BigDecimal budget,
+                                                      Map<UUID, BigDecimal> caps) {
+        List<EarlyPaymentCandidate> sorted = candidates.stream()
+                .filter(c -> c.yield().signum() > 0)
+                .sorted((x, y) -> y.yield().multiply(x.cost()).compareTo(x.yield().multiply(y.cost())))
+                .toList();
+        Map<UUID, BigDecimal> remainingCap = new HashMap<>(caps);
+        BigDecimal remainingBudget = budget;
+        List<EarlyPaymentCandidate> selected = new ArrayList<>();
+        for (EarlyPaymentCandidate c : sorted) {
+            BigDecimal cap = remainingCap.get(c.supplierId());
+            if (c.cost().compareTo(remainingBudget) <= 0 && (cap == null || c.cost().compareTo(cap) <= 0)) {
+                selected.add(c);
+                remainingBudget = remainingBudget.subtract(c.cost());
+                if (cap != null) {
+                    remainingCap.put(c.supplierId(), cap.subtract(c.cost()));
+                }
+            }
+        }
+        return selected;
+    }
+
+    private static BigDecimal total(List<EarlyPaymentCandidate> candidates,
+                                    Function<EarlyPaymentCandidate, BigDecimal> amount) {
+        return candidates.stream().map(amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static EarlyPaymentCandidate candidate(UUID supplierId, String cost, String yield) {
+        return candidate(supplierId, new BigDecimal(cost), new BigDecimal(yield));
+    }
+
+    private static EarlyPaymentCandidate candidate(UUID supplierId, BigDecimal cost, BigDecimal yield) {
+        AdvancePrice price = new AdvancePrice(cost.add(yield), yield, BigDecimal.ZERO, cost);
+        return new EarlyPaymentCandidate(UUID.randomUUID(), supplierId, LocalDate.of(2026, 12, 31), price);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.bulkload;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+import io.r2dbc.spi.R2dbcBadGrammarException;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CopyBulkLoaderTest {
+
+    @Test
+    void encodesARowAsTabSeparatedCopyText() {
+        UUID id = UUID.fromString("7c9e6679-7425-40de-944b-e07fc1f90ae7");
+
+        String line = CopyBulkLoader.encode(42, new Object[]{id, "INV-1", LocalDate.of(2026, 10, 17),
+                CurrencyCodeEnum.EUR, new BigDecimal("1E+3"), InvoiceStatusEnum.REGISTERED, null});
+
+        assertThat(line).isEqualTo("42\t7c9e6679-7425-40de-944b-e07fc1f90ae7\tINV-1\t2026-10-17\tEUR\t1000\tREGISTERED\t\\N\n");
+    }
+
+    @Test
+    void escapesBackslashesAndControlCharactersOfText() {
+        String line = CopyBulkLoader.encode(0, new Object[]{"a\\b\tc\nd\re", "\\N"});
+
+        assertThat(line).isEqualTo("0\ta\\\\b\\tc\\nd\\re\t\\\\N\n");
+    }
+
+    @Test
+    void keepsTheScaleOfAmountsWithoutExponent() {
+        assertThat(CopyBulkLoader.encode(1, new Object[]{new BigDecimal("0.0000001"), new BigDecimal("12.3400")}))
+                .isEqualTo("1\t0.0000001\t12.3400\n");
+    }
+
+    @Test
+    void treatsDataExceptionsAndConstraintViolationsAsRejectedData() {
+        assertThat(CopyBulkLoader.isRejectedData(new R2dbcBadGrammarException(
+                "invalid input value for enum invoice_status", "22P02"))).isTrue();
+        assertThat(CopyBulkLoader.isRejectedData(new R2dbcDataIntegrityViolationException(
+                "duplicate key value violates unique constraint", "23505"))).isTrue();
+
+        assertThat(CopyBulkLoader.isRejectedData(new R2dbcBadGrammarException("syntax error", "42601"))).isFalse();
+        assertThat(CopyBulkLoader.isRejectedData(new R2dbcNonTransientResourceException("connection lost"))).isFalse();
+        assertThat(CopyBulkLoader.isRejectedData(new IllegalStateException("not a database error"))).isFalse();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.cache;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.events.AgreementChangedEvent;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.AgreementStatusEnum;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAgreement;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceAgreementRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AgreementCacheTest {
+
+    private static final UUID ID = UUID.randomUUID();
+
+    private SupplyChainFinanceAgreementRepository repository;
+    private AgreementCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(SupplyChainFinanceAgreementRepository.class);
+        when(repository.findById(ID)).thenAnswer(invocation -> Mono.just(SupplyChainFinanceAgreement.builder()
+                .id(ID)
+                .agreementNumber("AGR-1")
+                .status(AgreementStatusEnum.ACTIVE)
+                .creditLimit(new BigDecimal("1000000.0000"))
+                .build()));
+        cache = new AgreementCache(repository, new SupplyChainFinanceProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void readsThroughOnceAndServesLaterReadsFromMemory() {
+        cache.findById(ID).block();
+        cache.findById(ID).block();
+
+        verify(repository, times(1)).findById(ID);
+    }
+
+    @Test
+    void modifyingAReadAgreementDoesNotAffectOtherReaders() {
+        SupplyChainFinanceAgreement first = cache.findById(ID).block();
+        first.setStatus(AgreementStatusEnum.SUSPENDED);
+        first.setCreditLimit(BigDecimal.ZERO);
+
+        SupplyChainFinanceAgreement second = cache.findById(ID).block();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getStatus()).isEqualTo(AgreementStatusEnum.ACTIVE);
+        assertThat(second.getCreditLimit()).isEqualByComparingTo("1000000");
+    }
+
+    @Test
+    void changeEventsEvictTheEntry() {
+        cache.findById(ID).block();
+        cache.onAgreementChanged(new AgreementChangedEvent(ID));
+        cache.findById(ID).block();
+
+        verify(repository, times(2)).findById(ID);
+    }
+}
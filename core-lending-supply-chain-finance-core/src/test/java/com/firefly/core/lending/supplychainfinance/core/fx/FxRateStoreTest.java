@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.fx;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.models.entities.FxRate;
+import com.firefly.core.lending.supplychainfinance.models.repositories.FxRateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FxRateStoreTest {
+
+    private FxRateRepository repository;
+    private FxRateStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(FxRateRepository.class);
+        TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.lockForPublish()).thenReturn(Mono.empty());
+        when(repository.insertAll(any(), anyInt())).thenReturn(Flux.empty());
+        store = new FxRateStore(repository, transactionalOperator);
+    }
+
+    @Test
+    void publishesOnTopOfTheLatestVersionReadUnderTheLock() {
+        // Another instance published USD as version 7; this instance has not refreshed yet
+        when(repository.findLatestVersion()).thenReturn(Mono.just(7L));
+        when(repository.findByVersion(7L)).thenReturn(Flux.just(rate(7L, CurrencyCodeEnum.EUR, "1"),
+                rate(7L, CurrencyCodeEnum.USD, "0.9200000000")));
+        when(repository.nextVersion()).thenReturn(Mono.just(8L));
+
+        FxRateSnapshot published = store.publish(Map.of(CurrencyCodeEnum.GBP, new BigDecimal("1.1700000000"))).block();
+
+        assertThat(published.version()).isEqualTo(8L);
+        assertThat(published.ratesToPivot())
+                .containsEntry(CurrencyCodeEnum.USD, new BigDecimal("0.9200000000"))
+                .containsEntry(CurrencyCodeEnum.GBP, new BigDecimal("1.1700000000"));
+        assertThat(store.current()).isSameAs(published);
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).lockForPublish();
+        order.verify(repository).findLatestVersion();
+        order.verify(repository).insertAll(any(), anyInt());
+    }
+
+    @Test
+    void firstPublicationStartsFromThePivotAlone() {
+        when(repository.findLatestVersion()).thenReturn(Mono.empty());
+        when(repository.nextVersion()).thenReturn(Mono.just(1L));
+
+        FxRateSnapshot published = store.publish(Map.of(CurrencyCodeEnum.USD, new BigDecimal("0.9000000000"))).block();
+
+        assertThat(published.version()).isEqualTo(1L);
+        assertThat(published.ratesToPivot()).containsEntry(CurrencyCodeEnum.USD, new BigDecimal("0.9000000000"));
+    }
+
+    private static FxRate rate(long version, CurrencyCodeEnum currency, String rateToEur) {
+        return FxRate.builder().version(version).currency(currency).rateToEur(new BigDecimal(rateToEur))
+                .createdAt(LocalDateTime.of(2026, 1, 5, 9, 0)).build();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.lifecycle;
+
+import com.firefly.core.lending.supplychainfinance.core.support.MigratedEnumTypes;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import static com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvoiceStatusTransitionsTest {
+
+    private static final Set<String> SQL_STATUSES = MigratedEnumTypes.valuesOf("invoice_status");
+
+    @ParameterizedTest
+    @EnumSource(InvoiceStatusEnum.class)
+    void everyStatusIsAValueOfTheSqlEnum(InvoiceStatusEnum status) {
+        assertThat(SQL_STATUSES).contains(status.name());
+    }
+
+    @ParameterizedTest
+    @EnumSource(FinanceTypeEnum.class)
+    void everyStatusOfTheTableIsAValueOfTheSqlEnum(FinanceTypeEnum financeType) {
+        for (InvoiceStatusEnum from : InvoiceStatusEnum.values()) {
+            for (InvoiceStatusEnum to : InvoiceStatusEnum.values()) {
+                if (InvoiceStatusTransitions.isAllowed(financeType, from, to)) {
+                    assertThat(SQL_STATUSES).contains(from.name(), to.name());
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectedCancelledPaidAndSettledInvoicesAreClosed() {
+        assertThat(Arrays.stream(InvoiceStatusEnum.values()).filter(status -> !InvoiceStatusTransitions.isOpen(status)))
+                .containsExactlyInAnyOrder(REJECTED, CANCELLED, PAID, SETTLED);
+    }
+
+    @Test
+    void financeTypesAreValuesOfTheSqlEnum() {
+        assertThat(MigratedEnumTypes.valuesOf("finance_type"))
+                .containsExactlyInAnyOrderElementsOf(Arrays.stream(FinanceTypeEnum.values()).map(Enum::name).toList());
+    }
+
+    @Test
+    void factoringMovesFromRegisteredThroughApprovedToSettled() {
+        assertThat(InvoiceStatusTransitions.isAllowed(FinanceTypeEnum.FACTORING, REGISTERED, APPROVED)).isTrue();
+        assertThat(InvoiceStatusTransitions.isAllowed(FinanceTypeEnum.FACTORING, APPROVED, FINANCED)).isTrue();
+        assertThat(InvoiceStatusTransitions.isAllowed(FinanceTypeEnum.FACTORING, FINANCED, PAID)).isTrue();
+        assertThat(InvoiceStatusTransitions.isAllowed(FinanceTypeEnum.FACTORING, PAID, SETTLED)).isTrue();
+        assertThat(InvoiceStatusTransitions.isAllowed(FinanceTypeEnum.FACTORING, REGISTERED, CONFIRMED)).isFalse();
+        assertThat(InvoiceStatusTransitions.isTerminal(FinanceTypeEnum.FACTORING, SETTLED)).isTrue();
+    }
+
+    @Test
+    void confirmingMovesFromConfirmedToFinancedByEarlyPayment() {
+        assertThat(InvoiceStatusTransitions.isAllowed(FinanceTypeEnum.CONFIRMING, CONFIRMED, FINANCED)).isTrue();
+        assertThat(InvoiceStatusTransitions.isAllowed(FinanceTypeEnum.CONFIRMING, REGISTERED, APPROVED)).isFalse();
+        assertThat(InvoiceStatusTransitions.financeTypesAllowing(CONFIRMED, FINANCED))
+                .containsExactly(FinanceTypeEnum.CONFIRMING);
+    }
+
+    @Test
+    void financedInvoicesCannotBeCancelled() {
+        for (FinanceTypeEnum financeType : FinanceTypeEnum.values()) {
+            assertThat(InvoiceStatusTransitions.isAllowed(financeType, FINANCED, CANCELLED)).isFalse();
+        }
+        assertThat(InvoiceStatusTransitions.isOpen(CANCELLED)).isFalse();
+        assertThat(InvoiceStatusTransitions.isOpen(FINANCED)).isTrue();
+    }
+
+    @Test
+    void approvedFactoringInvoicesAreFinancedBeforeTheyArePaid() {
+        assertThat(InvoiceStatusTransitions.isAllowed(FinanceTypeEnum.FACTORING, APPROVED, PAID)).isFalse();
+        assertThat(InvoiceStatusTransitions.isAllowed(FinanceTypeEnum.FACTORING, APPROVED, SETTLED)).isFalse();
+    }
+}
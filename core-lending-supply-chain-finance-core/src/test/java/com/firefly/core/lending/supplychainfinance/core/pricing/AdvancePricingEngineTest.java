@@ -0,0 +1,153 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the scaled-long arithmetic of the engine with the same formulas evaluated in BigDecimal, rounded half
+ * up at scale 4 as a {@code DECIMAL(19,4)} column stores them.
+ */
+class AdvancePricingEngineTest {
+
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("999999999999999.9999");
+
+    private final AdvancePricingEngine engine = new AdvancePricingEngine();
+
+    @ParameterizedTest
+    @CsvSource({
+            // Exact ties at the fifth decimal round away from zero
+            "0.0001, 50.00, 0.0001",
+            "-0.0001, 50.00, -0.0001",
+            "0.0003, 50.00, 0.0002",
+            "0.0001, 49.99, 0.0000",
+            "1000.0000, 80.00, 800.0000",
+            "123456.7891, 85.50, 105555.5547",
+            "0, 80.00, 0.0000",
+            "999999999999999.9999, 100.00, 999999999999999.9999",
+            "999999999999999.9999, 99.99, 999899999999999.9999",
+            // More decimals than the column: BigDecimal path
+            "100.00005, 100.00, 100.0001"
+    })
+    void percentOfRoundsLikeADecimalColumn(String amount, String percent, String expected) {
+        BigDecimal actual = AdvancePricingEngine.percentOf(new BigDecimal(amount), new BigDecimal(percent));
+
+        assertThat(actual).isEqualTo(new BigDecimal(expected));
+        assertThat(actual).isEqualTo(referencePercentOf(new BigDecimal(amount), new BigDecimal(percent)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // 0.18 * 1% * 10 / 360 = 0.00005 exactly
+            "0.1800, 1.00, 10, 0.0001",
+            "-0.1800, 1.00, 10, -0.0001",
+            "0.1799, 1.00, 10, 0.0000",
+            "10000.0000, 5.00, 90, 125.0000",
+            "10000.0000, 5.00, 0, 0.0000",
+            "10000.0000, 5.00, -1, -1.3889",
+            "10000.0000, 0.00, 90, 0.0000",
+            // Products beyond a long, and amounts too large to scale into one, fall back to BigDecimal
+            "900000000000.0000, 999.99, 30, 749992500000.0000",
+            "999999999999999.9999, 999.99, 36500, 1013878749999999999.8986",
+            "922337203685477.5807, 12.34, 365, 115397194419993.3214"
+    })
+    void discountAmountRoundsLikeADecimalColumn(String amount, String rate, long days, String expected) {
+        BigDecimal actual = engine.discountAmount(new BigDecimal(amount), new BigDecimal(rate), days);
+
+        assertThat(actual).isEqualTo(new BigDecimal(expected));
+        assertThat(actual).isEqualTo(referenceDiscount(new BigDecimal(amount), new BigDecimal(rate), days));
+    }
+
+    @Test
+    void matchesBigDecimalOnRandomInputs() {
+        Random random = new Random(20260105L);
+        for (int i = 0; i < 200_000; i++) {
+            BigDecimal amount = randomAmount(random);
+            BigDecimal rate = new BigDecimal(BigInteger.valueOf(random.nextInt(100_000)), 2);
+            long days = random.nextInt(4_000) - 400;
+
+            assertThat(engine.discountAmount(amount, rate, days))
+                    .as("discount of %s at %s%% over %d days", amount, rate, days)
+                    .isEqualTo(referenceDiscount(amount, rate, days));
+            assertThat(AdvancePricingEngine.percentOf(amount, rate))
+                    .as("%s%% of %s", rate, amount)
+                    .isEqualTo(referencePercentOf(amount, rate));
+        }
+    }
+
+    @Test
+    void priceDeductsDiscountAndFeesFromTheAdvance() {
+        AdvancePrice price = engine.price(new BigDecimal("100000.00"), new BigDecimal("80.00"), new BigDecimal("6.00"),
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 3, 2), new BigDecimal("150"));
+
+        assertThat(price.advanceAmount()).isEqualTo(new BigDecimal("80000.0000"));
+        assertThat(price.discountAmount()).isEqualTo(new BigDecimal("800.0000"));
+        assertThat(price.feeAmount()).isEqualTo(new BigDecimal("150.0000"));
+        assertThat(price.netAmount()).isEqualTo(new BigDecimal("79050.0000"));
+    }
+
+    @Test
+    void invoicesAlreadyDueAreNotDiscounted() {
+        AdvancePrice price = engine.priceAdvance(new BigDecimal("5000"), new BigDecimal("7.25"),
+                LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 1), null);
+
+        assertThat(AdvancePricingEngine.daysFinanced(LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 1))).isZero();
+        assertThat(price.discountAmount()).isEqualTo(new BigDecimal("0.0000"));
+        assertThat(price.netAmount()).isEqualTo(new BigDecimal("5000.0000"));
+    }
+
+    @Test
+    void availableAdvanceAmountDeductsWhatIsAlreadyFinanced() {
+        assertThat(engine.availableAdvanceAmount(new BigDecimal("1000"), new BigDecimal("90.00"), new BigDecimal("900.0000")))
+                .isZero();
+        assertThat(engine.availableAdvanceAmount(new BigDecimal("1000"), null, new BigDecimal("250")))
+                .isEqualByComparingTo("750");
+    }
+
+    /**
+     * Amounts of the {@code DECIMAL(19,4)} column, including the largest ones, which do not fit a long once scaled.
+     */
+    private static BigDecimal randomAmount(Random random) {
+        BigInteger unscaled = switch (random.nextInt(4)) {
+            case 0 -> BigInteger.valueOf(random.nextInt(1_000_000));
+            case 1 -> BigInteger.valueOf(random.nextLong() % 1_000_000_000_000L);
+            case 2 -> BigInteger.valueOf(random.nextLong());
+            default -> new BigInteger(63, random).multiply(BigInteger.TEN).min(MAX_AMOUNT.unscaledValue());
+        };
+        return new BigDecimal(unscaled, 4);
+    }
+
+    private static BigDecimal referencePercentOf(BigDecimal amount, BigDecimal percent) {
+        return amount.multiply(percent).divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal referenceDiscount(BigDecimal amount, BigDecimal rate, long days) {
+        return amount.multiply(rate).multiply(BigDecimal.valueOf(days))
+                .divide(BigDecimal.valueOf(36_000), 4, RoundingMode.HALF_UP);
+    }
+}
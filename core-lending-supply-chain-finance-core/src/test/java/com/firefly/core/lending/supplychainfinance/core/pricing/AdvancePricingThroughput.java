@@ -0,0 +1,91 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.pricing;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+/**
+ * Throughput harness comparing the engine's discount computation with the same formula in BigDecimal. It is not
+ * a test and is run by hand, from the IDE or with
+ * {@code java -cp <test classpath> com.firefly.core.lending.supplychainfinance.core.pricing.AdvancePricingThroughput}.
+ *
+ * <p>Each round prices the same realistic inputs with both implementations after a warm-up, and prints the
+ * operations per second of each. The blackhole sum keeps the JIT from removing the work.
+ */
+public final class AdvancePricingThroughput {
+
+    private static final int INPUTS = 1 << 16;
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 20;
+    private static final BigDecimal HUNDRED_TIMES_YEAR = BigDecimal.valueOf(36_000);
+
+    private AdvancePricingThroughput() {
+    }
+
+    public static void main(String[] args) {
+        AdvancePricingEngine engine = new AdvancePricingEngine();
+        Random random = new Random(42);
+        BigDecimal[] amounts = new BigDecimal[INPUTS];
+        BigDecimal[] rates = new BigDecimal[INPUTS];
+        long[] days = new long[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            amounts[i] = new BigDecimal(BigInteger.valueOf(random.nextLong(10_000_000_000L)), 4);
+            rates[i] = new BigDecimal(BigInteger.valueOf(random.nextInt(2_000)), 2);
+            days[i] = random.nextInt(180);
+        }
+
+        long blackhole = 0;
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            blackhole += engineRound(engine, amounts, rates, days) + referenceRound(amounts, rates, days);
+        }
+        long engineNanos = 0;
+        long referenceNanos = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long started = System.nanoTime();
+            blackhole += engineRound(engine, amounts, rates, days);
+            engineNanos += System.nanoTime() - started;
+            started = System.nanoTime();
+            blackhole += referenceRound(amounts, rates, days);
+            referenceNanos += System.nanoTime() - started;
+        }
+        long operations = (long) INPUTS * MEASURED_ROUNDS;
+        System.out.printf("engine:     %,.0f ops/s%n", operations * 1e9 / engineNanos);
+        System.out.printf("BigDecimal: %,.0f ops/s%n", operations * 1e9 / referenceNanos);
+        System.out.printf("speed-up:   %.1fx (blackhole %d)%n", (double) referenceNanos / engineNanos, blackhole);
+    }
+
+    private static long engineRound(AdvancePricingEngine engine, BigDecimal[] amounts, BigDecimal[] rates, long[] days) {
+        long sum = 0;
+        for (int i = 0; i < INPUTS; i++) {
+            sum += engine.discountAmount(amounts[i], rates[i], days[i]).unscaledValue().longValue();
+        }
+        return sum;
+    }
+
+    private static long referenceRound(BigDecimal[] amounts, BigDecimal[] rates, long[] days) {
+        long sum = 0;
+        for (int i = 0; i < INPUTS; i++) {
+            sum += amounts[i].multiply(rates[i]).multiply(BigDecimal.valueOf(days[i]))
+                    .divide(HUNDRED_TIMES_YEAR, 4, RoundingMode.HALF_UP).unscaledValue().longValue();
+        }
+        return sum;
+    }
+}
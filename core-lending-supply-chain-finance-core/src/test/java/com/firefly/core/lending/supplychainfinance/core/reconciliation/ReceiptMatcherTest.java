@@ -0,0 +1,181 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.reconciliation;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BankReceiptDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static com.firefly.core.lending.supplychainfinance.core.reconciliation.ReceiptMatcher.AMBIGUOUS;
+import static com.firefly.core.lending.supplychainfinance.core.reconciliation.ReceiptMatcher.NO_MATCH;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReceiptMatcherTest {
+
+    private static final UUID ACME = UUID.randomUUID();
+    private static final UUID GLOBEX = UUID.randomUUID();
+
+    private OpenInvoiceIndex index;
+    private ReceiptMatcher matcher;
+    private int acme001;
+    private int acme002;
+    private int acme003;
+    private int globex001;
+
+    @BeforeEach
+    void setUp() {
+        index = new OpenInvoiceIndex();
+        index.addCounterparty(ACME, "ES-B12345678", null, "Acme Trading S.L.");
+        index.addCounterparty(GLOBEX, "DE-811907980", null, "Globex GmbH");
+        acme001 = add(ACME, "INV-2025/001", "1000.00", CurrencyCodeEnum.EUR);
+        acme002 = add(ACME, "INV-2025/002", "2500.00", CurrencyCodeEnum.EUR);
+        acme003 = add(ACME, "INV-2025/003", "2500.00", CurrencyCodeEnum.EUR);
+        globex001 = add(GLOBEX, "GX-7781", "1000.00", CurrencyCodeEnum.EUR);
+        add(GLOBEX, "GX-7782", "1000.00", CurrencyCodeEnum.USD);
+        index.build();
+        matcher = new ReceiptMatcher(index, new BigDecimal("0.02"));
+    }
+
+    @Test
+    void matchesTheInvoiceNumberInTheRemittanceWhenTheAmountIsPaidInFull() {
+        assertThat(matcher.exact(prepare(receipt("1000.00", CurrencyCodeEnum.EUR, "Payment inv 2025-001 thanks"))))
+                .isEqualTo(acme001);
+    }
+
+    @Test
+    void exactMatchingRequiresTheFullAmountAndCurrency() {
+        assertThat(matcher.exact(prepare(receipt("990.00", CurrencyCodeEnum.EUR, "INV-2025/001")))).isEqualTo(NO_MATCH);
+        assertThat(matcher.exact(prepare(receipt("1000.00", CurrencyCodeEnum.USD, "INV-2025/001")))).isEqualTo(NO_MATCH);
+    }
+
+    @Test
+    void severalInvoiceNumbersPaidInFullAreAmbiguous() {
+        assertThat(matcher.exact(prepare(receipt("2500.00", CurrencyCodeEnum.EUR, "INV-2025/002 INV-2025/003"))))
+                .isEqualTo(AMBIGUOUS);
+    }
+
+    @Test
+    void anIdentifiedPayerRestrictsTheInvoicesConsidered() {
+        BankReceiptDTO receipt = receipt("1000.00", CurrencyCodeEnum.EUR, "GX-7781");
+        receipt.setPayerId("es b12345678");
+
+        assertThat(matcher.exact(prepare(receipt))).isEqualTo(NO_MATCH);
+    }
+
+    @Test
+    void anUnknownPayerDoesNotRestrictTheInvoicesConsidered() {
+        BankReceiptDTO receipt = receipt("1000.00", CurrencyCodeEnum.EUR, "GX-7781");
+        receipt.setPayerName("Someone Else Ltd");
+
+        assertThat(matcher.exact(prepare(receipt))).isEqualTo(globex001);
+    }
+
+    @Test
+    void fuzzyMatchesAShortfallWithinTolerance() {
+        boolean[] claimed = new boolean[index.size()];
+
+        assertThat(matcher.fuzzy(prepare(receipt("980.00", CurrencyCodeEnum.EUR, "INV-2025/001")), claimed))
+                .isEqualTo(acme001);
+        assertThat(matcher.fuzzy(prepare(receipt("979.99", CurrencyCodeEnum.EUR, "INV-2025/001")), claimed))
+                .isEqualTo(NO_MATCH);
+    }
+
+    @Test
+    void fuzzyMatchesTheOnlyInvoiceOfTheAmountOfAnIdentifiedPayer() {
+        BankReceiptDTO receipt = receipt("1000.00", CurrencyCodeEnum.EUR, "May settlement");
+        receipt.setPayerName("ACME TRADING SL");
+
+        assertThat(matcher.fuzzy(prepare(receipt), new boolean[index.size()])).isEqualTo(acme001);
+    }
+
+    @Test
+    void fuzzyLeavesSeveralInvoicesOfTheAmountOfAPayerAmbiguous() {
+        BankReceiptDTO receipt = receipt("2500.00", CurrencyCodeEnum.EUR, "May settlement");
+        receipt.setCounterpartyId(ACME);
+
+        assertThat(matcher.fuzzy(prepare(receipt), new boolean[index.size()])).isEqualTo(AMBIGUOUS);
+    }
+
+    @Test
+    void fuzzySkipsClaimedInvoices() {
+        BankReceiptDTO receipt = receipt("2500.00", CurrencyCodeEnum.EUR, "May settlement");
+        receipt.setCounterpartyId(ACME);
+        boolean[] claimed = new boolean[index.size()];
+        claimed[acme002] = true;
+
+        assertThat(matcher.fuzzy(prepare(receipt), claimed)).isEqualTo(acme003);
+    }
+
+    @Test
+    void fuzzyMatchesAnInvoiceNumberOneEditAwayOfTheExactAmount() {
+        assertThat(matcher.fuzzy(prepare(receipt("1000.00", CurrencyCodeEnum.EUR, "ref GX7718")),
+                new boolean[index.size()])).isEqualTo(NO_MATCH);
+        assertThat(matcher.fuzzy(prepare(receipt("1000.00", CurrencyCodeEnum.EUR, "ref GX7791")),
+                new boolean[index.size()])).isEqualTo(globex001);
+    }
+
+    @Test
+    void aReceiptWithoutRemittanceOrPayerMatchesNothing() {
+        BankReceiptDTO receipt = receipt("1000.00", CurrencyCodeEnum.EUR, null);
+
+        assertThat(matcher.exact(prepare(receipt))).isEqualTo(NO_MATCH);
+        assertThat(matcher.fuzzy(prepare(receipt), new boolean[index.size()])).isEqualTo(NO_MATCH);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "INV2025001, INV2025001, true",
+            "INV2025001, INV2025002, true",
+            "INV2025001, INV202501, true",
+            "INV2025001, XINV2025001, true",
+            "INV2025001, INV2025012, false",
+            "INV2025001, INV20251, false",
+            "ABCD, ABDC, false"
+    })
+    void withinOneEditAllowsOneInsertionDeletionOrSubstitution(String a, String b, boolean expected) {
+        assertThat(ReceiptMatcher.withinOneEdit(a, b)).isEqualTo(expected);
+        assertThat(ReceiptMatcher.withinOneEdit(b, a)).isEqualTo(expected);
+    }
+
+    private ReceiptMatcher.PreparedReceipt prepare(BankReceiptDTO receipt) {
+        return matcher.prepare(receipt);
+    }
+
+    private int add(UUID counterpartyId, String number, String amount, CurrencyCodeEnum currency) {
+        index.add(UUID.randomUUID(), counterpartyId, number, new BigDecimal(amount), currency, FinanceTypeEnum.FACTORING,
+                InvoiceStatusEnum.FINANCED);
+        return index.size() - 1;
+    }
+
+    private static BankReceiptDTO receipt(String amount, CurrencyCodeEnum currency, String remittance) {
+        return BankReceiptDTO.builder()
+                .reference(UUID.randomUUID().toString())
+                .amount(new BigDecimal(amount))
+                .currency(currency)
+                .remittanceInformation(remittance)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void expiresTimersOfEveryLevelOnTheirDeadlineInOrder() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10);
+        wheel.schedule("level2", 10 + 200_000);
+        wheel.schedule("level0", 11);
+        wheel.schedule("level1", 10 + 1_000);
+        wheel.schedule("lastOfLevel0", 10 + 63);
+        wheel.schedule("firstOfLevel1", 10 + 64);
+
+        Map<String, Long> expiredAt = new HashMap<>();
+        List<String> order = new ArrayList<>();
+        for (long tick = 11; tick <= wheel.maxDeadline(); tick++) {
+            long now = tick;
+            wheel.advanceTo(tick, key -> {
+                expiredAt.put(key, now);
+                order.add(key);
+            });
+            if (wheel.size() == 0) {
+                break;
+            }
+        }
+
+        assertThat(order).containsExactly("level0", "lastOfLevel0", "firstOfLevel1", "level1", "level2");
+        assertThat(expiredAt).containsEntry("level0", 11L)
+                .containsEntry("lastOfLevel0", 73L)
+                .containsEntry("firstOfLevel1", 74L)
+                .containsEntry("level1", 1_010L)
+                .containsEntry("level2", 200_010L);
+    }
+
+    @Test
+    void cancelledTimersNeverExpire() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(0);
+        wheel.schedule("kept", 5);
+        wheel.schedule("cancelled", 5_000);
+
+        assertThat(wheel.cancel("cancelled")).isTrue();
+        assertThat(wheel.cancel("cancelled")).isFalse();
+
+        List<String> expired = new ArrayList<>();
+        wheel.advanceTo(10_000, expired::add);
+        assertThat(expired).containsExactly("kept");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void schedulingAPendingKeyAgainReplacesItsTimer() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(0);
+        wheel.schedule("invoice", 100);
+        wheel.schedule("invoice", 300);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advanceTo(299, expired::add);
+        assertThat(expired).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advanceTo(300, expired::add);
+        assertThat(expired).containsExactly("invoice");
+    }
+
+    @Test
+    void rejectsDeadlinesNotAfterTheCurrentTickOrBeyondTheWheel() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000);
+
+        assertThatThrownBy(() -> wheel.schedule("past", 1_000)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> wheel.schedule("far", wheel.maxDeadline() + 1)).isInstanceOf(IllegalArgumentException.class);
+        wheel.schedule("edge", wheel.maxDeadline());
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void matchesAReferenceScheduleOnRandomOperations() {
+        Random random = new Random(11);
+        long start = 123_456;
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(start);
+        Map<Integer, Long> pending = new HashMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            int key = random.nextInt(2_000);
+            switch (random.nextInt(4)) {
+                case 0, 1 -> {
+                    long span = random.nextBoolean() ? 64 : wheel.maxDeadline() - wheel.currentTick();
+                    long deadline = wheel.currentTick() + 1 + (long) (random.nextDouble() * span);
+                    wheel.schedule(key, deadline);
+                    pending.put(key, deadline);
+                }
+                case 2 -> assertThat(wheel.cancel(key)).isEqualTo(pending.remove(key) != null);
+                default -> {
+                    long target = wheel.currentTick() + random.nextInt(3_000);
+                    wheel.advanceTo(target, expired -> assertThat(pending.remove(expired))
+                            .as("deadline of key %s", expired)
+                            .isEqualTo(wheel.currentTick()));
+                    assertThat(pending.values()).allMatch(deadline -> deadline > target);
+                }
+            }
+            assertThat(wheel.size()).isEqualTo(pending.size());
+        }
+    }
+}
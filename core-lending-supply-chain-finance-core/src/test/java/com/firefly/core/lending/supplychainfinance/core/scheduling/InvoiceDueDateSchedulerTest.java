@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.scheduling;
+
+import com.firefly.core.lending.supplychainfinance.core.config.SupplyChainFinanceProperties;
+import com.firefly.core.lending.supplychainfinance.core.events.InvoiceDueDateEvent;
+import com.firefly.core.lending.supplychainfinance.core.mappers.SupplyChainFinanceInvoiceMapper;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceInvoiceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceInvoice;
+import com.firefly.core.lending.supplychainfinance.models.repositories.SupplyChainFinanceInvoiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InvoiceDueDateSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+
+    private SupplyChainFinanceInvoiceRepository repository;
+    private ApplicationEventPublisher eventPublisher;
+    private InvoiceDueDateScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(SupplyChainFinanceInvoiceRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        SupplyChainFinanceInvoiceMapper mapper = mock(SupplyChainFinanceInvoiceMapper.class);
+        when(mapper.toDTO(any())).thenAnswer(invocation -> SupplyChainFinanceInvoiceDTO.builder()
+                .id(invocation.<SupplyChainFinanceInvoice>getArgument(0).getId())
+                .build());
+        when(repository.recordDueDatesFiredThrough(any())).thenReturn(Mono.just(1));
+        scheduler = new InvoiceDueDateScheduler(repository, mapper, eventPublisher, new SupplyChainFinanceProperties());
+    }
+
+    @Test
+    void firesMilestonesThatFellDueAfterTheCheckpoint() {
+        SupplyChainFinanceInvoice invoice = invoiceDue(LocalDate.of(2026, 10, 12));
+        when(repository.findDueDatesFiredThrough()).thenReturn(Mono.just(LocalDate.of(2026, 10, 10)));
+        when(repository.findDueBetween(any(), any(), any(), any(), any(), anyInt())).thenReturn(Flux.just(invoice));
+        when(repository.findByIdIn(anyCollection())).thenReturn(Flux.just(invoice));
+
+        scheduler.advance(TODAY).block();
+
+        ArgumentCaptor<InvoiceDueDateEvent> event = ArgumentCaptor.forClass(InvoiceDueDateEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().type()).isEqualTo(InvoiceDueDateEvent.Type.OVERDUE);
+        assertThat(event.getValue().date()).isEqualTo(LocalDate.of(2026, 10, 13));
+        verify(repository).recordDueDatesFiredThrough(TODAY);
+    }
+
+    @Test
+    void withoutACheckpointFiresTodaysMilestonesOnly() {
+        SupplyChainFinanceInvoice invoice = invoiceDue(LocalDate.of(2026, 10, 12));
+        when(repository.findDueDatesFiredThrough()).thenReturn(Mono.empty());
+        when(repository.findDueBetween(any(), any(), any(), any(), any(), anyInt())).thenReturn(Flux.just(invoice));
+
+        scheduler.advance(TODAY).block();
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        verify(repository).recordDueDatesFiredThrough(TODAY);
+    }
+
+    private static SupplyChainFinanceInvoice invoiceDue(LocalDate dueDate) {
+        SupplyChainFinanceInvoice invoice = new SupplyChainFinanceInvoice();
+        invoice.setId(UUID.randomUUID());
+        invoice.setStatus(InvoiceStatusEnum.FINANCED);
+        invoice.setDueDate(dueDate);
+        return invoice;
+    }
+}
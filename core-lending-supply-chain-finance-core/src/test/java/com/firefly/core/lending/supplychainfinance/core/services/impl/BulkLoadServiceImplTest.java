@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.services.impl;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import org.junit.jupiter.api.Test;
+
+import static com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkLoadServiceImplTest {
+
+    @Test
+    void eachFinanceTypeUsesOnlyItsOwnStatuses() {
+        assertThat(BulkLoadServiceImpl.isUsedBy(FinanceTypeEnum.FACTORING, REGISTERED)).isTrue();
+        assertThat(BulkLoadServiceImpl.isUsedBy(FinanceTypeEnum.FACTORING, APPROVED)).isTrue();
+        assertThat(BulkLoadServiceImpl.isUsedBy(FinanceTypeEnum.FACTORING, CONFIRMED)).isFalse();
+        assertThat(BulkLoadServiceImpl.isUsedBy(FinanceTypeEnum.CONFIRMING, CONFIRMED)).isTrue();
+        assertThat(BulkLoadServiceImpl.isUsedBy(FinanceTypeEnum.CONFIRMING, APPROVED)).isFalse();
+        for (FinanceTypeEnum financeType : FinanceTypeEnum.values()) {
+            assertThat(BulkLoadServiceImpl.isUsedBy(financeType, SETTLED)).isTrue();
+            assertThat(BulkLoadServiceImpl.isUsedBy(financeType, CANCELLED)).isTrue();
+        }
+    }
+
+    @Test
+    void loadedSettlementsPayInvoicesFromTheStatusesAllowingPaid() {
+        assertThat(BulkLoadServiceImpl.PAYABLE.split(", (?=\\()")).containsExactlyInAnyOrder(
+                "('CONFIRMING', 'CONFIRMED')", "('FACTORING', 'FINANCED')", "('CONFIRMING', 'FINANCED')");
+    }
+}
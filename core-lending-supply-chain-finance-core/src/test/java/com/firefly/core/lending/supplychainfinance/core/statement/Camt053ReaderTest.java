@@ -0,0 +1,229 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.statement;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BankReceiptDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Camt053ReaderTest {
+
+    @Test
+    void readsBookedCreditEntriesWithTheirTransactionDetails() throws Exception {
+        List<BankReceiptDTO> receipts = read(statement("""
+                <Ntry>
+                  <NtryRef>E1</NtryRef>
+                  <Amt Ccy="EUR">1000.00</Amt>
+                  <CdtDbtInd>CRDT</CdtDbtInd>
+                  <Sts><Cd>BOOK</Cd></Sts>
+                  <BookgDt><Dt>2026-10-01</Dt></BookgDt>
+                  <ValDt><DtTm>2026-10-02T09:30:00</DtTm></ValDt>
+                  <AcctSvcrRef>BANK-REF-1</AcctSvcrRef>
+                  <NtryDtls><TxDtls>
+                    <Refs><EndToEndId>E2E-1</EndToEndId></Refs>
+                    <RltdPties><Dbtr><Pty>
+                      <Nm>Acme Trading S.L.</Nm>
+                      <Id><OrgId><Othr><Id>ES-B12345678</Id></Othr></OrgId></Id>
+                    </Pty></Dbtr></RltdPties>
+                    <RmtInf>
+                      <Ustrd>Payment INV-2025/001</Ustrd>
+                      <Strd><CdtrRefInf><Ref>RF18539007547034</Ref></CdtrRefInf></Strd>
+                    </RmtInf>
+                  </TxDtls></NtryDtls>
+                </Ntry>"""));
+
+        assertThat(receipts).hasSize(1);
+        BankReceiptDTO receipt = receipts.getFirst();
+        assertThat(receipt.getReference()).isEqualTo("BANK-REF-1");
+        assertThat(receipt.getValueDate()).isEqualTo(LocalDate.of(2026, 10, 2));
+        assertThat(receipt.getAmount()).isEqualByComparingTo("1000.00");
+        assertThat(receipt.getCurrency()).isEqualTo(CurrencyCodeEnum.EUR);
+        assertThat(receipt.getPayerName()).isEqualTo("Acme Trading S.L.");
+        assertThat(receipt.getPayerId()).isEqualTo("ES-B12345678");
+        assertThat(receipt.getRemittanceInformation()).isEqualTo("Payment INV-2025/001 RF18539007547034");
+    }
+
+    @Test
+    void skipsDebitsReversalsAndEntriesNotBooked() throws Exception {
+        List<BankReceiptDTO> receipts = read(statement(
+                entry("DEBIT", "100.00", "DBIT", "BOOK", false),
+                entry("REVERSED", "200.00", "CRDT", "BOOK", true),
+                entry("PENDING", "300.00", "CRDT", "PDNG", false),
+                entry("BOOKED", "400.00", "CRDT", "BOOK", false)));
+
+        assertThat(receipts).extracting(BankReceiptDTO::getReference).containsExactly("BOOKED");
+    }
+
+    @Test
+    void splitsABatchEntryIntoOneReceiptPerTransaction() throws Exception {
+        List<BankReceiptDTO> receipts = read(statement("""
+                <Ntry>
+                  <Amt Ccy="EUR">300.00</Amt>
+                  <CdtDbtInd>CRDT</CdtDbtInd>
+                  <Sts>BOOK</Sts>
+                  <ValDt><Dt>2026-10-02</Dt></ValDt>
+                  <AcctSvcrRef>BATCH-1</AcctSvcrRef>
+                  <NtryDtls>
+                    <TxDtls>
+                      <Refs><EndToEndId>E2E-A</EndToEndId></Refs>
+                      <Amt Ccy="EUR">100.00</Amt>
+                      <RmtInf><Ustrd>INV-A</Ustrd></RmtInf>
+                    </TxDtls>
+                    <TxDtls>
+                      <Amt Ccy="EUR">200.00</Amt>
+                      <RmtInf><Strd><RfrdDocInf><Nb>INV-B</Nb></RfrdDocInf></Strd></RmtInf>
+                    </TxDtls>
+                  </NtryDtls>
+                </Ntry>"""));
+
+        assertThat(receipts).hasSize(2);
+        assertThat(receipts).extracting(BankReceiptDTO::getReference).containsExactly("E2E-A", "BATCH-1-2");
+        assertThat(receipts).extracting(BankReceiptDTO::getAmount)
+                .containsExactly(new BigDecimal("100.00"), new BigDecimal("200.00"));
+        assertThat(receipts).extracting(BankReceiptDTO::getRemittanceInformation).containsExactly("INV-A", "INV-B");
+        assertThat(receipts).extracting(BankReceiptDTO::getValueDate).containsOnly(LocalDate.of(2026, 10, 2));
+    }
+
+    @Test
+    void takesTheCurrencyOfTheTransactionAmountAndNotOfTheInstructedAmount() throws Exception {
+        List<BankReceiptDTO> receipts = read(statement("""
+                <Ntry>
+                  <Amt Ccy="EUR">300.00</Amt>
+                  <CdtDbtInd>CRDT</CdtDbtInd>
+                  <Sts>BOOK</Sts>
+                  <AcctSvcrRef>FX-1</AcctSvcrRef>
+                  <NtryDtls>
+                    <TxDtls>
+                      <AmtDtls>
+                        <InstdAmt><Amt Ccy="USD">110.00</Amt></InstdAmt>
+                        <TxAmt><Amt Ccy="EUR">100.00</Amt></TxAmt>
+                      </AmtDtls>
+                    </TxDtls>
+                    <TxDtls>
+                      <AmtDtls>
+                        <TxAmt><Amt Ccy="EUR">200.00</Amt></TxAmt>
+                        <InstdAmt><Amt Ccy="USD">220.00</Amt></InstdAmt>
+                      </AmtDtls>
+                    </TxDtls>
+                  </NtryDtls>
+                </Ntry>"""));
+
+        assertThat(receipts).extracting(BankReceiptDTO::getCurrency).containsOnly(CurrencyCodeEnum.EUR);
+        assertThat(receipts).extracting(BankReceiptDTO::getAmount)
+                .containsExactly(new BigDecimal("100.00"), new BigDecimal("200.00"));
+    }
+
+    @Test
+    void readsAnEntryWithoutDetailsAtItsOwnAmount() throws Exception {
+        List<BankReceiptDTO> receipts = read(statement(entry("PLAIN", "250.50", "CRDT", "BOOK", false)));
+
+        assertThat(receipts).singleElement().satisfies(receipt -> {
+            assertThat(receipt.getAmount()).isEqualByComparingTo("250.50");
+            assertThat(receipt.getCurrency()).isEqualTo(CurrencyCodeEnum.EUR);
+            assertThat(receipt.getRemittanceInformation()).isNull();
+        });
+    }
+
+    @Test
+    void readsOtherCamt053VersionsByLocalName() throws Exception {
+        String entry = entry("V2", "10.00", "CRDT", "BOOK", false);
+        String v2 = statement(entry).replace("camt.053.001.08", "camt.053.001.02");
+
+        assertThat(read(v2)).extracting(BankReceiptDTO::getReference).containsExactly("V2");
+    }
+
+    @Test
+    void neverResolvesExternalEntities(@TempDir Path directory) throws IOException {
+        Path secret = Files.writeString(directory.resolve("secret.txt"), "TOP-SECRET");
+        String xml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE Document [<!ENTITY xxe SYSTEM "%s">]>
+                """.formatted(secret.toUri()) + statement("""
+                <Ntry>
+                  <Amt Ccy="EUR">1.00</Amt>
+                  <CdtDbtInd>CRDT</CdtDbtInd>
+                  <AcctSvcrRef>XXE</AcctSvcrRef>
+                  <NtryDtls><TxDtls><RmtInf><Ustrd>&xxe;</Ustrd></RmtInf></TxDtls></NtryDtls>
+                </Ntry>""");
+
+        List<BankReceiptDTO> receipts = new ArrayList<>();
+        try {
+            receipts.addAll(read(xml));
+        } catch (XMLStreamException e) {
+            // Rejecting the undeclared entity is as good as ignoring it
+        }
+
+        assertThat(receipts).extracting(BankReceiptDTO::getRemittanceInformation)
+                .noneMatch(remittance -> remittance != null && remittance.contains("TOP-SECRET"));
+    }
+
+    @Test
+    void rejectsMalformedStatements() {
+        assertThatThrownBy(() -> read(statement("<Ntry><Amt Ccy=\"EUR\">1.00</Amt>")))
+                .isInstanceOf(XMLStreamException.class);
+    }
+
+    private static List<BankReceiptDTO> read(String xml) throws XMLStreamException {
+        List<BankReceiptDTO> receipts = new ArrayList<>();
+        try (Camt053Reader reader = new Camt053Reader(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)))) {
+            for (BankReceiptDTO receipt = reader.next(); receipt != null; receipt = reader.next()) {
+                receipts.add(receipt);
+            }
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return receipts;
+    }
+
+    private static String statement(String... entries) {
+        return """
+                <Document xmlns="urn:iso:std:iso:20022:tech:xsd:camt.053.001.08">
+                  <BkToCstmrStmt><Stmt><Id>STMT-1</Id>
+                %s
+                  </Stmt></BkToCstmrStmt>
+                </Document>
+                """.formatted(String.join("\n", entries));
+    }
+
+    private static String entry(String reference, String amount, String creditDebit, String status, boolean reversal) {
+        return """
+                <Ntry>
+                  <Amt Ccy="EUR">%s</Amt>
+                  <CdtDbtInd>%s</CdtDbtInd>
+                  <RvslInd>%s</RvslInd>
+                  <Sts><Cd>%s</Cd></Sts>
+                  <ValDt><Dt>2026-10-02</Dt></ValDt>
+                  <AcctSvcrRef>%s</AcctSvcrRef>
+                </Ntry>""".formatted(amount, creditDebit, reversal, status, reference);
+    }
+}
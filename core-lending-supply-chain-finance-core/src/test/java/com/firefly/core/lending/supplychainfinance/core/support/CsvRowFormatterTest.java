@@ -0,0 +1,54 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvRowFormatterTest {
+
+    @Data
+    @AllArgsConstructor
+    static class Row {
+        private String reference;
+        private BigDecimal amount;
+    }
+
+    private final CsvRowFormatter<Row> csv = CsvRowFormatter.of(Row.class);
+
+    @Test
+    void prefixesTextThatSpreadsheetsWouldEvaluate() {
+        assertThat(csv.format(new Row("=HYPERLINK(\"x\")", null))).isEqualTo("\"'=HYPERLINK(\"\"x\"\")\",\r\n");
+        assertThat(csv.format(new Row("+1", null))).isEqualTo("'+1,\r\n");
+        assertThat(csv.format(new Row("-2", null))).isEqualTo("'-2,\r\n");
+        assertThat(csv.format(new Row("@SUM(A1)", null))).isEqualTo("'@SUM(A1),\r\n");
+        assertThat(csv.format(new Row("\tx", null))).isEqualTo("'\tx,\r\n");
+    }
+
+    @Test
+    void leavesNumbersAndPlainTextAlone() {
+        assertThat(csv.format(new Row("INV-1", new BigDecimal("-12.50")))).isEqualTo("INV-1,-12.50\r\n");
+        assertThat(csv.format(new Row("", BigDecimal.TEN))).isEqualTo(",10\r\n");
+        assertThat(csv.header()).isEqualTo("reference,amount\r\n");
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.core.support;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The values of the SQL enum types as they stand after every Flyway migration on the classpath, replayed in version
+ * order from their {@code CREATE TYPE ... AS ENUM} and {@code ALTER TYPE ... RENAME VALUE / ADD VALUE} statements.
+ */
+public final class MigratedEnumTypes {
+
+    private static final Pattern VERSION = Pattern.compile("V(\\d+(?:_\\d+)*)__.*\\.sql");
+    private static final Pattern CREATE = Pattern.compile("CREATE TYPE (\\w+) AS ENUM \\(([^;]*)\\);");
+    private static final Pattern RENAME = Pattern.compile("ALTER TYPE (\\w+) RENAME VALUE '(\\w+)' TO '(\\w+)';");
+    private static final Pattern ADD = Pattern.compile("ALTER TYPE (\\w+) ADD VALUE (?:IF NOT EXISTS )?'(\\w+)'");
+    private static final Pattern LITERAL = Pattern.compile("'(\\w+)'");
+    private static final Pattern STATEMENT = Pattern.compile(CREATE.pattern() + "|" + RENAME.pattern() + "|" + ADD.pattern());
+
+    private static final Map<String, Set<String>> TYPES = replay();
+
+    private MigratedEnumTypes() {
+    }
+
+    /**
+     * @return the values of the given enum type
+     * @throws IllegalArgumentException if no migration creates the type
+     */
+    public static Set<String> valuesOf(String type) {
+        Set<String> values = TYPES.get(type);
+        if (values == null) {
+            throw new IllegalArgumentException("No migration creates enum type " + type);
+        }
+        return values;
+    }
+
+    private static Map<String, Set<String>> replay() {
+        Map<String, Set<String>> types = new HashMap<>();
+        for (Resource migration : migrations()) {
+            Matcher statement = STATEMENT.matcher(stripComments(read(migration)));
+            while (statement.find()) {
+                apply(types, statement.group());
+            }
+        }
+        return types;
+    }
+
+    private static void apply(Map<String, Set<String>> types, String statement) {
+        Matcher create = CREATE.matcher(statement);
+        if (create.matches()) {
+            Set<String> values = new LinkedHashSet<>();
+            Matcher literal = LITERAL.matcher(create.group(2));
+            while (literal.find()) {
+                values.add(literal.group(1));
+            }
+            types.put(create.group(1), values);
+            return;
+        }
+        Matcher rename = RENAME.matcher(statement);
+        if (rename.matches()) {
+            Set<String> values = types.get(rename.group(1));
+            if (values == null || !values.remove(rename.group(2))) {
+                throw new IllegalStateException("Migration renames a missing value: " + statement);
+            }
+            values.add(rename.group(3));
+            return;
+        }
+        Matcher add = ADD.matcher(statement);
+        if (add.lookingAt()) {
+            types.get(add.group(1)).add(add.group(2));
+        }
+    }
+
+    private static List<Resource> migrations() {
+        try {
+            List<Resource> migrations = new ArrayList<>(Arrays.asList(
+                    new PathMatchingResourcePatternResolver().getResources("classpath*:db/migration/V*__*.sql")));
+            migrations.sort(Comparator.comparing(MigratedEnumTypes::version, Arrays::compare));
+            if (migrations.isEmpty()) {
+                throw new IllegalStateException("No migrations on the classpath");
+            }
+            return migrations;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the parts of the migration's version, so that V4_1 sorts between V4 and V5 as in Flyway
+     */
+    private static int[] version(Resource migration) {
+        Matcher version = VERSION.matcher(migration.getFilename());
+        if (!version.matches()) {
+            throw new IllegalStateException("Unexpected migration name " + migration.getFilename());
+        }
+        return Arrays.stream(version.group(1).split("_")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static String read(Resource migration) {
+        try {
+            return migration.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String stripComments(String sql) {
+        return sql.replaceAll("--[^\\n]*", "");
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.interfaces.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Price of an advance on one invoice as it would be created now, or the reason the invoice cannot be advanced.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AdvanceQuoteDTO {
+
+    private UUID invoiceId;
+
+    private UUID agreementId;
+
+    private String invoiceNumber;
+
+    private CurrencyCodeEnum currency;
+
+    private BigDecimal invoiceAmount;
+
+    private LocalDate advanceDate;
+
+    private LocalDate dueDate;
+
+    private Long daysFinanced;
+
+    private BigDecimal advanceAmount;
+
+    private BigDecimal discountAmount;
+
+    private BigDecimal feeAmount;
+
+    private BigDecimal netAmount;
+
+    private Boolean success;
+
+    private String error;
+
+    public static AdvanceQuoteDTO failure(UUID invoiceId, String error) {
+        return AdvanceQuoteDTO.builder()
+                .invoiceId(invoiceId)
+                .success(Boolean.FALSE)
+                .error(error)
+                .build();
+    }
+}
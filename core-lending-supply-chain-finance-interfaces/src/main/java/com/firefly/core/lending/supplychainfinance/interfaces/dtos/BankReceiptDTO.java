@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.interfaces.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A payment received from a debtor, as reported on the bank statement.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BankReceiptDTO {
+
+    /**
+     * Bank reference of the receipt; stored as the payment reference of the settlement it reconciles to.
+     */
+    @NotBlank(message = "Reference is required")
+    private String reference;
+
+    @NotNull(message = "Value date is required")
+    private LocalDate valueDate;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    @Digits(integer = 15, fraction = 4, message = "Amount must have at most 15 integer and 4 fraction digits")
+    private BigDecimal amount;
+
+    @NotNull(message = "Currency is required")
+    private CurrencyCodeEnum currency;
+
+    /**
+     * Counterparty the receipt is known to come from, if any.
+     */
+    private UUID counterpartyId;
+
+    /**
+     * Tax ID or registration number of the payer, if reported.
+     */
+    private String payerId;
+
+    private String payerName;
+
+    /**
+     * Free-text remittance information, usually carrying the invoice numbers paid.
+     */
+    private String remittanceInformation;
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.interfaces.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Per-row outcome of a bulk operation.
+ * One result is emitted for every submitted row, identified by its zero-based position in the input stream.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultDTO {
+
+    private Long index;
+
+    private UUID id;
+
+    private String reference;
+
+    private Boolean success;
+
+    private String error;
+
+    public static BulkItemResultDTO success(long index, UUID id, String reference) {
+        return BulkItemResultDTO.builder()
+                .index(index)
+                .id(id)
+                .reference(reference)
+                .success(Boolean.TRUE)
+                .build();
+    }
+
+    public static BulkItemResultDTO failure(long index, String reference, String error) {
+        return BulkItemResultDTO.builder()
+                .index(index)
+                .reference(reference)
+                .success(Boolean.FALSE)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.interfaces.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Current exposure of a counterparty against its approved limit, optionally checked for an additional amount.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CounterpartyExposureDTO {
+
+    private UUID counterpartyId;
+
+    private BigDecimal approvedLimit;
+
+    /**
+     * Currency of the agreement, in which the approved limit, exposure and available limit are expressed.
+     */
+    private CurrencyCodeEnum currency;
+
+    /**
+     * Advanced amount of the counterparty's open invoices, converted to the agreement currency.
+     */
+    private BigDecimal currentExposure;
+
+    /**
+     * Approved limit minus current exposure; absent when the counterparty has no approved limit.
+     */
+    private BigDecimal availableLimit;
+
+    private BigDecimal requestedAmount;
+
+    /**
+     * Whether the requested amount fits in the available limit; absent when no amount was requested.
+     */
+    private Boolean withinLimit;
+
+    /**
+     * Version of the FX rates used to convert advances in other currencies.
+     */
+    private Long rateVersion;
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.interfaces.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Selection of the unpaid advances to pay out in one disbursement batch.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DisbursementBatchRequestDTO {
+
+    /**
+     * Agreement whose advances to pay out; all agreements if absent.
+     */
+    private UUID agreementId;
+
+    /**
+     * Finance type whose advances to pay out; both if absent.
+     */
+    private FinanceTypeEnum financeType;
+
+    /**
+     * Latest advance date to pay out; today if absent.
+     */
+    private LocalDate advancedBy;
+
+    /**
+     * Most payments in the batch; the configured maximum if absent or above it.
+     */
+    @Positive(message = "Max payments must be positive")
+    private Integer maxPayments;
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.interfaces.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Invoices of a confirming agreement chosen to be paid early, as priced advances ready to be created.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EarlyPaymentAllocationDTO {
+
+    private UUID agreementId;
+
+    private CurrencyCodeEnum currency;
+
+    private LocalDate paymentDate;
+
+    private BigDecimal budget;
+
+    /**
+     * Invoices that could have been paid early.
+     */
+    private Integer candidateCount;
+
+    /**
+     * Cash paid to suppliers by the selected advances, at most the budget.
+     */
+    private BigDecimal allocatedAmount;
+
+    private BigDecimal totalDiscount;
+
+    private BigDecimal totalFee;
+
+    private List<SupplyChainFinanceAdvanceDTO> advances;
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.interfaces.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Budget and caps within which to choose the invoices of a confirming agreement to pay early.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EarlyPaymentAllocationRequestDTO {
+
+    @NotNull(message = "Agreement ID is required")
+    private UUID agreementId;
+
+    /**
+     * Cash available for early payments, in the agreement's currency.
+     */
+    @NotNull(message = "Budget is required")
+    @Positive(message = "Budget must be positive")
+    private BigDecimal budget;
+
+    /**
+     * Date the early payments would be made; today if absent.
+     */
+    private LocalDate paymentDate;
+
+    /**
+     * Most cash any one supplier may receive; no cap if absent.
+     */
+    @Positive(message = "Supplier cap must be positive")
+    private BigDecimal supplierCap;
+
+    /**
+     * Caps of individual suppliers by counterparty ID, overriding {@code supplierCap}.
+     */
+    private Map<UUID, BigDecimal> supplierCaps;
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.interfaces.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Outstanding amount of the open invoices of one agreement, counterparty and currency,
+ * split into aging buckets by days past due as of {@code asOf}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InvoiceAgingDTO {
+
+    private UUID agreementId;
+
+    private UUID counterpartyId;
+
+    private CurrencyCodeEnum currency;
+
+    private LocalDate asOf;
+
+    /**
+     * Not yet due.
+     */
+    private BigDecimal current;
+
+    private BigDecimal days1To30;
+
+    private BigDecimal days31To60;
+
+    private BigDecimal days61To90;
+
+    private BigDecimal over90Days;
+
+    private BigDecimal total;
+
+    private Integer invoiceCount;
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.interfaces.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.ReceiptMatchTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Outcome of reconciling one bank receipt, identified by its zero-based position in the input stream.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReceiptMatchDTO {
+
+    private Long index;
+
+    private String reference;
+
+    /**
+     * Invoice the receipt was settled against, or null if it was not matched.
+     */
+    private UUID invoiceId;
+
+    private String invoiceNumber;
+
+    private UUID settlementId;
+
+    private ReceiptMatchTypeEnum matchType;
+
+    /**
+     * Balance of the settlement due to the seller once its advances, interest and fees are recovered.
+     */
+    private BigDecimal balanceDue;
+
+    /**
+     * Why the receipt was not matched.
+     */
+    private String error;
+
+    public static ReceiptMatchDTO unmatched(long index, String reference, String error) {
+        return ReceiptMatchDTO.builder()
+                .index(index)
+                .reference(reference)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.interfaces.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Interest accrued on an open advance as of one day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SupplyChainFinanceAccrualDTO {
+
+    private UUID id;
+
+    private UUID advanceId;
+
+    private UUID agreementId;
+
+    private FinanceTypeEnum financeType;
+
+    private LocalDate accrualDate;
+
+    private CurrencyCodeEnum currency;
+
+    private BigDecimal principalAmount;
+
+    private BigDecimal interestRate;
+
+    /**
+     * Interest accrued on the accrual date alone.
+     */
+    private BigDecimal dailyAmount;
+
+    /**
+     * Interest accrued from the advance date through the accrual date.
+     */
+    private BigDecimal accruedAmount;
+
+    private LocalDateTime createdAt;
+}
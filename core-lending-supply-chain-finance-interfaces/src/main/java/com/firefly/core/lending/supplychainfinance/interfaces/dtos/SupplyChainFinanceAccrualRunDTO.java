@@ -0,0 +1,59 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.interfaces.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of one day's interest accrual run.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SupplyChainFinanceAccrualRunDTO {
+
+    private UUID id;
+
+    private LocalDate accrualDate;
+
+    /**
+     * Advance the run last wrote an accrual for; it resumes after this advance if interrupted.
+     */
+    private UUID lastAdvanceId;
+
+    private Long accrualCount;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    /**
+     * Time the run finished, or null while it is running or was interrupted.
+     */
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,40 @@
+package com.firefly.core.lending.supplychainfinance.interfaces.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Lifecycle of a credit-limit reservation on an agreement.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum LimitReservationStatusEnum {
+
+    RESERVED("RESERVED", "Reserved"),
+    COMMITTED("COMMITTED", "Committed"),
+    RELEASED("RELEASED", "Released");
+
+    @JsonValue
+    private final String code;
+    private final String description;
+
+    @JsonCreator
+    public static LimitReservationStatusEnum fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (LimitReservationStatusEnum status : values()) {
+            if (status.code.equalsIgnoreCase(code)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Invalid limit reservation status: " + code);
+    }
+
+    @Override
+    public String toString() {
+        return this.code;
+    }
+}
@@ -0,0 +1,39 @@
+package com.firefly.core.lending.supplychainfinance.interfaces.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * How a bank receipt was matched to an open invoice during reconciliation.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ReceiptMatchTypeEnum {
+
+    EXACT("EXACT", "Invoice number and amount"),
+    FUZZY("FUZZY", "Invoice number within tolerance, or counterparty and amount");
+
+    @JsonValue
+    private final String code;
+    private final String description;
+
+    @JsonCreator
+    public static ReceiptMatchTypeEnum fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (ReceiptMatchTypeEnum type : values()) {
+            if (type.code.equalsIgnoreCase(code)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Invalid receipt match type: " + code);
+    }
+
+    @Override
+    public String toString() {
+        return this.code;
+    }
+}
@@ -0,0 +1,44 @@
+package com.firefly.core.lending.supplychainfinance.models.entities;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity for one currency's rate within a versioned FX rate snapshot.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("fx_rate")
+public class FxRate {
+
+    @Id
+    @Column("id")
+    private UUID id;
+
+    @Column("version")
+    private Long version;
+
+    @Column("currency")
+    private CurrencyCodeEnum currency;
+
+    /**
+     * Value of one unit of the currency in EUR.
+     */
+    @Column("rate_to_eur")
+    private BigDecimal rateToEur;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,67 @@
+package com.firefly.core.lending.supplychainfinance.models.entities;
+
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity for the interest accrued on an open advance as of one day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("supply_chain_finance_accrual")
+public class SupplyChainFinanceAccrual {
+
+    @Id
+    @Column("id")
+    private UUID id;
+
+    @Column("advance_id")
+    private UUID advanceId;
+
+    @Column("agreement_id")
+    private UUID agreementId;
+
+    @Column("finance_type")
+    private FinanceTypeEnum financeType;
+
+    @Column("accrual_date")
+    private LocalDate accrualDate;
+
+    @Column("currency")
+    private CurrencyCodeEnum currency;
+
+    @Column("principal_amount")
+    private BigDecimal principalAmount;
+
+    @Column("interest_rate")
+    private BigDecimal interestRate;
+
+    /**
+     * Interest accrued on the accrual date alone.
+     */
+    @Column("daily_amount")
+    private BigDecimal dailyAmount;
+
+    /**
+     * Interest accrued from the advance date through the accrual date.
+     */
+    @Column("accrued_amount")
+    private BigDecimal accruedAmount;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,55 @@
+package com.firefly.core.lending.supplychainfinance.models.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity for the progress of one day's accrual run, checkpointed after every batch written.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("supply_chain_finance_accrual_run")
+public class SupplyChainFinanceAccrualRun {
+
+    @Id
+    @Column("id")
+    private UUID id;
+
+    @Column("accrual_date")
+    private LocalDate accrualDate;
+
+    /**
+     * Finance type, advance date and id of the last advance written; null until the first batch is written.
+     */
+    @Column("last_finance_type")
+    private String lastFinanceType;
+
+    @Column("last_advance_date")
+    private LocalDate lastAdvanceDate;
+
+    @Column("last_advance_id")
+    private UUID lastAdvanceId;
+
+    @Column("accrual_count")
+    private Long accrualCount;
+
+    @Column("started_at")
+    private LocalDateTime startedAt;
+
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column("completed_at")
+    private LocalDateTime completedAt;
+}
@@ -21,7 +21,7 @@ import java.util.UUID;
  * Supports both FACTORING and CONFIRMING via financeType discriminator.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Table("supply_chain_finance_agreement")
@@ -0,0 +1,39 @@
+package com.firefly.core.lending.supplychainfinance.models.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity for an amount of agreement limit held by a lease: the headroom of an instance, or one open reservation,
+ * in which case {@code leaseId} is the reservation id.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("supply_chain_finance_limit_lease")
+public class SupplyChainFinanceLimitLease {
+
+    @Column("agreement_id")
+    private UUID agreementId;
+
+    @Column("lease_id")
+    private UUID leaseId;
+
+    @Column("leased_amount")
+    private BigDecimal leasedAmount;
+
+    @Column("expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column("reservation")
+    private Boolean reservation;
+}
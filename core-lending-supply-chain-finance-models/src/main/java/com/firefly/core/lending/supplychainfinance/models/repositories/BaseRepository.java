@@ -17,12 +17,28 @@
 
 package com.firefly.core.lending.supplychainfinance.models.repositories;
 
+import org.reactivestreams.Publisher;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
 
 import java.util.UUID;
 
+/**
+ * Implemented by {@link BatchingR2dbcRepository}, which must be configured as the repository base class.
+ */
 @NoRepositoryBean
 public interface BaseRepository<T> extends ReactiveCrudRepository<T, UUID> {
+
+    /**
+     * Inserts the entities with one multi-row INSERT statement per {@code batchSize} of them, instead of the one
+     * statement per entity of {@link #saveAll(Publisher)}. The entities are always inserted, whether or not they
+     * carry an ID; null properties take the column default, as they do on {@link #save(Object)}.
+     *
+     * @param entities the entities to insert
+     * @param batchSize the most entities inserted per statement
+     * @return a Flux emitting the inserted rows, with their generated IDs and defaults, in the order given
+     */
+    Flux<T> insertAll(Publisher<T> entities, int batchSize);
 }
 
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.models.repositories;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
+import org.springframework.data.r2dbc.core.ReactiveDataAccessStrategy;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
+import org.springframework.data.r2dbc.repository.support.SimpleR2dbcRepository;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.data.relational.repository.query.RelationalEntityInformation;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Repository base class adding {@link BaseRepository#insertAll(Publisher, int)} to every repository.
+ *
+ * <p>Each batch is written as {@code INSERT ... VALUES (...), (...) RETURNING *}. The entities are converted exactly
+ * as {@link #save(Object)} converts them; a null property is written as {@code DEFAULT}, which is what omitting the
+ * column from a single-row insert amounts to. A batch is split further if its bind parameters would exceed what
+ * PostgreSQL accepts in one statement.
+ */
+public class BatchingR2dbcRepository<T, ID> extends SimpleR2dbcRepository<T, ID> {
+
+    // Bind parameters are numbered with an unsigned 16-bit integer in the PostgreSQL wire protocol
+    private static final int MAX_PARAMETERS = 65_535;
+
+    private final RelationalEntityInformation<T, ID> entity;
+    private final DatabaseClient databaseClient;
+    private final ReactiveDataAccessStrategy dataAccessStrategy;
+    private final R2dbcConverter converter;
+
+    public BatchingR2dbcRepository(RelationalEntityInformation<T, ID> entity, R2dbcEntityOperations entityOperations,
+                                   R2dbcConverter converter) {
+        super(entity, entityOperations, converter);
+        this.entity = entity;
+        this.databaseClient = entityOperations.getDatabaseClient();
+        this.dataAccessStrategy = entityOperations.getDataAccessStrategy();
+        this.converter = converter;
+    }
+
+    /**
+     * @see BaseRepository#insertAll(Publisher, int)
+     */
+    public Flux<T> insertAll(Publisher<T> entities, int batchSize) {
+        if (batchSize < 1) {
+            return Flux.error(new IllegalArgumentException("Batch size must be positive"));
+        }
+        return Flux.from(entities)
+                .buffer(batchSize)
+                .concatMap(this::insertBatch);
+    }
+
+    private Flux<T> insertBatch(List<T> entities) {
+        List<OutboundRow> rows = new ArrayList<>(entities.size());
+        Set<SqlIdentifier> columns = new LinkedHashSet<>();
+        for (T entity : entities) {
+            OutboundRow row = dataAccessStrategy.getOutboundRow(entity);
+            rows.add(row);
+            columns.addAll(row.keySet());
+        }
+        int rowsPerStatement = Math.max(1, MAX_PARAMETERS / Math.max(1, columns.size()));
+        if (rows.size() <= rowsPerStatement) {
+            return insertRows(rows, List.copyOf(columns));
+        }
+        List<SqlIdentifier> columnList = List.copyOf(columns);
+        return Flux.range(0, (rows.size() + rowsPerStatement - 1) / rowsPerStatement)
+                .concatMap(part -> insertRows(rows.subList(part * rowsPerStatement,
+                        Math.min(rows.size(), (part + 1) * rowsPerStatement)), columnList));
+    }
+
+    private Flux<T> insertRows(List<OutboundRow> rows, List<SqlIdentifier> columns) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ")
+                .append(dataAccessStrategy.toSql(entity.getTableName()))
+                .append(" (");
+        for (int c = 0; c < columns.size(); c++) {
+            sql.append(c == 0 ? "" : ", ").append(dataAccessStrategy.toSql(columns.get(c)));
+        }
+        sql.append(") VALUES ");
+        List<Parameter> values = new ArrayList<>(rows.size() * columns.size());
+        for (int r = 0; r < rows.size(); r++) {
+            sql.append(r == 0 ? "(" : ", (");
+            for (int c = 0; c < columns.size(); c++) {
+                Parameter value = rows.get(r).get(columns.get(c));
+                if (c > 0) {
+                    sql.append(", ");
+                }
+                if (value == null || !value.hasValue()) {
+                    sql.append("DEFAULT");
+                } else {
+                    sql.append(":p").append(values.size());
+                    values.add(value);
+                }
+            }
+            sql.append(')');
+        }
+        sql.append(" RETURNING *");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < values.size(); i++) {
+            spec = spec.bind("p" + i, values.get(i));
+        }
+        return spec.map((row, metadata) -> converter.read(entity.getJavaType(), row, metadata)).all();
+    }
+}
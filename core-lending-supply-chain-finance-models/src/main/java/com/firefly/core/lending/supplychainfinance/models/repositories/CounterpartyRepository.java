@@ -19,9 +19,13 @@ package com.firefly.core.lending.supplychainfinance.models.repositories;
 
 import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
 import com.firefly.core.lending.supplychainfinance.models.entities.Counterparty;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 /**
@@ -39,4 +43,15 @@ public interface CounterpartyRepository extends BaseRepository<Counterparty> {
     Flux<Counterparty> findByApproved(Boolean approved);
 
     Flux<Counterparty> findByFinanceTypeAndApproved(FinanceTypeEnum financeType, Boolean approved);
+
+    /**
+     * Adds {@code deltas[i]} to the current exposure of counterparty {@code ids[i]}, in one statement.
+     */
+    @Modifying
+    @Query("""
+            UPDATE counterparty c
+            SET current_exposure = COALESCE(c.current_exposure, 0) + d.delta
+            FROM unnest(CAST(:ids AS uuid[]), CAST(:deltas AS numeric[])) AS d(id, delta)
+            WHERE c.id = d.id""")
+    Mono<Integer> addExposureDeltas(UUID[] ids, BigDecimal[] deltas);
 }
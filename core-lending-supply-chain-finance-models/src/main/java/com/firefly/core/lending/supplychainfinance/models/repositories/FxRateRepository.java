@@ -0,0 +1,50 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.models.repositories;
+
+import com.firefly.core.lending.supplychainfinance.models.entities.FxRate;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repository for versioned FX rate snapshots.
+ */
+@Repository
+public interface FxRateRepository extends BaseRepository<FxRate> {
+
+    Flux<FxRate> findByVersion(Long version);
+
+    /**
+     * @return a Mono emitting the version of the current snapshot, or an empty Mono if none was published
+     */
+    @Query("SELECT version FROM fx_rate ORDER BY version DESC LIMIT 1")
+    Mono<Long> findLatestVersion();
+
+    @Query("SELECT nextval('fx_rate_version_seq')")
+    Mono<Long> nextVersion();
+
+    /**
+     * Locks the rate table against other publishers until the current transaction ends. Readers are not blocked.
+     */
+    @Modifying
+    @Query("LOCK TABLE fx_rate IN SHARE ROW EXCLUSIVE MODE")
+    Mono<Void> lockForPublish();
+}
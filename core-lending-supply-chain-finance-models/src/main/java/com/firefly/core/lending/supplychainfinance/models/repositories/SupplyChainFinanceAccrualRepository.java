@@ -0,0 +1,73 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.models.repositories;
+
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAccrual;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Repository for interest accruals on advances.
+ */
+@Repository
+public interface SupplyChainFinanceAccrualRepository extends BaseRepository<SupplyChainFinanceAccrual> {
+
+    Flux<SupplyChainFinanceAccrual> findByAdvanceIdOrderByAccrualDate(UUID advanceId);
+
+    /**
+     * Finds the latest accrual of each advance on or before the date at the same array position, passed as an ISO
+     * string. Advances without such an accrual are left out.
+     */
+    @Query("""
+            SELECT x.* FROM unnest(:advanceIds, :asOfDates) AS t(advance_id, as_of)
+            CROSS JOIN LATERAL (
+                SELECT * FROM supply_chain_finance_accrual a
+                WHERE a.advance_id = t.advance_id AND a.accrual_date <= CAST(t.as_of AS DATE)
+                ORDER BY a.accrual_date DESC
+                LIMIT 1) x""")
+    Flux<SupplyChainFinanceAccrual> findLatestByAdvanceIds(UUID[] advanceIds, String[] asOfDates);
+
+    /**
+     * Inserts the accruals of one date in a single statement, one row per array position. Accruals already
+     * written for an advance and date are left as they are, so a batch can be written again after a restart.
+     *
+     * @return the number of rows inserted
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO supply_chain_finance_accrual
+                (advance_id, agreement_id, finance_type, accrual_date, currency,
+                 principal_amount, interest_rate, daily_amount, accrued_amount)
+            SELECT t.advance_id, t.agreement_id, CAST(t.finance_type AS finance_type), :accrualDate,
+                   CAST(t.currency AS currency_code), t.principal_amount, t.interest_rate, t.daily_amount, t.accrued_amount
+            FROM unnest(:advanceIds, :agreementIds, :financeTypes, :currencies,
+                        :principalAmounts, :interestRates, :dailyAmounts, :accruedAmounts)
+                AS t(advance_id, agreement_id, finance_type, currency,
+                     principal_amount, interest_rate, daily_amount, accrued_amount)
+            ON CONFLICT (advance_id, accrual_date) DO NOTHING""")
+    Mono<Integer> insertBatch(LocalDate accrualDate, UUID[] advanceIds, UUID[] agreementIds, String[] financeTypes,
+                              String[] currencies, BigDecimal[] principalAmounts, BigDecimal[] interestRates,
+                              BigDecimal[] dailyAmounts, BigDecimal[] accruedAmounts);
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.models.repositories;
+
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAccrualRun;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Repository for the checkpoints of daily accrual runs.
+ */
+@Repository
+public interface SupplyChainFinanceAccrualRunRepository extends BaseRepository<SupplyChainFinanceAccrualRun> {
+
+    /**
+     * Creates the run of the date unless it exists.
+     *
+     * @return a Mono emitting the run of the date, new or as left by a previous attempt
+     */
+    @Query("""
+            INSERT INTO supply_chain_finance_accrual_run (accrual_date) VALUES (:accrualDate)
+            ON CONFLICT (accrual_date) DO UPDATE SET accrual_date = EXCLUDED.accrual_date
+            RETURNING *""")
+    Mono<SupplyChainFinanceAccrualRun> startOrResume(LocalDate accrualDate);
+
+    Mono<SupplyChainFinanceAccrualRun> findByAccrualDate(LocalDate accrualDate);
+
+    @Modifying
+    @Query("""
+            UPDATE supply_chain_finance_accrual_run
+            SET last_finance_type = :lastFinanceType,
+                last_advance_date = :lastAdvanceDate,
+                last_advance_id = :lastAdvanceId,
+                accrual_count = accrual_count + :written,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = :id""")
+    Mono<Integer> checkpoint(UUID id, String lastFinanceType, LocalDate lastAdvanceDate, UUID lastAdvanceId, long written);
+
+    @Modifying
+    @Query("""
+            UPDATE supply_chain_finance_accrual_run
+            SET completed_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP
+            WHERE id = :id""")
+    Mono<Integer> complete(UUID id);
+}
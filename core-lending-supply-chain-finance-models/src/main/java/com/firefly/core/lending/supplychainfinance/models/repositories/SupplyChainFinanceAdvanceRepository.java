@@ -19,9 +19,13 @@ package com.firefly.core.lending.supplychainfinance.models.repositories;
 
 import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
 import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAdvance;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 /**
@@ -32,7 +36,39 @@ public interface SupplyChainFinanceAdvanceRepository extends BaseRepository<Supp
 
     Flux<SupplyChainFinanceAdvance> findByInvoiceId(UUID invoiceId);
 
+    @Query("SELECT * FROM supply_chain_finance_advance WHERE invoice_id = ANY(:invoiceIds)")
+    Flux<SupplyChainFinanceAdvance> findByInvoiceIdAny(UUID[] invoiceIds);
+
     Flux<SupplyChainFinanceAdvance> findByFinanceType(FinanceTypeEnum financeType);
 
     Flux<SupplyChainFinanceAdvance> findByFinanceTypeAndInvoiceId(FinanceTypeEnum financeType, UUID invoiceId);
+
+    /**
+     * Stamps {@code reference} onto up to {@code limit} advances not yet paid out, that is without a payment
+     * reference, advanced on or before {@code advancedBy} and optionally restricted to one agreement and finance
+     * type. Advances locked by another transaction are skipped rather than waited for, so concurrent batches
+     * never claim the same advance.
+     *
+     * @param agreementId the agreement to restrict the claim to, or null for all
+     * @param financeType the finance type to restrict the claim to, or null for both
+     * @return the number of advances claimed
+     */
+    @Modifying
+    @Query("""
+            WITH claimed AS (
+                SELECT x.id FROM supply_chain_finance_advance x
+                JOIN supply_chain_finance_invoice i ON i.id = x.invoice_id
+                WHERE x.payment_reference IS NULL
+                  AND x.advance_date <= :advancedBy
+                  AND COALESCE(x.net_amount, x.advance_amount) > 0
+                  AND (CAST(:agreementId AS UUID) IS NULL OR i.agreement_id = :agreementId)
+                  AND (CAST(:financeType AS TEXT) IS NULL OR x.finance_type::text = :financeType)
+                ORDER BY x.advance_date, x.id
+                LIMIT :limit
+                FOR UPDATE OF x SKIP LOCKED)
+            UPDATE supply_chain_finance_advance x
+            SET payment_reference = :reference, updated_at = CURRENT_TIMESTAMP
+            FROM claimed
+            WHERE x.id = claimed.id""")
+    Mono<Integer> claimUnpaid(String reference, LocalDate advancedBy, UUID agreementId, String financeType, int limit);
 }
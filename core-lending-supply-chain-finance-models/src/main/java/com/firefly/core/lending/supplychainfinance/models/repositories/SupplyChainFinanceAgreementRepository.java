@@ -20,10 +20,15 @@ package com.firefly.core.lending.supplychainfinance.models.repositories;
 import com.firefly.core.lending.supplychainfinance.interfaces.enums.AgreementStatusEnum;
 import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
 import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceAgreement;
+import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceLimitLease;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.UUID;
 
 /**
@@ -45,4 +50,216 @@ public interface SupplyChainFinanceAgreementRepository extends BaseRepository<Su
     Mono<SupplyChainFinanceAgreement> findByAgreementNumber(String agreementNumber);
 
     Mono<Boolean> existsByAgreementNumber(String agreementNumber);
+
+    /**
+     * Reads an agreement and locks its row until the end of the transaction, so that limit changes made
+     * concurrently wait for a write based on the values read.
+     */
+    @Query("SELECT * FROM supply_chain_finance_agreement WHERE id = :id FOR UPDATE")
+    Mono<SupplyChainFinanceAgreement> findByIdForUpdate(UUID id);
+
+    /**
+     * Takes {@code amount} out of the available limit of an active agreement, provided that much is available,
+     * and adds it to the lease {@code leaseId} holds on the agreement, renewing the lease for {@code ttlSeconds}.
+     * An agreement without an available limit yet starts from its credit limit.
+     *
+     * @return the number of leases written: 1 if the amount was taken, 0 otherwise
+     */
+    @Modifying
+    @Query("""
+            WITH taken AS (
+                UPDATE supply_chain_finance_agreement
+                SET available_limit = COALESCE(available_limit, credit_limit) - :amount,
+                    updated_at = CURRENT_TIMESTAMP
+                WHERE id = :id
+                  AND status::text = 'ACTIVE'
+                  AND COALESCE(available_limit, credit_limit) >= :amount
+                RETURNING id
+            )
+            INSERT INTO supply_chain_finance_limit_lease (agreement_id, lease_id, leased_amount, expires_at)
+            SELECT id, :leaseId, :amount, CURRENT_TIMESTAMP + :ttlSeconds * INTERVAL '1 second' FROM taken
+            ON CONFLICT (agreement_id, lease_id) DO UPDATE
+            SET leased_amount = supply_chain_finance_limit_lease.leased_amount + EXCLUDED.leased_amount,
+                expires_at = EXCLUDED.expires_at""")
+    Mono<Integer> takeAvailableLimit(UUID id, BigDecimal amount, UUID leaseId, int ttlSeconds);
+
+    /**
+     * Gives {@code amount} held by the lease {@code leaseId} back to the available limit of an agreement.
+     * Nothing is given back if the lease no longer exists, since its amount was then returned when it expired.
+     *
+     * @return the number of rows updated
+     */
+    @Modifying
+    @Query("""
+            WITH lease AS (
+                UPDATE supply_chain_finance_limit_lease
+                SET leased_amount = leased_amount - :amount
+                WHERE agreement_id = :id AND lease_id = :leaseId
+                RETURNING agreement_id
+            )
+            UPDATE supply_chain_finance_agreement a
+            SET available_limit = COALESCE(a.available_limit, a.credit_limit) + :amount,
+                updated_at = CURRENT_TIMESTAMP
+            FROM lease l
+            WHERE a.id = l.agreement_id""")
+    Mono<Integer> returnAvailableLimit(UUID id, BigDecimal amount, UUID leaseId);
+
+    /**
+     * Moves {@code amount} from the headroom held by the lease {@code leaseId} into a new reservation lease
+     * {@code reservationId} expiring in {@code ttlSeconds}, provided the headroom lease still holds that much.
+     * The agreement row is not touched.
+     *
+     * @return the number of reservations written: 1 if the amount was moved, 0 otherwise
+     */
+    @Modifying
+    @Query("""
+            WITH moved AS (
+                UPDATE supply_chain_finance_limit_lease
+                SET leased_amount = leased_amount - :amount
+                WHERE agreement_id = :id AND lease_id = :leaseId AND leased_amount >= :amount
+                RETURNING agreement_id
+            )
+            INSERT INTO supply_chain_finance_limit_lease (agreement_id, lease_id, leased_amount, expires_at, reservation)
+            SELECT agreement_id, :reservationId, :amount, CURRENT_TIMESTAMP + :ttlSeconds * INTERVAL '1 second', TRUE
+            FROM moved""")
+    Mono<Integer> reserveFromLease(UUID id, BigDecimal amount, UUID leaseId, UUID reservationId, int ttlSeconds);
+
+    /**
+     * @return the reservation if it has neither been committed, released nor expired
+     */
+    @Query("""
+            SELECT * FROM supply_chain_finance_limit_lease
+            WHERE agreement_id = :id AND lease_id = :reservationId AND reservation
+              AND expires_at >= CURRENT_TIMESTAMP""")
+    Mono<SupplyChainFinanceLimitLease> findReservation(UUID id, UUID reservationId);
+
+    /**
+     * Deletes the reservations among {@code reservationIds} that have not expired and adds their amounts to the
+     * outstanding amount of the agreement, in one statement. A reservation committed, released or reclaimed
+     * concurrently is deleted once only, by whichever statement gets to it first.
+     *
+     * @return the reservations committed
+     */
+    @Query("""
+            WITH committed AS (
+                DELETE FROM supply_chain_finance_limit_lease
+                WHERE agreement_id = :id AND lease_id = ANY(:reservationIds) AND reservation
+                  AND expires_at >= CURRENT_TIMESTAMP
+                RETURNING *
+            ), outstanding AS (
+                UPDATE supply_chain_finance_agreement a
+                SET outstanding_amount = COALESCE(a.outstanding_amount, 0) + c.amount,
+                    updated_at = CURRENT_TIMESTAMP
+                FROM (SELECT SUM(leased_amount) AS amount FROM committed) c
+                WHERE a.id = :id AND c.amount IS NOT NULL
+            )
+            SELECT * FROM committed""")
+    Flux<SupplyChainFinanceLimitLease> commitReservations(UUID id, UUID[] reservationIds);
+
+    /**
+     * Deletes a reservation that has not expired and moves its amount to the headroom held by the lease
+     * {@code leaseId}, creating or renewing that lease for {@code ttlSeconds}.
+     *
+     * @return the reservation released, or empty if it was already committed, released or expired
+     */
+    @Query("""
+            WITH released AS (
+                DELETE FROM supply_chain_finance_limit_lease
+                WHERE agreement_id = :id AND lease_id = :reservationId AND reservation
+                  AND expires_at >= CURRENT_TIMESTAMP
+                RETURNING *
+            ), headroom AS (
+                INSERT INTO supply_chain_finance_limit_lease (agreement_id, lease_id, leased_amount, expires_at)
+                SELECT agreement_id, :leaseId, leased_amount, CURRENT_TIMESTAMP + :ttlSeconds * INTERVAL '1 second'
+                FROM released
+                ON CONFLICT (agreement_id, lease_id) DO UPDATE
+                SET leased_amount = supply_chain_finance_limit_lease.leased_amount + EXCLUDED.leased_amount,
+                    expires_at = EXCLUDED.expires_at
+            )
+            SELECT * FROM released""")
+    Mono<SupplyChainFinanceLimitLease> releaseReservation(UUID id, UUID reservationId, UUID leaseId, int ttlSeconds);
+
+    /**
+     * Extends every lease of {@code leaseId} to {@code ttlSeconds} from now.
+     *
+     * @return the number of leases renewed
+     */
+    @Modifying
+    @Query("""
+            UPDATE supply_chain_finance_limit_lease
+            SET expires_at = CURRENT_TIMESTAMP + :ttlSeconds * INTERVAL '1 second'
+            WHERE lease_id = :leaseId""")
+    Mono<Integer> renewLimitLease(UUID leaseId, int ttlSeconds);
+
+    /**
+     * Deletes the expired leases and returns the amounts they held to the available limit of their agreements.
+     * Leases deleted concurrently by another instance are returned only once.
+     *
+     * @return the ids of the agreements whose available limit changed
+     */
+    @Query("""
+            WITH expired AS (
+                DELETE FROM supply_chain_finance_limit_lease
+                WHERE expires_at < CURRENT_TIMESTAMP
+                RETURNING agreement_id, leased_amount
+            ), returned AS (
+                SELECT agreement_id, SUM(leased_amount) AS amount FROM expired
+                GROUP BY agreement_id
+                HAVING SUM(leased_amount) <> 0
+            )
+            UPDATE supply_chain_finance_agreement a
+            SET available_limit = COALESCE(a.available_limit, a.credit_limit) + r.amount,
+                updated_at = CURRENT_TIMESTAMP
+            FROM returned r
+            WHERE a.id = r.agreement_id
+            RETURNING a.id""")
+    Flux<UUID> reclaimExpiredLimitLeases();
+
+    /**
+     * Deletes the leases of {@code leaseId} and returns the amounts they held to the available limit of their
+     * agreements.
+     *
+     * @return the ids of the agreements whose available limit changed
+     */
+    @Query("""
+            WITH released AS (
+                DELETE FROM supply_chain_finance_limit_lease
+                WHERE lease_id = :leaseId
+                RETURNING agreement_id, leased_amount
+            )
+            UPDATE supply_chain_finance_agreement a
+            SET available_limit = COALESCE(a.available_limit, a.credit_limit) + r.leased_amount,
+                updated_at = CURRENT_TIMESTAMP
+            FROM released r
+            WHERE a.id = r.agreement_id AND r.leased_amount <> 0
+            RETURNING a.id""")
+    Flux<UUID> reclaimLimitLease(UUID leaseId);
+
+    /**
+     * Expires up to {@code limit} agreements whose end date is before {@code today}, in one statement.
+     * Active agreements with an outstanding amount are suspended; active agreements without one, and
+     * suspended agreements whose outstanding amount has been repaid, are closed. Rows locked by another
+     * transaction are skipped rather than waited for.
+     *
+     * @return the agreements as updated
+     */
+    @Query("""
+            WITH expiring AS (
+                SELECT id FROM supply_chain_finance_agreement
+                WHERE status IN ('ACTIVE', 'SUSPENDED')
+                  AND end_date < :today
+                  AND (status = 'ACTIVE' OR COALESCE(outstanding_amount, 0) = 0)
+                ORDER BY end_date, id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE supply_chain_finance_agreement a
+            SET status = CASE WHEN COALESCE(a.outstanding_amount, 0) > 0
+                             THEN 'SUSPENDED'::agreement_status
+                             ELSE 'CLOSED'::agreement_status END,
+                updated_at = CURRENT_TIMESTAMP
+            FROM expiring e
+            WHERE a.id = e.id
+            RETURNING a.*""")
+    Flux<SupplyChainFinanceAgreement> expireEndedBefore(LocalDate today, int limit);
 }
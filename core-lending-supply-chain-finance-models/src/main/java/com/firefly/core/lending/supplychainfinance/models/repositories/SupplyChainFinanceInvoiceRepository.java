@@ -20,10 +20,14 @@ package com.firefly.core.lending.supplychainfinance.models.repositories;
 import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
 import com.firefly.core.lending.supplychainfinance.interfaces.enums.InvoiceStatusEnum;
 import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceInvoice;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.UUID;
 
 /**
@@ -47,4 +51,66 @@ public interface SupplyChainFinanceInvoiceRepository extends BaseRepository<Supp
     Mono<SupplyChainFinanceInvoice> findByFinanceTypeAndInvoiceNumber(FinanceTypeEnum financeType, String invoiceNumber);
 
     Mono<Boolean> existsByFinanceTypeAndInvoiceNumber(FinanceTypeEnum financeType, String invoiceNumber);
+
+    /**
+     * Moves an invoice to {@code targetStatus} in a single statement, provided it is still in
+     * {@code expectedStatus} and its finance type is one of {@code financeTypes}.
+     *
+     * @return the updated invoice, or empty if no row matched
+     */
+    @Query("""
+            UPDATE supply_chain_finance_invoice
+            SET status = CAST(:targetStatus AS invoice_status),
+                rejection_reason = COALESCE(:rejectionReason, rejection_reason),
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = :id
+              AND status::text = :expectedStatus
+              AND finance_type::text = ANY(:financeTypes)
+            RETURNING *""")
+    Mono<SupplyChainFinanceInvoice> transitionStatus(UUID id, String expectedStatus, String targetStatus,
+                                                     String[] financeTypes, String rejectionReason);
+
+    Flux<SupplyChainFinanceInvoice> findByIdIn(Collection<UUID> ids);
+
+    /**
+     * Reads the invoices with the given ids in one statement whose size does not depend on the number of ids.
+     */
+    @Query("SELECT * FROM supply_chain_finance_invoice WHERE id = ANY(:ids)")
+    Flux<SupplyChainFinanceInvoice> findByIdAny(UUID[] ids);
+
+    /**
+     * Reads one keyset page of invoices due in {@code (fromExclusive, toInclusive]} whose status is not one of
+     * {@code excludedStatuses}, in {@code (due_date, id)} order after {@code (afterDueDate, afterId)}.
+     */
+    @Query("""
+            SELECT * FROM supply_chain_finance_invoice
+            WHERE due_date > :fromExclusive AND due_date <= :toInclusive
+              AND (due_date, id) > (:afterDueDate, :afterId)
+              AND status::text <> ALL(:excludedStatuses)
+            ORDER BY due_date, id
+            LIMIT :limit""")
+    Flux<SupplyChainFinanceInvoice> findDueBetween(LocalDate fromExclusive, LocalDate toInclusive,
+                                                   LocalDate afterDueDate, UUID afterId,
+                                                   String[] excludedStatuses, int limit);
+
+    @Query("SELECT agreement_id FROM supply_chain_finance_invoice WHERE id = :id")
+    Mono<UUID> findAgreementIdById(UUID id);
+
+    /**
+     * @return the last day whose due-date milestones have been fired, or empty if none has been recorded
+     */
+    @Query("SELECT fired_through FROM supply_chain_finance_due_date_checkpoint")
+    Mono<LocalDate> findDueDatesFiredThrough();
+
+    /**
+     * Records that the due-date milestones of every day through {@code firedThrough} have been fired.
+     * The checkpoint never moves back.
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO supply_chain_finance_due_date_checkpoint (fired_through) VALUES (:firedThrough)
+            ON CONFLICT (id) DO UPDATE
+            SET fired_through = GREATEST(supply_chain_finance_due_date_checkpoint.fired_through, EXCLUDED.fired_through),
+                updated_at = CURRENT_TIMESTAMP""")
+    Mono<Integer> recordDueDatesFiredThrough(LocalDate firedThrough);
 }
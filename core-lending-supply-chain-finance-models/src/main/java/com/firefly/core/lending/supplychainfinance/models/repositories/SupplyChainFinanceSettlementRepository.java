@@ -19,9 +19,12 @@ package com.firefly.core.lending.supplychainfinance.models.repositories;
 
 import com.firefly.core.lending.supplychainfinance.interfaces.enums.FinanceTypeEnum;
 import com.firefly.core.lending.supplychainfinance.models.entities.SupplyChainFinanceSettlement;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 /**
@@ -35,4 +38,30 @@ public interface SupplyChainFinanceSettlementRepository extends BaseRepository<S
     Flux<SupplyChainFinanceSettlement> findByFinanceType(FinanceTypeEnum financeType);
 
     Flux<SupplyChainFinanceSettlement> findByFinanceTypeAndInvoiceId(FinanceTypeEnum financeType, UUID invoiceId);
+
+    /**
+     * Inserts settlements in a single statement, one row per array position, skipping payments already recorded
+     * against their invoice under the same payment reference, whether committed or being inserted concurrently, and
+     * all but the first row of an invoice and payment reference. Dates are passed as ISO strings.
+     *
+     * @return a Flux emitting the settlements inserted
+     */
+    @Query("""
+            INSERT INTO supply_chain_finance_settlement
+                (finance_type, invoice_id, settlement_date, currency, settlement_amount, advanced_amount,
+                 interest_amount, fee_amount, balance_due, payment_reference, notes)
+            SELECT CAST(t.finance_type AS finance_type), t.invoice_id, CAST(t.settlement_date AS DATE),
+                   CAST(t.currency AS currency_code), t.settlement_amount, t.advanced_amount,
+                   t.interest_amount, t.fee_amount, t.balance_due, t.payment_reference, t.notes
+            FROM unnest(:financeTypes, :invoiceIds, :settlementDates, :currencies, :settlementAmounts, :advancedAmounts,
+                        :interestAmounts, :feeAmounts, :balancesDue, :paymentReferences, :notes)
+                AS t(finance_type, invoice_id, settlement_date, currency, settlement_amount, advanced_amount,
+                     interest_amount, fee_amount, balance_due, payment_reference, notes)
+            ON CONFLICT (invoice_id, payment_reference) DO NOTHING
+            RETURNING *""")
+    Flux<SupplyChainFinanceSettlement> insertBatch(String[] financeTypes, UUID[] invoiceIds, String[] settlementDates,
+                                                   String[] currencies, BigDecimal[] settlementAmounts,
+                                                   BigDecimal[] advancedAmounts, BigDecimal[] interestAmounts,
+                                                   BigDecimal[] feeAmounts, BigDecimal[] balancesDue,
+                                                   String[] paymentReferences, String[] notes);
 }
@@ -0,0 +1,7 @@
+-- Advance payment reference indexes
+-- Disbursement batches claim the advances not yet paid out, those without a payment reference, in advance date order,
+-- stamp them with the batch reference and later read back every advance carrying that reference to write the
+-- batch's payment file.
+
+CREATE INDEX idx_advance_unpaid ON supply_chain_finance_advance(advance_date, id) WHERE payment_reference IS NULL;
+CREATE INDEX idx_advance_payment_reference ON supply_chain_finance_advance(payment_reference);
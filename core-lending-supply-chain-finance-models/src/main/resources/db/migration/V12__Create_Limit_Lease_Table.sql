@@ -0,0 +1,15 @@
+-- Limit leases
+-- Available limit taken from an agreement and held in memory by an instance, as headroom or open reservations,
+-- is recorded against that instance's lease. Leases are renewed while the instance runs; a lease that has expired,
+-- because its instance stopped without giving its limit back, is deleted and its amount returned to the agreement.
+
+CREATE TABLE supply_chain_finance_limit_lease (
+    agreement_id UUID NOT NULL REFERENCES supply_chain_finance_agreement(id) ON DELETE CASCADE,
+    lease_id UUID NOT NULL,
+    leased_amount DECIMAL(19,4) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (agreement_id, lease_id)
+);
+
+CREATE INDEX idx_limit_lease_lease_id ON supply_chain_finance_limit_lease(lease_id);
+CREATE INDEX idx_limit_lease_expires_at ON supply_chain_finance_limit_lease(expires_at);
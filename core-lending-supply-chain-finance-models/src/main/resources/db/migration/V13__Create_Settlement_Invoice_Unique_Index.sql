@@ -0,0 +1,9 @@
+-- Settlement invoice uniqueness
+-- An invoice is settled at most once. Settlement inserts used to skip invoices that already had a settlement with a
+-- NOT EXISTS check, which two concurrent transactions could both pass; the unique index makes the database reject
+-- the second settlement, and batch inserts skip it with ON CONFLICT (invoice_id) DO NOTHING.
+-- It replaces the plain invoice index. An invoice already settled twice makes this migration fail and has to be
+-- resolved by hand first.
+
+CREATE UNIQUE INDEX uq_settlement_invoice ON supply_chain_finance_settlement(invoice_id);
+DROP INDEX idx_settlement_invoice;
@@ -0,0 +1,9 @@
+-- Due-date checkpoint
+-- The last day whose overdue, late-fee and default milestones have been fired. On startup the due-date scheduler
+-- fires every milestone after it, so that milestones falling due while no instance was running are not missed.
+
+CREATE TABLE supply_chain_finance_due_date_checkpoint (
+    id SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    fired_through DATE NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
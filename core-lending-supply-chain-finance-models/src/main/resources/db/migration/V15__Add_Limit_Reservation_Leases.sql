@@ -0,0 +1,7 @@
+-- Limit reservations
+-- Every open reservation is a lease of its own, keyed by the reservation id, holding the reserved amount until the
+-- reservation is committed, released or expires. Any instance can therefore commit or release a reservation, also
+-- after the instance that took it has restarted, and expired reservations are returned by the lease sweep.
+-- Instance leases keep holding the headroom an instance serves reservations from.
+
+ALTER TABLE supply_chain_finance_limit_lease ADD COLUMN reservation BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,9 @@
+-- Settlement idempotency key
+-- An invoice can be settled by several payments, so V13's unique invoice index is replaced by a unique index on
+-- (invoice_id, payment_reference): a payment is recorded once per invoice however often its batch is retried, and
+-- batch inserts skip it with ON CONFLICT (invoice_id, payment_reference) DO NOTHING. Settlements without a payment
+-- reference are not deduplicated. The index also serves lookups by invoice, in place of the plain invoice index.
+
+CREATE UNIQUE INDEX uq_settlement_invoice_payment_reference
+    ON supply_chain_finance_settlement(invoice_id, payment_reference);
+DROP INDEX uq_settlement_invoice;
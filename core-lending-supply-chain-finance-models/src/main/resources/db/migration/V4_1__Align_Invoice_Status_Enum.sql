@@ -0,0 +1,13 @@
+-- Invoice status alignment
+-- The invoice_status enum was created with ASSIGNED, EARLY_PAID and CANCELED and without PENDING_VERIFICATION,
+-- VERIFIED and PAID, while InvoiceStatusEnum, and with it the status transition table, maps every value by name.
+-- ASSIGNED is the registered state of a factoring invoice and EARLY_PAID the financed state of a confirming one.
+-- Renaming keeps existing rows and their values; the added values are not used in this transaction.
+-- DISPUTED and DEFAULTED have no counterpart in InvoiceStatusEnum and are left unused.
+
+ALTER TYPE invoice_status RENAME VALUE 'ASSIGNED' TO 'REGISTERED';
+ALTER TYPE invoice_status RENAME VALUE 'EARLY_PAID' TO 'FINANCED';
+ALTER TYPE invoice_status RENAME VALUE 'CANCELED' TO 'CANCELLED';
+ALTER TYPE invoice_status ADD VALUE IF NOT EXISTS 'PENDING_VERIFICATION' AFTER 'REGISTERED';
+ALTER TYPE invoice_status ADD VALUE IF NOT EXISTS 'VERIFIED' AFTER 'PENDING_VERIFICATION';
+ALTER TYPE invoice_status ADD VALUE IF NOT EXISTS 'PAID' AFTER 'FINANCED';
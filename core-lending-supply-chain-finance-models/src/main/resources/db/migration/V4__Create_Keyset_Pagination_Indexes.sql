@@ -0,0 +1,9 @@
+-- Keyset pagination indexes
+-- Cursor listings order by (created_at, id) and seek past the last row of the previous page
+
+CREATE INDEX idx_scf_agreement_keyset ON supply_chain_finance_agreement(created_at, id);
+CREATE INDEX idx_counterparty_keyset ON counterparty(created_at, id);
+CREATE INDEX idx_invoice_keyset ON supply_chain_finance_invoice(created_at, id);
+CREATE INDEX idx_advance_keyset ON supply_chain_finance_advance(created_at, id);
+CREATE INDEX idx_settlement_keyset ON supply_chain_finance_settlement(created_at, id);
+CREATE INDEX idx_fee_keyset ON supply_chain_finance_fee(created_at, id);
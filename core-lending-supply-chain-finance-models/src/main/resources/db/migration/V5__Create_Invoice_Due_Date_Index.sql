@@ -0,0 +1,5 @@
+-- Due-date scheduling index
+-- idx_invoice_dates leads with invoice_date, so it cannot serve range scans on due_date.
+-- The due-date scheduler loads upcoming due dates in (due_date, id) keyset order.
+
+CREATE INDEX idx_invoice_due_date_keyset ON supply_chain_finance_invoice(due_date, id);
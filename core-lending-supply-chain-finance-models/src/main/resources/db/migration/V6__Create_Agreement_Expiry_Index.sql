@@ -0,0 +1,6 @@
+-- Agreement expiry index
+-- idx_scf_agreement_dates leads with start_date, so it cannot serve range scans on end_date.
+-- The expiry sweeper claims agreements that can still expire in (end_date, id) order.
+
+CREATE INDEX idx_scf_agreement_expiry ON supply_chain_finance_agreement(end_date, id)
+    WHERE status IN ('ACTIVE', 'SUSPENDED');
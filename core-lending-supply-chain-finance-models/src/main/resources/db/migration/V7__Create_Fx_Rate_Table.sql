@@ -0,0 +1,15 @@
+-- FX rates
+-- Rates are published as complete, versioned snapshots and never updated in place.
+-- rate_to_eur is the value of one unit of the currency in EUR; the latest version is the current snapshot.
+-- currency is VARCHAR rather than currency_code so that every CurrencyCodeEnum value can be quoted.
+
+CREATE SEQUENCE fx_rate_version_seq;
+
+CREATE TABLE fx_rate (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    version BIGINT NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    rate_to_eur DECIMAL(19,10) NOT NULL CHECK (rate_to_eur > 0),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (version, currency)
+);
@@ -0,0 +1,9 @@
+-- Fee type alignment
+-- The fee_type enum was created with ADMIN_FEE and LATE_FEE and without VERIFICATION_FEE and OTHER,
+-- while FeeTypeEnum maps every value by name, so rows of those types could be neither written nor read.
+-- Renaming keeps existing rows and their values; the added values are not used in this transaction.
+
+ALTER TYPE fee_type RENAME VALUE 'ADMIN_FEE' TO 'ADMINISTRATION_FEE';
+ALTER TYPE fee_type RENAME VALUE 'LATE_FEE' TO 'LATE_PAYMENT_FEE';
+ALTER TYPE fee_type ADD VALUE IF NOT EXISTS 'VERIFICATION_FEE';
+ALTER TYPE fee_type ADD VALUE IF NOT EXISTS 'OTHER';
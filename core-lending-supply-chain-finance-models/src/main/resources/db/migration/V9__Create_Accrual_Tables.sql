@@ -0,0 +1,39 @@
+-- Interest accruals
+-- One row per open advance and accrual date, written by the daily accrual run.
+-- accrued_amount is the interest from the advance date through accrual_date at the agreement's interest rate (ACT/360);
+-- daily_amount is the part of it accrued on accrual_date.
+-- Each day's run checkpoints the (finance_type, advance_date, id) of the last advance written, so an interrupted run
+-- resumes after it.
+
+CREATE TABLE supply_chain_finance_accrual (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    advance_id UUID NOT NULL
+        REFERENCES supply_chain_finance_advance(id) ON DELETE CASCADE,
+    agreement_id UUID NOT NULL,
+    finance_type finance_type NOT NULL,
+    accrual_date DATE NOT NULL,
+    currency currency_code NOT NULL,
+    principal_amount DECIMAL(19,4) NOT NULL,
+    interest_rate DECIMAL(5,2) NOT NULL,
+    daily_amount DECIMAL(19,4) NOT NULL,
+    accrued_amount DECIMAL(19,4) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (advance_id, accrual_date)
+);
+
+CREATE INDEX idx_accrual_agreement_date ON supply_chain_finance_accrual(agreement_id, accrual_date);
+
+CREATE TABLE supply_chain_finance_accrual_run (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    accrual_date DATE NOT NULL UNIQUE,
+    last_finance_type VARCHAR(20),
+    last_advance_date DATE,
+    last_advance_id UUID,
+    accrual_count BIGINT NOT NULL DEFAULT 0,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+-- Open advances are read in this order and resumed from a checkpoint by seeking past it
+CREATE INDEX idx_advance_accrual_order ON supply_chain_finance_advance(finance_type, advance_date, id);
@@ -1,5 +1,6 @@
 package com.firefly.core.lending.supplychainfinance.web;
 
+import com.firefly.core.lending.supplychainfinance.models.repositories.BatchingR2dbcRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
@@ -9,7 +10,8 @@ import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
  * Unified implementation supporting both FACTORING and CONFIRMING.
  */
 @SpringBootApplication(scanBasePackages = "com.firefly.core.lending.supplychainfinance")
-@EnableR2dbcRepositories(basePackages = "com.firefly.core.lending.supplychainfinance.models.repositories")
+@EnableR2dbcRepositories(basePackages = "com.firefly.core.lending.supplychainfinance.models.repositories",
+        repositoryBaseClass = BatchingR2dbcRepository.class)
 public class SupplyChainFinanceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.firefly.core.lending.supplychainfinance.web.controllers;
+
+import com.firefly.core.lending.supplychainfinance.core.services.BulkLoadService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BulkLoadReportDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAdvanceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceInvoiceDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceSettlementDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/v1/supply-chain-finance/bulk-loads")
+@Tag(name = "BulkLoad", description = "COPY-based bulk loading of historical invoices, advances and settlements")
+@RequiredArgsConstructor
+public class BulkLoadController {
+
+    private final BulkLoadService service;
+
+    @PostMapping(value = "/invoices", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk load invoices", description = "Stream invoices as NDJSON into the invoice table with the PostgreSQL COPY protocol, in one transaction, rejecting invalid rows")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Invoices loaded; the report lists the rejected rows",
+                    content = @Content(schema = @Schema(implementation = BulkLoadReportDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed NDJSON body, or a row rejected by the database; nothing was loaded", content = @Content)
+    })
+    public Mono<ResponseEntity<BulkLoadReportDTO>> loadInvoices(
+            @Parameter(description = "Newline-delimited invoice data to load", required = true)
+            @RequestBody Flux<SupplyChainFinanceInvoiceDTO> invoices) {
+
+        return service.loadInvoices(invoices)
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
+    @PostMapping(value = "/advances", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk load advances", description = "Stream advances as NDJSON into the advance table with the PostgreSQL COPY protocol, in one transaction, rejecting invalid rows")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Advances loaded; the report lists the rejected rows",
+                    content = @Content(schema = @Schema(implementation = BulkLoadReportDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed NDJSON body, or a row rejected by the database; nothing was loaded", content = @Content)
+    })
+    public Mono<ResponseEntity<BulkLoadReportDTO>> loadAdvances(
+            @Parameter(description = "Newline-delimited advance data to load", required = true)
+            @RequestBody Flux<SupplyChainFinanceAdvanceDTO> advances) {
+
+        return service.loadAdvances(advances)
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
+    @PostMapping(value = "/settlements", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk load settlements", description = "Stream settlements as NDJSON into the settlement table with the PostgreSQL COPY protocol, in one transaction, rejecting invalid rows")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Settlements loaded; the report lists the rejected rows",
+                    content = @Content(schema = @Schema(implementation = BulkLoadReportDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed NDJSON body, or a row rejected by the database; nothing was loaded", content = @Content)
+    })
+    public Mono<ResponseEntity<BulkLoadReportDTO>> loadSettlements(
+            @Parameter(description = "Newline-delimited settlement data to load", required = true)
+            @RequestBody Flux<SupplyChainFinanceSettlementDTO> settlements) {
+
+        return service.loadSettlements(settlements)
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+}
@@ -21,6 +21,8 @@ import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.queries.PaginationResponse;
 import com.firefly.core.lending.supplychainfinance.core.services.CounterpartyService;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CounterpartyDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -30,8 +32,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -59,6 +63,21 @@ public class CounterpartyController {
                 .map(ResponseEntity::ok);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "List/Search counterparties by cursor", description = "Retrieve counterparties ordered by creation time using keyset pagination, without a total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved counterparties",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter request or cursor", content = @Content)
+    })
+    public Mono<ResponseEntity<CursorPageResponseDTO<CounterpartyDTO>>> findAllByCursor(
+            @Parameter(description = "Equality filters, continuation token and page size", required = true)
+            @Valid @RequestBody CursorPageRequestDTO<CounterpartyDTO> request) {
+
+        return service.findAllByCursor(request)
+                .map(ResponseEntity::ok);
+    }
+
     @PostMapping
     @Operation(summary = "Create a new counterparty", description = "Create a new counterparty in the system")
     @ApiResponses(value = {
@@ -107,6 +126,28 @@ public class CounterpartyController {
                 .map(ResponseEntity::ok);
     }
 
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially update a counterparty", description = "Change only the submitted fields of an existing counterparty. "
+            + "Absent or null fields are left unchanged, so a field cannot be cleared with PATCH (use PUT)"
+            + "; id, finance type and creation time cannot be patched")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Counterparty updated successfully"),
+            @ApiResponse(responseCode = "404", description = "Counterparty not found", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid counterparty data", content = @Content)
+    })
+    public Mono<ResponseEntity<Void>> patch(
+            @Parameter(description = "Unique identifier of the counterparty", required = true)
+            @PathVariable("id") UUID id,
+            @Parameter(description = "Fields of the counterparty to change", required = true)
+            @RequestBody CounterpartyDTO dto) {
+
+        return service.patch(id, dto)
+                .map(updated -> updated
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build())
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a counterparty", description = "Delete a counterparty from the system")
     @ApiResponses(value = {
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.firefly.core.lending.supplychainfinance.web.controllers;
+
+import com.firefly.core.lending.supplychainfinance.core.services.CounterpartyExposureService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CounterpartyExposureDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/supply-chain-finance/counterparties/{counterpartyId}/exposure")
+@Tag(name = "CounterpartyExposure", description = "Current exposure of counterparties against their approved limit")
+@RequiredArgsConstructor
+public class CounterpartyExposureController {
+
+    private final CounterpartyExposureService service;
+
+    @GetMapping
+    @Operation(summary = "Get the exposure of a counterparty",
+            description = "Advanced amount of the counterparty's open invoices against its approved limit, "
+                    + "optionally checking whether an additional amount fits; maintained per instance, so approximate "
+                    + "until the next recompute when several instances run")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved counterparty exposure",
+                    content = @Content(schema = @Schema(implementation = CounterpartyExposureDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Counterparty not found", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Exposure is still loading after startup or a currency has no FX rate", content = @Content)
+    })
+    public Mono<ResponseEntity<CounterpartyExposureDTO>> getExposure(
+            @Parameter(description = "Unique identifier of the counterparty", required = true)
+            @PathVariable("counterpartyId") UUID counterpartyId,
+            @Parameter(description = "Additional amount to check against the available limit")
+            @RequestParam(value = "amount", required = false) BigDecimal amount) {
+
+        return service.getExposure(counterpartyId, amount)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.firefly.core.lending.supplychainfinance.web.controllers;
+
+import com.firefly.core.lending.supplychainfinance.core.services.DisbursementService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.DisbursementBatchDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.DisbursementBatchRequestDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/supply-chain-finance/disbursements")
+@Tag(name = "Disbursement", description = "Batches of advances paid out through pain.001 payment files")
+@RequiredArgsConstructor
+public class DisbursementController {
+
+    private final DisbursementService service;
+
+    @PostMapping
+    @Operation(summary = "Create a disbursement batch",
+            description = "Claim the unpaid advances matching the selection, up to the batch maximum, by stamping the new batch reference onto them as their payment reference")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Batch created",
+                    content = @Content(schema = @Schema(implementation = DisbursementBatchDTO.class))),
+            @ApiResponse(responseCode = "204", description = "No unpaid advance matches the selection", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid selection", content = @Content)
+    })
+    public Mono<ResponseEntity<DisbursementBatchDTO>> createBatch(
+            @Parameter(description = "Agreement, finance type and latest advance date of the advances to pay out", required = true)
+            @Valid @RequestBody DisbursementBatchRequestDTO request) {
+
+        return service.createBatch(request)
+                .map(batch -> ResponseEntity.status(HttpStatus.CREATED).body(batch))
+                .defaultIfEmpty(ResponseEntity.noContent().build());
+    }
+
+    @GetMapping("/{reference}")
+    @Operation(summary = "Get a disbursement batch", description = "Payment count and amount per currency of the batch")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch found",
+                    content = @Content(schema = @Schema(implementation = DisbursementBatchDTO.class))),
+            @ApiResponse(responseCode = "404", description = "No advance carries the reference", content = @Content)
+    })
+    public Mono<ResponseEntity<DisbursementBatchDTO>> getBatch(
+            @Parameter(description = "Reference of the batch", required = true)
+            @PathVariable("reference") String reference) {
+
+        return service.getBatch(reference)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/{reference}/pain001", produces = MediaType.APPLICATION_XML_VALUE)
+    @Operation(summary = "Download the payment file of a disbursement batch",
+            description = "Stream the batch as an ISO 20022 pain.001.001.03 credit transfer initiation, one payment instruction per currency")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Payment file streamed successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_XML_VALUE)),
+            @ApiResponse(responseCode = "404", description = "No advance carries the reference", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Debtor account not configured", content = @Content)
+    })
+    public Mono<ResponseEntity<Flux<DataBuffer>>> paymentFile(
+            @Parameter(description = "Reference of the batch", required = true)
+            @PathVariable("reference") String reference,
+            @Parameter(description = "Requested execution date; today if absent")
+            @RequestParam(value = "executionDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate executionDate) {
+
+        return service.paymentFile(reference, executionDate != null ? executionDate : LocalDate.now())
+                .map(file -> ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                .filename(reference + ".xml")
+                                .build()
+                                .toString())
+                        .body(file))
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.lending.supplychainfinance.web.controllers;
+
+import com.firefly.core.lending.supplychainfinance.core.services.EarlyPaymentAllocationService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.EarlyPaymentAllocationDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.EarlyPaymentAllocationRequestDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/v1/supply-chain-finance/early-payments/allocations")
+@Tag(name = "EarlyPaymentAllocation", description = "Selection of confirmed invoices to pay early within a budget")
+@RequiredArgsConstructor
+public class EarlyPaymentAllocationController {
+
+    private final EarlyPaymentAllocationService service;
+
+    @PostMapping
+    @Operation(summary = "Allocate an early-payment budget",
+            description = "Choose the confirmed invoices of a confirming agreement to pay early, maximising discount and fees within the budget and supplier caps, and return them as priced advances; nothing is persisted")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully allocated the budget",
+                    content = @Content(schema = @Schema(implementation = EarlyPaymentAllocationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request or not a confirming agreement", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Agreement not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Agreement not active or without supplier early payment", content = @Content)
+    })
+    public Mono<ResponseEntity<EarlyPaymentAllocationDTO>> allocate(
+            @Parameter(description = "Agreement, budget, payment date and supplier caps", required = true)
+            @Valid @RequestBody EarlyPaymentAllocationRequestDTO request) {
+
+        return service.allocate(request)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e))
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e));
+    }
+}
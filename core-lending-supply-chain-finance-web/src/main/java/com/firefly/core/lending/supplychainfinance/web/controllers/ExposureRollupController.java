@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.firefly.core.lending.supplychainfinance.web.controllers;
+
+import com.firefly.core.lending.supplychainfinance.core.services.ExposureRollupService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.ExposureRollupDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.enums.CurrencyCodeEnum;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/supply-chain-finance")
+@Tag(name = "ExposureRollup", description = "Exposure per currency and converted to a reporting currency")
+@RequiredArgsConstructor
+public class ExposureRollupController {
+
+    private final ExposureRollupService service;
+
+    @GetMapping("/agreements/{agreementId}/exposure")
+    @Operation(summary = "Get the exposure of an agreement",
+            description = "Advanced amount of the agreement's open invoices per currency and converted to a reporting currency")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved agreement exposure",
+                    content = @Content(schema = @Schema(implementation = ExposureRollupDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Agreement not found", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Exposure is still loading or a currency has no FX rate", content = @Content)
+    })
+    public Mono<ResponseEntity<ExposureRollupDTO>> getAgreementExposure(
+            @Parameter(description = "Unique identifier of the agreement", required = true)
+            @PathVariable("agreementId") UUID agreementId,
+            @Parameter(description = "Reporting currency, defaults to the configured one")
+            @RequestParam(value = "currency", required = false) CurrencyCodeEnum currency) {
+
+        return service.getAgreementExposure(agreementId, currency)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e));
+    }
+
+    @GetMapping("/counterparties/{counterpartyId}/exposure/rollup")
+    @Operation(summary = "Get the exposure of a counterparty per currency",
+            description = "Advanced amount of the counterparty's open invoices per currency and converted to a reporting currency")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved counterparty exposure",
+                    content = @Content(schema = @Schema(implementation = ExposureRollupDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Counterparty not found", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Exposure is still loading or a currency has no FX rate", content = @Content)
+    })
+    public Mono<ResponseEntity<ExposureRollupDTO>> getCounterpartyExposure(
+            @Parameter(description = "Unique identifier of the counterparty", required = true)
+            @PathVariable("counterpartyId") UUID counterpartyId,
+            @Parameter(description = "Reporting currency, defaults to the configured one")
+            @RequestParam(value = "currency", required = false) CurrencyCodeEnum currency) {
+
+        return service.getCounterpartyExposure(counterpartyId, currency)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e));
+    }
+}
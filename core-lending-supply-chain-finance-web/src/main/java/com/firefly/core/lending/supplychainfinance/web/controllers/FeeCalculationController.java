@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.firefly.core.lending.supplychainfinance.web.controllers;
+
+import com.firefly.core.lending.supplychainfinance.core.services.FeeCalculationService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.FeeCalculationDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/supply-chain-finance/fees/calculations")
+@Tag(name = "FeeCalculation", description = "Fees charged on invoices and advances by their agreement's fee schedule")
+@RequiredArgsConstructor
+public class FeeCalculationController {
+
+    private final FeeCalculationService service;
+
+    @GetMapping("/invoices/{invoiceId}")
+    @Operation(summary = "Calculate the fees of an invoice",
+            description = "Collection fee, and late payment fee once the invoice is past due, on the invoice amount")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully calculated invoice fees",
+                    content = @Content(schema = @Schema(implementation = FeeCalculationDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Invoice not found", content = @Content)
+    })
+    public Mono<ResponseEntity<FeeCalculationDTO>> calculateForInvoice(
+            @Parameter(description = "Unique identifier of the invoice", required = true)
+            @PathVariable("invoiceId") UUID invoiceId) {
+
+        return service.calculateForInvoice(invoiceId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/advances/{advanceId}")
+    @Operation(summary = "Calculate the fees of an advance",
+            description = "Fees deducted when the advance is paid out, on the advance amount")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully calculated advance fees",
+                    content = @Content(schema = @Schema(implementation = FeeCalculationDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Advance not found", content = @Content)
+    })
+    public Mono<ResponseEntity<FeeCalculationDTO>> calculateForAdvance(
+            @Parameter(description = "Unique identifier of the advance", required = true)
+            @PathVariable("advanceId") UUID advanceId) {
+
+        return service.calculateForAdvance(advanceId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.firefly.core.lending.supplychainfinance.web.controllers;
+
+import com.firefly.core.lending.supplychainfinance.core.services.FxRateService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.FxRateSnapshotDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/v1/supply-chain-finance/fx-rates")
+@Tag(name = "FxRate", description = "FX rates used to convert exposure across currencies")
+@RequiredArgsConstructor
+public class FxRateController {
+
+    private final FxRateService service;
+
+    @GetMapping
+    @Operation(summary = "Get the current FX rates", description = "Retrieve the FX rate version currently in use, quoted against EUR")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved FX rates",
+                    content = @Content(schema = @Schema(implementation = FxRateSnapshotDTO.class)))
+    })
+    public Mono<ResponseEntity<FxRateSnapshotDTO>> getCurrent() {
+        return service.getCurrent()
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping
+    @Operation(summary = "Publish FX rates",
+            description = "Publish a new FX rate version; currencies not included keep their current rate")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "FX rates published successfully",
+                    content = @Content(schema = @Schema(implementation = FxRateSnapshotDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid FX rates", content = @Content)
+    })
+    public Mono<ResponseEntity<FxRateSnapshotDTO>> publish(
+            @Parameter(description = "Value of one unit of each changed currency in EUR", required = true)
+            @Valid @RequestBody FxRateSnapshotDTO dto) {
+
+        return service.publish(dto)
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+}
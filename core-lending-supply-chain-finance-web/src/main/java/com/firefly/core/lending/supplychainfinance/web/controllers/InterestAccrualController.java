@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.firefly.core.lending.supplychainfinance.web.controllers;
+
+import com.firefly.core.lending.supplychainfinance.core.services.InterestAccrualService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAccrualDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAccrualRunDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/supply-chain-finance/accruals")
+@Tag(name = "InterestAccrual", description = "Daily interest accrued on open advances")
+@RequiredArgsConstructor
+public class InterestAccrualController {
+
+    private final InterestAccrualService service;
+
+    @PostMapping("/runs/{accrualDate}")
+    @Operation(summary = "Start or resume an accrual run",
+            description = "Accrue interest on every open advance as of the date in the background, resuming from the run's checkpoint if it was interrupted")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Run started, resumed or already completed",
+                    content = @Content(schema = @Schema(implementation = SupplyChainFinanceAccrualRunDTO.class))),
+            @ApiResponse(responseCode = "409", description = "An accrual run is already in progress", content = @Content)
+    })
+    public Mono<ResponseEntity<SupplyChainFinanceAccrualRunDTO>> startRun(
+            @Parameter(description = "Date interest is accrued as of", required = true)
+            @PathVariable("accrualDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate accrualDate) {
+
+        return service.startRun(accrualDate)
+                .map(run -> ResponseEntity.status(HttpStatus.ACCEPTED).body(run))
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e));
+    }
+
+    @GetMapping("/runs/{accrualDate}")
+    @Operation(summary = "Get the progress of an accrual run", description = "Checkpoint, number of accruals written and completion time of the date's run")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Run found",
+                    content = @Content(schema = @Schema(implementation = SupplyChainFinanceAccrualRunDTO.class))),
+            @ApiResponse(responseCode = "404", description = "No run for the date", content = @Content)
+    })
+    public Mono<ResponseEntity<SupplyChainFinanceAccrualRunDTO>> getRun(
+            @Parameter(description = "Date interest is accrued as of", required = true)
+            @PathVariable("accrualDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate accrualDate) {
+
+        return service.getRun(accrualDate)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/advances/{advanceId}")
+    @Operation(summary = "List the accruals of an advance", description = "Daily and cumulative interest accrued on the advance, by accrual date")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved accruals",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = SupplyChainFinanceAccrualDTO.class))))
+    })
+    public ResponseEntity<Flux<SupplyChainFinanceAccrualDTO>> findByAdvanceId(
+            @Parameter(description = "Unique identifier of the advance", required = true)
+            @PathVariable("advanceId") UUID advanceId) {
+
+        return ResponseEntity.ok(service.findByAdvanceId(advanceId));
+    }
+}
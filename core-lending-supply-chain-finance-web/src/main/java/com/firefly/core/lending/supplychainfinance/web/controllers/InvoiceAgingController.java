@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.firefly.core.lending.supplychainfinance.web.controllers;
+
+import com.firefly.core.lending.supplychainfinance.core.services.InvoiceAgingService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.InvoiceAgingDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/supply-chain-finance/agreements/{agreementId}/aging")
+@Tag(name = "InvoiceAging", description = "Aging buckets of open supply chain finance invoices")
+@RequiredArgsConstructor
+public class InvoiceAgingController {
+
+    private final InvoiceAgingService service;
+
+    @GetMapping
+    @Operation(summary = "Get the invoice aging of an agreement",
+            description = "Outstanding amount of open invoices per counterparty and currency, split into current, "
+                    + "1-30, 31-60, 61-90 and over 90 days past due")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved invoice aging",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = InvoiceAgingDTO.class))))
+    })
+    public Mono<ResponseEntity<List<InvoiceAgingDTO>>> getAging(
+            @Parameter(description = "Unique identifier of the agreement", required = true)
+            @PathVariable("agreementId") UUID agreementId,
+            @Parameter(description = "Restrict the result to one counterparty")
+            @RequestParam(value = "counterpartyId", required = false) UUID counterpartyId) {
+
+        return service.getAging(agreementId, counterpartyId)
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.firefly.core.lending.supplychainfinance.web.controllers;
+
+import com.firefly.core.lending.supplychainfinance.core.services.LimitReservationService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.LimitReservationDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.LimitReservationRequestDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/supply-chain-finance/agreements/{agreementId}/limit-reservations")
+@Tag(name = "LimitReservation", description = "Reservations against the credit limit of supply chain finance agreements")
+@RequiredArgsConstructor
+public class LimitReservationController {
+
+    private final LimitReservationService service;
+
+    @PostMapping
+    @Operation(summary = "Reserve credit limit", description = "Reserve part of the available credit limit of an active agreement")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Limit reserved successfully",
+                    content = @Content(schema = @Schema(implementation = LimitReservationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid reservation request", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Agreement not active or not enough available limit", content = @Content)
+    })
+    public Mono<ResponseEntity<LimitReservationDTO>> reserve(
+            @Parameter(description = "Unique identifier of the agreement", required = true)
+            @PathVariable("agreementId") UUID agreementId,
+            @Parameter(description = "Amount to reserve and optional time to live", required = true)
+            @Valid @RequestBody LimitReservationRequestDTO request) {
+
+        return service.reserve(agreementId, request)
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e));
+    }
+
+    @GetMapping("/{reservationId}")
+    @Operation(summary = "Get a limit reservation", description = "Retrieve a reservation that is still held")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation found",
+                    content = @Content(schema = @Schema(implementation = LimitReservationDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Reservation not held on this agreement", content = @Content)
+    })
+    public Mono<ResponseEntity<LimitReservationDTO>> getById(
+            @Parameter(description = "Unique identifier of the agreement", required = true)
+            @PathVariable("agreementId") UUID agreementId,
+            @Parameter(description = "Unique identifier of the reservation", required = true)
+            @PathVariable("reservationId") UUID reservationId) {
+
+        return service.getById(agreementId, reservationId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{reservationId}/commit")
+    @Operation(summary = "Commit a limit reservation", description = "Add the reserved amount to the agreement's outstanding amount")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation committed successfully",
+                    content = @Content(schema = @Schema(implementation = LimitReservationDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Reservation not held on this agreement", content = @Content),
+            @ApiResponse(responseCode = "409", description = "The limit the reservation was taken from has been returned to the agreement", content = @Content)
+    })
+    public Mono<ResponseEntity<LimitReservationDTO>> commit(
+            @Parameter(description = "Unique identifier of the agreement", required = true)
+            @PathVariable("agreementId") UUID agreementId,
+            @Parameter(description = "Unique identifier of the reservation", required = true)
+            @PathVariable("reservationId") UUID reservationId) {
+
+        return service.commit(agreementId, reservationId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e));
+    }
+
+    @PostMapping("/{reservationId}/release")
+    @Operation(summary = "Release a limit reservation", description = "Make the reserved amount available again")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation released successfully",
+                    content = @Content(schema = @Schema(implementation = LimitReservationDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Reservation not held on this agreement", content = @Content)
+    })
+    public Mono<ResponseEntity<LimitReservationDTO>> release(
+            @Parameter(description = "Unique identifier of the agreement", required = true)
+            @PathVariable("agreementId") UUID agreementId,
+            @Parameter(description = "Unique identifier of the reservation", required = true)
+            @PathVariable("reservationId") UUID reservationId) {
+
+        return service.release(agreementId, reservationId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
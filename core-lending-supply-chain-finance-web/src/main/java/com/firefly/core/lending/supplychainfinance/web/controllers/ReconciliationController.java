@@ -0,0 +1,64 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.firefly.core.lending.supplychainfinance.web.controllers;
+
+import com.firefly.core.lending.supplychainfinance.core.services.ReconciliationService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BankReceiptDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.ReceiptMatchDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/supply-chain-finance/reconciliations")
+@Tag(name = "Reconciliation", description = "Matching of bank receipts to open invoices")
+@RequiredArgsConstructor
+public class ReconciliationController {
+
+    private final ReconciliationService service;
+
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Reconcile a day's bank receipts",
+            description = "Match NDJSON bank receipts to open invoices, exactly by invoice number and amount or fuzzily by number within tolerance or payer and amount, and write a settlement for every confirmed match; one result per receipt is streamed back as NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Receipts reconciled; each result carries the settled invoice or the reason the receipt was not matched",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ReceiptMatchDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Too many receipts", content = @Content)
+    })
+    public ResponseEntity<Flux<ReceiptMatchDTO>> reconcile(
+            @Parameter(description = "Agreement whose invoices the receipts may pay; all agreements if absent")
+            @RequestParam(value = "agreementId", required = false) UUID agreementId,
+            @Parameter(description = "Bank receipts, one JSON object per line", required = true)
+            @RequestBody Flux<BankReceiptDTO> receipts) {
+
+        return ResponseEntity.ok(service.reconcile(receipts, agreementId)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e)));
+    }
+}
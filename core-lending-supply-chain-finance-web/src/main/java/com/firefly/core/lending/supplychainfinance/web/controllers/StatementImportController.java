@@ -0,0 +1,64 @@
+/*
+ * Copyright 2025 Firefly Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.firefly.core.lending.supplychainfinance.web.controllers;
+
+import com.firefly.core.lending.supplychainfinance.core.services.StatementImportService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.ReceiptMatchDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/supply-chain-finance/statements")
+@Tag(name = "StatementImport", description = "Import of camt.053 bank statements")
+@RequiredArgsConstructor
+public class StatementImportController {
+
+    private final StatementImportService service;
+
+    @PostMapping(consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import a camt.053 bank statement",
+            description = "Parse the statement as it is uploaded and reconcile its booked credit entries against open invoices, writing a settlement for every confirmed match; one result per credit entry is streamed back as NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statement imported; each result carries the settled invoice or the reason the entry was not matched",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ReceiptMatchDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed statement", content = @Content)
+    })
+    public ResponseEntity<Flux<ReceiptMatchDTO>> importStatement(
+            @Parameter(description = "Agreement whose invoices the entries may pay; all agreements if absent")
+            @RequestParam(value = "agreementId", required = false) UUID agreementId,
+            @Parameter(description = "camt.053 bank to customer statement", required = true)
+            @RequestBody Flux<DataBuffer> statement) {
+
+        return ResponseEntity.ok(service.importStatement(statement, agreementId)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e)));
+    }
+}
@@ -20,6 +20,10 @@ package com.firefly.core.lending.supplychainfinance.web.controllers;
 import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.queries.PaginationResponse;
 import com.firefly.core.lending.supplychainfinance.core.services.SupplyChainFinanceAdvanceService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.AdvanceQuoteDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.AdvanceQuoteRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAdvanceDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,8 +34,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -59,19 +69,83 @@ public class SupplyChainFinanceAdvanceController {
                 .map(ResponseEntity::ok);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "List/Search supply chain finance advances by cursor", description = "Retrieve advances ordered by creation time using keyset pagination, without a total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved advances",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter request or cursor", content = @Content)
+    })
+    public Mono<ResponseEntity<CursorPageResponseDTO<SupplyChainFinanceAdvanceDTO>>> findAllByCursor(
+            @Parameter(description = "Equality filters, continuation token and page size", required = true)
+            @Valid @RequestBody CursorPageRequestDTO<SupplyChainFinanceAdvanceDTO> request) {
+
+        return service.findAllByCursor(request)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export the advances of an agreement as NDJSON", description = "Stream every advance of an agreement as newline-delimited JSON, read from the database with backpressure. The export runs in one read-only transaction, so it holds a pooled database connection until the download completes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Advances streamed successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = SupplyChainFinanceAdvanceDTO.class)))
+    })
+    public ResponseEntity<Flux<SupplyChainFinanceAdvanceDTO>> export(
+            @Parameter(description = "Unique identifier of the agreement", required = true)
+            @RequestParam("agreementId") UUID agreementId) {
+
+        return ResponseEntity.ok(service.exportByAgreement(agreementId));
+    }
+
+    @GetMapping(value = "/export", produces = "text/csv")
+    @Operation(summary = "Export the advances of an agreement as CSV", description = "Stream every advance of an agreement as a CSV file, read from the database with backpressure. The export runs in one read-only transaction, so it holds a pooled database connection until the download completes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Advances streamed successfully",
+                    content = @Content(mediaType = "text/csv"))
+    })
+    public ResponseEntity<Flux<String>> exportCsv(
+            @Parameter(description = "Unique identifier of the agreement", required = true)
+            @RequestParam("agreementId") UUID agreementId) {
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("advances-" + agreementId + ".csv")
+                        .build()
+                        .toString())
+                .body(service.exportByAgreementAsCsv(agreementId));
+    }
+
+    @PostMapping(value = "/quotes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Quote advances on a batch of invoices", description = "Price an advance on each invoice as it would be created on the advance date, streaming one quote per invoice as NDJSON; nothing is persisted")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Invoices quoted; each quote carries the price or the reason the invoice cannot be advanced",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = AdvanceQuoteDTO.class))),
+            @ApiResponse(responseCode = "400", description = "No invoices or too many invoices", content = @Content)
+    })
+    public ResponseEntity<Flux<AdvanceQuoteDTO>> quote(
+            @Parameter(description = "Invoices to quote and advance date", required = true)
+            @Valid @RequestBody AdvanceQuoteRequestDTO request) {
+
+        return ResponseEntity.ok(service.quote(request)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e)));
+    }
+
     @PostMapping
     @Operation(summary = "Create a new supply chain finance advance", description = "Create a new advance in the system")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Advance created successfully",
                     content = @Content(schema = @Schema(implementation = SupplyChainFinanceAdvanceDTO.class))),
-            @ApiResponse(responseCode = "400", description = "Invalid advance data", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Invalid advance data", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Agreement not active or without enough available limit", content = @Content)
     })
     public Mono<ResponseEntity<SupplyChainFinanceAdvanceDTO>> create(
             @Parameter(description = "Advance data to create", required = true)
             @Valid @RequestBody SupplyChainFinanceAdvanceDTO dto) {
 
         return service.create(dto)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e))
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e));
     }
 
     @GetMapping("/{id}")
@@ -104,7 +178,30 @@ public class SupplyChainFinanceAdvanceController {
             @Valid @RequestBody SupplyChainFinanceAdvanceDTO dto) {
 
         return service.update(id, dto)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially update a supply chain finance advance", description = "Change only the submitted fields of an existing advance. "
+            + "Absent or null fields are left unchanged, so a field cannot be cleared with PATCH (use PUT)"
+            + "; id, finance type and creation time cannot be patched")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Advance updated successfully"),
+            @ApiResponse(responseCode = "404", description = "Advance not found", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid advance data", content = @Content)
+    })
+    public Mono<ResponseEntity<Void>> patch(
+            @Parameter(description = "Unique identifier of the advance", required = true)
+            @PathVariable("id") UUID id,
+            @Parameter(description = "Fields of the advance to change", required = true)
+            @RequestBody SupplyChainFinanceAdvanceDTO dto) {
+
+        return service.patch(id, dto)
+                .map(updated -> updated
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build())
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
     }
 
     @DeleteMapping("/{id}")
@@ -20,6 +20,8 @@ package com.firefly.core.lending.supplychainfinance.web.controllers;
 import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.queries.PaginationResponse;
 import com.firefly.core.lending.supplychainfinance.core.services.SupplyChainFinanceAgreementService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceAgreementDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,8 +32,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -59,6 +63,21 @@ public class SupplyChainFinanceAgreementController {
                 .map(ResponseEntity::ok);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "List/Search supply chain finance agreements by cursor", description = "Retrieve agreements ordered by creation time using keyset pagination, without a total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved agreements",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter request or cursor", content = @Content)
+    })
+    public Mono<ResponseEntity<CursorPageResponseDTO<SupplyChainFinanceAgreementDTO>>> findAllByCursor(
+            @Parameter(description = "Equality filters, continuation token and page size", required = true)
+            @Valid @RequestBody CursorPageRequestDTO<SupplyChainFinanceAgreementDTO> request) {
+
+        return service.findAllByCursor(request)
+                .map(ResponseEntity::ok);
+    }
+
     @PostMapping
     @Operation(summary = "Create a new supply chain finance agreement", description = "Create a new supply chain finance agreement in the system")
     @ApiResponses(value = {
@@ -71,7 +90,8 @@ public class SupplyChainFinanceAgreementController {
             @Valid @RequestBody SupplyChainFinanceAgreementDTO dto) {
 
         return service.create(dto)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
     }
 
     @GetMapping("/{id}")
@@ -89,6 +109,22 @@ public class SupplyChainFinanceAgreementController {
                 .map(ResponseEntity::ok);
     }
 
+    @GetMapping("/by-number/{agreementNumber}")
+    @Operation(summary = "Get a supply chain finance agreement by agreement number", description = "Retrieve a specific agreement by its agreement number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Agreement found",
+                    content = @Content(schema = @Schema(implementation = SupplyChainFinanceAgreementDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Agreement not found", content = @Content)
+    })
+    public Mono<ResponseEntity<SupplyChainFinanceAgreementDTO>> getByAgreementNumber(
+            @Parameter(description = "Agreement number of the agreement", required = true)
+            @PathVariable("agreementNumber") String agreementNumber) {
+
+        return service.getByAgreementNumber(agreementNumber)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing supply chain finance agreement", description = "Update the details of an existing agreement")
     @ApiResponses(value = {
@@ -104,7 +140,30 @@ public class SupplyChainFinanceAgreementController {
             @Valid @RequestBody SupplyChainFinanceAgreementDTO dto) {
 
         return service.update(id, dto)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially update a supply chain finance agreement", description = "Change only the submitted fields of an existing agreement. "
+            + "Absent or null fields are left unchanged, so a field cannot be cleared with PATCH (use PUT)"
+            + "; id, finance type and creation time cannot be patched, nor can the limits, which limit reservations maintain")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Agreement updated successfully"),
+            @ApiResponse(responseCode = "404", description = "Agreement not found", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid agreement data", content = @Content)
+    })
+    public Mono<ResponseEntity<Void>> patch(
+            @Parameter(description = "Unique identifier of the agreement", required = true)
+            @PathVariable("id") UUID id,
+            @Parameter(description = "Fields of the agreement to change", required = true)
+            @RequestBody SupplyChainFinanceAgreementDTO dto) {
+
+        return service.patch(id, dto)
+                .map(updated -> updated
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build())
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
     }
 
     @DeleteMapping("/{id}")
@@ -20,6 +20,8 @@ package com.firefly.core.lending.supplychainfinance.web.controllers;
 import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.queries.PaginationResponse;
 import com.firefly.core.lending.supplychainfinance.core.services.SupplyChainFinanceFeeService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceFeeDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,8 +32,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -59,6 +63,21 @@ public class SupplyChainFinanceFeeController {
                 .map(ResponseEntity::ok);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "List/Search supply chain finance fees by cursor", description = "Retrieve fees ordered by creation time using keyset pagination, without a total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved fees",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter request or cursor", content = @Content)
+    })
+    public Mono<ResponseEntity<CursorPageResponseDTO<SupplyChainFinanceFeeDTO>>> findAllByCursor(
+            @Parameter(description = "Equality filters, continuation token and page size", required = true)
+            @Valid @RequestBody CursorPageRequestDTO<SupplyChainFinanceFeeDTO> request) {
+
+        return service.findAllByCursor(request)
+                .map(ResponseEntity::ok);
+    }
+
     @PostMapping
     @Operation(summary = "Create a new supply chain finance fee", description = "Create a new fee in the system")
     @ApiResponses(value = {
@@ -107,6 +126,28 @@ public class SupplyChainFinanceFeeController {
                 .map(ResponseEntity::ok);
     }
 
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially update a supply chain finance fee", description = "Change only the submitted fields of an existing fee. "
+            + "Absent or null fields are left unchanged, so a field cannot be cleared with PATCH (use PUT)"
+            + "; id, finance type and creation time cannot be patched")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Fee updated successfully"),
+            @ApiResponse(responseCode = "404", description = "Fee not found", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid fee data", content = @Content)
+    })
+    public Mono<ResponseEntity<Void>> patch(
+            @Parameter(description = "Unique identifier of the fee", required = true)
+            @PathVariable("id") UUID id,
+            @Parameter(description = "Fields of the fee to change", required = true)
+            @RequestBody SupplyChainFinanceFeeDTO dto) {
+
+        return service.patch(id, dto)
+                .map(updated -> updated
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build())
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a supply chain finance fee", description = "Delete a fee from the system")
     @ApiResponses(value = {
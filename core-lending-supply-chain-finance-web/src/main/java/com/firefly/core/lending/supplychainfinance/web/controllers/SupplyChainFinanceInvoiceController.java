@@ -20,6 +20,10 @@ package com.firefly.core.lending.supplychainfinance.web.controllers;
 import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.queries.PaginationResponse;
 import com.firefly.core.lending.supplychainfinance.core.services.SupplyChainFinanceInvoiceService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BulkItemResultDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.InvoiceStatusTransitionDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceInvoiceDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,8 +34,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -59,6 +69,52 @@ public class SupplyChainFinanceInvoiceController {
                 .map(ResponseEntity::ok);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "List/Search supply chain finance invoices by cursor", description = "Retrieve invoices ordered by creation time using keyset pagination, without a total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved invoices",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter request or cursor", content = @Content)
+    })
+    public Mono<ResponseEntity<CursorPageResponseDTO<SupplyChainFinanceInvoiceDTO>>> findAllByCursor(
+            @Parameter(description = "Equality filters, continuation token and page size", required = true)
+            @Valid @RequestBody CursorPageRequestDTO<SupplyChainFinanceInvoiceDTO> request) {
+
+        return service.findAllByCursor(request)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export the invoices of an agreement as NDJSON", description = "Stream every invoice of an agreement as newline-delimited JSON, read from the database with backpressure. The export runs in one read-only transaction, so it holds a pooled database connection until the download completes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Invoices streamed successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = SupplyChainFinanceInvoiceDTO.class)))
+    })
+    public ResponseEntity<Flux<SupplyChainFinanceInvoiceDTO>> export(
+            @Parameter(description = "Unique identifier of the agreement", required = true)
+            @RequestParam("agreementId") UUID agreementId) {
+
+        return ResponseEntity.ok(service.exportByAgreement(agreementId));
+    }
+
+    @GetMapping(value = "/export", produces = "text/csv")
+    @Operation(summary = "Export the invoices of an agreement as CSV", description = "Stream every invoice of an agreement as a CSV file, read from the database with backpressure. The export runs in one read-only transaction, so it holds a pooled database connection until the download completes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Invoices streamed successfully",
+                    content = @Content(mediaType = "text/csv"))
+    })
+    public ResponseEntity<Flux<String>> exportCsv(
+            @Parameter(description = "Unique identifier of the agreement", required = true)
+            @RequestParam("agreementId") UUID agreementId) {
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("invoices-" + agreementId + ".csv")
+                        .build()
+                        .toString())
+                .body(service.exportByAgreementAsCsv(agreementId));
+    }
+
     @PostMapping
     @Operation(summary = "Create a new supply chain finance invoice", description = "Create a new invoice in the system")
     @ApiResponses(value = {
@@ -71,7 +127,22 @@ public class SupplyChainFinanceInvoiceController {
             @Valid @RequestBody SupplyChainFinanceInvoiceDTO dto) {
 
         return service.create(dto)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk create supply chain finance invoices", description = "Stream invoices as NDJSON and insert them in batches, returning one result per row")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Invoices processed; each result carries the created ID or the row error",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = BulkItemResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed NDJSON body", content = @Content)
+    })
+    public ResponseEntity<Flux<BulkItemResultDTO>> bulkCreate(
+            @Parameter(description = "Newline-delimited invoice data to create", required = true)
+            @RequestBody Flux<SupplyChainFinanceInvoiceDTO> invoices) {
+
+        return ResponseEntity.ok(service.bulkCreate(invoices));
     }
 
     @GetMapping("/{id}")
@@ -104,7 +175,54 @@ public class SupplyChainFinanceInvoiceController {
             @Valid @RequestBody SupplyChainFinanceInvoiceDTO dto) {
 
         return service.update(id, dto)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
+    @PostMapping("/{id}/status-transitions")
+    @Operation(summary = "Transition the status of a supply chain finance invoice",
+            description = "Move an invoice to a new status. The transition must be legal for the invoice's finance type "
+                    + "and is applied only if the invoice is still in the expected status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Invoice status changed successfully",
+                    content = @Content(schema = @Schema(implementation = SupplyChainFinanceInvoiceDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Invoice not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Illegal transition or invoice no longer in the expected status",
+                    content = @Content)
+    })
+    public Mono<ResponseEntity<SupplyChainFinanceInvoiceDTO>> transitionStatus(
+            @Parameter(description = "Unique identifier of the invoice", required = true)
+            @PathVariable("id") UUID id,
+            @Parameter(description = "Expected current status and target status", required = true)
+            @Valid @RequestBody InvoiceStatusTransitionDTO transition) {
+
+        return service.transitionStatus(id, transition)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e));
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially update a supply chain finance invoice", description = "Change only the submitted fields of an existing invoice. "
+            + "Absent or null fields are left unchanged, so a field cannot be cleared with PATCH (use PUT)"
+            + "; id, finance type and creation time cannot be patched"
+            + "; status changes go through the status transition endpoint")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Invoice updated successfully"),
+            @ApiResponse(responseCode = "404", description = "Invoice not found", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid invoice data", content = @Content)
+    })
+    public Mono<ResponseEntity<Void>> patch(
+            @Parameter(description = "Unique identifier of the invoice", required = true)
+            @PathVariable("id") UUID id,
+            @Parameter(description = "Fields of the invoice to change", required = true)
+            @RequestBody SupplyChainFinanceInvoiceDTO dto) {
+
+        return service.patch(id, dto)
+                .map(updated -> updated
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build())
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
     }
 
     @DeleteMapping("/{id}")
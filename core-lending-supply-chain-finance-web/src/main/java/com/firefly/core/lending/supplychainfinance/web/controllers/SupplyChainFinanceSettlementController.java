@@ -20,6 +20,9 @@ package com.firefly.core.lending.supplychainfinance.web.controllers;
 import org.fireflyframework.core.filters.FilterRequest;
 import org.fireflyframework.core.queries.PaginationResponse;
 import com.firefly.core.lending.supplychainfinance.core.services.SupplyChainFinanceSettlementService;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.BulkItemResultDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageRequestDTO;
+import com.firefly.core.lending.supplychainfinance.interfaces.dtos.CursorPageResponseDTO;
 import com.firefly.core.lending.supplychainfinance.interfaces.dtos.SupplyChainFinanceSettlementDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,8 +33,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -59,19 +68,98 @@ public class SupplyChainFinanceSettlementController {
                 .map(ResponseEntity::ok);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "List/Search supply chain finance settlements by cursor", description = "Retrieve settlements ordered by creation time using keyset pagination, without a total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved settlements",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter request or cursor", content = @Content)
+    })
+    public Mono<ResponseEntity<CursorPageResponseDTO<SupplyChainFinanceSettlementDTO>>> findAllByCursor(
+            @Parameter(description = "Equality filters, continuation token and page size", required = true)
+            @Valid @RequestBody CursorPageRequestDTO<SupplyChainFinanceSettlementDTO> request) {
+
+        return service.findAllByCursor(request)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export the settlements of an agreement as NDJSON", description = "Stream every settlement of an agreement as newline-delimited JSON, read from the database with backpressure. The export runs in one read-only transaction, so it holds a pooled database connection until the download completes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Settlements streamed successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = SupplyChainFinanceSettlementDTO.class)))
+    })
+    public ResponseEntity<Flux<SupplyChainFinanceSettlementDTO>> export(
+            @Parameter(description = "Unique identifier of the agreement", required = true)
+            @RequestParam("agreementId") UUID agreementId) {
+
+        return ResponseEntity.ok(service.exportByAgreement(agreementId));
+    }
+
+    @GetMapping(value = "/export", produces = "text/csv")
+    @Operation(summary = "Export the settlements of an agreement as CSV", description = "Stream every settlement of an agreement as a CSV file, read from the database with backpressure. The export runs in one read-only transaction, so it holds a pooled database connection until the download completes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Settlements streamed successfully",
+                    content = @Content(mediaType = "text/csv"))
+    })
+    public ResponseEntity<Flux<String>> exportCsv(
+            @Parameter(description = "Unique identifier of the agreement", required = true)
+            @RequestParam("agreementId") UUID agreementId) {
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("settlements-" + agreementId + ".csv")
+                        .build()
+                        .toString())
+                .body(service.exportByAgreementAsCsv(agreementId));
+    }
+
     @PostMapping
     @Operation(summary = "Create a new supply chain finance settlement", description = "Create a new settlement in the system")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Settlement created successfully",
                     content = @Content(schema = @Schema(implementation = SupplyChainFinanceSettlementDTO.class))),
-            @ApiResponse(responseCode = "400", description = "Invalid settlement data", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Invalid settlement data", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Payment reference already recorded against the invoice", content = @Content)
     })
     public Mono<ResponseEntity<SupplyChainFinanceSettlementDTO>> create(
             @Parameter(description = "Settlement data to create", required = true)
             @Valid @RequestBody SupplyChainFinanceSettlementDTO dto) {
 
         return service.create(dto)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e))
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e));
+    }
+
+    @PostMapping("/waterfall")
+    @Operation(summary = "Calculate a settlement waterfall", description = "Derive the advanced, interest and fee amounts and balance due of a settlement from the invoice's advances, accrued interest and agreement fees, without persisting it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Waterfall calculated",
+                    content = @Content(schema = @Schema(implementation = SupplyChainFinanceSettlementDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid settlement data, or invoice or agreement not found", content = @Content)
+    })
+    public Mono<ResponseEntity<SupplyChainFinanceSettlementDTO>> calculate(
+            @Parameter(description = "Settlement to calculate the waterfall of", required = true)
+            @Valid @RequestBody SupplyChainFinanceSettlementDTO dto) {
+
+        return service.calculate(dto)
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk create supply chain finance settlements", description = "Stream settlements as NDJSON, derive their waterfalls and insert them in batches, returning one result per row")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Settlements processed; each result carries the created ID or the row error",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = BulkItemResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed NDJSON body", content = @Content)
+    })
+    public ResponseEntity<Flux<BulkItemResultDTO>> bulkCreate(
+            @Parameter(description = "Newline-delimited settlement data to create", required = true)
+            @RequestBody Flux<SupplyChainFinanceSettlementDTO> settlements) {
+
+        return ResponseEntity.ok(service.bulkCreate(settlements));
     }
 
     @GetMapping("/{id}")
@@ -95,7 +183,8 @@ public class SupplyChainFinanceSettlementController {
             @ApiResponse(responseCode = "200", description = "Settlement updated successfully",
                     content = @Content(schema = @Schema(implementation = SupplyChainFinanceSettlementDTO.class))),
             @ApiResponse(responseCode = "404", description = "Settlement not found", content = @Content),
-            @ApiResponse(responseCode = "400", description = "Invalid settlement data", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Invalid settlement data", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Payment reference already recorded against the invoice by another settlement", content = @Content)
     })
     public Mono<ResponseEntity<SupplyChainFinanceSettlementDTO>> update(
             @Parameter(description = "Unique identifier of the settlement", required = true)
@@ -104,7 +193,32 @@ public class SupplyChainFinanceSettlementController {
             @Valid @RequestBody SupplyChainFinanceSettlementDTO dto) {
 
         return service.update(id, dto)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e));
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially update a supply chain finance settlement", description = "Change only the submitted fields of an existing settlement. "
+            + "Absent or null fields are left unchanged, so a field cannot be cleared with PATCH (use PUT)"
+            + "; id, finance type and creation time cannot be patched")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Settlement updated successfully"),
+            @ApiResponse(responseCode = "404", description = "Settlement not found", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid settlement data", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Payment reference already recorded against the invoice by another settlement", content = @Content)
+    })
+    public Mono<ResponseEntity<Void>> patch(
+            @Parameter(description = "Unique identifier of the settlement", required = true)
+            @PathVariable("id") UUID id,
+            @Parameter(description = "Fields of the settlement to change", required = true)
+            @RequestBody SupplyChainFinanceSettlementDTO dto) {
+
+        return service.patch(id, dto)
+                .map(updated -> updated
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build())
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e))
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e));
     }
 
     @DeleteMapping("/{id}")